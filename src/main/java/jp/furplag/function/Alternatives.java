@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * cheap decaying counters which decide the order to try alternatives in .
+ *
+ * <p>counters are updated without any synchronization, so that some updates may be lost under contention .
+ * that is acceptable, they are only a heuristic . alternatives which have never been tried keep their position,
+ * since their counters tell nothing about them . once in {@link #EXPLORATION} calls, another alternative is tried first,
+ * so that an alternative which has been demoted may regain its position if it recovers .</p>
+ *
+ * @author furplag
+ *
+ */
+final class Alternatives {
+
+  /** the number of attempts between reordering . */
+  static final int INTERVAL = 64;
+
+  /** the number of calls between exploring, which tries another alternative first . */
+  static final int EXPLORATION = INTERVAL << 3;
+
+  /** the weight of a success, in fixed-point . */
+  private static final int WEIGHT = 1 << 16;
+
+  /** decaying success score per alternative . */
+  private final int[] scores;
+
+  /** decaying mean of the elapsed nanos per alternative . */
+  private final int[] costs;
+
+  /** whether each alternative has been tried . */
+  private final boolean[] sampled;
+
+  /** the number of attempts since last reordering . */
+  private int ticks;
+
+  /** the number of calls since last exploring . */
+  private int calls;
+
+  /** the position of the alternative to explore next . */
+  private int probe;
+
+  /** the order to try alternatives in . */
+  private volatile int[] order;
+
+  /**
+   * @param size the number of alternatives
+   */
+  Alternatives(final int size) {
+    scores = new int[size];
+    costs = new int[size];
+    sampled = new boolean[size];
+    Arrays.fill(scores, WEIGHT >> 1);
+    order = IntStream.range(0, size).toArray();
+  }
+
+  /**
+   * returns the order to try alternatives in .
+   *
+   * @return the indices of alternatives, the likely winner first
+   */
+  int[] order() {
+    final int[] current = order;
+    if (current.length < 2 || ++calls < EXPLORATION) {
+      return current;
+    }
+    calls = 0;
+    probe = probe % (current.length - 1) + 1;
+    final int[] explored = current.clone();
+    System.arraycopy(current, 0, explored, 1, probe);
+    explored[0] = current[probe];
+
+    return explored;
+  }
+
+  /**
+   * records the result of an attempt .
+   *
+   * @param index the index of the alternative
+   * @param succeeded the result of the attempt
+   * @param started the value of {@link System#nanoTime()} when the attempt started
+   */
+  void record(final int index, final boolean succeeded, final long started) {
+    final int elapsed = (int) Math.min(Integer.MAX_VALUE, Math.max(0, System.nanoTime() - started));
+    scores[index] += ((succeeded ? WEIGHT : 0) - scores[index]) >> 3;
+    costs[index] += (elapsed - costs[index]) >> 3;
+    sampled[index] = true;
+    if (++ticks >= INTERVAL) {
+      ticks = 0;
+      reorder();
+    }
+  }
+
+  /**
+   * sorts alternatives which have been tried by the success rate per cost, descending, among the positions they occupy .
+   */
+  private void reorder() {
+    final double[] ranks = IntStream.range(0, scores.length).mapToDouble((i) -> (scores[i] + 1d) / (costs[i] + 1d)).toArray();
+    final boolean[] sampled = this.sampled.clone();
+    final int[] reordered = order.clone();
+    final int[] ranked = Arrays.stream(reordered).filter((i) -> sampled[i]).boxed().sorted(Comparator.comparingDouble((Integer i) -> -ranks[i]).thenComparingInt(Integer::intValue)).mapToInt(Integer::intValue).toArray();
+    for (int i = 0, j = 0; i < reordered.length; i++) {
+      if (sampled[reordered[i]]) {
+        reordered[i] = ranked[j++];
+      }
+    }
+    order = reordered;
+  }
+}
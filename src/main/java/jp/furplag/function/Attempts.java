@@ -0,0 +1,325 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Objects;
+
+/**
+ * the one implementation per arity which the static helpers ( e.g. {@code orNull}, {@code orElse} ) run the operation through .
+ *
+ * <p>an attempt returns the result, or {@link Failed} which carries the failure, instead of calling a fallback .
+ * so that the helpers choose their own fallback without building any lambda expression .
+ * an attempt dispatches events to {@link TrebuchetListener listeners}, expecting that the caller falls back if the attempt failed .</p>
+ *
+ * @author furplag
+ *
+ */
+final class Attempts {
+
+  /**
+   * the result of the attempt which failed .
+   *
+   * @author furplag
+   *
+   */
+  static final class Failed {
+
+    /** the failure . */
+    private final Throwable failure;
+
+    /**
+     * @param failure the failure
+     */
+    private Failed(final Throwable failure) {
+      this.failure = failure;
+    }
+  }
+
+  /**
+   * Attempts instances should NOT be constructed in standard programming .
+   */
+  private Attempts() {}
+
+  /**
+   * returns the result of the function, or {@link Failed} if error occurred .
+   *
+   * @param <T> the type of the input to the function
+   * @param t the function argument
+   * @param function {@link ThrowableFunction}, may not be null
+   * @return the result, or {@link Failed}
+   * @throws NullPointerException if {@code function} is null
+   */
+  static <T> Object apply(final T t, final ThrowableFunction<? super T, ?> function) {
+    Objects.requireNonNull(function);
+    Listeners.onInvoke(function);
+    try {
+      final Object result = function.applyOrThrow(t);
+      Listeners.onSuccess(function);
+
+      return result;
+    } catch (Throwable e) {
+      Listeners.onFallen(function, e);
+
+      return new Failed(e);
+    }
+  }
+
+  /**
+   * returns the result of the function, or {@link Failed} if error occurred .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param t the first function argument
+   * @param u the second function argument
+   * @param function {@link ThrowableBiFunction}, may not be null
+   * @return the result, or {@link Failed}
+   * @throws NullPointerException if {@code function} is null
+   */
+  static <T, U> Object apply(final T t, final U u, final ThrowableBiFunction<? super T, ? super U, ?> function) {
+    Objects.requireNonNull(function);
+    Listeners.onInvoke(function);
+    try {
+      final Object result = function.applyOrThrow(t, u);
+      Listeners.onSuccess(function);
+
+      return result;
+    } catch (Throwable e) {
+      Listeners.onFallen(function, e);
+
+      return new Failed(e);
+    }
+  }
+
+  /**
+   * returns the result of the function, or {@link Failed} if error occurred .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <V> the type of the third argument to the function
+   * @param t the first function argument
+   * @param u the second function argument
+   * @param v the third function argument
+   * @param function {@link ThrowableTriFunction}, may not be null
+   * @return the result, or {@link Failed}
+   * @throws NullPointerException if {@code function} is null
+   */
+  static <T, U, V> Object apply(final T t, final U u, final V v, final ThrowableTriFunction<? super T, ? super U, ? super V, ?> function) {
+    Objects.requireNonNull(function);
+    Listeners.onInvoke(function);
+    try {
+      final Object result = function.applyOrThrow(t, u, v);
+      Listeners.onSuccess(function);
+
+      return result;
+    } catch (Throwable e) {
+      Listeners.onFallen(function, e);
+
+      return new Failed(e);
+    }
+  }
+
+  /**
+   * performs the operation, and returns the failure if error occurred .
+   *
+   * @param <T> the type of the input to the operation
+   * @param t the value of the input to the operation
+   * @param consumer {@link ThrowableConsumer}, may not be null
+   * @return the failure, or null if done it normally
+   * @throws NullPointerException if {@code consumer} is null
+   */
+  static <T> Throwable accept(final T t, final ThrowableConsumer<? super T> consumer) {
+    Objects.requireNonNull(consumer);
+    Listeners.onInvoke(consumer);
+    try {
+      consumer.acceptOrThrow(t);
+      Listeners.onSuccess(consumer);
+
+      return null;
+    } catch (Throwable e) {
+      Listeners.onFallen(consumer, e);
+
+      return e;
+    }
+  }
+
+  /**
+   * performs the operation, and returns the failure if error occurred .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   * @param t the value of the first argument to the operation
+   * @param u the value of the second argument to the operation
+   * @param consumer {@link ThrowableBiConsumer}, may not be null
+   * @return the failure, or null if done it normally
+   * @throws NullPointerException if {@code consumer} is null
+   */
+  static <T, U> Throwable accept(final T t, final U u, final ThrowableBiConsumer<? super T, ? super U> consumer) {
+    Objects.requireNonNull(consumer);
+    Listeners.onInvoke(consumer);
+    try {
+      consumer.acceptOrThrow(t, u);
+      Listeners.onSuccess(consumer);
+
+      return null;
+    } catch (Throwable e) {
+      Listeners.onFallen(consumer, e);
+
+      return e;
+    }
+  }
+
+  /**
+   * performs the operation, and returns the failure if error occurred .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   * @param <V> the type of the third argument to the operation
+   * @param t the value of the first argument to the operation
+   * @param u the value of the second argument to the operation
+   * @param v the value of the third argument to the operation
+   * @param consumer {@link ThrowableTriConsumer}, may not be null
+   * @return the failure, or null if done it normally
+   * @throws NullPointerException if {@code consumer} is null
+   */
+  static <T, U, V> Throwable accept(final T t, final U u, final V v, final ThrowableTriConsumer<? super T, ? super U, ? super V> consumer) {
+    Objects.requireNonNull(consumer);
+    Listeners.onInvoke(consumer);
+    try {
+      consumer.acceptOrThrow(t, u, v);
+      Listeners.onSuccess(consumer);
+
+      return null;
+    } catch (Throwable e) {
+      Listeners.onFallen(consumer, e);
+
+      return e;
+    }
+  }
+
+  /**
+   * returns the result of the supplier, or {@link Failed} if error occurred .
+   *
+   * @param supplier {@link ThrowableSupplier}, may not be null
+   * @return the result, or {@link Failed}
+   * @throws NullPointerException if {@code supplier} is null
+   */
+  static Object get(final ThrowableSupplier<?> supplier) {
+    Objects.requireNonNull(supplier);
+    Listeners.onInvoke(supplier);
+    try {
+      final Object result = supplier.getOrThrow();
+      Listeners.onSuccess(supplier);
+
+      return result;
+    } catch (Throwable e) {
+      Listeners.onFallen(supplier, e);
+
+      return new Failed(e);
+    }
+  }
+
+  /**
+   * returns the result of the task, or {@link Failed} if error occurred .
+   *
+   * @param callable {@link ThrowableCallable}, may not be null
+   * @return the result, or {@link Failed}
+   * @throws NullPointerException if {@code callable} is null
+   */
+  static Object call(final ThrowableCallable<?> callable) {
+    Objects.requireNonNull(callable);
+    Listeners.onInvoke(callable);
+    try {
+      final Object result = callable.callOrThrow();
+      Listeners.onSuccess(callable);
+
+      return result;
+    } catch (Throwable e) {
+      Listeners.onFallen(callable, e);
+
+      return new Failed(e);
+    }
+  }
+
+  /**
+   * performs the operation, and returns the failure if error occurred .
+   *
+   * @param runnable {@link ThrowableRunnable}, may not be null
+   * @return the failure, or null if done it normally
+   * @throws NullPointerException if {@code runnable} is null
+   */
+  static Throwable run(final ThrowableRunnable runnable) {
+    Objects.requireNonNull(runnable);
+    Listeners.onInvoke(runnable);
+    try {
+      runnable.runOrThrow();
+      Listeners.onSuccess(runnable);
+
+      return null;
+    } catch (Throwable e) {
+      Listeners.onFallen(runnable, e);
+
+      return e;
+    }
+  }
+
+  /**
+   * returns whether the attempt failed .
+   *
+   * @param result the result of the attempt
+   * @return true if the attempt failed
+   */
+  static boolean failed(final Object result) {
+    return result instanceof Failed;
+  }
+
+  /**
+   * returns the failure of the attempt .
+   *
+   * @param <E> anything thrown
+   * @param result the result of the attempt which failed
+   * @return the failure
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <E extends Throwable> E failure(final Object result) {
+    return (E) ((Failed) result).failure;
+  }
+
+  /**
+   * returns the result of the attempt, or the specified value if the attempt failed .
+   *
+   * @param <R> the type of the result
+   * @param result the result of the attempt
+   * @param fallen the value if the attempt failed
+   * @return the result of the attempt, or {@code fallen}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <R> R orElse(final Object result, final R fallen) {
+    return failed(result) ? fallen : (R) result;
+  }
+
+  /**
+   * returns the result of the attempt which done it normally .
+   *
+   * @param <R> the type of the result
+   * @param result the result of the attempt
+   * @return the result
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <R> R result(final Object result) {
+    return (R) result;
+  }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * runs a call which may block inside {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)} ,
+ * so that the pool compensates with a spare worker while the call blocks .
+ *
+ * <p>outside of {@link ForkJoinPool}, the call simply runs on the current thread .</p>
+ *
+ * @author furplag
+ *
+ * @param <R> the type of the result of the call
+ */
+final class Blocking<R> implements ForkJoinPool.ManagedBlocker {
+
+  /**
+   * a call which may block, and may throw anything .
+   *
+   * @param <R> the type of the result of the call
+   */
+  @FunctionalInterface
+  interface Call<R> {
+
+    /**
+     * performs this call .
+     *
+     * @return the result of the call
+     * @throws Throwable anything thrown
+     */
+    R call() throws Throwable;
+  }
+
+  /** the call . */
+  private final Call<? extends R> call;
+
+  /** true if the call has done . */
+  private boolean done;
+
+  /** the result of the call . */
+  private R result;
+
+  /** the error of the call, or null if it has done normally . */
+  private Throwable failure;
+
+  /**
+   * {@link Blocking} instances are created only through {@link #call(Call)} .
+   *
+   * @param call the call
+   */
+  private Blocking(final Call<? extends R> call) {
+    this.call = call;
+  }
+
+  /**
+   * performs the specified call as a managed blocker .
+   *
+   * @param <R> the type of the result of the call
+   * @param call the call
+   * @return the result of the call
+   * @throws Throwable anything thrown by the call, or {@link InterruptedException} if interrupted before the call
+   */
+  static <R> R call(final Call<? extends R> call) throws Throwable {
+    final Blocking<R> blocker = new Blocking<>(call);
+    ForkJoinPool.managedBlock(blocker);
+    if (blocker.failure != null) {
+      throw blocker.failure;
+    }
+
+    return blocker.result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean block() {
+    try {
+      result = call.call();
+    } catch (Throwable e) {
+      failure = e;
+    }
+
+    return done = true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isReleasable() {
+    return done;
+  }
+}
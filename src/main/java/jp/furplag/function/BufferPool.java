@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * a pool of direct buffers in {@link ThrowableChannels#DEFAULT_BLOCK_SIZE the default size} ,
+ * so that streaming channels does not allocate ( and wait for the collection of ) a direct buffer per call .
+ *
+ * <p>buffers in other sizes are allocated per call, and never pooled .</p>
+ *
+ * @author furplag
+ *
+ */
+final class BufferPool {
+
+  /** the maximum number of pooled buffers . */
+  static final int MAX_POOLED = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+  /** pooled buffers . */
+  private static final Queue<ByteBuffer> POOL = new ConcurrentLinkedQueue<>();
+
+  /** the number of pooled buffers . */
+  private static final AtomicInteger POOLED = new AtomicInteger();
+
+  /**
+   * BufferPool instances should NOT be constructed in standard programming .
+   */
+  private BufferPool() {}
+
+  /**
+   * returns a cleared direct buffer in the specified capacity .
+   *
+   * @param capacity the capacity of the buffer
+   * @return a direct buffer
+   */
+  static ByteBuffer acquire(final int capacity) {
+    final ByteBuffer buffer = capacity == ThrowableChannels.DEFAULT_BLOCK_SIZE ? POOL.poll() : null;
+    if (buffer == null) {
+      return ByteBuffer.allocateDirect(capacity);
+    }
+    POOLED.decrementAndGet();
+
+    return buffer.clear();
+  }
+
+  /**
+   * returns the number of pooled buffers .
+   *
+   * @return the number of pooled buffers
+   */
+  static int pooled() {
+    return POOLED.get();
+  }
+
+  /**
+   * returns the buffer to the pool, unless the pool is full .
+   *
+   * @param buffer the buffer which {@link #acquire(int)} returned
+   */
+  static void release(final ByteBuffer buffer) {
+    if (!buffer.isDirect() || buffer.capacity() != ThrowableChannels.DEFAULT_BLOCK_SIZE) {
+      return;
+    }
+    if (POOLED.incrementAndGet() > MAX_POOLED) {
+      POOLED.decrementAndGet();
+
+      return;
+    }
+    POOL.offer(buffer.clear());
+  }
+}
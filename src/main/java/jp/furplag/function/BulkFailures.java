@@ -0,0 +1,297 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * failures of a bulk application, as a bitmap of failed indices and the first failure per type .
+ *
+ * <p>bulk applications run one loop over the elements, and record failures here instead of calling a fallback per element .
+ * nothing but this is allocated unless an element fails .</p>
+ *
+ * @author furplag
+ *
+ */
+public final class BulkFailures {
+
+  /** the number of elements . */
+  private final int size;
+
+  /** the bitmap of failed indices, or null if no element failed . */
+  private long[] bitmap;
+
+  /** the number of failed elements . */
+  private int count;
+
+  /** the index of the first failure . */
+  private int first = -1;
+
+  /** the first failure per type, or null if no element failed . */
+  private Map<Class<? extends Throwable>, Throwable> failures;
+
+  /**
+   * {@link BulkFailures} instances should be created through the bulk applications .
+   *
+   * @param size the number of elements
+   */
+  private BulkFailures(final int size) {
+    this.size = size;
+  }
+
+  /**
+   * applies the function to each element, and stores results at the same index, or null if the element failed .
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   * @param function {@link ThrowableFunction}
+   * @param in elements, may not be null
+   * @param out results, may not be null
+   * @return {@link BulkFailures}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code out} is shorter than {@code in}
+   */
+  static <T, R> BulkFailures applyAll(final ThrowableFunction<? super T, ? extends R> function, final T[] in, final R[] out) {
+    requireLength(in.length, out.length);
+    final BulkFailures failures = new BulkFailures(in.length);
+    for (int i = 0; i < in.length; i++) {
+      try {
+        out[i] = function.applyOrThrow(in[i]);
+      } catch (Throwable e) {
+        out[i] = null;
+        failures.fail(i, e);
+      }
+    }
+
+    return failures;
+  }
+
+  /**
+   * applies the function to each element, and adds results to {@code out}, or null if the element failed .
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   * @param function {@link ThrowableFunction}
+   * @param in elements, may not be null
+   * @param out results, may not be null
+   * @return {@link BulkFailures}
+   * @throws NullPointerException if arguments contains null
+   */
+  static <T, R> BulkFailures applyAll(final ThrowableFunction<? super T, ? extends R> function, final List<? extends T> in, final List<? super R> out) {
+    Objects.requireNonNull(out);
+    final BulkFailures failures = new BulkFailures(in.size());
+    int i = 0;
+    for (T t : in) {
+      R r = null;
+      try {
+        r = function.applyOrThrow(t);
+      } catch (Throwable e) {
+        failures.fail(i, e);
+      }
+      out.add(r);
+      i++;
+    }
+
+    return failures;
+  }
+
+  /**
+   * tests each element, and stores results at the same index, or false if the element failed .
+   *
+   * @param <T> the type of the input to the predicate
+   * @param predicate {@link ThrowablePredicate}
+   * @param in elements, may not be null
+   * @param out results, may not be null
+   * @return {@link BulkFailures}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code out} is shorter than {@code in}
+   */
+  static <T> BulkFailures testAll(final ThrowablePredicate<? super T> predicate, final T[] in, final boolean[] out) {
+    requireLength(in.length, out.length);
+    final BulkFailures failures = new BulkFailures(in.length);
+    for (int i = 0; i < in.length; i++) {
+      try {
+        out[i] = predicate.applyOrThrow(in[i]);
+      } catch (Throwable e) {
+        out[i] = false;
+        failures.fail(i, e);
+      }
+    }
+
+    return failures;
+  }
+
+  /**
+   * tests each element, and sets the bit of the same index if the result is true, or clears the bit otherwise, and if the element failed .
+   *
+   * @param <T> the type of the input to the predicate
+   * @param predicate {@link ThrowablePredicate}
+   * @param in elements, may not be null
+   * @param bitmask results, which has at least one bit per element, may not be null
+   * @return {@link BulkFailures}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code bitmask} is shorter than {@code in}
+   */
+  static <T> BulkFailures testAll(final ThrowablePredicate<? super T> predicate, final T[] in, final long[] bitmask) {
+    requireLength(words(in.length), bitmask.length);
+    final BulkFailures failures = new BulkFailures(in.length);
+    for (int i = 0; i < in.length; i++) {
+      boolean result = false;
+      try {
+        result = predicate.applyOrThrow(in[i]);
+      } catch (Throwable e) {
+        failures.fail(i, e);
+      }
+      bitmask[i >>> 6] = result ? bitmask[i >>> 6] | (1L << i) : bitmask[i >>> 6] & ~(1L << i);
+    }
+
+    return failures;
+  }
+
+  /**
+   * throws {@link IllegalArgumentException} if the output is shorter than the input .
+   *
+   * @param in the length of the input
+   * @param out the length of the output
+   */
+  private static void requireLength(final int in, final int out) {
+    if (out < in) {
+      throw new IllegalArgumentException("the output is shorter than the input .");
+    }
+  }
+
+  /**
+   * returns the number of words which store the specified number of bits .
+   *
+   * @param bits the number of bits
+   * @return the number of words
+   */
+  private static int words(final int bits) {
+    return (bits + 63) >>> 6;
+  }
+
+  /**
+   * returns a copy of the bitmap of failed indices .
+   *
+   * @return {@link BitSet}
+   */
+  public BitSet bitmap() {
+    return bitmap == null ? new BitSet() : BitSet.valueOf(bitmap);
+  }
+
+  /**
+   * returns the number of failed elements .
+   *
+   * @return the number of failed elements
+   */
+  public int count() {
+    return count;
+  }
+
+  /**
+   * returns whether the element of the specified index failed .
+   *
+   * @param index the index of the element
+   * @return true if the element failed
+   * @throws IndexOutOfBoundsException if {@code index} is out of range
+   */
+  public boolean failed(final int index) {
+    Objects.checkIndex(index, size);
+
+    return bitmap != null && (bitmap[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * returns the first failure which is an instance of the specified type .
+   *
+   * @param <X> the type of the failure
+   * @param type the type of the failure, may not be null
+   * @return the first failure of the type, or null if no element failed with it
+   * @throws NullPointerException if {@code type} is null
+   */
+  public <X extends Throwable> X failure(final Class<X> type) {
+    Objects.requireNonNull(type);
+
+    return failures().values().stream().filter(type::isInstance).findFirst().map(type::cast).orElse(null);
+  }
+
+  /**
+   * returns the first failure per type, in order of occurrence .
+   *
+   * @return the first failure per type
+   */
+  public Map<Class<? extends Throwable>, Throwable> failures() {
+    return failures == null ? Collections.emptyMap() : Collections.unmodifiableMap(failures);
+  }
+
+  /**
+   * returns the index of the first failed element .
+   *
+   * @return the index of the first failed element, or -1 if no element failed
+   */
+  public int first() {
+    return first;
+  }
+
+  /**
+   * returns whether all elements succeeded .
+   *
+   * @return true if no element failed
+   */
+  public boolean isSucceeded() {
+    return count < 1;
+  }
+
+  /**
+   * returns the number of elements .
+   *
+   * @return the number of elements
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return count + "/" + size + " failed" + (failures == null ? "" : " " + failures.keySet());
+  }
+
+  /**
+   * records the failure of the element .
+   *
+   * @param index the index of the element
+   * @param failure the failure
+   */
+  private void fail(final int index, final Throwable failure) {
+    if (bitmap == null) {
+      bitmap = new long[words(size)];
+      failures = new LinkedHashMap<>();
+      first = index;
+    }
+    bitmap[index >>> 6] |= 1L << index;
+    count++;
+    failures.putIfAbsent(failure.getClass(), failure);
+  }
+}
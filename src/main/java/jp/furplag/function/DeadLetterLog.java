@@ -0,0 +1,578 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * a durable fallback which writes the failed input and the summary of the failure to an append-only log, so that failed inputs are reprocessed later .
+ *
+ * <p>the log is a directory of memory-mapped segments in the same size, and a new segment is created when the current one is full .
+ * appending reserves the range of the record with a single atomic addition, so that threads do not block each other, except while rolling segments .
+ * each record is checked by CRC32C, and {@link #replay(Path, ThrowableFunction, ThrowableConsumer, BiConsumer) replay} skips corrupted records,
+ * and scans the range which is not written for the next record .
+ * records are written to the page cache, so that they survive the crash of the process, and {@link #flush()} forces them to the storage .
+ * full segments stay mapped until the threads which have reserved ranges in them finish copying, so that flushing covers every record .</p>
+ *
+ * <p>the log never appends to segments which already exist, and replaying is expected to run after closing the log ( or in another process ) .</p>
+ *
+ * @author furplag
+ *
+ * @param <T> the type of inputs
+ */
+public final class DeadLetterLog<T> implements AutoCloseable {
+
+  /** the default size of segments . */
+  public static final int DEFAULT_SEGMENT_SIZE = 1 << 24;
+
+  /** the maximum length of messages to record . */
+  static final int MAX_MESSAGE = 1 << 10;
+
+  /** the size of the record header, which is the length of the body and its checksum . */
+  private static final int HEADER = Integer.BYTES * 2;
+
+  /** the length of the message or the payload which is absent . */
+  private static final int ABSENT = -1;
+
+  /** the name of segments . */
+  private static final Pattern SEGMENT = Pattern.compile("^(\\d{12})\\.dlq$");
+
+  /** the directory of segments . */
+  private final Path directory;
+
+  /** the encoder of inputs . */
+  private final ThrowableFunction<? super T, byte[]> encoder;
+
+  /** the size of segments . */
+  private final int segmentSize;
+
+  /** mapped segments . */
+  private final List<Segment> segments = new ArrayList<>();
+
+  /** the number of records which are not written . */
+  private final LongAdder dropped = new LongAdder();
+
+  /** the segment to append . */
+  private volatile Segment current;
+
+  /** true if this log is closed . */
+  private volatile boolean closed;
+
+  /**
+   * @param directory the directory of segments
+   * @param encoder the encoder of inputs
+   * @param segmentSize the size of segments
+   * @throws IOException if an I/O error occurs
+   */
+  private DeadLetterLog(final Path directory, final ThrowableFunction<? super T, byte[]> encoder, final int segmentSize) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.encoder = encoder;
+    this.segmentSize = segmentSize;
+    try (Stream<Path> paths = Files.list(directory)) {
+      current = open(paths.mapToLong(DeadLetterLog::index).max().orElse(-1) + 1);
+    }
+  }
+
+  /**
+   * opens the log in the specified directory, with segments in {@link #DEFAULT_SEGMENT_SIZE the default size} .
+   *
+   * @param <T> the type of inputs
+   * @param directory the directory of segments, may not be null
+   * @param encoder the encoder of inputs, may not be null
+   * @return {@link DeadLetterLog}
+   * @throws IOException if an I/O error occurs
+   * @throws NullPointerException if arguments contains null
+   */
+  public static <T> DeadLetterLog<T> open(final Path directory, final ThrowableFunction<? super T, byte[]> encoder) throws IOException {
+    return open(directory, encoder, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * opens the log in the specified directory .
+   *
+   * @param <T> the type of inputs
+   * @param directory the directory of segments, may not be null
+   * @param encoder the encoder of inputs, may not be null
+   * @param segmentSize the size of segments
+   * @return {@link DeadLetterLog}
+   * @throws IOException if an I/O error occurs
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code segmentSize} is too small to hold a record
+   */
+  public static <T> DeadLetterLog<T> open(final Path directory, final ThrowableFunction<? super T, byte[]> encoder, final int segmentSize) throws IOException {
+    if (segmentSize < HEADER * 4) {
+      throw new IllegalArgumentException("segmentSize must be at least " + (HEADER * 4) + " .");
+    }
+
+    return new DeadLetterLog<>(Objects.requireNonNull(directory), Objects.requireNonNull(encoder), segmentSize);
+  }
+
+  /**
+   * performs the specified operation for each record in the log, and {@code fallen} for each record which failed .
+   *
+   * <p>records are replayed in order of segments, and in order of appending in each segment .
+   * the range which is not written ( e.g. reserved by the process which crashed before copying the record ) is scanned byte by byte
+   * to the next record which has the valid checksum, so that records after the range are not lost .
+   * the input of the entry is null, if it could not be encoded . failures of {@code decoder} are passed to {@code fallen}, with the entry which has no input .</p>
+   *
+   * @param <T> the type of inputs
+   * @param <E> anything thrown
+   * @param directory the directory of segments, may not be null
+   * @param decoder the decoder of inputs, may not be null
+   * @param consumer {@link ThrowableConsumer}, may not be null
+   * @param fallen {@link BiConsumer} which receives the entry and the failure, or the consumer that do nothing if this is null
+   * @return the number of records which are replayed
+   * @throws IOException if an I/O error occurs
+   * @throws NullPointerException if arguments contains null, except {@code fallen}
+   */
+  @SuppressWarnings({ "unchecked" })
+  public static <T, E extends Throwable> long replay(final Path directory, final ThrowableFunction<byte[], ? extends T> decoder, final ThrowableConsumer<? super Entry<T>> consumer, final BiConsumer<? super Entry<T>, ? super E> fallen) throws IOException {
+    Objects.requireNonNull(decoder);
+    Objects.requireNonNull(consumer);
+    final BiConsumer<? super Entry<T>, ? super E> fallback = Trebuchet.defaults(fallen);
+    final List<Path> paths;
+    try (Stream<Path> stream = Files.list(Objects.requireNonNull(directory))) {
+      paths = stream.filter((path) -> index(path) > -1).sorted().collect(Collectors.toList());
+    }
+    long count = 0;
+    for (Path path : paths) {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+        boolean scanning = false;
+        for (int position = 0; position + HEADER <= buffer.limit();) {
+          final int length = buffer.getInt(position);
+          if (length < 1 || length > buffer.limit() - position - HEADER) {
+            scanning = true;
+            position++;
+            continue;
+          }
+          final ByteBuffer body = buffer.duplicate().position(position + HEADER).limit(position + HEADER + length);
+          final int checksum = buffer.getInt(position + Integer.BYTES);
+          if (checksum != checksum(body.duplicate())) {
+            position += scanning ? 1 : HEADER + length;
+            continue;
+          }
+          scanning = false;
+          position += HEADER + length;
+          final Instant time = Instant.ofEpochMilli(body.getLong());
+          final String type = read(body, body.getShort() & 0xFFFF);
+          final int messageLength = body.getInt();
+          final String message = messageLength < 0 ? null : read(body, messageLength);
+          final int payloadLength = body.getInt();
+          final byte[] payload = payloadLength < 0 ? null : new byte[payloadLength];
+          if (payload != null) {
+            body.get(payload);
+          }
+          Entry<T> entry = new Entry<>(null, type, message, time);
+          count++;
+          try {
+            entry = payload == null ? entry : new Entry<>(decoder.apply(payload), type, message, time);
+            consumer.accept(entry);
+          } catch (Throwable e) {
+            fallback.accept(entry, (E) e);
+          }
+        }
+      }
+    }
+
+    return count;
+  }
+
+  /**
+   * returns the checksum of the remaining bytes .
+   *
+   * @param body the body of a record
+   * @return CRC32C
+   */
+  private static int checksum(final ByteBuffer body) {
+    final CRC32C crc = new CRC32C();
+    crc.update(body);
+
+    return (int) crc.getValue();
+  }
+
+  /**
+   * returns the index of the segment .
+   *
+   * @param path the file
+   * @return the index of the segment, or -1 if the file is not a segment
+   */
+  private static long index(final Path path) {
+    final Matcher matcher = SEGMENT.matcher(path.getFileName().toString());
+
+    return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+  }
+
+  /**
+   * reads the string in UTF-8 .
+   *
+   * @param body the body of a record
+   * @param length the length of the string in bytes
+   * @return the string
+   */
+  private static String read(final ByteBuffer body, final int length) {
+    final byte[] bytes = new byte[length];
+    body.get(bytes);
+
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * returns the UTF-8 bytes of the message of the failure, or null if it has no message .
+   *
+   * @param failure the failure
+   * @return the UTF-8 bytes of the message
+   */
+  private static byte[] message(final Throwable failure) {
+    final String message = failure.getMessage();
+
+    return message == null ? null : (message.length() > MAX_MESSAGE ? message.substring(0, MAX_MESSAGE) : message).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * writes the input and the summary of the failure to the log .
+   *
+   * <p>the record is dropped if it is larger than the segment, or the log is closed .
+   * the input is recorded as null, if {@link #encoder} failed .</p>
+   *
+   * @param t the input
+   * @param failure the failure, may not be null
+   * @return true if the record is written
+   * @throws NullPointerException if {@code failure} is null
+   */
+  public boolean append(final T t, final Throwable failure) {
+    final byte[] type = failure.getClass().getName().getBytes(StandardCharsets.UTF_8);
+    final byte[] message = message(failure);
+    byte[] payload;
+    try {
+      payload = encoder.apply(t);
+    } catch (Throwable e) {
+      payload = null;
+    }
+    final int length = Long.BYTES + Short.BYTES + type.length + Integer.BYTES + (message == null ? 0 : message.length) + Integer.BYTES + (payload == null ? 0 : payload.length);
+    if (length > segmentSize - HEADER) {
+      dropped.increment();
+
+      return false;
+    }
+    final ByteBuffer record = ByteBuffer.allocate(HEADER + length).putInt(length).putInt(0);
+    record.putLong(System.currentTimeMillis()).putShort((short) type.length).put(type);
+    (message == null ? record.putInt(ABSENT) : record.putInt(message.length).put(message)).putInt(payload == null ? ABSENT : payload.length);
+    if (payload != null) {
+      record.put(payload);
+    }
+    record.putInt(Integer.BYTES, checksum(record.duplicate().flip().position(HEADER)));
+    for (Segment segment = current;; segment = current) {
+      segment.writers.incrementAndGet();
+      try {
+        if (closed) {
+          dropped.increment();
+
+          return false;
+        }
+        final long position = segment.position.getAndAdd(HEADER + length);
+        if (position + HEADER + length <= segmentSize) {
+          segment.buffer.duplicate().position((int) position).put(record.flip());
+
+          return true;
+        }
+      } finally {
+        segment.writers.decrementAndGet();
+      }
+      if (!roll(segment)) {
+        dropped.increment();
+
+        return false;
+      }
+    }
+  }
+
+  /**
+   * waits for appending records to be copied, forces segments to the storage, and releases them .
+   *
+   * <p>records which are appended after closing are dropped .</p>
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    for (Segment segment : segments) {
+      while (segment.writers.get() > 0) {
+        Thread.onSpinWait();
+      }
+    }
+    flush();
+    segments.clear();
+  }
+
+  /**
+   * returns the fallback for consumers, which records failed inputs .
+   *
+   * @return {@link BiConsumer}
+   */
+  public BiConsumer<T, Throwable> consumer() {
+    return this::append;
+  }
+
+  /**
+   * returns the number of records which are not written, since they are larger than the segment, or the log is closed .
+   *
+   * @return the number of records which are not written
+   */
+  public long dropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * forces records to the storage .
+   *
+   * <p>full segments are released after forcing, once no thread copies records into them .</p>
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public synchronized void flush() throws IOException {
+    for (Iterator<Segment> iterator = segments.iterator(); iterator.hasNext();) {
+      final Segment segment = iterator.next();
+      final boolean retired = segment != current && segment.writers.get() < 1;
+      segment.buffer.force();
+      if (retired) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * returns the number of segments which are mapped .
+   *
+   * @return the number of segments which are mapped
+   */
+  int mapped() {
+    return segments.size();
+  }
+
+  /**
+   * returns the fallback for functions, which records failed inputs and returns null .
+   *
+   * @param <R> the type of the result of the function
+   * @return {@link BiFunction}
+   */
+  public <R> BiFunction<T, Throwable, R> function() {
+    return (t, e) -> {append(t, e); return null;};
+  }
+
+  /**
+   * returns the fallback for predicates, which records failed inputs and returns false .
+   *
+   * @return {@link BiPredicate}
+   */
+  public BiPredicate<T, Throwable> predicate() {
+    return (t, e) -> {append(t, e); return false;};
+  }
+
+  /**
+   * creates and maps the segment .
+   *
+   * @param index the index of the segment
+   * @return {@link Segment}
+   * @throws IOException if an I/O error occurs
+   */
+  private Segment open(final long index) throws IOException {
+    try (FileChannel channel = FileChannel.open(directory.resolve(String.format("%012d.dlq", index)), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      final Segment segment = new Segment(index, channel.map(MapMode.READ_WRITE, 0, segmentSize));
+      segments.add(segment);
+
+      return segment;
+    }
+  }
+
+  /**
+   * replaces the full segment with the next one, unless another thread already did .
+   *
+   * <p>the full segment is forced to the storage outside the lock, so that appending to the next segment never waits for the storage .
+   * it stays mapped, until threads which have reserved ranges in it finish copying records, and {@link #flush()} releases it .</p>
+   *
+   * @param full the segment which is full
+   * @return false if the log is closed, or failed to create the segment
+   */
+  private boolean roll(final Segment full) {
+    synchronized (this) {
+      if (closed) {
+        return false;
+      } else if (current != full) {
+        return true;
+      }
+      try {
+        current = open(full.index + 1);
+      } catch (IOException e) {
+        return false;
+      }
+    }
+    if (full.writers.get() < 1) {
+      full.buffer.force();
+      synchronized (this) {
+        segments.remove(full);
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return String.format("%s(%s, segment=%d, dropped=%d)", getClass().getSimpleName(), directory, current.index, dropped());
+  }
+
+  /**
+   * a record which is replayed .
+   *
+   * @author furplag
+   *
+   * @param <T> the type of inputs
+   */
+  public static final class Entry<T> {
+
+    /** the input . */
+    private final T input;
+
+    /** the class name of the failure . */
+    private final String type;
+
+    /** the message of the failure . */
+    private final String message;
+
+    /** the time of appending . */
+    private final Instant time;
+
+    /**
+     * @param input the input
+     * @param type the class name of the failure
+     * @param message the message of the failure
+     * @param time the time of appending
+     */
+    private Entry(final T input, final String type, final String message, final Instant time) {
+      this.input = input;
+      this.type = type;
+      this.message = message;
+      this.time = time;
+    }
+
+    /**
+     * returns the input, or null if it could not be encoded or decoded .
+     *
+     * @return the input
+     */
+    public T input() {
+      return input;
+    }
+
+    /**
+     * returns the message of the failure, which is truncated in {@value DeadLetterLog#MAX_MESSAGE} characters .
+     *
+     * @return the message of the failure, or null if it has no message
+     */
+    public String message() {
+      return message;
+    }
+
+    /**
+     * returns the time of appending .
+     *
+     * @return the time of appending
+     */
+    public Instant time() {
+      return time;
+    }
+
+    /**
+     * returns the class name of the failure .
+     *
+     * @return the class name of the failure
+     */
+    public String type() {
+      return type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+      return String.format("%s(%s, %s: %s)", getClass().getSimpleName(), input, type, message);
+    }
+  }
+
+  /**
+   * a mapped segment .
+   *
+   * @author furplag
+   *
+   */
+  private static final class Segment {
+
+    /** the index of the segment . */
+    private final long index;
+
+    /** the mapped buffer . */
+    private final MappedByteBuffer buffer;
+
+    /** the position to append next . */
+    private final AtomicLong position = new AtomicLong();
+
+    /** the number of threads which are appending to the segment . */
+    private final AtomicInteger writers = new AtomicInteger();
+
+    /**
+     * @param index the index of the segment
+     * @param buffer the mapped buffer
+     */
+    private Segment(final long index, final MappedByteBuffer buffer) {
+      this.index = index;
+      this.buffer = buffer;
+    }
+  }
+}
@@ -0,0 +1,337 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * collects failures as groups of the same signature, instead of holding every one of them .
+ *
+ * <p>a signature is the class of the failure and its top stack frame, or its message template
+ * ( digits are masked ) if it has no stack trace . each group counts occurrences, and keeps the first failure as an exemplar .
+ * failures of a new signature are only counted as overflow, once the number of groups reaches the limit .
+ * the aggregator itself is a {@link Consumer} of failures, and also provides fallbacks for {@code of(...)} .</p>
+ *
+ * @author furplag
+ *
+ */
+public final class FailureAggregator implements Consumer<Throwable> {
+
+  /** the default limit of the number of groups . */
+  public static final int DEFAULT_MAX_GROUPS = 256;
+
+  /** digits in messages . */
+  private static final Pattern DIGITS = Pattern.compile("\\d+");
+
+  /** groups . */
+  private final ConcurrentMap<Signature, Group> groups = new ConcurrentHashMap<>();
+
+  /** the number of groups, including the ones which are being added . */
+  private final AtomicInteger reserved = new AtomicInteger();
+
+  /** the limit of the number of groups . */
+  private final int maxGroups;
+
+  /** the number of failures which are not grouped . */
+  private final LongAdder overflow = new LongAdder();
+
+  /**
+   * @param maxGroups the limit of the number of groups
+   */
+  private FailureAggregator(final int maxGroups) {
+    this.maxGroups = maxGroups;
+  }
+
+  /**
+   * returns an aggregator which holds {@link #DEFAULT_MAX_GROUPS} groups at most .
+   *
+   * @return {@link FailureAggregator}
+   */
+  public static FailureAggregator of() {
+    return of(DEFAULT_MAX_GROUPS);
+  }
+
+  /**
+   * returns an aggregator which holds the specified number of groups at most .
+   *
+   * @param maxGroups the limit of the number of groups
+   * @return {@link FailureAggregator}
+   * @throws IllegalArgumentException if {@code maxGroups} is not positive
+   */
+  public static FailureAggregator of(final int maxGroups) {
+    if (maxGroups < 1) {
+      throw new IllegalArgumentException("maxGroups must be positive .");
+    }
+
+    return new FailureAggregator(maxGroups);
+  }
+
+  /**
+   * records the specified failure .
+   *
+   * @param failure the failure, may not be null
+   * @throws NullPointerException if {@code failure} is null
+   */
+  @Override
+  public void accept(final Throwable failure) {
+    final Signature signature = new Signature(Objects.requireNonNull(failure));
+    Group group = groups.get(signature);
+    if (group == null) {
+      if (reserved.incrementAndGet() > maxGroups) {
+        reserved.decrementAndGet();
+        overflow.increment();
+
+        return;
+      }
+      final Group present = groups.putIfAbsent(signature, group = new Group(signature, failure));
+      if (present != null) {
+        reserved.decrementAndGet();
+        group = present;
+      }
+    }
+    group.count.increment();
+  }
+
+  /**
+   * returns the fallback for consumers, which records failures .
+   *
+   * @param <T> the type of the input to the operation
+   * @return {@link BiConsumer}
+   */
+  public <T> BiConsumer<T, Throwable> consumer() {
+    return (t, e) -> accept(e);
+  }
+
+  /**
+   * returns the fallback for functions, which records failures and returns null .
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   * @return {@link BiFunction}
+   */
+  public <T, R> BiFunction<T, Throwable, R> function() {
+    return (t, e) -> {accept(e); return null;};
+  }
+
+  /**
+   * returns groups in descending order of occurrences .
+   *
+   * @return snapshot of groups
+   */
+  public List<Group> groups() {
+    return groups.values().stream().sorted(Comparator.comparingLong(Group::count).reversed()).collect(Collectors.toUnmodifiableList());
+  }
+
+  /**
+   * returns the number of failures which are not grouped, since the number of groups reached the limit .
+   *
+   * @return the number of failures which are not grouped
+   */
+  public long overflow() {
+    return overflow.sum();
+  }
+
+  /**
+   * returns the fallback for predicates, which records failures and returns false .
+   *
+   * @param <T> the type of the input to the predicate
+   * @return {@link BiPredicate}
+   */
+  public <T> BiPredicate<T, Throwable> predicate() {
+    return (t, e) -> {accept(e); return false;};
+  }
+
+  /**
+   * returns the number of failures recorded .
+   *
+   * @return the number of failures recorded
+   */
+  public long total() {
+    return groups.values().stream().mapToLong(Group::count).sum() + overflow();
+  }
+
+  /**
+   * failures of the same signature .
+   *
+   * @author furplag
+   *
+   */
+  public static final class Group {
+
+    /** the signature . */
+    private final Signature signature;
+
+    /** the first failure of the group . */
+    private final Throwable exemplar;
+
+    /** occurrences . */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * @param signature the signature
+     * @param exemplar the first failure of the group
+     */
+    private Group(final Signature signature, final Throwable exemplar) {
+      this.signature = signature;
+      this.exemplar = exemplar;
+    }
+
+    /**
+     * returns the number of occurrences .
+     *
+     * @return the number of occurrences
+     */
+    public long count() {
+      return count.sum();
+    }
+
+    /**
+     * returns the first failure of the group .
+     *
+     * @return the first failure of the group
+     */
+    public Throwable exemplar() {
+      return exemplar;
+    }
+
+    /**
+     * returns the top stack frame of failures .
+     *
+     * @return the top stack frame, or null if failures have no stack trace
+     */
+    public StackTraceElement frame() {
+      return signature.frame;
+    }
+
+    /**
+     * returns the message template of failures, which digits are masked .
+     *
+     * @return the message template, or null if failures have a stack trace
+     */
+    public String template() {
+      return signature.template;
+    }
+
+    /**
+     * returns the class of failures .
+     *
+     * @return the class of failures
+     */
+    public Class<? extends Throwable> type() {
+      return signature.type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+      return String.format("%s at %s ( %d times )", type().getName(), Objects.toString(frame(), template()), count());
+    }
+  }
+
+  /**
+   * the key of groups .
+   *
+   * @author furplag
+   *
+   */
+  private static final class Signature {
+
+    /** the class of the failure . */
+    private final Class<? extends Throwable> type;
+
+    /** the top stack frame, or null if the failure has no stack trace . */
+    private final StackTraceElement frame;
+
+    /** the message template, or null if the failure has a stack trace . */
+    private final String template;
+
+    /** the last failure ( weakly referenced ) and its top stack frame, per thread . */
+    private static final ThreadLocal<Object[]> LAST = ThreadLocal.withInitial(() -> new Object[] { new WeakReference<>(null), null });
+
+    /**
+     * @param failure the failure
+     */
+    private Signature(final Throwable failure) {
+      type = failure.getClass();
+      frame = frame(failure);
+      template = frame != null || failure.getMessage() == null ? null : DIGITS.matcher(failure.getMessage()).replaceAll("#");
+    }
+
+    /**
+     * returns the top stack frame of the failure .
+     *
+     * <p>{@link Throwable#getStackTrace()} copies the whole stack trace per call, so that the frame is cached for the last failure of the thread,
+     * which is recorded repeatedly when it passes through several fallbacks . {@link StacklessException} never has a stack trace .</p>
+     *
+     * @param failure the failure
+     * @return the top stack frame, or null if the failure has no stack trace
+     */
+    private static StackTraceElement frame(final Throwable failure) {
+      if (failure instanceof StacklessException) {
+        return null;
+      }
+      final Object[] last = LAST.get();
+      if (((Reference<?>) last[0]).get() != failure) {
+        final StackTraceElement[] stackTrace = failure.getStackTrace();
+        last[0] = new WeakReference<>(failure);
+        last[1] = stackTrace.length > 0 ? stackTrace[0] : null;
+      }
+
+      return (StackTraceElement) last[1];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Signature)) {
+        return false;
+      }
+      final Signature other = (Signature) obj;
+
+      return type == other.type && Objects.equals(frame, other.frame) && Objects.equals(template, other.template);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+      return Objects.hash(type, frame, template);
+    }
+  }
+}
@@ -0,0 +1,337 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import jp.furplag.function.Trebuchet.TriConsumer;
+import jp.furplag.function.Trebuchet.TriFunction;
+import jp.furplag.function.Trebuchet.TriPredicate;
+
+/**
+ * pre-built fallbacks which {@link Trebuchet#defaults(Function) Trebuchet.defaults(...)} returns instead of null .
+ *
+ * <p>these are named singletons rather than lambda expressions,
+ * so that the first use of a wrapper does not bootstrap any {@code invokedynamic} call site .</p>
+ *
+ * @author furplag
+ *
+ */
+final class Fallbacks {
+
+  /**
+   * Fallbacks instances should NOT be constructed in standard programming .
+   */
+  private Fallbacks() {}
+
+  /**
+   * returns the {@link BiConsumer} which does nothing .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   * @return {@link Nothing}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, U> BiConsumer<T, U> biConsumer() {
+    return (BiConsumer<T, U>) Nothing.INSTANCE;
+  }
+
+  /**
+   * returns the {@link BiFunction} which always returns null .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <R> the type of the result of the function
+   * @return {@link NullBiFunction}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, U, R> BiFunction<T, U, R> biFunction() {
+    return (BiFunction<T, U, R>) NullBiFunction.INSTANCE;
+  }
+
+  /**
+   * returns the {@link BiPredicate} which always returns false .
+   *
+   * @param <T> the type of the first argument to the predicate
+   * @param <U> the type of the second argument to the predicate
+   * @return {@link FalseBiPredicate}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, U> BiPredicate<T, U> biPredicate() {
+    return (BiPredicate<T, U>) FalseBiPredicate.INSTANCE;
+  }
+
+  /**
+   * returns the {@link BooleanSupplier} which always returns false .
+   *
+   * @return {@link FalsePredicate}
+   */
+  static BooleanSupplier booleanSupplier() {
+    return FalsePredicate.INSTANCE;
+  }
+
+  /**
+   * returns the {@link Consumer} which does nothing .
+   *
+   * @param <T> the type of the input to the operation
+   * @return {@link Nothing}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T> Consumer<T> consumer() {
+    return (Consumer<T>) Nothing.INSTANCE;
+  }
+
+  /**
+   * returns the {@link Function} which always returns null .
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   * @return {@link NullFunction}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, R> Function<T, R> function() {
+    return (Function<T, R>) NullFunction.INSTANCE;
+  }
+
+  /**
+   * returns the {@link Predicate} which always returns false .
+   *
+   * @param <T> the type of the input to the predicate
+   * @return {@link FalsePredicate}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T> Predicate<T> predicate() {
+    return (Predicate<T>) FalsePredicate.INSTANCE;
+  }
+
+  /**
+   * returns the {@link Supplier} which always returns null .
+   *
+   * @param <T> the type of results supplied by this supplier
+   * @return {@link NullFunction}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T> Supplier<T> supplier() {
+    return (Supplier<T>) NullFunction.INSTANCE;
+  }
+
+  /**
+   * returns the {@link TriConsumer} which does nothing .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   * @param <V> the type of the third argument to the operation
+   * @return {@link Nothing}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, U, V> TriConsumer<T, U, V> triConsumer() {
+    return (TriConsumer<T, U, V>) Nothing.INSTANCE;
+  }
+
+  /**
+   * returns the {@link TriFunction} which always returns null .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <V> the type of the third argument to the function
+   * @param <R> the type of the result of the function
+   * @return {@link NullTriFunction}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, U, V, R> TriFunction<T, U, V, R> triFunction() {
+    return (TriFunction<T, U, V, R>) NullTriFunction.INSTANCE;
+  }
+
+  /**
+   * returns the {@link TriPredicate} which always returns false .
+   *
+   * @param <T> the type of the first argument to the predicate
+   * @param <U> the type of the second argument to the predicate
+   * @param <V> the type of the third argument to the predicate
+   * @return {@link FalseTriPredicate}
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, U, V> TriPredicate<T, U, V> triPredicate() {
+    return (TriPredicate<T, U, V>) FalseTriPredicate.INSTANCE;
+  }
+
+  /**
+   * the {@link BiPredicate} which always returns false .
+   */
+  static final class FalseBiPredicate implements BiPredicate<Object, Object> {
+
+    /** the instance . */
+    static final FalseBiPredicate INSTANCE = new FalseBiPredicate();
+
+    private FalseBiPredicate() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean test(final Object t, final Object u) {
+      return false;
+    }
+  }
+
+  /**
+   * the {@link Predicate} and the {@link BooleanSupplier} which always return false .
+   */
+  static final class FalsePredicate implements Predicate<Object>, BooleanSupplier {
+
+    /** the instance . */
+    static final FalsePredicate INSTANCE = new FalsePredicate();
+
+    private FalsePredicate() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean getAsBoolean() {
+      return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean test(final Object t) {
+      return false;
+    }
+  }
+
+  /**
+   * the {@link TriPredicate} which always returns false .
+   */
+  static final class FalseTriPredicate implements TriPredicate<Object, Object, Object> {
+
+    /** the instance . */
+    static final FalseTriPredicate INSTANCE = new FalseTriPredicate();
+
+    private FalseTriPredicate() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Boolean apply(final Object t, final Object u, final Object v) {
+      return false;
+    }
+  }
+
+  /**
+   * the {@link Consumer}, {@link BiConsumer} and {@link TriConsumer} which do nothing .
+   */
+  static final class Nothing implements Consumer<Object>, BiConsumer<Object, Object>, TriConsumer<Object, Object, Object> {
+
+    /** the instance . */
+    static final Nothing INSTANCE = new Nothing();
+
+    private Nothing() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void accept(final Object t) {/* do nothing . */}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void accept(final Object t, final Object u) {/* do nothing . */}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void accept(final Object t, final Object u, final Object v) {/* do nothing . */}
+  }
+
+  /**
+   * the {@link BiFunction} which always returns null .
+   */
+  static final class NullBiFunction implements BiFunction<Object, Object, Object> {
+
+    /** the instance . */
+    static final NullBiFunction INSTANCE = new NullBiFunction();
+
+    private NullBiFunction() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object apply(final Object t, final Object u) {
+      return null;
+    }
+  }
+
+  /**
+   * the {@link Function} and the {@link Supplier} which always return null .
+   */
+  static final class NullFunction implements Function<Object, Object>, Supplier<Object> {
+
+    /** the instance . */
+    static final NullFunction INSTANCE = new NullFunction();
+
+    private NullFunction() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object apply(final Object t) {
+      return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object get() {
+      return null;
+    }
+  }
+
+  /**
+   * the {@link TriFunction} which always returns null .
+   */
+  static final class NullTriFunction implements TriFunction<Object, Object, Object, Object> {
+
+    /** the instance . */
+    static final NullTriFunction INSTANCE = new NullTriFunction();
+
+    private NullTriFunction() {}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object apply(final Object t, final Object u, final Object v) {
+      return null;
+    }
+  }
+}
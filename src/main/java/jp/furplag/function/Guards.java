@@ -0,0 +1,1127 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import jp.furplag.function.Trebuchet.TriConsumer;
+import jp.furplag.function.Trebuchet.TriFunction;
+import jp.furplag.function.Trebuchet.TriPredicate;
+
+/**
+ * the normalized form of the wrappers which {@code of(...)} returns .
+ *
+ * <p>each wrapper is a named node which holds the wrapped operation and a chain of fallbacks,
+ * so that {@code of(of(function, a), b)} collapses into one node instead of nesting lambdas .
+ * fallbacks are resolved when the node is created, and {@code fallbacks[i]} handles the failure of {@code fallbacks[i - 1]} .</p>
+ *
+ * @author furplag
+ *
+ */
+final class Guards {
+
+  /**
+   * Guards instances should NOT be constructed in standard programming .
+   */
+  private Guards() {}
+
+  /**
+   * returns a copy of the specified array with the element appended .
+   *
+   * @param <F> the type of elements
+   * @param array the array
+   * @param element the element to append
+   * @return a copy of the array with the element appended
+   */
+  private static <F> F[] append(final F[] array, final F element) {
+    final F[] result = Arrays.copyOf(array, array.length + 1);
+    result[array.length] = element;
+
+    return result;
+  }
+
+  /**
+   * returns a copy of the specified arrays concatenated .
+   *
+   * @param <F> the type of elements
+   * @param array the array
+   * @param elements the elements to append
+   * @return a copy of the arrays concatenated
+   */
+  private static <F> F[] concat(final F[] array, final F[] elements) {
+    final F[] result = Arrays.copyOf(array, array.length + elements.length);
+    System.arraycopy(elements, 0, result, array.length, elements.length);
+
+    return result;
+  }
+
+  /**
+   * returns the node which guards the specified operation, merging if it has guarded already .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   * @param consumer {@link ThrowableBiConsumer}, may not be null
+   * @param fallback resolved fallback
+   * @return {@link BiConsumerGuard}
+   */
+  static <T, U> ThrowableBiConsumer<T, U> biConsumer(final ThrowableBiConsumer<?, ?> consumer, final TriConsumer<?, ?, ?> fallback) {
+    if (Objects.requireNonNull(consumer).getClass() == BiConsumerGuard.class) {
+      return new BiConsumerGuard<>(((BiConsumerGuard<?, ?>) consumer).consumer, append(((BiConsumerGuard<?, ?>) consumer).fallbacks, fallback));
+    }
+
+    return new BiConsumerGuard<>(consumer, new TriConsumer<?, ?, ?>[] { fallback });
+  }
+
+  /**
+   * returns the node which guards the specified function, merging if it has guarded already .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <R> the type of the result of the function
+   * @param function {@link ThrowableBiFunction}, may not be null
+   * @param fallback resolved fallback
+   * @return {@link BiFunctionGuard}
+   */
+  static <T, U, R> ThrowableBiFunction<T, U, R> biFunction(final ThrowableBiFunction<?, ?, ?> function, final TriFunction<?, ?, ?, ?> fallback) {
+    if (Objects.requireNonNull(function).getClass() == BiFunctionGuard.class) {
+      return new BiFunctionGuard<>(((BiFunctionGuard<?, ?, ?>) function).function, append(((BiFunctionGuard<?, ?, ?>) function).fallbacks, fallback), Adaptation.copy(((BiFunctionGuard<?, ?, ?>) function).adaptation));
+    }
+
+    return new BiFunctionGuard<>(function, new TriFunction<?, ?, ?, ?>[] { fallback });
+  }
+
+  /**
+   * returns the node which guards the specified predicate, merging if it has guarded already .
+   *
+   * @param <T> the type of the first argument to the predicate
+   * @param <U> the type of the second argument to the predicate
+   * @param predicate {@link ThrowableBiPredicate}, may not be null
+   * @param fallback resolved fallback
+   * @return {@link BiPredicateGuard}
+   */
+  static <T, U> ThrowableBiPredicate<T, U> biPredicate(final ThrowableBiPredicate<?, ?> predicate, final TriFunction<?, ?, ?, ?> fallback) {
+    if (Objects.requireNonNull(predicate).getClass() == BiPredicateGuard.class) {
+      return new BiPredicateGuard<>(((BiPredicateGuard<?, ?>) predicate).function, append(((BiPredicateGuard<?, ?>) predicate).fallbacks, fallback), Adaptation.copy(((BiPredicateGuard<?, ?>) predicate).adaptation));
+    }
+
+    return new BiPredicateGuard<>(predicate, new TriFunction<?, ?, ?, ?>[] { fallback });
+  }
+
+  /**
+   * returns the node which guards the specified operation, merging if it has guarded already .
+   *
+   * @param <T> the type of the input to the operation
+   * @param consumer {@link ThrowableConsumer}, may not be null
+   * @param fallback resolved fallback
+   * @return {@link ConsumerGuard}
+   */
+  static <T> ThrowableConsumer<T> consumer(final ThrowableConsumer<?> consumer, final BiConsumer<?, ?> fallback) {
+    if (Objects.requireNonNull(consumer).getClass() == ConsumerGuard.class) {
+      return new ConsumerGuard<>(((ConsumerGuard<?>) consumer).consumer, append(((ConsumerGuard<?>) consumer).fallbacks, fallback));
+    }
+
+    return new ConsumerGuard<>(consumer, new BiConsumer<?, ?>[] { fallback });
+  }
+
+  /**
+   * returns the node which guards the specified function, merging if it has guarded already .
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   * @param function {@link ThrowableFunction}, may not be null
+   * @param fallback resolved fallback
+   * @return {@link FunctionGuard}
+   */
+  static <T, R> ThrowableFunction<T, R> function(final ThrowableFunction<?, ?> function, final BiFunction<?, ?, ?> fallback) {
+    if (Objects.requireNonNull(function).getClass() == FunctionGuard.class) {
+      return new FunctionGuard<>(((FunctionGuard<?, ?>) function).function, append(((FunctionGuard<?, ?>) function).fallbacks, fallback), Adaptation.copy(((FunctionGuard<?, ?>) function).adaptation));
+    }
+
+    return new FunctionGuard<>(function, new BiFunction<?, ?, ?>[] { fallback });
+  }
+
+  /**
+   * returns the specified function guarded by the precheck .
+   *
+   * @param <F> the type of the function
+   * @param function the function
+   * @param precheck {@link Predicate}, may not be null
+   * @return the function which is guarded by the precheck
+   * @throws NullPointerException if {@code precheck} is null
+   * @throws IllegalArgumentException if the function is not the one which {@code of(...)} returns
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <F extends ThrowableFunction<?, ?>> F guardedBy(final F function, final Predicate<?> precheck) {
+    Objects.requireNonNull(precheck);
+
+    if (!(function instanceof FunctionGuard)) {
+      throw new IllegalArgumentException("only the function which of(...) returns may be guarded .");
+    }
+
+    return (F) ((FunctionGuard<?, ?>) function).prechecked(precheck);
+  }
+
+  /**
+   * returns the specified function guarded by the precheck .
+   *
+   * @param <F> the type of the function
+   * @param function the function
+   * @param precheck {@link BiPredicate}, may not be null
+   * @return the function which is guarded by the precheck
+   * @throws NullPointerException if {@code precheck} is null
+   * @throws IllegalArgumentException if the function is not the one which {@code of(...)} returns
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <F extends ThrowableBiFunction<?, ?, ?>> F guardedBy(final F function, final BiPredicate<?, ?> precheck) {
+    Objects.requireNonNull(precheck);
+
+    if (!(function instanceof BiFunctionGuard)) {
+      throw new IllegalArgumentException("only the function which of(...) returns may be guarded .");
+    }
+
+    return (F) ((BiFunctionGuard<?, ?, ?>) function).prechecked(precheck);
+  }
+
+  /**
+   * returns the specified function guarded by the precheck .
+   *
+   * @param <F> the type of the function
+   * @param function the function
+   * @param precheck {@link TriPredicate}, may not be null
+   * @return the function which is guarded by the precheck
+   * @throws NullPointerException if {@code precheck} is null
+   * @throws IllegalArgumentException if the function is not the one which {@code of(...)} returns
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <F extends ThrowableTriFunction<?, ?, ?, ?>> F guardedBy(final F function, final TriPredicate<?, ?, ?> precheck) {
+    Objects.requireNonNull(precheck);
+
+    if (!(function instanceof TriFunctionGuard)) {
+      throw new IllegalArgumentException("only the function which of(...) returns may be guarded .");
+    }
+
+    return (F) ((TriFunctionGuard<?, ?, ?, ?>) function).prechecked(precheck);
+  }
+
+  /**
+   * returns the node which guards the specified predicate, merging if it has guarded already .
+   *
+   * @param <T> the type of the input to the predicate
+   * @param predicate {@link ThrowablePredicate}, may not be null
+   * @param fallback resolved fallback
+   * @return {@link PredicateGuard}
+   */
+  static <T> ThrowablePredicate<T> predicate(final ThrowablePredicate<?> predicate, final BiFunction<?, ?, ?> fallback) {
+    if (Objects.requireNonNull(predicate).getClass() == PredicateGuard.class) {
+      return new PredicateGuard<>(((PredicateGuard<?>) predicate).function, append(((PredicateGuard<?>) predicate).fallbacks, fallback), Adaptation.copy(((PredicateGuard<?>) predicate).adaptation));
+    }
+
+    return new PredicateGuard<>(predicate, new BiFunction<?, ?, ?>[] { fallback });
+  }
+
+  /**
+   * returns the operation which performs the specified operations in sequence, flattening sequences .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   * @param consumer {@link BiConsumer}
+   * @param after {@link BiConsumer}
+   * @return {@link BiConsumerSequence}
+   */
+  static <T, U> ThrowableBiConsumer<T, U> sequence(final BiConsumer<?, ?> consumer, final BiConsumer<?, ?> after) {
+    return new BiConsumerSequence<>(concat(BiConsumerSequence.of(consumer), BiConsumerSequence.of(after)));
+  }
+
+  /**
+   * returns the operation which performs the specified operations in sequence, flattening sequences .
+   *
+   * @param <T> the type of the input to the operation
+   * @param consumer {@link Consumer}
+   * @param after {@link Consumer}
+   * @return {@link ConsumerSequence}
+   */
+  static <T> ThrowableConsumer<T> sequence(final Consumer<?> consumer, final Consumer<?> after) {
+    return new ConsumerSequence<>(concat(ConsumerSequence.of(consumer), ConsumerSequence.of(after)));
+  }
+
+  /**
+   * returns the operation which performs the specified operations in sequence, flattening sequences .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   * @param <V> the type of the third argument to the operation
+   * @param consumer {@link TriConsumer}
+   * @param after {@link TriConsumer}
+   * @return {@link TriConsumerSequence}
+   */
+  static <T, U, V> ThrowableTriConsumer<T, U, V> sequence(final TriConsumer<?, ?, ?> consumer, final TriConsumer<?, ?, ?> after) {
+    return new TriConsumerSequence<>(concat(TriConsumerSequence.of(consumer), TriConsumerSequence.of(after)));
+  }
+
+  /**
+   * returns the node which guards the specified operation, merging if it has guarded already .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   * @param <V> the type of the third argument to the operation
+   * @param consumer {@link ThrowableTriConsumer}, may not be null
+   * @param fallback resolved fallback
+   * @return {@link TriConsumerGuard}
+   */
+  static <T, U, V> ThrowableTriConsumer<T, U, V> triConsumer(final ThrowableTriConsumer<?, ?, ?> consumer, final TriConsumerFallback fallback) {
+    if (Objects.requireNonNull(consumer).getClass() == TriConsumerGuard.class) {
+      return new TriConsumerGuard<>(((TriConsumerGuard<?, ?, ?>) consumer).consumer, append(((TriConsumerGuard<?, ?, ?>) consumer).fallbacks, fallback));
+    }
+
+    return new TriConsumerGuard<>(consumer, new TriConsumerFallback[] { fallback });
+  }
+
+  /**
+   * returns the node which guards the specified function, merging if it has guarded already .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <V> the type of the third argument to the function
+   * @param <R> the type of the result of the function
+   * @param function {@link ThrowableTriFunction}, may not be null
+   * @param fallback resolved fallback
+   * @return {@link TriFunctionGuard}
+   */
+  static <T, U, V, R> ThrowableTriFunction<T, U, V, R> triFunction(final ThrowableTriFunction<?, ?, ?, ?> function, final TriFunctionFallback fallback) {
+    if (Objects.requireNonNull(function).getClass() == TriFunctionGuard.class) {
+      return new TriFunctionGuard<>(((TriFunctionGuard<?, ?, ?, ?>) function).function, append(((TriFunctionGuard<?, ?, ?, ?>) function).fallbacks, fallback), Adaptation.copy(((TriFunctionGuard<?, ?, ?, ?>) function).adaptation));
+    }
+
+    return new TriFunctionGuard<>(function, new TriFunctionFallback[] { fallback });
+  }
+
+  /**
+   * returns the node which guards the specified predicate, merging if it has guarded already .
+   *
+   * @param <T> the type of the first argument to the predicate
+   * @param <U> the type of the second argument to the predicate
+   * @param <V> the type of the third argument to the predicate
+   * @param predicate {@link ThrowableTriPredicate}, may not be null
+   * @param fallback resolved fallback
+   * @return {@link TriPredicateGuard}
+   */
+  static <T, U, V> ThrowableTriPredicate<T, U, V> triPredicate(final ThrowableTriPredicate<?, ?, ?> predicate, final TriFunctionFallback fallback) {
+    if (Objects.requireNonNull(predicate).getClass() == TriPredicateGuard.class) {
+      return new TriPredicateGuard<>(((TriPredicateGuard<?, ?, ?>) predicate).function, append(((TriPredicateGuard<?, ?, ?>) predicate).fallbacks, fallback), Adaptation.copy(((TriPredicateGuard<?, ?, ?>) predicate).adaptation));
+    }
+
+    return new TriPredicateGuard<>(predicate, new TriFunctionFallback[] { fallback });
+  }
+
+  /**
+   * the fallback of a {@link ThrowableTriConsumer}, which accepts the arguments and the failure .
+   */
+  @FunctionalInterface
+  interface TriConsumerFallback {
+
+    /**
+     * performs this operation on the given arguments .
+     *
+     * @param t the first argument
+     * @param u the second argument
+     * @param v the third argument
+     * @param e the failure
+     */
+    void accept(Object t, Object u, Object v, Throwable e);
+  }
+
+  /**
+   * the fallback of a {@link ThrowableTriFunction}, which accepts the arguments and the failure .
+   */
+  @FunctionalInterface
+  interface TriFunctionFallback {
+
+    /**
+     * applies this function to the given arguments .
+     *
+     * @param t the first argument
+     * @param u the second argument
+     * @param v the third argument
+     * @param e the failure
+     * @return the function result
+     */
+    Object apply(Object t, Object u, Object v, Throwable e);
+  }
+
+  /**
+   * the precheck of a guarded function, which is evaluated only while the function fails frequently .
+   *
+   * <p>the failure rate is measured in every {@value #WINDOW} calls, and the node starts prechecking
+   * once one in eight calls fail, then stops once less than one in thirty-two calls are rejected or fail .
+   * statistics are updated without synchronization, since they are only hints .</p>
+   *
+   * @param <P> the type of the precheck
+   */
+  static final class Adaptation<P> {
+
+    /** the number of calls in each window . */
+    static final int WINDOW = 1 << 6;
+
+    /** the precheck . */
+    final P precheck;
+
+    /** true if the precheck is evaluated before the function . */
+    boolean prechecking;
+
+    /** calls in the current window . */
+    private int calls;
+
+    /** calls which rejected or failed in the current window . */
+    private int misses;
+
+    private Adaptation(final P precheck) {
+      this.precheck = precheck;
+    }
+
+    /**
+     * returns an adaptation which prechecks with the specified one, in addition to the current one .
+     *
+     * @param current the current adaptation, or null
+     * @param precheck the precheck
+     * @return {@link Adaptation}
+     */
+    @SuppressWarnings({ "unchecked" })
+    static Adaptation<BiPredicate<Object, Object>> of(final Adaptation<BiPredicate<Object, Object>> current, final BiPredicate<?, ?> precheck) {
+      return new Adaptation<>(current == null ? (BiPredicate<Object, Object>) precheck : current.precheck.and((BiPredicate<Object, Object>) precheck));
+    }
+
+    /**
+     * returns an adaptation which prechecks with the specified one, in addition to the current one .
+     *
+     * @param current the current adaptation, or null
+     * @param precheck the precheck
+     * @return {@link Adaptation}
+     */
+    @SuppressWarnings({ "unchecked" })
+    static Adaptation<Predicate<Object>> of(final Adaptation<Predicate<Object>> current, final Predicate<?> precheck) {
+      return new Adaptation<>(current == null ? (Predicate<Object>) precheck : current.precheck.and((Predicate<Object>) precheck));
+    }
+
+    /**
+     * returns an adaptation which prechecks with the specified one, in addition to the current one .
+     *
+     * @param current the current adaptation, or null
+     * @param precheck the precheck
+     * @return {@link Adaptation}
+     */
+    @SuppressWarnings({ "unchecked" })
+    static Adaptation<TriPredicate<Object, Object, Object>> of(final Adaptation<TriPredicate<Object, Object, Object>> current, final TriPredicate<?, ?, ?> precheck) {
+      return new Adaptation<>(current == null ? (TriPredicate<Object, Object, Object>) precheck : current.precheck.and((TriPredicate<Object, Object, Object>) precheck));
+    }
+
+    /**
+     * returns a fresh adaptation which has the same precheck, so that each node has its own statistics .
+     *
+     * @param <P> the type of the precheck
+     * @param adaptation the adaptation, or null
+     * @return {@link Adaptation}, or null if {@code adaptation} is null
+     */
+    static <P> Adaptation<P> copy(final Adaptation<P> adaptation) {
+      return adaptation == null ? null : new Adaptation<>(adaptation.precheck);
+    }
+
+    /**
+     * records a call, and switches the mode at the end of each window .
+     *
+     * @param missed true if the call has rejected or failed
+     */
+    void record(final boolean missed) {
+      if (missed) {
+        misses++;
+      }
+      if (++calls >= WINDOW) {
+        prechecking = misses * (prechecking ? 32 : 8) >= calls;
+        calls = 0;
+        misses = 0;
+      }
+    }
+  }
+
+  /**
+   * a guarded {@link ThrowableBiConsumer} .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   */
+  static final class BiConsumerGuard<T, U> implements ThrowableBiConsumer<T, U> {
+
+    /** the operation . */
+    final ThrowableBiConsumer<Object, Object> consumer;
+
+    /** the chain of fallbacks . */
+    final TriConsumer<Object, Object, Throwable>[] fallbacks;
+
+    @SuppressWarnings({ "unchecked" })
+    private BiConsumerGuard(final ThrowableBiConsumer<?, ?> consumer, final TriConsumer<?, ?, ?>[] fallbacks) {
+      this.consumer = (ThrowableBiConsumer<Object, Object>) consumer;
+      this.fallbacks = (TriConsumer<Object, Object, Throwable>[]) fallbacks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acceptOrThrow(final T t, final U u) throws Throwable {
+      Listeners.onInvoke(consumer);
+      try {
+        consumer.acceptOrThrow(t, u);
+        Listeners.onSuccess(consumer);
+      } catch (Throwable e) {
+        Listeners.onFallen(consumer, e);
+        Throwable failure = e;
+        for (int i = 0; i < fallbacks.length - 1; i++) {/* @formatter:off */
+          try {fallbacks[i].accept(t, u, failure); return;} catch (Throwable ex) {failure = ex;}
+        /* @formatter:on */}
+        fallbacks[fallbacks.length - 1].accept(t, u, failure);
+      }
+    }
+  }
+
+  /**
+   * a sequence of {@link BiConsumer} .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   */
+  static final class BiConsumerSequence<T, U> implements ThrowableBiConsumer<T, U> {
+
+    /** the operations . */
+    private final BiConsumer<Object, Object>[] consumers;
+
+    @SuppressWarnings({ "unchecked" })
+    private BiConsumerSequence(final BiConsumer<?, ?>[] consumers) {
+      this.consumers = (BiConsumer<Object, Object>[]) consumers;
+    }
+
+    /**
+     * returns the operations which the specified one consists of .
+     *
+     * @param consumer {@link BiConsumer}
+     * @return the operations
+     */
+    private static BiConsumer<?, ?>[] of(final BiConsumer<?, ?> consumer) {
+      return consumer instanceof BiConsumerSequence ? ((BiConsumerSequence<?, ?>) consumer).consumers : new BiConsumer<?, ?>[] { consumer };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acceptOrThrow(final T t, final U u) throws Throwable {
+      for (BiConsumer<Object, Object> consumer : consumers) {
+        consumer.accept(t, u);
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>the {@code after} operation is appended to this sequence, instead of nesting .</p>
+     */
+    @Override
+    public ThrowableBiConsumer<T, U> andThen(final BiConsumer<? super T, ? super U> after) {
+      return sequence(this, Trebuchet.defaults(after));
+    }
+  }
+
+  /**
+   * a guarded {@link ThrowableBiFunction} .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <R> the type of the result of the function
+   */
+  static class BiFunctionGuard<T, U, R> implements ThrowableBiFunction<T, U, R> {
+
+    /** the function . */
+    final ThrowableBiFunction<Object, Object, Object> function;
+
+    /** the chain of fallbacks . */
+    final TriFunction<Object, Object, Throwable, Object>[] fallbacks;
+
+    /** the precheck and its statistics, or null if not guarded by a precheck . */
+    final Adaptation<BiPredicate<Object, Object>> adaptation;
+
+    BiFunctionGuard(final ThrowableBiFunction<?, ?, ?> function, final TriFunction<?, ?, ?, ?>[] fallbacks) {
+      this(function, fallbacks, null);
+    }
+
+    @SuppressWarnings({ "unchecked" })
+    BiFunctionGuard(final ThrowableBiFunction<?, ?, ?> function, final TriFunction<?, ?, ?, ?>[] fallbacks, final Adaptation<BiPredicate<Object, Object>> adaptation) {
+      this.function = (ThrowableBiFunction<Object, Object, Object>) function;
+      this.fallbacks = (TriFunction<Object, Object, Throwable, Object>[]) fallbacks;
+      this.adaptation = adaptation;
+    }
+
+    /**
+     * returns the chain of fallbacks' result of the specified failure .
+     *
+     * @param t the first argument
+     * @param u the second argument
+     * @param e the failure of the guarded function
+     * @return the result of the first fallback which done it normally
+     */
+    final Object fallen(final Object t, final Object u, final Throwable e) {
+      Listeners.onFallback(function, e);
+      Throwable failure = e;
+      for (int i = 0; i < fallbacks.length - 1; i++) {/* @formatter:off */
+        try {return fallbacks[i].apply(t, u, failure);} catch (Throwable ex) {failure = ex;}
+      /* @formatter:on */}
+
+      return fallbacks[fallbacks.length - 1].apply(t, u, failure);
+    }
+
+    /**
+     * returns a copy of this node which is guarded by the specified precheck, in addition to the current one .
+     *
+     * @param precheck the precheck
+     * @return {@link BiFunctionGuard}
+     */
+    BiFunctionGuard<T, U, R> prechecked(final BiPredicate<?, ?> precheck) {
+      return new BiFunctionGuard<>(function, fallbacks, Adaptation.of(adaptation, precheck));
+    }
+
+    /**
+     * applies the guarded function .
+     *
+     * @param t the first argument
+     * @param u the second argument
+     * @return the function result
+     * @throws Throwable anything thrown
+     */
+    Object invoke(final Object t, final Object u) throws Throwable {
+      return function.applyOrThrow(t, u);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    public R applyOrThrow(final T t, final U u) throws Throwable {
+      if (adaptation != null && adaptation.prechecking && !adaptation.precheck.test(t, u)) {
+        adaptation.record(true);
+
+        return (R) fallen(t, u, new RejectedException(t, u));
+      }
+      Listeners.onInvoke(function);
+      try {
+        final Object result = invoke(t, u);
+        if (adaptation != null) {
+          adaptation.record(false);
+        }
+        Listeners.onSuccess(function);
+
+        return (R) result;
+      } catch (Throwable e) {
+        if (adaptation != null) {
+          adaptation.record(true);
+        }
+        Listeners.onFailure(function, e);
+
+        return (R) fallen(t, u, e);
+      }
+    }
+  }
+
+  /**
+   * a guarded {@link ThrowableBiPredicate} .
+   *
+   * @param <T> the type of the first argument to the predicate
+   * @param <U> the type of the second argument to the predicate
+   */
+  static final class BiPredicateGuard<T, U> extends BiFunctionGuard<T, U, Boolean> implements ThrowableBiPredicate<T, U> {
+
+    private BiPredicateGuard(final ThrowableBiFunction<?, ?, ?> predicate, final TriFunction<?, ?, ?, ?>[] fallbacks) {
+      super(predicate, fallbacks);
+    }
+
+    private BiPredicateGuard(final ThrowableBiFunction<?, ?, ?> predicate, final TriFunction<?, ?, ?, ?>[] fallbacks, final Adaptation<BiPredicate<Object, Object>> adaptation) {
+      super(predicate, fallbacks, adaptation);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    BiPredicateGuard<T, U> prechecked(final BiPredicate<?, ?> precheck) {
+      return new BiPredicateGuard<>(function, fallbacks, Adaptation.of(adaptation, precheck));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    Object invoke(final Object t, final Object u) throws Throwable {
+      return ((ThrowableBiPredicate<Object, Object>) (ThrowableBiFunction<?, ?, ?>) function).test(t, u);
+    }
+  }
+
+  /**
+   * a guarded {@link ThrowableConsumer} .
+   *
+   * @param <T> the type of the input to the operation
+   */
+  static final class ConsumerGuard<T> implements ThrowableConsumer<T> {
+
+    /** the operation . */
+    final ThrowableConsumer<Object> consumer;
+
+    /** the chain of fallbacks . */
+    final BiConsumer<Object, Throwable>[] fallbacks;
+
+    @SuppressWarnings({ "unchecked" })
+    private ConsumerGuard(final ThrowableConsumer<?> consumer, final BiConsumer<?, ?>[] fallbacks) {
+      this.consumer = (ThrowableConsumer<Object>) consumer;
+      this.fallbacks = (BiConsumer<Object, Throwable>[]) fallbacks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acceptOrThrow(final T t) throws Throwable {
+      Listeners.onInvoke(consumer);
+      try {
+        consumer.acceptOrThrow(t);
+        Listeners.onSuccess(consumer);
+      } catch (Throwable e) {
+        Listeners.onFallen(consumer, e);
+        Throwable failure = e;
+        for (int i = 0; i < fallbacks.length - 1; i++) {/* @formatter:off */
+          try {fallbacks[i].accept(t, failure); return;} catch (Throwable ex) {failure = ex;}
+        /* @formatter:on */}
+        fallbacks[fallbacks.length - 1].accept(t, failure);
+      }
+    }
+  }
+
+  /**
+   * a sequence of {@link Consumer} .
+   *
+   * @param <T> the type of the input to the operation
+   */
+  static final class ConsumerSequence<T> implements ThrowableConsumer<T> {
+
+    /** the operations . */
+    private final Consumer<Object>[] consumers;
+
+    @SuppressWarnings({ "unchecked" })
+    private ConsumerSequence(final Consumer<?>[] consumers) {
+      this.consumers = (Consumer<Object>[]) consumers;
+    }
+
+    /**
+     * returns the operations which the specified one consists of .
+     *
+     * @param consumer {@link Consumer}
+     * @return the operations
+     */
+    private static Consumer<?>[] of(final Consumer<?> consumer) {
+      return consumer instanceof ConsumerSequence ? ((ConsumerSequence<?>) consumer).consumers : new Consumer<?>[] { consumer };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acceptOrThrow(final T t) throws Throwable {
+      for (Consumer<Object> consumer : consumers) {
+        consumer.accept(t);
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>the {@code after} operation is appended to this sequence, instead of nesting .</p>
+     */
+    @Override
+    public ThrowableConsumer<T> andThen(final Consumer<? super T> after) {
+      return sequence(this, Trebuchet.defaults(after));
+    }
+  }
+
+  /**
+   * a guarded {@link ThrowableFunction} .
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   */
+  static class FunctionGuard<T, R> implements ThrowableFunction<T, R> {
+
+    /** the function . */
+    final ThrowableFunction<Object, Object> function;
+
+    /** the chain of fallbacks . */
+    final BiFunction<Object, Throwable, Object>[] fallbacks;
+
+    /** the precheck and its statistics, or null if not guarded by a precheck . */
+    final Adaptation<Predicate<Object>> adaptation;
+
+    FunctionGuard(final ThrowableFunction<?, ?> function, final BiFunction<?, ?, ?>[] fallbacks) {
+      this(function, fallbacks, null);
+    }
+
+    @SuppressWarnings({ "unchecked" })
+    FunctionGuard(final ThrowableFunction<?, ?> function, final BiFunction<?, ?, ?>[] fallbacks, final Adaptation<Predicate<Object>> adaptation) {
+      this.function = (ThrowableFunction<Object, Object>) function;
+      this.fallbacks = (BiFunction<Object, Throwable, Object>[]) fallbacks;
+      this.adaptation = adaptation;
+    }
+
+    /**
+     * returns the chain of fallbacks' result of the specified failure .
+     *
+     * @param t the function argument
+     * @param e the failure of the guarded function
+     * @return the result of the first fallback which done it normally
+     */
+    final Object fallen(final Object t, final Throwable e) {
+      Listeners.onFallback(function, e);
+      Throwable failure = e;
+      for (int i = 0; i < fallbacks.length - 1; i++) {/* @formatter:off */
+        try {return fallbacks[i].apply(t, failure);} catch (Throwable ex) {failure = ex;}
+      /* @formatter:on */}
+
+      return fallbacks[fallbacks.length - 1].apply(t, failure);
+    }
+
+    /**
+     * returns a copy of this node which is guarded by the specified precheck, in addition to the current one .
+     *
+     * @param precheck the precheck
+     * @return {@link FunctionGuard}
+     */
+    FunctionGuard<T, R> prechecked(final Predicate<?> precheck) {
+      return new FunctionGuard<>(function, fallbacks, Adaptation.of(adaptation, precheck));
+    }
+
+    /**
+     * applies the guarded function .
+     *
+     * @param t the function argument
+     * @return the function result
+     * @throws Throwable anything thrown
+     */
+    Object invoke(final Object t) throws Throwable {
+      return function.applyOrThrow(t);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    public R applyOrThrow(final T t) throws Throwable {
+      if (adaptation != null && adaptation.prechecking && !adaptation.precheck.test(t)) {
+        adaptation.record(true);
+
+        return (R) fallen(t, new RejectedException(t));
+      }
+      Listeners.onInvoke(function);
+      try {
+        final Object result = invoke(t);
+        if (adaptation != null) {
+          adaptation.record(false);
+        }
+        Listeners.onSuccess(function);
+
+        return (R) result;
+      } catch (Throwable e) {
+        if (adaptation != null) {
+          adaptation.record(true);
+        }
+        Listeners.onFailure(function, e);
+
+        return (R) fallen(t, e);
+      }
+    }
+  }
+
+  /**
+   * a guarded {@link ThrowablePredicate} .
+   *
+   * @param <T> the type of the input to the predicate
+   */
+  static final class PredicateGuard<T> extends FunctionGuard<T, Boolean> implements ThrowablePredicate<T> {
+
+    private PredicateGuard(final ThrowableFunction<?, ?> predicate, final BiFunction<?, ?, ?>[] fallbacks) {
+      super(predicate, fallbacks);
+    }
+
+    private PredicateGuard(final ThrowableFunction<?, ?> predicate, final BiFunction<?, ?, ?>[] fallbacks, final Adaptation<Predicate<Object>> adaptation) {
+      super(predicate, fallbacks, adaptation);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    PredicateGuard<T> prechecked(final Predicate<?> precheck) {
+      return new PredicateGuard<>(function, fallbacks, Adaptation.of(adaptation, precheck));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    Object invoke(final Object t) throws Throwable {
+      return ((ThrowablePredicate<Object>) (ThrowableFunction<?, ?>) function).test(t);
+    }
+  }
+
+  /**
+   * a guarded {@link ThrowableTriConsumer} .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   * @param <V> the type of the third argument to the operation
+   */
+  static final class TriConsumerGuard<T, U, V> implements ThrowableTriConsumer<T, U, V> {
+
+    /** the operation . */
+    final ThrowableTriConsumer<Object, Object, Object> consumer;
+
+    /** the chain of fallbacks . */
+    final TriConsumerFallback[] fallbacks;
+
+    @SuppressWarnings({ "unchecked" })
+    private TriConsumerGuard(final ThrowableTriConsumer<?, ?, ?> consumer, final TriConsumerFallback[] fallbacks) {
+      this.consumer = (ThrowableTriConsumer<Object, Object, Object>) consumer;
+      this.fallbacks = fallbacks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acceptOrThrow(final T t, final U u, final V v) throws Throwable {
+      Listeners.onInvoke(consumer);
+      try {
+        consumer.acceptOrThrow(t, u, v);
+        Listeners.onSuccess(consumer);
+      } catch (Throwable e) {
+        Listeners.onFallen(consumer, e);
+        Throwable failure = e;
+        for (int i = 0; i < fallbacks.length - 1; i++) {/* @formatter:off */
+          try {fallbacks[i].accept(t, u, v, failure); return;} catch (Throwable ex) {failure = ex;}
+        /* @formatter:on */}
+        fallbacks[fallbacks.length - 1].accept(t, u, v, failure);
+      }
+    }
+  }
+
+  /**
+   * a sequence of {@link TriConsumer} .
+   *
+   * @param <T> the type of the first argument to the operation
+   * @param <U> the type of the second argument to the operation
+   * @param <V> the type of the third argument to the operation
+   */
+  static final class TriConsumerSequence<T, U, V> implements ThrowableTriConsumer<T, U, V> {
+
+    /** the operations . */
+    private final TriConsumer<Object, Object, Object>[] consumers;
+
+    @SuppressWarnings({ "unchecked" })
+    private TriConsumerSequence(final TriConsumer<?, ?, ?>[] consumers) {
+      this.consumers = (TriConsumer<Object, Object, Object>[]) consumers;
+    }
+
+    /**
+     * returns the operations which the specified one consists of .
+     *
+     * @param consumer {@link TriConsumer}
+     * @return the operations
+     */
+    private static TriConsumer<?, ?, ?>[] of(final TriConsumer<?, ?, ?> consumer) {
+      return consumer instanceof TriConsumerSequence ? ((TriConsumerSequence<?, ?, ?>) consumer).consumers : new TriConsumer<?, ?, ?>[] { consumer };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acceptOrThrow(final T t, final U u, final V v) throws Throwable {
+      for (TriConsumer<Object, Object, Object> consumer : consumers) {
+        consumer.accept(t, u, v);
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>the {@code after} operation is appended to this sequence, instead of nesting .</p>
+     */
+    @Override
+    public ThrowableTriConsumer<T, U, V> andThen(final TriConsumer<? super T, ? super U, ? super V> after) {
+      return sequence(this, Trebuchet.defaults(after));
+    }
+  }
+
+  /**
+   * a guarded {@link ThrowableTriFunction} .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <V> the type of the third argument to the function
+   * @param <R> the type of the result of the function
+   */
+  static class TriFunctionGuard<T, U, V, R> implements ThrowableTriFunction<T, U, V, R> {
+
+    /** the function . */
+    final ThrowableTriFunction<Object, Object, Object, Object> function;
+
+    /** the chain of fallbacks . */
+    final TriFunctionFallback[] fallbacks;
+
+    /** the precheck and its statistics, or null if not guarded by a precheck . */
+    final Adaptation<TriPredicate<Object, Object, Object>> adaptation;
+
+    TriFunctionGuard(final ThrowableTriFunction<?, ?, ?, ?> function, final TriFunctionFallback[] fallbacks) {
+      this(function, fallbacks, null);
+    }
+
+    @SuppressWarnings({ "unchecked" })
+    TriFunctionGuard(final ThrowableTriFunction<?, ?, ?, ?> function, final TriFunctionFallback[] fallbacks, final Adaptation<TriPredicate<Object, Object, Object>> adaptation) {
+      this.function = (ThrowableTriFunction<Object, Object, Object, Object>) function;
+      this.fallbacks = (TriFunctionFallback[]) fallbacks;
+      this.adaptation = adaptation;
+    }
+
+    /**
+     * returns the chain of fallbacks' result of the specified failure .
+     *
+     * @param t the first argument
+     * @param u the second argument
+     * @param v the third argument
+     * @param e the failure of the guarded function
+     * @return the result of the first fallback which done it normally
+     */
+    final Object fallen(final Object t, final Object u, final Object v, final Throwable e) {
+      Listeners.onFallback(function, e);
+      Throwable failure = e;
+      for (int i = 0; i < fallbacks.length - 1; i++) {/* @formatter:off */
+        try {return fallbacks[i].apply(t, u, v, failure);} catch (Throwable ex) {failure = ex;}
+      /* @formatter:on */}
+
+      return fallbacks[fallbacks.length - 1].apply(t, u, v, failure);
+    }
+
+    /**
+     * returns a copy of this node which is guarded by the specified precheck, in addition to the current one .
+     *
+     * @param precheck the precheck
+     * @return {@link TriFunctionGuard}
+     */
+    TriFunctionGuard<T, U, V, R> prechecked(final TriPredicate<?, ?, ?> precheck) {
+      return new TriFunctionGuard<>(function, fallbacks, Adaptation.of(adaptation, precheck));
+    }
+
+    /**
+     * applies the guarded function .
+     *
+     * @param t the first argument
+     * @param u the second argument
+     * @param v the third argument
+     * @return the function result
+     * @throws Throwable anything thrown
+     */
+    Object invoke(final Object t, final Object u, final Object v) throws Throwable {
+      return function.applyOrThrow(t, u, v);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    public R applyOrThrow(final T t, final U u, final V v) throws Throwable {
+      if (adaptation != null && adaptation.prechecking && !adaptation.precheck.test(t, u, v)) {
+        adaptation.record(true);
+
+        return (R) fallen(t, u, v, new RejectedException(t, u, v));
+      }
+      Listeners.onInvoke(function);
+      try {
+        final Object result = invoke(t, u, v);
+        if (adaptation != null) {
+          adaptation.record(false);
+        }
+        Listeners.onSuccess(function);
+
+        return (R) result;
+      } catch (Throwable e) {
+        if (adaptation != null) {
+          adaptation.record(true);
+        }
+        Listeners.onFailure(function, e);
+
+        return (R) fallen(t, u, v, e);
+      }
+    }
+  }
+
+  /**
+   * a guarded {@link ThrowableTriPredicate} .
+   *
+   * @param <T> the type of the first argument to the predicate
+   * @param <U> the type of the second argument to the predicate
+   * @param <V> the type of the third argument to the predicate
+   */
+  static final class TriPredicateGuard<T, U, V> extends TriFunctionGuard<T, U, V, Boolean> implements ThrowableTriPredicate<T, U, V> {
+
+    private TriPredicateGuard(final ThrowableTriFunction<?, ?, ?, ?> predicate, final TriFunctionFallback[] fallbacks) {
+      super(predicate, fallbacks);
+    }
+
+    private TriPredicateGuard(final ThrowableTriFunction<?, ?, ?, ?> predicate, final TriFunctionFallback[] fallbacks, final Adaptation<TriPredicate<Object, Object, Object>> adaptation) {
+      super(predicate, fallbacks, adaptation);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    TriPredicateGuard<T, U, V> prechecked(final TriPredicate<?, ?, ?> precheck) {
+      return new TriPredicateGuard<>(function, fallbacks, Adaptation.of(adaptation, precheck));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    Object invoke(final Object t, final Object u, final Object v) throws Throwable {
+      return ((ThrowableTriPredicate<Object, Object, Object>) (ThrowableTriFunction<?, ?, ?, ?>) function).test(t, u, v);
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * a stable merge sort of indices over an array of keys, so that sorting allocates no object per element .
+ *
+ * <p>ranges which are larger than {@link #GRANULARITY} are sorted in parallel in the {@link ForkJoinPool#commonPool() common pool} ,
+ * as {@link java.util.Arrays#parallelSort(Object[], Comparator)} does .</p>
+ *
+ * @author furplag
+ *
+ * @param <K> the type of keys
+ */
+final class IndexSort<K> extends RecursiveAction {
+
+  /** the size of ranges which are sorted sequentially . */
+  static final int GRANULARITY = 1 << 13;
+
+  /** the size of ranges which are sorted by insertion . */
+  private static final int INSERTION = 1 << 5;
+
+  /** serialVersionUID . */
+  private static final long serialVersionUID = 1L;
+
+  /** the keys . */
+  private final Object[] keys;
+
+  /** the comparator of keys . */
+  private final Comparator<? super K> comparator;
+
+  /** the indices of keys to sort . */
+  private final int[] indices;
+
+  /** the work area, which is as large as {@link #indices} . */
+  private final int[] buffer;
+
+  /** the first index of the range, inclusive . */
+  private final int from;
+
+  /** the last index of the range, exclusive . */
+  private final int to;
+
+  /**
+   * @param keys the keys
+   * @param comparator the comparator of keys
+   * @param indices the indices of keys to sort
+   * @param buffer the work area
+   * @param from the first index of the range, inclusive
+   * @param to the last index of the range, exclusive
+   */
+  private IndexSort(final Object[] keys, final Comparator<? super K> comparator, final int[] indices, final int[] buffer, final int from, final int to) {
+    this.keys = keys;
+    this.comparator = comparator;
+    this.indices = indices;
+    this.buffer = buffer;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * returns indices of the keys, in the order of keys . equal keys stay in the order of indices .
+   *
+   * @param <K> the type of keys
+   * @param keys the keys
+   * @param length the number of keys to sort, from the head of {@code keys}
+   * @param comparator the comparator of keys
+   * @return indices of the keys, in the order of keys
+   */
+  static <K> int[] sort(final Object[] keys, final int length, final Comparator<? super K> comparator) {
+    final int[] indices = new int[length];
+    for (int i = 0; i < length; i++) {
+      indices[i] = i;
+    }
+    if (length > 1) {
+      final IndexSort<K> sort = new IndexSort<>(keys, comparator, indices, new int[length], 0, length);
+      if (length > GRANULARITY) {
+        ForkJoinPool.commonPool().invoke(sort);
+      } else {
+        sort.sort(0, length);
+      }
+    }
+
+    return indices;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void compute() {
+    if (to - from <= GRANULARITY) {
+      sort(from, to);
+
+      return;
+    }
+    final int mid = (from + to) >>> 1;
+    invokeAll(new IndexSort<>(keys, comparator, indices, buffer, from, mid), new IndexSort<>(keys, comparator, indices, buffer, mid, to));
+    merge(from, mid, to);
+  }
+
+  /**
+   * compares keys of the indices .
+   *
+   * @param x an index
+   * @param y another index
+   * @return the result of the comparator
+   */
+  @SuppressWarnings({ "unchecked" })
+  private int compare(final int x, final int y) {
+    return comparator.compare((K) keys[x], (K) keys[y]);
+  }
+
+  /**
+   * merges the sorted ranges, taking the left one first if keys are equal .
+   *
+   * @param from the first index of the left range, inclusive
+   * @param mid the first index of the right range
+   * @param to the last index of the right range, exclusive
+   */
+  private void merge(final int from, final int mid, final int to) {
+    if (compare(indices[mid - 1], indices[mid]) <= 0) {
+      return;
+    }
+    System.arraycopy(indices, from, buffer, from, to - from);
+    int left = from;
+    int right = mid;
+    for (int i = from; i < to; i++) {
+      indices[i] = right >= to || (left < mid && compare(buffer[left], buffer[right]) <= 0) ? buffer[left++] : buffer[right++];
+    }
+  }
+
+  /**
+   * sorts the range sequentially .
+   *
+   * @param from the first index of the range, inclusive
+   * @param to the last index of the range, exclusive
+   */
+  private void sort(final int from, final int to) {
+    if (to - from > INSERTION) {
+      final int mid = (from + to) >>> 1;
+      sort(from, mid);
+      sort(mid, to);
+      merge(from, mid, to);
+
+      return;
+    }
+    for (int i = from + 1; i < to; i++) {
+      final int index = indices[i];
+      int j = i - 1;
+      for (; j >= from && compare(indices[j], index) > 0; j--) {
+        indices[j + 1] = indices[j];
+      }
+      indices[j + 1] = index;
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * a supplier which initializes the result once, with release/acquire ordering instead of reading a volatile field or locking .
+ *
+ * <p>only the initialization, and retries after failures, run in a lock .</p>
+ *
+ * @author furplag
+ *
+ * @param <T> the type of results supplied by this supplier
+ * @see ThrowableSupplier#lazy(ThrowableSupplier, ThrowableSupplier.RetryPolicy)
+ */
+final class Lazy<T> implements ThrowableSupplier<T> {
+
+  /** the handle of {@link #state} . */
+  private static final VarHandle STATE;
+  static {
+    try {
+      STATE = MethodHandles.lookup().findVarHandle(Lazy.class, "state", Object.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /** the result, if the supplier returns null . */
+  private static final Object NULL = new Object();
+
+  /** the time to retry after in nanoseconds, or negative if never retry . */
+  private final long backoff;
+
+  /** the supplier, or null if initialized . */
+  private ThrowableSupplier<? extends T> supplier;
+
+  /** null if not initialized, {@link Failure} if the last initialization failed, or the result . */
+  @SuppressWarnings({ "unused" })
+  private Object state;
+
+  /**
+   * @param supplier the supplier
+   * @param backoff the time to retry after in nanoseconds, or negative if never retry
+   */
+  Lazy(final ThrowableSupplier<? extends T> supplier, final long backoff) {
+    this.supplier = supplier;
+    this.backoff = backoff;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public T getOrThrow() throws Throwable {
+    final Object current = STATE.getAcquire(this);
+    if (current == null) {
+      return initialize();
+    } else if (current instanceof Failure) {
+      return ((Failure) current).rethrow(this);
+    }
+
+    return unwrap(current);
+  }
+
+  /**
+   * returns whether the result has been initialized .
+   *
+   * @return true if the result has been initialized
+   */
+  boolean isInitialized() {
+    final Object current = STATE.getAcquire(this);
+
+    return current != null && !(current instanceof Failure);
+  }
+
+  /**
+   * initializes the result, unless other thread has done it .
+   *
+   * @return the result
+   * @throws Throwable anything thrown
+   */
+  private synchronized T initialize() throws Throwable {
+    final Object current = STATE.getAcquire(this);
+    if (current instanceof Failure && !((Failure) current).expired()) {
+      throw ((Failure) current).failure;
+    } else if (current != null && !(current instanceof Failure)) {
+      return unwrap(current);
+    }
+    try {
+      final T result = supplier.getOrThrow();
+      STATE.setRelease(this, result == null ? NULL : result);
+      supplier = null;
+
+      return result;
+    } catch (Throwable e) {
+      STATE.setRelease(this, backoff == 0 ? null : new Failure(e, backoff));
+      throw e;
+    }
+  }
+
+  /**
+   * returns the result .
+   *
+   * @param current the state
+   * @return the result
+   */
+  @SuppressWarnings({ "unchecked" })
+  private static <T> T unwrap(final Object current) {
+    return current == NULL ? null : (T) current;
+  }
+
+  /**
+   * the failure of the last initialization .
+   *
+   * @author furplag
+   *
+   */
+  private static final class Failure {
+
+    /** the failure . */
+    private final Throwable failure;
+
+    /** whether to retry after the backoff . */
+    private final boolean retrying;
+
+    /** the time to retry at in {@link System#nanoTime()} . */
+    private final long retryAt;
+
+    /**
+     * @param failure the failure
+     * @param backoff the time to retry after in nanoseconds, or negative if never retry
+     */
+    private Failure(final Throwable failure, final long backoff) {
+      this.failure = failure;
+      retrying = backoff > -1;
+      retryAt = System.nanoTime() + Math.max(0, backoff);
+    }
+
+    /**
+     * returns whether the backoff has elapsed .
+     *
+     * @return true if the initialization should retry
+     */
+    private boolean expired() {
+      return retrying && System.nanoTime() - retryAt >= 0;
+    }
+
+    /**
+     * throws the failure, or retries if the backoff has elapsed .
+     *
+     * @param <T> the type of results supplied by the supplier
+     * @param lazy the supplier
+     * @return the result of retry
+     * @throws Throwable anything thrown
+     */
+    private <T> T rethrow(final Lazy<T> lazy) throws Throwable {
+      if (!expired()) {
+        throw failure;
+      }
+
+      return lazy.initialize();
+    }
+  }
+}
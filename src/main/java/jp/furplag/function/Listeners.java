@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * dispatches lifecycle events of wrappers to {@link TrebuchetListener listeners} which are loaded once .
+ *
+ * <p>each dispatcher checks {@link #ENABLED} by itself, so that wrappers call it unconditionally . dispatchers stay within {@code MaxInlineSize},
+ * so that the check is constant-folded and the dispatch is eliminated by the JIT at every call site if no listener is registered .
+ * providers which fail to load are skipped .</p>
+ *
+ * @author furplag
+ *
+ */
+final class Listeners {
+
+  /** the listeners . */
+  private static final TrebuchetListener[] LISTENERS = load();
+
+  /** whether any listener is registered . */
+  static final boolean ENABLED = LISTENERS.length > 0;
+
+  /**
+   * Listeners instances should NOT be constructed in standard programming .
+   */
+  private Listeners() {}
+
+  /**
+   * returns the listeners which {@link ServiceLoader} finds .
+   *
+   * @return the listeners
+   */
+  private static TrebuchetListener[] load() {
+    final List<TrebuchetListener> listeners = new ArrayList<>();
+    final Iterator<TrebuchetListener> iterator = ServiceLoader.load(TrebuchetListener.class, TrebuchetListener.class.getClassLoader()).iterator();
+    try {
+      while (iterator.hasNext()) {
+        try {
+          listeners.add(iterator.next());
+        } catch (ServiceConfigurationError e) {
+          /* skip the provider which fails to load . */
+        }
+      }
+    } catch (ServiceConfigurationError e) {
+      /* stop at the configuration which fails to parse . */
+    }
+
+    return listeners.toArray(TrebuchetListener[]::new);
+  }
+
+  /**
+   * dispatches {@link TrebuchetListener#onFailure(Object, Throwable)} .
+   *
+   * @param operation the wrapped operation
+   * @param failure the failure
+   */
+  static void onFailure(final Object operation, final Throwable failure) {
+    if (ENABLED) {
+      dispatchFailure(operation, failure);
+    }
+  }
+
+  /**
+   * dispatches {@link TrebuchetListener#onFailure(Object, Throwable)} to every listener .
+   *
+   * @param operation the wrapped operation
+   * @param failure the failure
+   */
+  private static void dispatchFailure(final Object operation, final Throwable failure) {
+    for (TrebuchetListener listener : LISTENERS) {/* @formatter:off */
+      try {listener.onFailure(operation, failure);} catch (RuntimeException e) {/* ignore . */}
+    /* @formatter:on */}
+  }
+
+  /**
+   * dispatches {@link TrebuchetListener#onFailure(Object, Throwable)} and {@link TrebuchetListener#onFallback(Object, Throwable)} .
+   *
+   * @param operation the wrapped operation
+   * @param failure the failure which the fallback receives
+   */
+  static void onFallen(final Object operation, final Throwable failure) {
+    onFailure(operation, failure);
+    onFallback(operation, failure);
+  }
+
+  /**
+   * dispatches {@link TrebuchetListener#onFallback(Object, Throwable)} .
+   *
+   * @param operation the wrapped operation
+   * @param failure the failure which the fallback receives
+   */
+  static void onFallback(final Object operation, final Throwable failure) {
+    if (ENABLED) {
+      dispatchFallback(operation, failure);
+    }
+  }
+
+  /**
+   * dispatches {@link TrebuchetListener#onFallback(Object, Throwable)} to every listener .
+   *
+   * @param operation the wrapped operation
+   * @param failure the failure
+   */
+  private static void dispatchFallback(final Object operation, final Throwable failure) {
+    for (TrebuchetListener listener : LISTENERS) {/* @formatter:off */
+      try {listener.onFallback(operation, failure);} catch (RuntimeException e) {/* ignore . */}
+    /* @formatter:on */}
+  }
+
+  /**
+   * dispatches {@link TrebuchetListener#onInvoke(Object)} .
+   *
+   * @param operation the wrapped operation
+   */
+  static void onInvoke(final Object operation) {
+    if (ENABLED) {
+      dispatchInvoke(operation);
+    }
+  }
+
+  /**
+   * dispatches {@link TrebuchetListener#onInvoke(Object)} to every listener .
+   *
+   * @param operation the wrapped operation
+   */
+  private static void dispatchInvoke(final Object operation) {
+    for (TrebuchetListener listener : LISTENERS) {/* @formatter:off */
+      try {listener.onInvoke(operation);} catch (RuntimeException e) {/* ignore . */}
+    /* @formatter:on */}
+  }
+
+  /**
+   * dispatches {@link TrebuchetListener#onSuccess(Object)} .
+   *
+   * @param operation the wrapped operation
+   */
+  static void onSuccess(final Object operation) {
+    if (ENABLED) {
+      dispatchSuccess(operation);
+    }
+  }
+
+  /**
+   * dispatches {@link TrebuchetListener#onSuccess(Object)} to every listener .
+   *
+   * @param operation the wrapped operation
+   */
+  private static void dispatchSuccess(final Object operation) {
+    for (TrebuchetListener listener : LISTENERS) {/* @formatter:off */
+      try {listener.onSuccess(operation);} catch (RuntimeException e) {/* ignore . */}
+    /* @formatter:on */}
+  }
+}
@@ -0,0 +1,410 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jp.furplag.function.ThrowableProcessors.FailurePolicy;
+
+/**
+ * the {@link Flow.Processor} which {@link ThrowableProcessors#map(ThrowableFunction, FailurePolicy, int)} returns .
+ *
+ * <p>every signal to downstream and to the dead letter subscriber is emitted in the drain loop,
+ * which only one thread runs at a time .</p>
+ *
+ * @author furplag
+ *
+ * @param <T> the type of items which the processor subscribes
+ * @param <R> the type of items which the processor publishes
+ */
+final class MapProcessor<T, R> implements Flow.Processor<T, R>, Flow.Subscription {
+
+  /** the function . */
+  private final ThrowableFunction<Object, Object> function;
+
+  /** the fallback, or null . */
+  private final FailurePolicy<Object, Object> policy;
+
+  /** the number of consumed items to request more to upstream . */
+  private final int limit;
+
+  /** the number of items which a processor requests to upstream in advance . */
+  private final int prefetch;
+
+  /** items which arrived, bounded by {@code prefetch} since never requests more than that . */
+  private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+  /** the work in progress of the drain loop . */
+  private final AtomicInteger wip = new AtomicInteger();
+
+  /** the demand of downstream . */
+  private final AtomicLong requested = new AtomicLong();
+
+  /** the demand of the dead letter subscriber . */
+  private final AtomicLong deadLetters = new AtomicLong();
+
+  /** upstream . */
+  private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+
+  /** downstream . */
+  private final AtomicReference<Flow.Subscriber<? super R>> downstream = new AtomicReference<>();
+
+  /** true if downstream has been subscribed . */
+  private volatile boolean subscribed;
+
+  /** true if downstream has cancelled . */
+  private volatile boolean cancelled;
+
+  /** true if the dead letter subscriber has cancelled . */
+  private volatile boolean deadLetterCancelled;
+
+  /** true if upstream has terminated . */
+  private volatile boolean done;
+
+  /** the failure of upstream . */
+  private volatile Throwable error;
+
+  /** the failure which terminates the stream . */
+  private volatile Throwable failure;
+
+  /** the failure which terminates the dead letter subscriber . */
+  private volatile Throwable deadLetterFailure;
+
+  /** the dead letter waiting for the demand, only accessed in the drain loop . */
+  private Map.Entry<Object, Throwable> pending;
+
+  /** the number of consumed items since the last request to upstream, only accessed in the drain loop . */
+  private int consumed;
+
+  /** true if terminal signals have been emitted, only accessed in the drain loop . */
+  private boolean terminated;
+
+  /**
+   * creates a processor .
+   *
+   * @param function the function
+   * @param policy {@link FailurePolicy}
+   * @param prefetch the number of items which a processor requests to upstream in advance
+   */
+  @SuppressWarnings({ "unchecked" })
+  MapProcessor(final ThrowableFunction<?, ?> function, final FailurePolicy<?, ?> policy, final int prefetch) {
+    this.function = (ThrowableFunction<Object, Object>) function;
+    this.policy = (FailurePolicy<Object, Object>) policy;
+    this.prefetch = prefetch;
+    limit = Math.max(1, prefetch - (prefetch >> 2));
+    if (policy.deadLetter != null) {
+      policy.deadLetter.onSubscribe(new DeadLetters());
+    }
+  }
+
+  /**
+   * adds {@code n} to the demand, capping at {@link Long#MAX_VALUE} .
+   *
+   * @param demand the demand
+   * @param n the number to add
+   */
+  private static void add(final AtomicLong demand, final long n) {
+    demand.getAndUpdate((x) -> x + n < 0 ? Long.MAX_VALUE : x + n);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void cancel() {
+    cancelled = true;
+    final Flow.Subscription subscription = upstream.get();
+    if (subscription != null) {
+      subscription.cancel();
+    }
+    drain();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onComplete() {
+    done = true;
+    drain();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onError(final Throwable throwable) {
+    error = throwable;
+    done = true;
+    drain();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onNext(final T item) {
+    queue.offer(item);
+    drain();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onSubscribe(final Flow.Subscription subscription) {
+    if (!upstream.compareAndSet(null, subscription) || cancelled) {
+      subscription.cancel();
+
+      return;
+    }
+    subscription.request(prefetch);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void request(final long n) {
+    if (n < 1) {
+      failure = new IllegalArgumentException("non-positive subscription request .");
+      cancel();
+
+      return;
+    }
+    add(requested, n);
+    drain();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>this processor publishes to only one subscriber .</p>
+   */
+  @Override
+  public void subscribe(final Flow.Subscriber<? super R> subscriber) {
+    if (!downstream.compareAndSet(null, subscriber)) {
+      subscriber.onSubscribe(Cancelled.INSTANCE);
+      subscriber.onError(new IllegalStateException("this processor allows only one subscriber ."));
+
+      return;
+    }
+    subscriber.onSubscribe(this);
+    subscribed = true;
+    drain();
+  }
+
+  /**
+   * counts the item consumed, and requests more to upstream in batches .
+   */
+  private void consume() {
+    if (++consumed == limit) {
+      consumed = 0;
+      upstream.get().request(limit);
+    }
+  }
+
+  /**
+   * emits signals as far as the demand allows .
+   */
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      if (deadLetterFailure != null && !deadLetterCancelled) {
+        deadLetterCancelled = true;
+        policy.deadLetter.onError(deadLetterFailure);
+      }
+      if (subscribed && !terminated) {
+        drainLoop();
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * the body of the drain loop .
+   */
+  @SuppressWarnings({ "unchecked" })
+  private void drainLoop() {
+    final Flow.Subscriber<? super R> subscriber = downstream.get();
+    final long demand = requested.get();
+    long emitted = 0;
+    for (;;) {
+      if (cancelled || failure != null) {
+        terminate(failure);
+
+        return;
+      }
+      if (pending != null) {
+        if (!deadLetterCancelled && deadLetters.get() < 1) {
+          break;
+        }
+        if (!deadLetterCancelled) {
+          deadLetters.decrementAndGet();
+          policy.deadLetter.onNext(pending);
+        }
+        pending = null;
+        consume();
+      }
+      final boolean terminal = done;
+      final T item = queue.peek();
+      if (item == null) {
+        if (terminal) {
+          terminate(error);
+
+          return;
+        }
+        break;
+      }
+      if (emitted == demand) {
+        break;
+      }
+      queue.poll();
+      final Object result;
+      try {
+        result = map(item);
+      } catch (Throwable e) {
+        failure = e;
+        continue;
+      }
+      if (result != null) {
+        subscriber.onNext((R) result);
+        emitted++;
+      }
+      if (pending == null) {
+        consume();
+      }
+    }
+    if (emitted != 0 && demand != Long.MAX_VALUE) {
+      requested.addAndGet(-emitted);
+    }
+  }
+
+  /**
+   * maps the item along the policy .
+   *
+   * @param item the item
+   * @return the result, or null if the item is skipped
+   * @throws Throwable if the failure terminates the stream
+   */
+  private Object map(final T item) throws Throwable {
+    Listeners.onInvoke(function);
+    try {
+      final Object result = function.applyOrThrow(item);
+      Listeners.onSuccess(function);
+
+      return result;
+    } catch (Throwable e) {
+      Listeners.onFailure(function, e);
+      if (policy.fallen != null) {
+        Listeners.onFallback(function, e);
+
+        return policy.fallen.apply(item, e);
+      } else if (policy.deadLetter != null) {
+        pending = FailurePolicy.letter(item, e);
+
+        return null;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * emits terminal signals, and releases resources .
+   *
+   * @param throwable the failure, or null if completed normally
+   */
+  private void terminate(final Throwable throwable) {
+    terminated = true;
+    queue.clear();
+    pending = null;
+    if (!done) {
+      final Flow.Subscription subscription = upstream.get();
+      if (subscription != null) {
+        subscription.cancel();
+      }
+    }
+    if (!cancelled || throwable != null) {
+      if (throwable == null) {
+        downstream.get().onComplete();
+      } else {
+        downstream.get().onError(throwable);
+      }
+    }
+    if (policy.deadLetter != null && !deadLetterCancelled) {
+      policy.deadLetter.onComplete();
+    }
+  }
+
+  /**
+   * the subscription which does nothing .
+   */
+  private static final class Cancelled implements Flow.Subscription {
+
+    /** the instance . */
+    static final Cancelled INSTANCE = new Cancelled();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancel() {/* do nothing . */}
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void request(final long n) {/* do nothing . */}
+  }
+
+  /**
+   * the subscription of the dead letter subscriber .
+   */
+  private final class DeadLetters implements Flow.Subscription {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancel() {
+      deadLetterCancelled = true;
+      drain();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void request(final long n) {
+      if (n < 1) {
+        deadLetterFailure = new IllegalArgumentException("non-positive subscription request .");
+      } else {
+        add(deadLetters, n);
+      }
+      drain();
+    }
+  }
+}
@@ -0,0 +1,302 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import jp.furplag.function.ThrowableIO.Line;
+
+/**
+ * finds lines in the memory-mapped file, and passes each line to the operation as a reusable view .
+ *
+ * @author furplag
+ *
+ */
+final class MappedLines {
+
+  /** the default size of chunks to map . */
+  static final long CHUNK = 1L << 26;
+
+  /** the file . */
+  private final FileChannel channel;
+
+  /** the operation . */
+  private final ThrowableConsumer<Object> consumer;
+
+  /** the fallback . */
+  private final BiConsumer<Object, Throwable> fallen;
+
+  /** the size of chunks to map . */
+  private final long chunk;
+
+  /** the decoder of non-ASCII lines, or null if every byte is a character . */
+  private final CharsetDecoder decoder;
+
+  /** the reusable view . */
+  private final Line line = new Line();
+
+  /** the reusable buffer of decoded characters . */
+  private CharBuffer chars = CharBuffer.allocate(0);
+
+  /**
+   * @param channel the file
+   * @param charset the charset of the file
+   * @param consumer the operation
+   * @param fallen the fallback
+   * @param chunk the size of chunks to map
+   */
+  @SuppressWarnings({ "unchecked" })
+  MappedLines(final FileChannel channel, final Charset charset, final ThrowableConsumer<?> consumer, final BiConsumer<?, ?> fallen, final long chunk) {
+    this.channel = channel;
+    this.consumer = (ThrowableConsumer<Object>) consumer;
+    this.fallen = (BiConsumer<Object, Throwable>) fallen;
+    this.chunk = chunk;
+    decoder = StandardCharsets.ISO_8859_1.equals(charset) ? null : charset.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+  }
+
+  /**
+   * performs the operation for each line of the file .
+   *
+   * @param path the file
+   * @param charset the charset of the file
+   * @param consumer the operation
+   * @param fallen the fallback
+   * @param parallelism the number of ranges
+   * @param chunk the size of chunks to map
+   * @return the number of lines
+   * @throws IOException if an I/O error occurs
+   */
+  static long forEach(final Path path, final Charset charset, final ThrowableConsumer<?> consumer, final BiConsumer<?, ?> fallen, final int parallelism, final long chunk) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (parallelism < 2 || size < chunk) {
+        return new MappedLines(channel, charset, consumer, fallen, chunk).process(0, size, 1);
+      }
+      final List<long[]> ranges = new ArrayList<>();
+      long from = 0;
+      for (int i = 1; i <= parallelism && from < size; i++) {
+        final long to = i == parallelism ? size : boundary(channel, Math.max(from, size / parallelism * i));
+        if (to > from) {
+          ranges.add(new long[] { from, to, 0 });
+        }
+        from = to;
+      }
+      rethrow(ThrowableTasks.forEachConcurrently(ranges, (long[] range) -> range[2] = count(channel, range[0], range[1], chunk), parallelism));
+      long number = 1;
+      for (long[] range : ranges) {
+        final long lines = range[2];
+        range[2] = number;
+        number += lines;
+      }
+      final ThrowableTasks.Results<Long> results = ThrowableTasks.mapConcurrently(ranges, (long[] range) -> new MappedLines(channel, charset, consumer, fallen, chunk).process(range[0], range[1], range[2]), parallelism);
+      rethrow(results);
+
+      return results.values().stream().mapToLong(Long::longValue).sum();
+    }
+  }
+
+  /**
+   * returns the position which follows the first line terminator at or after the specified position .
+   *
+   * @param channel the file
+   * @param position the position
+   * @return the start of the next line, or the size of the file
+   * @throws IOException if an I/O error occurs
+   */
+  static long boundary(final FileChannel channel, final long position) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(1 << 13);
+    for (long offset = position; channel.read(buffer.clear(), offset) > 0; offset += buffer.position()) {
+      for (int i = 0; i < buffer.position(); i++) {
+        if (buffer.get(i) == '\n') {
+          return offset + i + 1;
+        }
+      }
+    }
+
+    return channel.size();
+  }
+
+  /**
+   * returns the number of lines in the range .
+   *
+   * @param channel the file
+   * @param from the start of the range, which is the start of a line
+   * @param to the end of the range, which is the end of a line or the file
+   * @param chunk the size of chunks to map
+   * @return the number of lines
+   * @throws IOException if an I/O error occurs
+   */
+  static long count(final FileChannel channel, final long from, final long to, final long chunk) throws IOException {
+    long lines = 0;
+    byte last = '\n';
+    for (long position = from; position < to; position += chunk) {
+      final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, Math.min(chunk, to - position));
+      for (int i = 0; i < buffer.limit(); i++) {
+        if ((last = buffer.get(i)) == '\n') {
+          lines++;
+        }
+      }
+    }
+
+    return last == '\n' ? lines : lines + 1;
+  }
+
+  /**
+   * returns the specified charset if it encodes line terminators as in ASCII .
+   *
+   * @param charset the charset
+   * @return {@code charset}
+   * @throws NullPointerException if {@code charset} is null
+   * @throws IllegalArgumentException if {@code charset} does not encode line terminators as in ASCII
+   */
+  static Charset requireAsciiCompatible(final Charset charset) {
+    if (!Arrays.equals(new byte[] { '\r', '\n' }, "\r\n".getBytes(Objects.requireNonNull(charset)))) {
+      throw new IllegalArgumentException(charset + " does not encode line terminators as in ASCII .");
+    }
+
+    return charset;
+  }
+
+  /**
+   * throws the first failure of the results, if any .
+   *
+   * @param results {@link ThrowableTasks.Results}
+   * @throws IOException if an I/O error occurred
+   */
+  private static void rethrow(final ThrowableTasks.Results<?> results) throws IOException {
+    for (Throwable failure : results.failures().values()) {
+      if (failure instanceof IOException) {
+        throw (IOException) failure;
+      }
+      Trebuchet.sneakyThrow(failure);
+    }
+  }
+
+  /**
+   * binds the view to the line, decoding if the line contains non-ASCII bytes .
+   *
+   * @param buffer the mapped buffer
+   * @param start the position of the line in the buffer
+   * @param end the end of the line in the buffer, excluding line terminators
+   * @param ascii true if the line consists of ASCII bytes
+   * @throws CharacterCodingException if the line is malformed
+   */
+  private void bind(final ByteBuffer buffer, final int start, final int end, final boolean ascii) throws CharacterCodingException {
+    if (ascii || decoder == null) {
+      return;
+    }
+    final int capacity = (int) Math.ceil((end - start) * (double) decoder.maxCharsPerByte());
+    if (chars.capacity() < capacity) {
+      chars = CharBuffer.allocate(capacity);
+    }
+    final ByteBuffer in = buffer.duplicate();
+    in.limit(end).position(start);
+    chars.clear();
+    CoderResult result = decoder.reset().decode(in, chars, true);
+    if (!result.isError()) {
+      result = decoder.flush(chars);
+    }
+    if (result.isError()) {
+      result.throwException();
+    }
+    line.decoded(chars.flip());
+  }
+
+  /**
+   * performs the operation for the line .
+   *
+   * @param buffer the mapped buffer
+   * @param start the position of the line in the buffer
+   * @param end the position of the line terminator in the buffer
+   * @param ascii true if the line consists of ASCII bytes
+   * @param base the position of the buffer in the file
+   * @param number the line number
+   */
+  private void emit(final MappedByteBuffer buffer, final int start, final int end, final boolean ascii, final long base, final long number) {
+    final int last = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    line.bind(buffer, start, last - start, base + start, number);
+    try {
+      bind(buffer, start, last, ascii);
+      consumer.acceptOrThrow(line);
+    } catch (Throwable e) {
+      fallen.accept(line, e);
+    }
+  }
+
+  /**
+   * performs the operation for each line in the range .
+   *
+   * @param from the start of the range, which is the start of a line
+   * @param to the end of the range, which is the end of a line or the file
+   * @param first the line number of the first line in the range
+   * @return the number of lines
+   * @throws IOException if an I/O error occurs, or a line is longer than a mapped buffer
+   */
+  long process(final long from, final long to, final long first) throws IOException {
+    long number = first;
+    long size = chunk;
+    for (long position = from; position < to;) {
+      final MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, Math.min(size, to - position));
+      final int limit = buffer.limit();
+      final boolean last = position + limit >= to;
+      int start = 0;
+      boolean ascii = true;
+      for (int i = 0; i < limit; i++) {
+        final byte b = buffer.get(i);
+        if (b == '\n') {
+          emit(buffer, start, i, ascii, position, number++);
+          start = i + 1;
+          ascii = true;
+        } else if (b < 0) {
+          ascii = false;
+        }
+      }
+      if (last && start < limit) {
+        emit(buffer, start, limit, ascii, position, number++);
+        start = limit;
+      }
+      if (start < 1 && !last) {
+        if (size >= Integer.MAX_VALUE) {
+          throw new IOException("line at " + position + " is too long .");
+        }
+        size = Math.min(size << 1, Integer.MAX_VALUE);
+      } else {
+        position += start;
+        size = chunk;
+      }
+    }
+
+    return number - first;
+  }
+}
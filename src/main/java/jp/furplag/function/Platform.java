@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * the features which depend on the version of the runtime .
+ *
+ * <p>this is the Java 11 baseline, and the multi-release jar replaces this class
+ * with the ones under {@code META-INF/versions/17} and {@code META-INF/versions/21} .</p>
+ *
+ * @author furplag
+ *
+ */
+final class Platform {
+
+  /** {@code Lookup#defineHiddenClass(byte[], boolean, ClassOption...)}, or null if unsupported . */
+  private static final MethodHandle DEFINE_HIDDEN_CLASS = resolve();
+
+  /**
+   * Platform instances should NOT be constructed in standard programming .
+   */
+  private Platform() {}
+
+  /**
+   * defines a hidden class from the specified class file bytes .
+   *
+   * @param lookup the lookup which the hidden class nests in
+   * @param bytes class file bytes
+   * @return the hidden class
+   * @throws UnsupportedOperationException if the runtime does not support hidden classes
+   */
+  static Class<?> defineHiddenClass(final Lookup lookup, final byte[] bytes) {
+    if (!isHiddenClassSupported()) {
+      throw new UnsupportedOperationException("hidden classes are not supported .");
+    }
+    try {
+      return ((Lookup) DEFINE_HIDDEN_CLASS.invoke(lookup, bytes, true)).lookupClass();
+    } catch (Throwable e) {
+      Trebuchet.sneakyThrow(e);
+    }
+
+    return null;
+  }
+
+  /**
+   * returns the executor which runs asynchronous tasks by default .
+   *
+   * <p>tasks may block, so that the executor is a cached pool of daemon threads rather than {@link ForkJoinPool#commonPool()} .</p>
+   *
+   * @return the executor which runs asynchronous tasks by default
+   */
+  static Executor executor() {
+    return Cached.EXECUTOR;
+  }
+
+  /**
+   * returns whether the runtime supports hidden classes .
+   *
+   * @return true if the runtime supports hidden classes
+   */
+  static boolean isHiddenClassSupported() {
+    return DEFINE_HIDDEN_CLASS != null;
+  }
+
+  /**
+   * returns whether the executor runs tasks on virtual threads .
+   *
+   * @return false
+   */
+  static boolean isVirtual() {
+    return false;
+  }
+
+  /**
+   * returns {@code Lookup#defineHiddenClass}, or null if the runtime does not support hidden classes .
+   *
+   * @return {@link MethodHandle}
+   */
+  private static MethodHandle resolve() {
+    if (System.getProperty("org.graalvm.nativeimage.imagecode") != null) {
+      return null;
+    }
+    try {
+      final Class<?> classOption = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+      final MethodHandle method = MethodHandles.publicLookup().findVirtual(Lookup.class, "defineHiddenClass", MethodType.methodType(Lookup.class, byte[].class, boolean.class, Array.newInstance(classOption, 0).getClass()));
+
+      return MethodHandles.insertArguments(method, 3, Array.newInstance(classOption, 0));
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * holds the executor lazily, so that no thread is started until it is needed .
+   */
+  private static final class Cached {
+
+    /** the number of threads created . */
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    /** the cached pool of daemon threads . */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool((runnable) -> {
+      final Thread thread = new Thread(runnable, "trebuchet-" + THREADS.getAndIncrement());
+      thread.setDaemon(true);
+
+      return thread;
+    });
+  }
+}
@@ -0,0 +1,632 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import jp.furplag.function.Trebuchet.TriFunction;
+
+/**
+ * compiles the trees of predicates which composed with {@code and}, {@code or} and {@code negate} into adaptive evaluators .
+ *
+ * <p>a compiled evaluator pushes negations down to leaves, and flattens nested junctions of the same kind into one .
+ * it samples the cost and the selectivity of each term on every {@value #SAMPLING}th evaluation,
+ * and reorders the terms of each junction so that cheap terms which most likely decide the result run first .
+ * since the order of terms changes, leaves should be free from side effects, and should handle their own errors
+ * ( e.g. {@link ThrowablePredicate#of(ThrowablePredicate, BiPredicate)} ), otherwise errors are relayed to the caller
+ * even if the term would have been short-circuited in the order written .</p>
+ *
+ * @author furplag
+ *
+ */
+public final class PredicateCompiler {
+
+  /** evaluations between samplings, which must be a power of two . */
+  static final int SAMPLING = 1 << 4;
+
+  /** samplings between reorderings, which must be a power of two . */
+  static final int REORDERING = 1 << 6;
+
+  /**
+   * PredicateCompiler instances should NOT be constructed in standard programming .
+   */
+  private PredicateCompiler() {}
+
+  /**
+   * returns an adaptive evaluator of the specified predicate .
+   *
+   * @param <T> the type of the input to the predicate
+   * @param predicate {@link ThrowablePredicate}, may not be null
+   * @return {@link ThrowablePredicate}, or {@code predicate} itself if it is not composed
+   * @throws NullPointerException if {@code predicate} is null
+   */
+  @SuppressWarnings({ "unchecked" })
+  public static <T> ThrowablePredicate<T> compile(final ThrowablePredicate<T> predicate) {
+    if (!(Objects.requireNonNull(predicate) instanceof Unary)) {
+      return predicate;
+    }
+    final Term term = Term.of(predicate, Unary.class, (operand) -> (t, u, v) -> ((Predicate<Object>) operand).test(t));
+
+    return (t) -> term.test(t, null, null);
+  }
+
+  /**
+   * returns an adaptive evaluator of the specified predicate .
+   *
+   * @param <T> the type of the first argument to the predicate
+   * @param <U> the type of the second argument to the predicate
+   * @param predicate {@link ThrowableBiPredicate}, may not be null
+   * @return {@link ThrowableBiPredicate}, or {@code predicate} itself if it is not composed
+   * @throws NullPointerException if {@code predicate} is null
+   */
+  @SuppressWarnings({ "unchecked" })
+  public static <T, U> ThrowableBiPredicate<T, U> compile(final ThrowableBiPredicate<T, U> predicate) {
+    if (!(Objects.requireNonNull(predicate) instanceof Binary)) {
+      return predicate;
+    }
+    final Term term = Term.of(predicate, Binary.class, (operand) -> (t, u, v) -> ((BiPredicate<Object, Object>) operand).test(t, u));
+
+    return (t, u) -> term.test(t, u, null);
+  }
+
+  /**
+   * returns an adaptive evaluator of the specified predicate .
+   *
+   * @param <T> the type of the first argument to the predicate
+   * @param <U> the type of the second argument to the predicate
+   * @param <V> the type of the third argument to the predicate
+   * @param predicate {@link ThrowableTriPredicate}, may not be null
+   * @return {@link ThrowableTriPredicate}, or {@code predicate} itself if it is not composed
+   * @throws NullPointerException if {@code predicate} is null
+   */
+  @SuppressWarnings({ "unchecked" })
+  public static <T, U, V> ThrowableTriPredicate<T, U, V> compile(final ThrowableTriPredicate<T, U, V> predicate) {
+    if (!(Objects.requireNonNull(predicate) instanceof Ternary)) {
+      return predicate;
+    }
+    final Term term = Term.of(predicate, Ternary.class, (operand) -> (t, u, v) -> Objects.requireNonNullElse(((TriFunction<Object, Object, Object, Boolean>) operand).apply(t, u, v), false));
+
+    return (t, u, v) -> term.test(t, u, v);
+  }
+
+  /**
+   * returns operands of the junction, which operands of the same junction are merged into .
+   *
+   * @param kind the class of composites
+   * @param operator the operator of the junction
+   * @param left the left operand
+   * @param right the right operand
+   * @return operands of the junction
+   */
+  private static Object[] junction(final Class<?> kind, final Operator operator, final Object left, final Object right) {
+    final List<Object> operands = new ArrayList<>();
+    for (Object operand : new Object[] { left, right }) {
+      if (kind.isInstance(operand) && ((Composite) operand).operator == operator) {
+        operands.addAll(Arrays.asList(((Composite) operand).operands));
+      } else {
+        operands.add(operand);
+      }
+    }
+
+    return operands.toArray();
+  }
+
+  /**
+   * operators of composites .
+   */
+  enum Operator {
+    /** logical AND . */
+    AND,
+    /** logical OR . */
+    OR,
+    /** logical negation . */
+    NOT
+  }
+
+  /**
+   * a predicate which composed with {@code and}, {@code or} or {@code negate} ,
+   * which evaluates its operands in the order written, until compiled .
+   *
+   * @author furplag
+   *
+   */
+  abstract static class Composite {
+
+    /** the operator . */
+    final Operator operator;
+
+    /** operands, which are predicates of the same arity . */
+    final Object[] operands;
+
+    /**
+     * @param operator the operator
+     * @param operands operands
+     */
+    private Composite(final Operator operator, final Object... operands) {
+      this.operator = operator;
+      this.operands = operands;
+    }
+  }
+
+  /**
+   * {@link Composite} of {@link ThrowablePredicate} .
+   *
+   * @author furplag
+   *
+   * @param <T> the type of the input to the predicate
+   */
+  static final class Unary<T> extends Composite implements ThrowablePredicate<T> {
+
+    /**
+     * @param operator the operator
+     * @param operands operands
+     */
+    private Unary(final Operator operator, final Object... operands) {
+      super(operator, operands);
+    }
+
+    /**
+     * returns the logical AND of the predicates .
+     *
+     * @param <T> the type of the input to the predicate
+     * @param left {@link Predicate}
+     * @param right {@link Predicate}
+     * @return {@link ThrowablePredicate}
+     */
+    static <T> ThrowablePredicate<T> and(final Predicate<? super T> left, final Predicate<? super T> right) {
+      return new Unary<>(Operator.AND, junction(Unary.class, Operator.AND, left, right));
+    }
+
+    /**
+     * returns the logical negation of the predicate .
+     *
+     * @param <T> the type of the input to the predicate
+     * @param predicate {@link Predicate}
+     * @return {@link ThrowablePredicate}
+     */
+    static <T> ThrowablePredicate<T> not(final Predicate<? super T> predicate) {
+      return new Unary<>(Operator.NOT, predicate);
+    }
+
+    /**
+     * returns the logical OR of the predicates .
+     *
+     * @param <T> the type of the input to the predicate
+     * @param left {@link Predicate}
+     * @param right {@link Predicate}
+     * @return {@link ThrowablePredicate}
+     */
+    static <T> ThrowablePredicate<T> or(final Predicate<? super T> left, final Predicate<? super T> right) {
+      return new Unary<>(Operator.OR, junction(Unary.class, Operator.OR, left, right));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    public Boolean applyOrThrow(final T t) throws Throwable {
+      if (operator == Operator.NOT) {
+        return !((Predicate<Object>) operands[0]).test(t);
+      }
+      final boolean decisive = operator == Operator.OR;
+      for (Object operand : operands) {
+        if (((Predicate<Object>) operand).test(t) == decisive) {
+          return decisive;
+        }
+      }
+
+      return !decisive;
+    }
+  }
+
+  /**
+   * {@link Composite} of {@link ThrowableBiPredicate} .
+   *
+   * @author furplag
+   *
+   * @param <T> the type of the first argument to the predicate
+   * @param <U> the type of the second argument to the predicate
+   */
+  static final class Binary<T, U> extends Composite implements ThrowableBiPredicate<T, U> {
+
+    /**
+     * @param operator the operator
+     * @param operands operands
+     */
+    private Binary(final Operator operator, final Object... operands) {
+      super(operator, operands);
+    }
+
+    /**
+     * returns the logical AND of the predicates .
+     *
+     * @param <T> the type of the first argument to the predicate
+     * @param <U> the type of the second argument to the predicate
+     * @param left {@link BiPredicate}
+     * @param right {@link BiPredicate}
+     * @return {@link ThrowableBiPredicate}
+     */
+    static <T, U> ThrowableBiPredicate<T, U> and(final BiPredicate<? super T, ? super U> left, final BiPredicate<? super T, ? super U> right) {
+      return new Binary<>(Operator.AND, junction(Binary.class, Operator.AND, left, right));
+    }
+
+    /**
+     * returns the logical negation of the predicate .
+     *
+     * @param <T> the type of the first argument to the predicate
+     * @param <U> the type of the second argument to the predicate
+     * @param predicate {@link BiPredicate}
+     * @return {@link ThrowableBiPredicate}
+     */
+    static <T, U> ThrowableBiPredicate<T, U> not(final BiPredicate<? super T, ? super U> predicate) {
+      return new Binary<>(Operator.NOT, predicate);
+    }
+
+    /**
+     * returns the logical OR of the predicates .
+     *
+     * @param <T> the type of the first argument to the predicate
+     * @param <U> the type of the second argument to the predicate
+     * @param left {@link BiPredicate}
+     * @param right {@link BiPredicate}
+     * @return {@link ThrowableBiPredicate}
+     */
+    static <T, U> ThrowableBiPredicate<T, U> or(final BiPredicate<? super T, ? super U> left, final BiPredicate<? super T, ? super U> right) {
+      return new Binary<>(Operator.OR, junction(Binary.class, Operator.OR, left, right));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    public Boolean applyOrThrow(final T t, final U u) throws Throwable {
+      if (operator == Operator.NOT) {
+        return !((BiPredicate<Object, Object>) operands[0]).test(t, u);
+      }
+      final boolean decisive = operator == Operator.OR;
+      for (Object operand : operands) {
+        if (((BiPredicate<Object, Object>) operand).test(t, u) == decisive) {
+          return decisive;
+        }
+      }
+
+      return !decisive;
+    }
+  }
+
+  /**
+   * {@link Composite} of {@link ThrowableTriPredicate} .
+   *
+   * @author furplag
+   *
+   * @param <T> the type of the first argument to the predicate
+   * @param <U> the type of the second argument to the predicate
+   * @param <V> the type of the third argument to the predicate
+   */
+  static final class Ternary<T, U, V> extends Composite implements ThrowableTriPredicate<T, U, V> {
+
+    /**
+     * @param operator the operator
+     * @param operands operands
+     */
+    private Ternary(final Operator operator, final Object... operands) {
+      super(operator, operands);
+    }
+
+    /**
+     * returns the logical AND of the predicates .
+     *
+     * @param <T> the type of the first argument to the predicate
+     * @param <U> the type of the second argument to the predicate
+     * @param <V> the type of the third argument to the predicate
+     * @param left {@link TriFunction}
+     * @param right {@link TriFunction}
+     * @return {@link ThrowableTriPredicate}
+     */
+    static <T, U, V> ThrowableTriPredicate<T, U, V> and(final TriFunction<? super T, ? super U, ? super V, ? extends Boolean> left, final TriFunction<? super T, ? super U, ? super V, ? extends Boolean> right) {
+      return new Ternary<>(Operator.AND, junction(Ternary.class, Operator.AND, left, right));
+    }
+
+    /**
+     * returns the logical negation of the predicate .
+     *
+     * @param <T> the type of the first argument to the predicate
+     * @param <U> the type of the second argument to the predicate
+     * @param <V> the type of the third argument to the predicate
+     * @param predicate {@link TriFunction}
+     * @return {@link ThrowableTriPredicate}
+     */
+    static <T, U, V> ThrowableTriPredicate<T, U, V> not(final TriFunction<? super T, ? super U, ? super V, ? extends Boolean> predicate) {
+      return new Ternary<>(Operator.NOT, predicate);
+    }
+
+    /**
+     * returns the logical OR of the predicates .
+     *
+     * @param <T> the type of the first argument to the predicate
+     * @param <U> the type of the second argument to the predicate
+     * @param <V> the type of the third argument to the predicate
+     * @param left {@link TriFunction}
+     * @param right {@link TriFunction}
+     * @return {@link ThrowableTriPredicate}
+     */
+    static <T, U, V> ThrowableTriPredicate<T, U, V> or(final TriFunction<? super T, ? super U, ? super V, ? extends Boolean> left, final TriFunction<? super T, ? super U, ? super V, ? extends Boolean> right) {
+      return new Ternary<>(Operator.OR, junction(Ternary.class, Operator.OR, left, right));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    public Boolean applyOrThrow(final T t, final U u, final V v) throws Throwable {
+      if (operator == Operator.NOT) {
+        return !Objects.requireNonNullElse(((TriFunction<Object, Object, Object, Boolean>) operands[0]).apply(t, u, v), false);
+      }
+      final boolean decisive = operator == Operator.OR;
+      for (Object operand : operands) {
+        if (Objects.requireNonNullElse(((TriFunction<Object, Object, Object, Boolean>) operand).apply(t, u, v), false) == decisive) {
+          return decisive;
+        }
+      }
+
+      return !decisive;
+    }
+  }
+
+  /**
+   * a leaf predicate which adapted to three arguments .
+   */
+  @FunctionalInterface
+  interface Leaf {
+
+    /**
+     * evaluates the predicate .
+     *
+     * @param t the first argument
+     * @param u the second argument
+     * @param v the third argument
+     * @return the result of the predicate
+     * @throws Throwable anything thrown
+     */
+    boolean test(Object t, Object u, Object v) throws Throwable;
+  }
+
+  /**
+   * a term of the compiled evaluator, that is, a leaf or a junction of terms .
+   *
+   * <p>statistics are updated without synchronization, since they are only hints for ordering .
+   * only one thread reorders terms of a junction at a time, from a snapshot of the statistics .</p>
+   *
+   * @author furplag
+   *
+   */
+  static final class Term {
+
+    /** the leaf, or null if this is a junction . */
+    private final Leaf leaf;
+
+    /** true if the result of the leaf is negated . */
+    private final boolean negated;
+
+    /** true if this is a disjunction, or false if this is a conjunction or a leaf . */
+    private final boolean disjunction;
+
+    /** terms in the order of evaluation, or null if this is a leaf . */
+    private volatile Term[] terms;
+
+    /** the number of evaluations . */
+    private int evaluations;
+
+    /** the number of samples . */
+    private long samples;
+
+    /** the number of samples which results true . */
+    private long passes;
+
+    /** the sum of the cost of samples in nanoseconds . */
+    private long nanos;
+
+    /** true while a thread reorders terms . */
+    private final AtomicBoolean reordering = new AtomicBoolean();
+
+    /**
+     * @param leaf the leaf
+     * @param negated true if the result of the leaf is negated
+     */
+    private Term(final Leaf leaf, final boolean negated) {
+      this.leaf = leaf;
+      this.negated = negated;
+      disjunction = false;
+      terms = null;
+    }
+
+    /**
+     * @param disjunction true if this is a disjunction
+     * @param terms terms
+     */
+    private Term(final boolean disjunction, final Term[] terms) {
+      leaf = null;
+      negated = false;
+      this.disjunction = disjunction;
+      this.terms = terms;
+    }
+
+    /**
+     * returns the term which the specified operand is compiled into .
+     *
+     * @param operand the predicate
+     * @param kind the class of composites
+     * @param adapter adapts a leaf predicate to {@link Leaf}
+     * @return {@link Term}
+     */
+    static Term of(final Object operand, final Class<? extends Composite> kind, final Function<Object, Leaf> adapter) {
+      return of(operand, false, kind, adapter);
+    }
+
+    /**
+     * returns the term which the specified operand is compiled into, pushing the negation down to leaves .
+     *
+     * @param operand the predicate
+     * @param negated true if the operand is negated
+     * @param kind the class of composites
+     * @param adapter adapts a leaf predicate to {@link Leaf}
+     * @return {@link Term}
+     */
+    private static Term of(final Object operand, final boolean negated, final Class<? extends Composite> kind, final Function<Object, Leaf> adapter) {
+      if (!kind.isInstance(operand)) {
+        return new Term(adapter.apply(operand), negated);
+      }
+      final Composite composite = (Composite) operand;
+      if (composite.operator == Operator.NOT) {
+        return of(composite.operands[0], !negated, kind, adapter);
+      }
+      final boolean disjunction = (composite.operator == Operator.OR) != negated;
+      final List<Term> terms = new ArrayList<>();
+      for (Object child : composite.operands) {
+        final Term term = of(child, negated, kind, adapter);
+        if (term.leaf == null && term.disjunction == disjunction) {
+          terms.addAll(Arrays.asList(term.terms));
+        } else {
+          terms.add(term);
+        }
+      }
+
+      return new Term(disjunction, terms.toArray(Term[]::new));
+    }
+
+    /**
+     * returns the expected cost to decide the result of the junction, lower is better .
+     *
+     * @param samples the number of samples, must be positive
+     * @param passes the number of samples which results true
+     * @param nanos the sum of the cost of samples in nanoseconds
+     * @param disjunction true if the junction is a disjunction
+     * @return the expected cost
+     */
+    private static double rank(final long samples, final long passes, final long nanos, final boolean disjunction) {
+      return (nanos / (double) samples) * (samples + 2) / ((disjunction ? passes : samples - passes) + 1);
+    }
+
+    /**
+     * records a sample .
+     *
+     * @param result the result
+     * @param elapsed the cost in nanoseconds
+     */
+    private void record(final boolean result, final long elapsed) {
+      samples++;
+      nanos += elapsed;
+      if (result) {
+        passes++;
+      }
+    }
+
+    /**
+     * reorders terms by the rank, and decays statistics so that this follows changes of tendency .
+     *
+     * <p>terms which have never been sampled keep their position, since terms after a short-circuiting term are rarely sampled .
+     * statistics decay no further once one sample is left, so that sampled terms never turn back into unsampled ones .</p>
+     */
+    private void reorder() {
+      if (!reordering.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        final Term[] current = terms;
+        final long[] samples = new long[current.length];
+        final double[] ranks = new double[current.length];
+        final List<Integer> sampled = new ArrayList<>();
+        for (int i = 0; i < current.length; i++) {
+          samples[i] = current[i].samples;
+          if (samples[i] > 0) {
+            ranks[i] = rank(samples[i], current[i].passes, current[i].nanos, disjunction);
+            sampled.add(i);
+          }
+        }
+        final Term[] ranked = sampled.stream().sorted(Comparator.comparingDouble((Integer i) -> ranks[i])).map((i) -> current[i]).toArray(Term[]::new);
+        final Term[] reordered = current.clone();
+        for (int i = 0, j = 0; i < reordered.length; i++) {
+          if (samples[i] > 0) {
+            reordered[i] = ranked[j++];
+          }
+          if (samples[i] > 1) {
+            current[i].samples = samples[i] >> 1;
+            current[i].passes >>= 1;
+            current[i].nanos >>= 1;
+          }
+        }
+        terms = reordered;
+      } finally {
+        reordering.set(false);
+      }
+    }
+
+    /**
+     * evaluates this term .
+     *
+     * @param t the first argument
+     * @param u the second argument
+     * @param v the third argument
+     * @return the result of this term
+     * @throws Throwable anything thrown
+     */
+    boolean test(final Object t, final Object u, final Object v) throws Throwable {
+      if (leaf != null) {
+        return leaf.test(t, u, v) != negated;
+      }
+      final int evaluation = ++evaluations;
+      final boolean sampling = (evaluation & (SAMPLING - 1)) == 0;
+      if (sampling && (evaluation & (SAMPLING * REORDERING - 1)) == 0) {
+        reorder();
+      }
+      for (Term term : terms) {
+        final boolean result;
+        if (sampling) {
+          final long started = System.nanoTime();
+          result = term.test(t, u, v);
+          term.record(result, System.nanoTime() - started);
+        } else {
+          result = term.test(t, u, v);
+        }
+        if (result == disjunction) {
+          return disjunction;
+        }
+      }
+
+      return !disjunction;
+    }
+
+    /**
+     * returns terms in the order of evaluation .
+     *
+     * @return terms, or an empty array if this is a leaf
+     */
+    Term[] terms() {
+      return leaf == null ? terms.clone() : new Term[0];
+    }
+  }
+}
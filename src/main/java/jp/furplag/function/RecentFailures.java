@@ -0,0 +1,315 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+/**
+ * keeps the most recent failures in a bounded ring, for inspecting failures of the live process without logging .
+ *
+ * <p>publishing claims a sequence number with a single atomic increment, and overwrites the oldest slot with an immutable entry .
+ * a publisher which has stalled until the ring laps never overwrites the newer entry in its slot, and its entry is discarded instead .
+ * each entry holds its sequence number, so that {@link #snapshot() snapshot} skips slots which are overwritten while reading, without locks .
+ * the ring itself provides fallbacks for {@code of(...)}, which are named to tell wrappers apart .</p>
+ *
+ * @author furplag
+ *
+ */
+public final class RecentFailures {
+
+  /** the default capacity . */
+  public static final int DEFAULT_CAPACITY = 1 << 10;
+
+  /** the maximum length of the summary of inputs . */
+  static final int MAX_SUMMARY = 1 << 8;
+
+  /** slots . */
+  private final AtomicReferenceArray<Entry> slots;
+
+  /** the mask of sequence numbers to index slots . */
+  private final int mask;
+
+  /** the sequence number to publish next . */
+  private final AtomicLong sequence = new AtomicLong();
+
+  /**
+   * @param capacity the capacity, which is a power of two
+   */
+  private RecentFailures(final int capacity) {
+    slots = new AtomicReferenceArray<>(capacity);
+    mask = capacity - 1;
+  }
+
+  /**
+   * returns a ring which holds {@link #DEFAULT_CAPACITY} failures at most .
+   *
+   * @return {@link RecentFailures}
+   */
+  public static RecentFailures of() {
+    return of(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * returns a ring which holds the specified number of failures at most, which is rounded up to a power of two .
+   *
+   * @param capacity the capacity
+   * @return {@link RecentFailures}
+   * @throws IllegalArgumentException if {@code capacity} is not positive, or greater than {@code 2^30}
+   */
+  public static RecentFailures of(final int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("capacity must be in range of 1 to 2^30 .");
+    }
+
+    return new RecentFailures(capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+  }
+
+  /**
+   * returns the summary of the input, which is truncated in {@value #MAX_SUMMARY} characters .
+   *
+   * @param input the input
+   * @return the summary of the input
+   */
+  static String summary(final Object input) {
+    String summary;
+    try {
+      summary = String.valueOf(input);
+    } catch (Throwable e) {
+      summary = String.format("%s@%x ( %s )", input.getClass().getName(), System.identityHashCode(input), e.getClass().getName());
+    }
+
+    return summary.length() > MAX_SUMMARY ? summary.substring(0, MAX_SUMMARY) : summary;
+  }
+
+  /**
+   * returns the capacity .
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return slots.length();
+  }
+
+  /**
+   * returns the named fallback for consumers, which publishes failures .
+   *
+   * @param <T> the type of the input to the operation
+   * @param name the name of the wrapper
+   * @return {@link BiConsumer}
+   */
+  public <T> BiConsumer<T, Throwable> consumer(final String name) {
+    return (t, e) -> publish(name, t, e);
+  }
+
+  /**
+   * returns the named fallback for functions, which publishes failures and returns null .
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   * @param name the name of the wrapper
+   * @return {@link BiFunction}
+   */
+  public <T, R> BiFunction<T, Throwable, R> function(final String name) {
+    return (t, e) -> {publish(name, t, e); return null;};
+  }
+
+  /**
+   * returns the named fallback for predicates, which publishes failures and returns false .
+   *
+   * @param <T> the type of the input to the predicate
+   * @param name the name of the wrapper
+   * @return {@link BiPredicate}
+   */
+  public <T> BiPredicate<T, Throwable> predicate(final String name) {
+    return (t, e) -> {publish(name, t, e); return false;};
+  }
+
+  /**
+   * overwrites the oldest slot with the failure .
+   *
+   * @param name the name of the wrapper
+   * @param input the input, which is kept only as {@link #summary(Object) the summary}
+   * @param failure the failure, may not be null
+   * @throws NullPointerException if {@code failure} is null
+   */
+  public void publish(final String name, final Object input, final Throwable failure) {
+    Objects.requireNonNull(failure);
+    final long sequence = this.sequence.getAndIncrement();
+    final int index = (int) sequence & mask;
+    final Entry entry = new Entry(sequence, System.currentTimeMillis(), name, summary(input), failure);
+    for (Entry present = slots.getAcquire(index); present == null || present.sequence < sequence; present = slots.getAcquire(index)) {
+      if (slots.weakCompareAndSetRelease(index, present, entry)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * returns the number of failures published .
+   *
+   * @return the number of failures published
+   */
+  public long published() {
+    return sequence.get();
+  }
+
+  /**
+   * returns failures which the ring holds, from the oldest .
+   *
+   * <p>slots which are overwritten or not yet published while reading are skipped .</p>
+   *
+   * @return snapshot of failures
+   */
+  public List<Entry> snapshot() {
+    final long last = sequence.get();
+    final List<Entry> entries = new ArrayList<>();
+    for (long sequence = Math.max(0, last - slots.length()); sequence < last; sequence++) {
+      final Entry entry = slots.getAcquire((int) sequence & mask);
+      if (entry != null && entry.sequence == sequence) {
+        entries.add(entry);
+      }
+    }
+
+    return Collections.unmodifiableList(entries);
+  }
+
+  /**
+   * returns failures which are published within the specified duration, from the oldest .
+   *
+   * @param within the duration, may not be null
+   * @return snapshot of failures
+   * @throws NullPointerException if {@code within} is null
+   * @see #snapshot()
+   */
+  public List<Entry> snapshot(final Duration within) {
+    final long since = System.currentTimeMillis() - within.toMillis();
+    final List<Entry> entries = new ArrayList<>(snapshot());
+    entries.removeIf((entry) -> entry.time < since);
+
+    return Collections.unmodifiableList(entries);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return String.format("%s(capacity=%d, published=%d)", getClass().getSimpleName(), capacity(), published());
+  }
+
+  /**
+   * a failure which is published .
+   *
+   * @author furplag
+   *
+   */
+  public static final class Entry {
+
+    /** the sequence number . */
+    private final long sequence;
+
+    /** the time of publishing in epoch milliseconds . */
+    private final long time;
+
+    /** the name of the wrapper . */
+    private final String name;
+
+    /** the summary of the input . */
+    private final String input;
+
+    /** the failure . */
+    private final Throwable failure;
+
+    /**
+     * @param sequence the sequence number
+     * @param time the time of publishing in epoch milliseconds
+     * @param name the name of the wrapper
+     * @param input the summary of the input
+     * @param failure the failure
+     */
+    private Entry(final long sequence, final long time, final String name, final String input, final Throwable failure) {
+      this.sequence = sequence;
+      this.time = time;
+      this.name = name;
+      this.input = input;
+      this.failure = failure;
+    }
+
+    /**
+     * returns the failure .
+     *
+     * @return the failure
+     */
+    public Throwable failure() {
+      return failure;
+    }
+
+    /**
+     * returns the summary of the input .
+     *
+     * @return the summary of the input
+     */
+    public String input() {
+      return input;
+    }
+
+    /**
+     * returns the name of the wrapper .
+     *
+     * @return the name of the wrapper
+     */
+    public String name() {
+      return name;
+    }
+
+    /**
+     * returns the sequence number, starting at zero .
+     *
+     * @return the sequence number
+     */
+    public long sequence() {
+      return sequence;
+    }
+
+    /**
+     * returns the time of publishing .
+     *
+     * @return the time of publishing
+     */
+    public Instant time() {
+      return Instant.ofEpochMilli(time);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+      return String.format("#%d %s %s(%s): %s", sequence, time(), name, input, failure);
+    }
+  }
+}
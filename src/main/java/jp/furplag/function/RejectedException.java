@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * the failure which fallbacks receive, when the precheck of {@code guardedBy(...)} rejects arguments .
+ *
+ * <p>each rejection creates its own carrier of the rejected arguments, so that fallbacks may keep it, or throw it, safely .
+ * creating the carrier costs almost nothing, since it is a {@link StacklessException} .</p>
+ *
+ * @author furplag
+ *
+ */
+public final class RejectedException extends StacklessException {
+
+  /** serialVersionUID . */
+  private static final long serialVersionUID = 1L;
+
+  /** the rejected arguments . */
+  private final transient Object[] arguments;
+
+  /**
+   * constructs a carrier of the rejected arguments .
+   *
+   * @param arguments the rejected arguments
+   */
+  RejectedException(final Object... arguments) {
+    super("rejected by the precheck .");
+    this.arguments = arguments;
+  }
+
+  /**
+   * returns the rejected arguments, in the order of parameters of the function .
+   *
+   * @return the rejected arguments, or an empty list if this has been deserialized
+   */
+  public List<Object> getArguments() {
+    return arguments == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(arguments));
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.function.Function;
+
+import jp.furplag.function.Trebuchet.TriFunction;
+
+/**
+ * the template of {@link Trebuchet#specialize(ThrowableBiFunction, TriFunction, Function)} .
+ *
+ * <p>never refer to any lambda or nested class in this class, since it is defined as a hidden class repeatedly .</p>
+ *
+ * @author furplag
+ *
+ * @param <T> the type of the first argument to the function
+ * @param <U> the type of the second argument to the function
+ * @param <R> the type of the result of the function
+ */
+final class SpecializedBiFunction<T, U, R> implements ThrowableBiFunction<T, U, R> {
+
+  /** the function . */
+  private final ThrowableBiFunction<Object, Object, Object> function;
+
+  /** the fallback . */
+  private final TriFunction<Object, Object, Throwable, Object> fallback;
+
+  /** the function to apply after the function is applied . */
+  private final Function<Object, Object> after;
+
+  /**
+   * @param function the function
+   * @param fallback the fallback
+   * @param after the function to apply after the function is applied
+   */
+  SpecializedBiFunction(final ThrowableBiFunction<Object, Object, Object> function, final TriFunction<Object, Object, Throwable, Object> fallback, final Function<Object, Object> after) {
+    this.function = function;
+    this.fallback = fallback;
+    this.after = after;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @SuppressWarnings({ "unchecked" })
+  @Override
+  public R apply(final T t, final U u) {
+    Object result;
+    Listeners.onInvoke(function);
+    try {
+      result = function.applyOrThrow(t, u);
+      Listeners.onSuccess(function);
+    } catch (Throwable e) {
+      Listeners.onFallen(function, e);
+      result = fallback.apply(t, u, e);
+    }
+
+    return (R) after.apply(result);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public R applyOrThrow(final T t, final U u) {
+    return apply(t, u);
+  }
+}
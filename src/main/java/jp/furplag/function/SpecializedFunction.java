@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * the template of {@link Trebuchet#specialize(ThrowableFunction, BiFunction, Function)} .
+ *
+ * <p>never refer to any lambda or nested class in this class, since it is defined as a hidden class repeatedly .</p>
+ *
+ * @author furplag
+ *
+ * @param <T> the type of the input to the function
+ * @param <R> the type of the result of the function
+ */
+final class SpecializedFunction<T, R> implements ThrowableFunction<T, R> {
+
+  /** the function . */
+  private final ThrowableFunction<Object, Object> function;
+
+  /** the fallback . */
+  private final BiFunction<Object, Throwable, Object> fallback;
+
+  /** the function to apply after the function is applied . */
+  private final Function<Object, Object> after;
+
+  /**
+   * @param function the function
+   * @param fallback the fallback
+   * @param after the function to apply after the function is applied
+   */
+  SpecializedFunction(final ThrowableFunction<Object, Object> function, final BiFunction<Object, Throwable, Object> fallback, final Function<Object, Object> after) {
+    this.function = function;
+    this.fallback = fallback;
+    this.after = after;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @SuppressWarnings({ "unchecked" })
+  @Override
+  public R apply(final T t) {
+    Object result;
+    Listeners.onInvoke(function);
+    try {
+      result = function.applyOrThrow(t);
+      Listeners.onSuccess(function);
+    } catch (Throwable e) {
+      Listeners.onFallen(function, e);
+      result = fallback.apply(t, e);
+    }
+
+    return (R) after.apply(result);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public R applyOrThrow(final T t) {
+    return apply(t);
+  }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.function.Function;
+
+/**
+ * the template of {@link Trebuchet#specialize(ThrowableTriFunction, Function, Function)} .
+ *
+ * <p>never refer to any lambda or nested class in this class, since it is defined as a hidden class repeatedly .</p>
+ *
+ * @author furplag
+ *
+ * @param <T> the type of the first argument to the function
+ * @param <U> the type of the second argument to the function
+ * @param <V> the type of the third argument to the function
+ * @param <R> the type of the result of the function
+ */
+final class SpecializedTriFunction<T, U, V, R> implements ThrowableTriFunction<T, U, V, R> {
+
+  /** the function . */
+  private final ThrowableTriFunction<Object, Object, Object, Object> function;
+
+  /** the fallback . */
+  private final Function<Throwable, Object> fallback;
+
+  /** the function to apply after the function is applied . */
+  private final Function<Object, Object> after;
+
+  /**
+   * @param function the function
+   * @param fallback the fallback
+   * @param after the function to apply after the function is applied
+   */
+  SpecializedTriFunction(final ThrowableTriFunction<Object, Object, Object, Object> function, final Function<Throwable, Object> fallback, final Function<Object, Object> after) {
+    this.function = function;
+    this.fallback = fallback;
+    this.after = after;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @SuppressWarnings({ "unchecked" })
+  @Override
+  public R apply(final T t, final U u, final V v) {
+    Object result;
+    Listeners.onInvoke(function);
+    try {
+      result = function.applyOrThrow(t, u, v);
+      Listeners.onSuccess(function);
+    } catch (Throwable e) {
+      Listeners.onFallen(function, e);
+      result = fallback.apply(e);
+    }
+
+    return (R) after.apply(result);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public R applyOrThrow(final T t, final U u, final V v) {
+    return apply(t, u, v);
+  }
+}
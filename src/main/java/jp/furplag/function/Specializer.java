@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * defines a dedicated hidden class for each wrapper, so that call sites inside it stay monomorphic .
+ *
+ * <p>hidden classes are defined through {@link Platform}, which depends on the version of the runtime .
+ * the template class itself is used instead, if the runtime does not support hidden classes .</p>
+ *
+ * @author furplag
+ *
+ */
+final class Specializer {
+
+  /** class file bytes of the templates . */
+  private static final Map<Class<?>, byte[]> TEMPLATES = new ConcurrentHashMap<>();
+
+  /**
+   * Specializer instances should NOT be constructed in standard programming .
+   */
+  private Specializer() {}
+
+  /**
+   * returns an instance of a hidden class which is defined from the specified template .
+   *
+   * @param <T> the type of the template
+   * @param template the template class, which has only one constructor
+   * @param arguments the arguments to the constructor
+   * @return an instance of a hidden class, or of the template itself if hidden classes are not supported
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T> T instantiate(final Class<T> template, final Object... arguments) {
+    final MethodType constructorType = MethodType.methodType(void.class, template.getDeclaredConstructors()[0].getParameterTypes());
+    try {
+      return (T) MethodHandles.lookup().findConstructor(specialize(template), constructorType).invokeWithArguments(arguments);
+    } catch (Throwable e) {
+      Trebuchet.sneakyThrow(e);
+    }
+
+    return null;
+  }
+
+  /**
+   * returns whether the runtime supports hidden classes .
+   *
+   * @return true if the runtime supports hidden classes
+   */
+  static boolean isSupported() {
+    return Platform.isHiddenClassSupported();
+  }
+
+  /**
+   * defines a hidden class from the specified template .
+   *
+   * @param template the template class
+   * @return a hidden class, or the template itself if hidden classes are not supported
+   */
+  private static Class<?> specialize(final Class<?> template) {
+    if (isSupported()) {
+      try {
+        return Platform.defineHiddenClass(MethodHandles.lookup(), TEMPLATES.computeIfAbsent(template, Specializer::read));
+      } catch (Throwable e) {/* the class file is unavailable, use the template itself . */}
+    }
+
+    return template;
+  }
+
+  /**
+   * reads the class file of the specified template .
+   *
+   * @param template the template class
+   * @return class file bytes
+   */
+  private static byte[] read(final Class<?> template) {
+    try (InputStream in = template.getResourceAsStream(template.getSimpleName() + ".class")) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      Trebuchet.sneakyThrow(e);
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+/**
+ * an unchecked carrier of the failure, which never fills in its stack trace and never records suppressed exceptions .
+ *
+ * <p>creating the carrier costs almost nothing, so that it suits translating checked exceptions in the pipelines which fail frequently .
+ * the original failure is kept as the cause for diagnostics, with its own stack trace .</p>
+ *
+ * @author furplag
+ *
+ */
+public class StacklessException extends RuntimeException {
+
+  /** serialVersionUID . */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * constructs a carrier with the specified message .
+   *
+   * @param message the detail message
+   */
+  public StacklessException(final String message) {
+    this(message, null);
+  }
+
+  /**
+   * constructs a carrier of the specified failure .
+   *
+   * @param cause the failure, which the message of the carrier is derived from
+   */
+  public StacklessException(final Throwable cause) {
+    this(cause == null ? null : cause.toString(), cause);
+  }
+
+  /**
+   * constructs a carrier of the specified failure with the message .
+   *
+   * @param message the detail message
+   * @param cause the failure
+   */
+  public StacklessException(final String message, final Throwable cause) {
+    super(message, cause, false, false);
+  }
+}
@@ -16,7 +16,6 @@
 
 package jp.furplag.function;
 
-import java.util.Objects;
 import java.util.function.BiConsumer;
 
 import jp.furplag.function.Trebuchet.TriConsumer;
@@ -43,7 +42,9 @@ public interface ThrowableBiConsumer<T, U> extends BiConsumer<T, U> {
    * @return {@link ThrowableBiConsumer}
    */
   static <T, U> ThrowableBiConsumer<T, U> of(final ThrowableBiConsumer<? super T, ? super U> consumer, final BiConsumer<? super T, ? super U> fallen) {
-    return of(consumer, (t, u, e) -> Trebuchet.defaults(fallen).accept(t, u));
+    final BiConsumer<? super T, ? super U> fallback = Trebuchet.defaults(fallen);
+
+    return of(consumer, (t, u, e) -> fallback.accept(t, u));
   }
 
   /**
@@ -57,11 +58,8 @@ public interface ThrowableBiConsumer<T, U> extends BiConsumer<T, U> {
    * @return {@link ThrowableBiConsumer}
    * @throws NullPointerException if {@code consumer} is null
    */
-  @SuppressWarnings({ "unchecked" })
   static <T, U, E extends Throwable> ThrowableBiConsumer<T, U> of(final ThrowableBiConsumer<? super T, ? super U> consumer, final TriConsumer<? super T, ? super U, ? super E> fallen) {
-    Objects.requireNonNull(consumer);
-
-    return (t, u) -> {/* @formatter:off */try {consumer.accept(t, u);} catch (Throwable e) {Trebuchet.defaults(fallen).accept(t, u, (E) e);}/* @formatter:off */};
+    return Guards.biConsumer(consumer, Trebuchet.defaults(fallen));
   }
 
   /**
@@ -75,7 +73,9 @@ public interface ThrowableBiConsumer<T, U> extends BiConsumer<T, U> {
    * @param fallen {@link BiConsumer}, do nothing if this is null
    */
   static <T, U> void orElse(final T t, final U u, final ThrowableBiConsumer<? super T, ? super U> consumer, final BiConsumer<? super T, ? super U> fallen) {
-    orElse(t, u, consumer, (x, y, ex) -> Trebuchet.defaults(fallen).accept(x, y));
+    if (Attempts.accept(t, u, consumer) != null) {
+      Trebuchet.defaults(fallen).accept(t, u);
+    }
   }
 
   /**
@@ -103,7 +103,7 @@ public interface ThrowableBiConsumer<T, U> extends BiConsumer<T, U> {
    * @param consumer {@link BiConsumer}, may not be null
    */
   static <T, U> void orNot(final T t, final U u, final ThrowableBiConsumer<? super T, ? super U> consumer) {
-    orElse(t, u, consumer, (BiConsumer<T, U>) null);
+    Attempts.accept(t, u, consumer);
   }
 
   /**
@@ -128,6 +128,16 @@ public interface ThrowableBiConsumer<T, U> extends BiConsumer<T, U> {
    */
   @Override
   default ThrowableBiConsumer<T, U> andThen(BiConsumer<? super T, ? super U> after) {
-    return (t, u) -> {/* @formatter:off */accept(t, u); Trebuchet.defaults(after).accept(t, u);/* @formatter:on */};
+    return Guards.sequence(this, Trebuchet.defaults(after));
+  }
+
+  /**
+   * returns a operation which runs this as a {@link java.util.concurrent.ForkJoinPool.ManagedBlocker managed blocker} ,
+   * so that {@link java.util.concurrent.ForkJoinPool} ( e.g. parallel streams ) compensates with a spare worker while this blocks on I/O .
+   *
+   * @return {@link ThrowableBiConsumer} which may block
+   */
+  default ThrowableBiConsumer<T, U> blocking() {
+    return (t, u) -> Blocking.call(() -> {acceptOrThrow(t, u); return null;});
   }
 }
@@ -16,8 +16,10 @@
 
 package jp.furplag.function;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -50,7 +52,94 @@ public interface ThrowableBiFunction<T, U, R> extends BiFunction<T, U, R> {
    * @return the result of {@link ThrowableBiFunction#apply(Object, Object) function.apply(T, U)} if done it normally, or {@code fallen} if error occurred
    */
   static <T, U, R, V extends R> R applyOrDefault(final T t, final U u, final ThrowableBiFunction<? super T, ? super U, ? extends R> function, final V fallen) {
-    return Objects.requireNonNullElse(orElse(t, u, function, (ex) -> null), Objects.requireNonNull(fallen));
+    return Objects.requireNonNullElse(orNull(t, u, function), Objects.requireNonNull(fallen));
+  }
+
+  /**
+   * returns a function which tries {@code functions} in order, and returns the result of the first one done it normally .
+   * {@code fallen} receives the error of the last one, if all of them has failed .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <R> the type of the result of the function
+   * @param <E> anything thrown
+   * @param functions alternatives, may not be null
+   * @param fallen {@link TriFunction}, or the function that always return {@code null} if this is null
+   * @return {@link ThrowableBiFunction}
+   * @throws NullPointerException if {@code functions} is null, or contains null
+   */
+  static <T, U, R, E extends Throwable> ThrowableBiFunction<T, U, R> firstSuccessful(final List<? extends ThrowableBiFunction<? super T, ? super U, ? extends R>> functions, final TriFunction<? super T, ? super U, ? super E, ? extends R> fallen) {
+    return firstSuccessful(functions, fallen, false);
+  }
+
+  /**
+   * returns a function which tries {@code functions} in order, and returns the result of the first one done it normally .
+   * {@code fallen} receives the error of the last one, if all of them has failed .
+   *
+   * <p>in adaptive mode, the order is rearranged by the recent success rate and the cost of each alternative,
+   * so that the likely winner is tried first . another alternative is tried first once in a while, so that a demoted one may regain its position .</p>
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <R> the type of the result of the function
+   * @param <E> anything thrown
+   * @param functions alternatives, may not be null
+   * @param fallen {@link TriFunction}, or the function that always return {@code null} if this is null
+   * @param adaptive rearranges the order of alternatives if true
+   * @return {@link ThrowableBiFunction}
+   * @throws NullPointerException if {@code functions} is null, or contains null
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, U, R, E extends Throwable> ThrowableBiFunction<T, U, R> firstSuccessful(final List<? extends ThrowableBiFunction<? super T, ? super U, ? extends R>> functions, final TriFunction<? super T, ? super U, ? super E, ? extends R> fallen, final boolean adaptive) {
+    final ThrowableBiFunction<? super T, ? super U, ? extends R>[] alternatives = functions.stream().map(Objects::requireNonNull).toArray(ThrowableBiFunction[]::new);
+    final TriFunction<? super T, ? super U, ? super E, ? extends R> fallback = Trebuchet.defaults(fallen);
+    if (!adaptive) {
+      return (t, u) -> {
+        Throwable failure = null;
+        for (ThrowableBiFunction<? super T, ? super U, ? extends R> alternative : alternatives) {
+          Listeners.onInvoke(alternative);
+          try {
+            final R result = alternative.applyOrThrow(t, u);
+            Listeners.onSuccess(alternative);
+
+            return result;
+          } catch (Throwable e) {
+            Listeners.onFailure(alternative, e);
+            failure = e;
+          }
+        }
+        Listeners.onFallback(functions, failure);
+
+        return fallback.apply(t, u, (E) failure);
+      };
+    }
+    final Alternatives stats = new Alternatives(alternatives.length);
+
+    return (t, u) -> {
+      Throwable failure = null;
+      for (int i : stats.order()) {
+        Listeners.onInvoke(alternatives[i]);
+        final long started = System.nanoTime();
+        R result = null;
+        Throwable thrown = null;
+        try {
+          result = alternatives[i].applyOrThrow(t, u);
+        } catch (Throwable e) {
+          thrown = e;
+        }
+        stats.record(i, thrown == null, started);
+        if (thrown == null) {
+          Listeners.onSuccess(alternatives[i]);
+
+          return result;
+        }
+        Listeners.onFailure(alternatives[i], thrown);
+        failure = thrown;
+      }
+      Listeners.onFallback(functions, failure);
+
+      return fallback.apply(t, u, (E) failure);
+    };
   }
 
   /**
@@ -64,7 +153,9 @@ public interface ThrowableBiFunction<T, U, R> extends BiFunction<T, U, R> {
    * @return {@link ThrowableBiFunction}
    */
   static <T, U, R> ThrowableBiFunction<T, U, R> of(final ThrowableBiFunction<? super T, ? super U, ? extends R> function, final BiFunction<? super T, ? super U, ? extends R> fallen) {
-    return of(function, (t, u, e) -> Trebuchet.defaults(fallen).apply(t, u));
+    final BiFunction<? super T, ? super U, ? extends R> fallback = Trebuchet.defaults(fallen);
+
+    return of(function, (t, u, e) -> fallback.apply(t, u));
   }
 
   /**
@@ -80,7 +171,9 @@ public interface ThrowableBiFunction<T, U, R> extends BiFunction<T, U, R> {
    */
   @SuppressWarnings({ "unchecked" })
   static <T, U, R, E extends Throwable> ThrowableBiFunction<T, U, R> of(final ThrowableBiFunction<? super T, ? super U, ? extends R> function, final Function<? super E, ? extends R> fallen) {
-    return of(function, (t, u, e) -> Trebuchet.defaults(fallen).apply((E) e));
+    final Function<? super E, ? extends R> fallback = Trebuchet.defaults(fallen);
+
+    return of(function, (t, u, e) -> fallback.apply((E) e));
   }
 
   /**
@@ -95,11 +188,8 @@ public interface ThrowableBiFunction<T, U, R> extends BiFunction<T, U, R> {
    * @return {@link ThrowableBiFunction}
    * @throws NullPointerException if {@code function} is null
    */
-  @SuppressWarnings({ "unchecked" })
   static <T, U, R, E extends Throwable> ThrowableBiFunction<T, U, R> of(final ThrowableBiFunction<? super T, ? super U, ? extends R> function, final TriFunction<? super T, ? super U, ? super E, ? extends R> fallen) {
-    Objects.requireNonNull(function);
-
-    return (t, u) -> {/* @formatter:off */try {return function.apply(t, u);} catch (Throwable e) {return Trebuchet.defaults(fallen).apply(t, u, (E) e);}/* @formatter:off */};
+    return Guards.biFunction(function, Trebuchet.defaults(fallen));
   }
 
   /**
@@ -116,7 +206,7 @@ public interface ThrowableBiFunction<T, U, R> extends BiFunction<T, U, R> {
    * @return the result of {@link ThrowableBiFunction#apply(Object, Object) function.apply(T, U)} if done it normally, or fallen if error occurred
    */
   static <T, U, R, V extends R> R orDefault(final T t, final U u, final ThrowableBiFunction<? super T, ? super U, ? extends R> function, final V fallen) {
-    return orElseGet(t, u, function, () -> fallen);
+    return Attempts.orElse(Attempts.apply(t, u, function), fallen);
   }
 
   /**
@@ -183,7 +273,9 @@ public interface ThrowableBiFunction<T, U, R> extends BiFunction<T, U, R> {
    * @return the result of {@link #apply(Object, Object) function.apply(T, U)} if done it normally, or {@link Supplier#get() fallen.get()} if error occurred
    */
   static <T, U, R> R orElseGet(final T t, final U u, final ThrowableBiFunction<? super T, U, ? extends R> function, Supplier<? extends R> fallen) {
-    return orElse(t, u, function, (x, y, ex) -> Trebuchet.defaults(fallen).get());
+    final Object result = Attempts.apply(t, u, function);
+
+    return Attempts.failed(result) ? Trebuchet.defaults(fallen).get() : Attempts.result(result);
   }
 
   /**
@@ -198,7 +290,7 @@ public interface ThrowableBiFunction<T, U, R> extends BiFunction<T, U, R> {
    * @return the result of {@link #apply(Object, Object) function.apply(T, U)} if done it normally, or {@code null} if error occurred
    */
   static <T, U, R> R orNull(final T t, final U u, final ThrowableBiFunction<? super T, U, ? extends R> function) {
-    return orElseGet(t, u, function, null);
+    return Attempts.orElse(Attempts.apply(t, u, function), null);
   }
 
   /**
@@ -206,7 +298,7 @@ public interface ThrowableBiFunction<T, U, R> extends BiFunction<T, U, R> {
    */
   @Override
   default <V> ThrowableBiFunction<T, U, V> andThen(Function<? super R, ? extends V> after) {
-    return (t, u) -> Trebuchet.defaults(after).apply(apply(t, u));
+    return ThrowablePipeline.Bi.<T, U, R>of(this).andThen(after);
   }
 
   /**
@@ -224,4 +316,48 @@ public interface ThrowableBiFunction<T, U, R> extends BiFunction<T, U, R> {
    * @throws Throwable anything thrown
    */
   R applyOrThrow(T t, U u) throws Throwable;
+
+  /**
+   * returns a function which runs this as a {@link java.util.concurrent.ForkJoinPool.ManagedBlocker managed blocker} ,
+   * so that {@link java.util.concurrent.ForkJoinPool} ( e.g. parallel streams ) compensates with a spare worker while this blocks on I/O .
+   *
+   * @return {@link ThrowableBiFunction} which may block
+   */
+  default ThrowableBiFunction<T, U, R> blocking() {
+    return (t, u) -> Blocking.call(() -> applyOrThrow(t, u));
+  }
+
+  /**
+   * returns this guarded by the specified precheck, which runs first only while this fails frequently .
+   * arguments which the precheck rejects fall back directly with a {@link RejectedException} of the arguments, without throwing an exception .
+   *
+   * <p>the precheck should reject only the arguments which this fails with, since it does not run while failures are rare .
+   * only the function which {@code of(...)} returns may be guarded, even if other wrappers have fallbacks .</p>
+   *
+   * @param precheck {@link BiPredicate}, may not be null
+   * @return {@link ThrowableBiFunction} guarded by the precheck
+   * @throws NullPointerException if {@code precheck} is null
+   * @throws IllegalArgumentException if this is not the function which {@code of(...)} returns
+   */
+  default ThrowableBiFunction<T, U, R> guardedBy(final BiPredicate<? super T, ? super U> precheck) {
+    return Guards.guardedBy(this, precheck);
+  }
+
+  /**
+   * returns a function which throws failures of the source type translated into the target type .
+   *
+   * <p>other failures are thrown as is, so that translations may be chained for each type .</p>
+   *
+   * @param source the type of failures to translate, may not be null
+   * @param target the type of the translation, may not be null
+   * @return {@link ThrowableBiFunction}
+   * @throws NullPointerException if arguments contains null
+   * @see Trebuchet#translate(Throwable, Class)
+   */
+  default ThrowableBiFunction<T, U, R> translating(final Class<? extends Throwable> source, final Class<? extends Throwable> target) {
+    Objects.requireNonNull(source);
+    Objects.requireNonNull(target);
+
+    return (t, u) -> {/* @formatter:off */try {return applyOrThrow(t, u);} catch (Throwable e) {throw Translator.translating(e, source, target);}/* @formatter:on */};
+  }
 }
@@ -45,7 +45,9 @@ public interface ThrowableBiPredicate<T, U> extends ThrowableBiFunction<T, U, Bo
    * @return {@link ThrowableBiPredicate}
    */
   static <T, U> ThrowableBiPredicate<T, U> of(final ThrowableBiPredicate<? super T, ? super U> predicate, final BiPredicate<? super T, ? super U> fallen) {
-    return of(predicate, (t, u, e) -> Trebuchet.defaults(fallen).test(t, u));
+    final BiPredicate<? super T, ? super U> fallback = Trebuchet.defaults(fallen);
+
+    return of(predicate, (t, u, e) -> fallback.test(t, u));
   }
 
   /**
@@ -60,7 +62,9 @@ public interface ThrowableBiPredicate<T, U> extends ThrowableBiFunction<T, U, Bo
    */
   @SuppressWarnings({ "unchecked" })
   static <T, U, E extends Throwable> ThrowableBiPredicate<T, U> of(final ThrowableBiPredicate<? super T, ? super U> predicate, final Predicate<? super E> fallen) {
-    return of(predicate, (t, u, e) -> Trebuchet.defaults(fallen).test((E) e));
+    final Predicate<? super E> fallback = Trebuchet.defaults(fallen);
+
+    return of(predicate, (t, u, e) -> fallback.test((E) e));
   }
 
   /**
@@ -74,7 +78,7 @@ public interface ThrowableBiPredicate<T, U> extends ThrowableBiFunction<T, U, Bo
    * @return {@link ThrowableBiPredicate}
    */
   static <T, U, E extends Throwable> ThrowableBiPredicate<T, U> of(final ThrowableBiPredicate<? super T, ? super U> predicate, final TriPredicate<? super T, ? super U, ? super E> fallen) {
-    return (t, u) -> ThrowableBiFunction.of(predicate::test, Objects.requireNonNullElse(fallen, (x, y, ex) -> false)).apply(t, u);
+    return Guards.biPredicate(predicate, Objects.requireNonNullElse(fallen, Fallbacks.triPredicate()));
   }
 
   /**
@@ -89,7 +93,7 @@ public interface ThrowableBiPredicate<T, U> extends ThrowableBiFunction<T, U, Bo
    * @return the result of {@link #test(Object, Object) predicate.test(T, U)} if done it normally, or fallen if error occurred
    */
   static <T, U> boolean orDefault(final T t, final U u, final ThrowableBiPredicate<? super T, ? super U> predicate, final boolean fallen) {
-    return orElseGet(t, u, predicate, () -> fallen);
+    return Attempts.orElse(Attempts.apply(t, u, predicate), fallen);
   }
 
   /**
@@ -149,7 +153,9 @@ public interface ThrowableBiPredicate<T, U> extends ThrowableBiFunction<T, U, Bo
    * @return the result of {@link #test(Object, Object) predicate.test(T, U)} if done it normally, or {@link BooleanSupplier#getAsBoolean() fallen.getAsBoolean()} if error occurred
    */
   static <T, U> boolean orElseGet(final T t, final U u, final ThrowableBiPredicate<? super T, ? super U> predicate, final BooleanSupplier fallen) {
-    return ThrowableBiFunction.orElseGet(t, u, predicate::test, Objects.requireNonNullElse(fallen, () -> false)::getAsBoolean);
+    final Object result = Attempts.apply(t, u, predicate);
+
+    return Attempts.failed(result) ? Objects.requireNonNullElse(fallen, Fallbacks.booleanSupplier()).getAsBoolean() : (Boolean) result;
   }
 
   /**
@@ -163,7 +169,7 @@ public interface ThrowableBiPredicate<T, U> extends ThrowableBiFunction<T, U, Bo
    * @return the result of {@link #test(Object, Object) predicate.test(T, U)} if done it normally, or {@code false} if error occurred
    */
   static <T, U> boolean orNot(final T t, final U u, final ThrowableBiPredicate<? super T, ? super U> predicate) {
-    return orElseGet(t, u, predicate, () -> false);
+    return Attempts.orElse(Attempts.apply(t, u, predicate), false);
   }
 
   /**
@@ -171,7 +177,7 @@ public interface ThrowableBiPredicate<T, U> extends ThrowableBiFunction<T, U, Bo
    */
   @Override
   default ThrowableBiPredicate<T, U> and(BiPredicate<? super T, ? super U> other) {
-    return (t, u) -> test(t, u) && Objects.requireNonNullElse(Trebuchet.defaults(other).test(t, u), false);
+    return PredicateCompiler.Binary.and(this, Trebuchet.defaults(other));
   }
 
   /**
@@ -185,12 +191,20 @@ public interface ThrowableBiPredicate<T, U> extends ThrowableBiFunction<T, U, Bo
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  default ThrowableBiPredicate<T, U> guardedBy(final BiPredicate<? super T, ? super U> precheck) {
+    return Guards.guardedBy(this, precheck);
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   default ThrowableBiPredicate<T, U> negate() {
-    return (t, u) -> !test(t, u);
+    return PredicateCompiler.Binary.not(this);
   }
 
   /**
@@ -198,7 +212,7 @@ public interface ThrowableBiPredicate<T, U> extends ThrowableBiFunction<T, U, Bo
    */
   @Override
   default ThrowableBiPredicate<T, U> or(BiPredicate<? super T, ? super U> other) {
-    return (t, u) -> test(t, u) || Objects.requireNonNullElse(Trebuchet.defaults(other).test(t, u), false);
+    return PredicateCompiler.Binary.or(this, Trebuchet.defaults(other));
   }
 
   /**
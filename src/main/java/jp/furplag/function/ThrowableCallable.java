@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link Callable} now get enable to throw {@link Throwable} .
+ *
+ * @author furplag
+ *
+ * @param <V> the type of the result of the task
+ * @see Callable
+ */
+@FunctionalInterface
+public interface ThrowableCallable<V> extends Callable<V> {
+
+  /**
+   * should never write &quot;ugly&quot; try-catch block to handle {@link Throwable exceptions} in lambda expression .
+   *
+   * @param <V> the type of the result of the task
+   * @param <E> anything thrown
+   * @param callable {@link Callable}, may not be null
+   * @param fallen {@link Function} which receives the failure, or the function that always return null if this is null
+   * @return {@link ThrowableCallable}
+   * @throws NullPointerException if {@code callable} is null
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <V, E extends Throwable> ThrowableCallable<V> of(final ThrowableCallable<? extends V> callable, final Function<? super E, ? extends V> fallen) {
+    Objects.requireNonNull(callable);
+    final Function<? super E, ? extends V> fallback = Trebuchet.defaults(fallen);
+
+    return () -> {
+      final Object result = Attempts.call(callable);
+
+      return Attempts.failed(result) ? fallback.apply(Attempts.failure(result)) : Attempts.result(result);
+    };
+  }
+
+  /**
+   * should never write &quot;ugly&quot; try-catch block to handle {@link Throwable exceptions} in lambda expression .
+   *
+   * @param <V> the type of the result of the task
+   * @param callable {@link Callable}, may not be null
+   * @param fallen {@link Supplier}, or the supplier that always return null if this is null
+   * @return {@link ThrowableCallable}
+   * @throws NullPointerException if {@code callable} is null
+   */
+  static <V> ThrowableCallable<V> of(final ThrowableCallable<? extends V> callable, final Supplier<? extends V> fallen) {
+    final Supplier<? extends V> fallback = Trebuchet.defaults(fallen);
+
+    return of(callable, (e) -> fallback.get());
+  }
+
+  /**
+   * returns the result of {@link #call() callable.call()} if done it normally, or fallen if error occurred .
+   *
+   * @param <V> the type of the result of the task
+   * @param <U> the type of {@code fallen} of the task
+   * @param callable {@link Callable}, may not be null
+   * @param fallen the return value when error has occurred
+   * @return the result of {@link #call() callable.call()} if done it normally, or fallen if error occurred
+   */
+  static <V, U extends V> V orDefault(final ThrowableCallable<? extends V> callable, final U fallen) {
+    return Attempts.orElse(Attempts.call(callable), fallen);
+  }
+
+  /**
+   * returns the result of {@link #call() callable.call()} if done it normally, or {@link Function#apply(Object) fallen.apply(E)} if error occurred .
+   *
+   * @param <V> the type of the result of the task
+   * @param <E> anything thrown
+   * @param callable {@link Callable}, may not be null
+   * @param fallen {@link Function} which receives the failure, or the function that always return null if this is null
+   * @return the result of {@link #call() callable.call()} if done it normally, or {@link Function#apply(Object) fallen.apply(E)} if error occurred
+   */
+  static <V, E extends Throwable> V orElse(final ThrowableCallable<? extends V> callable, final Function<? super E, ? extends V> fallen) {
+    return of(callable, fallen).call();
+  }
+
+  /**
+   * returns the result of {@link #call() callable.call()} if done it normally, or {@link Supplier#get() fallen.get()} if error occurred .
+   *
+   * @param <V> the type of the result of the task
+   * @param callable {@link Callable}, may not be null
+   * @param fallen {@link Supplier}, or the supplier that always return null if this is null
+   * @return the result of {@link #call() callable.call()} if done it normally, or {@link Supplier#get() fallen.get()} if error occurred
+   */
+  static <V> V orElseGet(final ThrowableCallable<? extends V> callable, final Supplier<? extends V> fallen) {
+    final Object result = Attempts.call(callable);
+
+    return Attempts.failed(result) ? Trebuchet.defaults(fallen).get() : Attempts.result(result);
+  }
+
+  /**
+   * returns the result of {@link #call() callable.call()} if done it normally, or {@code null} if error occurred .
+   *
+   * @param <V> the type of the result of the task
+   * @param callable {@link Callable}, may not be null
+   * @return the result of {@link #call() callable.call()} if done it normally, or {@code null} if error occurred
+   */
+  static <V> V orNull(final ThrowableCallable<? extends V> callable) {
+    return Attempts.orElse(Attempts.call(callable), null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  default V call() {/* @formatter:off */try {return callOrThrow();} catch (Throwable e) {Trebuchet.sneakyThrow(e);} return null;/* @formatter:on */}
+
+  /**
+   * computes a result .
+   *
+   * @return the result
+   * @throws Throwable anything thrown
+   */
+  V callOrThrow() throws Throwable;
+}
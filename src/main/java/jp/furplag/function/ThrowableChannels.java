@@ -0,0 +1,271 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * streams a channel through {@link ThrowableFunction} block by block, and routes failures per block .
+ *
+ * <p>blocks are read into pooled direct buffers, and each block is valid only during the call which receives it .
+ * channels should be in blocking mode, and {@link IOException} is thrown if a channel transfers no bytes, instead of spinning .</p>
+ *
+ * @author furplag
+ *
+ */
+public interface ThrowableChannels {
+
+  /** the size of blocks, which are pooled . */
+  static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+  /**
+   * performs the specified operation for each block of the channel, and {@code fallen} for each block which failed .
+   *
+   * @param <E> anything thrown
+   * @param in {@link ReadableByteChannel}, may not be null
+   * @param out {@link WritableByteChannel} which the operation receives, may not be null
+   * @param consumer {@link ThrowableBiConsumer} which receives a block and {@code out}, may not be null
+   * @param fallen {@link BiConsumer} which receives the block and the failure, or the consumer that do nothing if this is null
+   * @return the number of bytes read
+   * @throws IOException if an I/O error occurs while reading
+   * @throws NullPointerException if arguments contains null, except {@code fallen}
+   */
+  static <E extends Throwable> long forEachBlock(final ReadableByteChannel in, final WritableByteChannel out, final ThrowableBiConsumer<? super ByteBuffer, ? super WritableByteChannel> consumer, final BiConsumer<? super ByteBuffer, ? super E> fallen) throws IOException {
+    return forEachBlock(in, out, consumer, fallen, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * performs the specified operation for each block of the channel, and {@code fallen} for each block which failed .
+   *
+   * <p>every block is {@code blockSize} bytes except the last one . the block which {@code fallen} receives
+   * is rewound to the state before the operation, even if the operation has consumed a part of the block .</p>
+   *
+   * @param <E> anything thrown
+   * @param in {@link ReadableByteChannel}, may not be null
+   * @param out {@link WritableByteChannel} which the operation receives, may not be null
+   * @param consumer {@link ThrowableBiConsumer} which receives a block and {@code out}, may not be null
+   * @param fallen {@link BiConsumer} which receives the block and the failure, or the consumer that do nothing if this is null
+   * @param blockSize the size of blocks
+   * @return the number of bytes read
+   * @throws IOException if an I/O error occurs while reading
+   * @throws NullPointerException if arguments contains null, except {@code fallen}
+   * @throws IllegalArgumentException if {@code blockSize} is not positive
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <E extends Throwable> long forEachBlock(final ReadableByteChannel in, final WritableByteChannel out, final ThrowableBiConsumer<? super ByteBuffer, ? super WritableByteChannel> consumer, final BiConsumer<? super ByteBuffer, ? super E> fallen, final int blockSize) throws IOException {
+    requireBlockSize(blockSize);
+    Objects.requireNonNull(in);
+    Objects.requireNonNull(out);
+    Objects.requireNonNull(consumer);
+    final BiConsumer<ByteBuffer, Throwable> fallback = (BiConsumer<ByteBuffer, Throwable>) Trebuchet.defaults(fallen);
+    final ByteBuffer block = BufferPool.acquire(blockSize);
+    try {
+      long read = 0;
+      while (fill(in, block)) {
+        final int limit = block.limit();
+        read += limit;
+        try {
+          consumer.acceptOrThrow(block, out);
+        } catch (Throwable e) {
+          fallback.accept(block.limit(limit).position(0), e);
+        }
+      }
+
+      return read;
+    } finally {
+      BufferPool.release(block);
+    }
+  }
+
+  /**
+   * copies the channel to another channel as is .
+   *
+   * <p>a {@link FileChannel} is transferred with {@link FileChannel#transferTo(long, long, WritableByteChannel)} from its position,
+   * so that the bytes may never be copied into the heap, and copying stops at the end of the file even if it is truncated meanwhile .
+   * other channels are copied through a pooled direct buffer .
+   * unlike {@link #forEachBlock(ReadableByteChannel, WritableByteChannel, ThrowableBiConsumer, BiConsumer) forEachBlock},
+   * failures of writing are not routed per block, and stop copying .</p>
+   *
+   * @param in {@link ReadableByteChannel}, may not be null
+   * @param out {@link WritableByteChannel}, may not be null
+   * @return the number of bytes copied
+   * @throws IOException if an I/O error occurs
+   * @throws NullPointerException if arguments contains null
+   */
+  static long transfer(final ReadableByteChannel in, final WritableByteChannel out) throws IOException {
+    Objects.requireNonNull(out);
+    if (Objects.requireNonNull(in) instanceof FileChannel) {
+      final FileChannel file = (FileChannel) in;
+      final long start = file.position();
+      final long size = file.size();
+      long position = start;
+      while (position < size) {
+        final long transferred = file.transferTo(position, size - position, out);
+        if (transferred > 0) {
+          position += transferred;
+        } else if (file.size() > position) {
+          throw stalled();
+        } else {
+          break;
+        }
+      }
+      file.position(position);
+
+      return position - start;
+    }
+
+    final ByteBuffer block = BufferPool.acquire(DEFAULT_BLOCK_SIZE);
+    try {
+      long copied = 0;
+      while (fill(in, block)) {
+        copied += write(block, out);
+      }
+
+      return copied;
+    } finally {
+      BufferPool.release(block);
+    }
+  }
+
+  /**
+   * maps each block of the channel with the specified function, and writes results to another channel .
+   *
+   * @param <E> anything thrown
+   * @param in {@link ReadableByteChannel}, may not be null
+   * @param out {@link WritableByteChannel}, may not be null
+   * @param function {@link ThrowableFunction}, may not be null
+   * @param fallen {@link BiFunction} which receives the block and the failure, or the function that always return null if this is null
+   * @return the number of bytes written
+   * @throws IOException if an I/O error occurs
+   * @throws NullPointerException if arguments contains null, except {@code fallen}
+   */
+  static <E extends Throwable> long transform(final ReadableByteChannel in, final WritableByteChannel out, final ThrowableFunction<? super ByteBuffer, ? extends ByteBuffer> function, final BiFunction<? super ByteBuffer, ? super E, ? extends ByteBuffer> fallen) throws IOException {
+    return transform(in, out, function, fallen, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * maps each block of the channel with the specified function, and writes results to another channel .
+   *
+   * <p>the function may transform the block in place and return it, or return another buffer .
+   * the result of {@code fallen} is written instead if the function failed, and nothing is written if the result is null .
+   * chain transforms with {@link ThrowableFunction#andThen(java.util.function.Function) andThen}
+   * to stream blocks through them without intermediate copies .</p>
+   *
+   * @param <E> anything thrown
+   * @param in {@link ReadableByteChannel}, may not be null
+   * @param out {@link WritableByteChannel}, may not be null
+   * @param function {@link ThrowableFunction}, may not be null
+   * @param fallen {@link BiFunction} which receives the block and the failure, or the function that always return null if this is null
+   * @param blockSize the size of blocks
+   * @return the number of bytes written
+   * @throws IOException if an I/O error occurs
+   * @throws NullPointerException if arguments contains null, except {@code fallen}
+   * @throws IllegalArgumentException if {@code blockSize} is not positive
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <E extends Throwable> long transform(final ReadableByteChannel in, final WritableByteChannel out, final ThrowableFunction<? super ByteBuffer, ? extends ByteBuffer> function, final BiFunction<? super ByteBuffer, ? super E, ? extends ByteBuffer> fallen, final int blockSize) throws IOException {
+    requireBlockSize(blockSize);
+    Objects.requireNonNull(in);
+    Objects.requireNonNull(out);
+    Objects.requireNonNull(function);
+    final BiFunction<ByteBuffer, Throwable, ByteBuffer> fallback = (BiFunction<ByteBuffer, Throwable, ByteBuffer>) Trebuchet.defaults(fallen);
+    final ByteBuffer block = BufferPool.acquire(blockSize);
+    try {
+      long written = 0;
+      while (fill(in, block)) {
+        final int limit = block.limit();
+        ByteBuffer result;
+        try {
+          result = function.applyOrThrow(block);
+        } catch (Throwable e) {
+          result = fallback.apply(block.limit(limit).position(0), e);
+        }
+        written += result == null ? 0 : write(result, out);
+      }
+
+      return written;
+    } finally {
+      BufferPool.release(block);
+    }
+  }
+
+  /**
+   * reads the next block of the channel, until the block is full or the channel reaches end-of-stream .
+   *
+   * @param in {@link ReadableByteChannel}
+   * @param block the buffer, which is flipped to read
+   * @return false if the channel has no more bytes
+   * @throws IOException if an I/O error occurs
+   */
+  private static boolean fill(final ReadableByteChannel in, final ByteBuffer block) throws IOException {
+    block.clear();
+    for (int read = 0; block.hasRemaining() && read > -1;) {
+      read = in.read(block);
+      if (read == 0) {
+        throw stalled();
+      }
+    }
+
+    return block.flip().hasRemaining();
+  }
+
+  /**
+   * returns the failure of the channel which transfers no bytes, that is, in non-blocking mode .
+   *
+   * @return {@link IOException}
+   */
+  private static IOException stalled() {
+    return new IOException("the channel transfers no bytes, which should be in blocking mode .");
+  }
+
+  /**
+   * throws {@link IllegalArgumentException} if the size of blocks is not positive .
+   *
+   * @param blockSize the size of blocks
+   */
+  private static void requireBlockSize(final int blockSize) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("blockSize must be positive .");
+    }
+  }
+
+  /**
+   * writes all the remaining bytes of the buffer .
+   *
+   * @param buffer the buffer
+   * @param out {@link WritableByteChannel}
+   * @return the number of bytes written
+   * @throws IOException if an I/O error occurs
+   */
+  private static int write(final ByteBuffer buffer, final WritableByteChannel out) throws IOException {
+    final int remaining = buffer.remaining();
+    while (buffer.hasRemaining()) {
+      if (out.write(buffer) < 1) {
+        throw stalled();
+      }
+    }
+
+    return remaining;
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * comparators which compare elements by keys {@link ThrowableFunction} extracts, and place elements whose key extraction failed along the policy .
+ *
+ * @author furplag
+ *
+ * @see ThrowableSorts
+ */
+public interface ThrowableComparators {
+
+  /**
+   * returns a comparator which compares elements by the natural order of keys .
+   *
+   * <p>keys are extracted at every comparison . use {@link ThrowableSorts#sortByKey(Object[], ThrowableFunction, FailurePolicy) ThrowableSorts}
+   * to extract each key exactly once, if the extraction is expensive .</p>
+   *
+   * @param <T> the type of elements
+   * @param <K> the type of keys
+   * @param keyExtractor {@link ThrowableFunction} which extracts the key, may not be null
+   * @param policy {@link FailurePolicy} which places elements whose key extraction failed, may not be null
+   * @return {@link Comparator}
+   * @throws NullPointerException if arguments contains null
+   */
+  static <T, K extends Comparable<? super K>> Comparator<T> comparing(final ThrowableFunction<? super T, ? extends K> keyExtractor, final FailurePolicy policy) {
+    return comparing(keyExtractor, Comparator.naturalOrder(), policy);
+  }
+
+  /**
+   * returns a comparator which compares elements by keys with the specified comparator .
+   *
+   * @param <T> the type of elements
+   * @param <K> the type of keys
+   * @param keyExtractor {@link ThrowableFunction} which extracts the key, may not be null
+   * @param keyComparator {@link Comparator} of keys, may not be null
+   * @param policy {@link FailurePolicy} which places elements whose key extraction failed, may not be null
+   * @return {@link Comparator}
+   * @throws NullPointerException if arguments contains null
+   * @see #comparing(ThrowableFunction, FailurePolicy)
+   */
+  static <T, K> Comparator<T> comparing(final ThrowableFunction<? super T, ? extends K> keyExtractor, final Comparator<? super K> keyComparator, final FailurePolicy policy) {
+    Objects.requireNonNull(keyExtractor);
+    Objects.requireNonNull(keyComparator);
+    Objects.requireNonNull(policy);
+
+    return (a, b) -> {
+      K x = null;
+      K y = null;
+      Throwable failure = null;
+      try {
+        x = keyExtractor.applyOrThrow(a);
+      } catch (Throwable e) {
+        failure = e;
+      }
+      try {
+        y = keyExtractor.applyOrThrow(b);
+      } catch (Throwable e) {
+        if (failure == null) {
+          return policy.compare(e, false);
+        }
+
+        return policy == FailurePolicy.THROW ? policy.compare(failure, true) : 0;
+      }
+
+      return failure == null ? keyComparator.compare(x, y) : policy.compare(failure, true);
+    };
+  }
+
+  /**
+   * where to place elements whose key extraction failed .
+   *
+   * @author furplag
+   *
+   */
+  enum FailurePolicy {
+
+    /** elements whose key extraction failed precede others, in their original order if sorted stably . */
+    FIRST,
+
+    /** elements whose key extraction failed follow others, in their original order if sorted stably . */
+    LAST,
+
+    /** the failure of key extraction is thrown . */
+    THROW;
+
+    /**
+     * compares the element whose key extraction failed with the element whose key extraction has done normally .
+     *
+     * @param failure the failure
+     * @param former true if the failed element is the former argument of the comparison
+     * @return the result of comparison
+     */
+    int compare(final Throwable failure, final boolean former) {
+      if (this == THROW) {
+        Trebuchet.sneakyThrow(failure);
+      }
+
+      return (this == FIRST) == former ? -1 : 1;
+    }
+  }
+}
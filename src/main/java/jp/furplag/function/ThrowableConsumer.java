@@ -16,7 +16,6 @@
 
 package jp.furplag.function;
 
-import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -41,11 +40,8 @@ public interface ThrowableConsumer<T> extends Consumer<T> {
    * @return {@link ThrowableConsumer}
    * @throws NullPointerException if {@code consumer} is null
    */
-  @SuppressWarnings({ "unchecked" })
   static <T, E extends Throwable> ThrowableConsumer<T> of(final ThrowableConsumer<? super T> consumer, final BiConsumer<? super T, ? super E> fallen) {
-    Objects.requireNonNull(consumer);
-
-    return (t) -> {/* @formatter:off */try {consumer.accept(t);} catch (Throwable e) {Trebuchet.defaults(fallen).accept(t, (E) e);}/* @formatter:off */};
+    return Guards.consumer(consumer, Trebuchet.defaults(fallen));
   }
 
   /**
@@ -57,7 +53,9 @@ public interface ThrowableConsumer<T> extends Consumer<T> {
    * @return {@link ThrowableConsumer}
    */
   static <T> ThrowableConsumer<T> of(final ThrowableConsumer<? super T> consumer, final Consumer<? super T> fallen) {
-    return of(consumer, (t, e) -> Trebuchet.defaults(fallen).accept(t));
+    final Consumer<? super T> fallback = Trebuchet.defaults(fallen);
+
+    return of(consumer, (t, e) -> fallback.accept(t));
   }
 
   /**
@@ -82,7 +80,9 @@ public interface ThrowableConsumer<T> extends Consumer<T> {
    * @param fallen {@link Consumer}, do nothing if this is null
    */
   static <T> void orElse(final T t, final ThrowableConsumer<? super T> consumer, final Consumer<? super T> fallen) {
-    orElse(t, consumer, (x, ex) -> Trebuchet.defaults(fallen).accept(x));
+    if (Attempts.accept(t, consumer) != null) {
+      Trebuchet.defaults(fallen).accept(t);
+    }
   }
 
   /**
@@ -93,7 +93,7 @@ public interface ThrowableConsumer<T> extends Consumer<T> {
    * @param consumer {@link Consumer}, may not be null
    */
   static <T> void orNot(final T t, final ThrowableConsumer<? super T> consumer) {
-    orElse(t, consumer, (Consumer<T>) null);
+    Attempts.accept(t, consumer);
   }
 
   /**
@@ -117,6 +117,16 @@ public interface ThrowableConsumer<T> extends Consumer<T> {
    */
   @Override
   default ThrowableConsumer<T> andThen(Consumer<? super T> after) {
-    return (t) -> {/* @formatter:off */accept(t); Trebuchet.defaults(after).accept(t);/* @formatter:on */};
+    return Guards.sequence(this, Trebuchet.defaults(after));
+  }
+
+  /**
+   * returns a operation which runs this as a {@link java.util.concurrent.ForkJoinPool.ManagedBlocker managed blocker} ,
+   * so that {@link java.util.concurrent.ForkJoinPool} ( e.g. parallel streams ) compensates with a spare worker while this blocks on I/O .
+   *
+   * @return {@link ThrowableConsumer} which may block
+   */
+  default ThrowableConsumer<T> blocking() {
+    return (t) -> Blocking.call(() -> {acceptOrThrow(t); return null;});
   }
 }
@@ -16,9 +16,11 @@
 
 package jp.furplag.function;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 /**
@@ -44,7 +46,92 @@ public interface ThrowableFunction<T, R> extends Function<T, R> {
    * @return the result of {@link ThrowableFunction#apply(Object) function.apply(T)} if done it normally, or fallen if error occurred
    */
   static <T, R, U extends R> R applyOrDefault(final T t, final ThrowableFunction<? super T, ? extends R> function, final U fallen) {
-    return Objects.requireNonNullElse(orElse(t, function, (e) -> null), Objects.requireNonNull(fallen));
+    return Objects.requireNonNullElse(orNull(t, function), Objects.requireNonNull(fallen));
+  }
+
+  /**
+   * returns a function which tries {@code functions} in order, and returns the result of the first one done it normally .
+   * {@code fallen} receives the error of the last one, if all of them has failed .
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   * @param <E> anything thrown
+   * @param functions alternatives, may not be null
+   * @param fallen {@link BiFunction}, or the function that always return null if this is null
+   * @return {@link ThrowableFunction}
+   * @throws NullPointerException if {@code functions} is null, or contains null
+   */
+  static <T, R, E extends Throwable> ThrowableFunction<T, R> firstSuccessful(final List<? extends ThrowableFunction<? super T, ? extends R>> functions, final BiFunction<? super T, ? super E, ? extends R> fallen) {
+    return firstSuccessful(functions, fallen, false);
+  }
+
+  /**
+   * returns a function which tries {@code functions} in order, and returns the result of the first one done it normally .
+   * {@code fallen} receives the error of the last one, if all of them has failed .
+   *
+   * <p>in adaptive mode, the order is rearranged by the recent success rate and the cost of each alternative,
+   * so that the likely winner is tried first . another alternative is tried first once in a while, so that a demoted one may regain its position .</p>
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   * @param <E> anything thrown
+   * @param functions alternatives, may not be null
+   * @param fallen {@link BiFunction}, or the function that always return null if this is null
+   * @param adaptive rearranges the order of alternatives if true
+   * @return {@link ThrowableFunction}
+   * @throws NullPointerException if {@code functions} is null, or contains null
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, R, E extends Throwable> ThrowableFunction<T, R> firstSuccessful(final List<? extends ThrowableFunction<? super T, ? extends R>> functions, final BiFunction<? super T, ? super E, ? extends R> fallen, final boolean adaptive) {
+    final ThrowableFunction<? super T, ? extends R>[] alternatives = functions.stream().map(Objects::requireNonNull).toArray(ThrowableFunction[]::new);
+    final BiFunction<? super T, ? super E, ? extends R> fallback = Trebuchet.defaults(fallen);
+    if (!adaptive) {
+      return (t) -> {
+        Throwable failure = null;
+        for (ThrowableFunction<? super T, ? extends R> alternative : alternatives) {
+          Listeners.onInvoke(alternative);
+          try {
+            final R result = alternative.applyOrThrow(t);
+            Listeners.onSuccess(alternative);
+
+            return result;
+          } catch (Throwable e) {
+            Listeners.onFailure(alternative, e);
+            failure = e;
+          }
+        }
+        Listeners.onFallback(functions, failure);
+
+        return fallback.apply(t, (E) failure);
+      };
+    }
+    final Alternatives stats = new Alternatives(alternatives.length);
+
+    return (t) -> {
+      Throwable failure = null;
+      for (int i : stats.order()) {
+        Listeners.onInvoke(alternatives[i]);
+        final long started = System.nanoTime();
+        R result = null;
+        Throwable thrown = null;
+        try {
+          result = alternatives[i].applyOrThrow(t);
+        } catch (Throwable e) {
+          thrown = e;
+        }
+        stats.record(i, thrown == null, started);
+        if (thrown == null) {
+          Listeners.onSuccess(alternatives[i]);
+
+          return result;
+        }
+        Listeners.onFailure(alternatives[i], thrown);
+        failure = thrown;
+      }
+      Listeners.onFallback(functions, failure);
+
+      return fallback.apply(t, (E) failure);
+    };
   }
 
   /**
@@ -68,11 +155,8 @@ public interface ThrowableFunction<T, R> extends Function<T, R> {
    * @return {@link ThrowableFunction}
    * @throws NullPointerException if {@code function} is null
    */
-  @SuppressWarnings({ "unchecked" })
   static <T, R, E extends Throwable> ThrowableFunction<T, R> of(final ThrowableFunction<? super T, ? extends R> function, final BiFunction<? super T, ? super E, ? extends R> fallen) {
-    Objects.requireNonNull(function);
-
-    return (t) -> {/* @formatter:off */try {return function.apply(t);} catch (Throwable e) {return Trebuchet.defaults(fallen).apply(t, (E) e);}/* @formatter:off */};
+    return Guards.function(function, Trebuchet.defaults(fallen));
   }
 
   /**
@@ -85,7 +169,9 @@ public interface ThrowableFunction<T, R> extends Function<T, R> {
    * @return {@link ThrowableFunction}
    */
   static <T, R> ThrowableFunction<T, R> of(final ThrowableFunction<? super T, ? extends R> function, final Function<? super T, ? extends R> fallen) {
-    return of(function, (t, e) -> Trebuchet.defaults(fallen).apply(t));
+    final Function<? super T, ? extends R> fallback = Trebuchet.defaults(fallen);
+
+    return of(function, (t, e) -> fallback.apply(t));
   }
 
   /**
@@ -100,7 +186,7 @@ public interface ThrowableFunction<T, R> extends Function<T, R> {
    * @return the result of {@link #apply(Object) function.apply(T)} if done it normally, or fallen if error occurred
    */
   static <T, R, U extends R> R orDefault(final T t, final ThrowableFunction<? super T, ? extends R> function, final U fallen) {
-    return orElseGet(t, function, () -> fallen);
+    return Attempts.orElse(Attempts.apply(t, function), fallen);
   }
 
   /**
@@ -129,7 +215,9 @@ public interface ThrowableFunction<T, R> extends Function<T, R> {
    * @return the result of {@link #apply(Object) function.apply(T)} if done it normally, or {@link Function#apply(Object) fallen.apply(T)} if error occurred
    */
   static <T, R> R orElse(final T t, final ThrowableFunction<? super T, ? extends R> function, final Function<? super T, ? extends R> fallen) {
-    return orElse(t, function, (x, ex) -> Trebuchet.defaults(fallen).apply(x));
+    final Object result = Attempts.apply(t, function);
+
+    return Attempts.failed(result) ? Trebuchet.defaults(fallen).apply(t) : Attempts.result(result);
   }
 
   /**
@@ -143,7 +231,9 @@ public interface ThrowableFunction<T, R> extends Function<T, R> {
    * @return the result of {@link #apply(Object) function.apply(T)} if done it normally, or {@link Supplier#get() fallen.get()} if error occurred
    */
   static <T, R> R orElseGet(final T t, final ThrowableFunction<? super T, ? extends R> function, Supplier<? extends R> fallen) {
-    return orElse(t, function, (x) -> Trebuchet.defaults(fallen).get());
+    final Object result = Attempts.apply(t, function);
+
+    return Attempts.failed(result) ? Trebuchet.defaults(fallen).get() : Attempts.result(result);
   }
 
   /**
@@ -156,7 +246,7 @@ public interface ThrowableFunction<T, R> extends Function<T, R> {
    * @return the result of {@link #apply(Object) function.apply(T)} if done it normally, or {@code null} if error occurred
    */
   static <T, R> R orNull(final T t, final ThrowableFunction<? super T, ? extends R> function) {
-    return orElseGet(t, function, () -> null);
+    return Attempts.orElse(Attempts.apply(t, function), null);
   }
 
   /**
@@ -164,7 +254,7 @@ public interface ThrowableFunction<T, R> extends Function<T, R> {
    */
   @Override
   default <V> ThrowableFunction<T, V> andThen(Function<? super R, ? extends V> after) {
-    return (t) -> Trebuchet.defaults(after).apply(apply(t));
+    return ThrowablePipeline.<T, R>of(this).andThen(after);
   }
 
   /**
@@ -173,6 +263,31 @@ public interface ThrowableFunction<T, R> extends Function<T, R> {
   @Override
   default R apply(T t) {/* @formatter:off */try {return applyOrThrow(t);} catch (Throwable e) {Trebuchet.sneakyThrow(e);} return null;/* @formatter:on */}
 
+  /**
+   * applies this function to each element in one loop, and stores results at the same index, or null if the element failed .
+   *
+   * @param in elements, may not be null
+   * @param out results, may not be null
+   * @return {@link BulkFailures}, instead of calling a fallback per element
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code out} is shorter than {@code in}
+   */
+  default BulkFailures applyAll(final T[] in, final R[] out) {
+    return BulkFailures.applyAll(this, in, out);
+  }
+
+  /**
+   * applies this function to each element in one loop, and adds results to {@code out}, or null if the element failed .
+   *
+   * @param in elements, may not be null
+   * @param out results, may not be null
+   * @return {@link BulkFailures}, instead of calling a fallback per element
+   * @throws NullPointerException if arguments contains null
+   */
+  default BulkFailures applyAll(final List<? extends T> in, final List<? super R> out) {
+    return BulkFailures.applyAll(this, in, out);
+  }
+
   /**
    * Applies this function to the given argument.
    *
@@ -181,4 +296,48 @@ public interface ThrowableFunction<T, R> extends Function<T, R> {
    * @throws Throwable anything thrown
    */
   R applyOrThrow(T t) throws Throwable;
+
+  /**
+   * returns a function which runs this as a {@link java.util.concurrent.ForkJoinPool.ManagedBlocker managed blocker} ,
+   * so that {@link java.util.concurrent.ForkJoinPool} ( e.g. parallel streams ) compensates with a spare worker while this blocks on I/O .
+   *
+   * @return {@link ThrowableFunction} which may block
+   */
+  default ThrowableFunction<T, R> blocking() {
+    return (t) -> Blocking.call(() -> applyOrThrow(t));
+  }
+
+  /**
+   * returns this guarded by the specified precheck, which runs first only while this fails frequently .
+   * arguments which the precheck rejects fall back directly with a {@link RejectedException} of the arguments, without throwing an exception .
+   *
+   * <p>the precheck should reject only the arguments which this fails with, since it does not run while failures are rare .
+   * only the function which {@code of(...)} returns may be guarded, even if other wrappers ( e.g. {@link Trebuchet#specialize(ThrowableFunction, java.util.function.BiFunction) specialize(...)}, {@link ThrowablePipeline} ) have fallbacks .</p>
+   *
+   * @param precheck {@link Predicate}, may not be null
+   * @return {@link ThrowableFunction} guarded by the precheck
+   * @throws NullPointerException if {@code precheck} is null
+   * @throws IllegalArgumentException if this is not the function which {@code of(...)} returns
+   */
+  default ThrowableFunction<T, R> guardedBy(final Predicate<? super T> precheck) {
+    return Guards.guardedBy(this, precheck);
+  }
+
+  /**
+   * returns a function which throws failures of the source type translated into the target type .
+   *
+   * <p>other failures are thrown as is, so that translations may be chained for each type .</p>
+   *
+   * @param source the type of failures to translate, may not be null
+   * @param target the type of the translation, may not be null
+   * @return {@link ThrowableFunction}
+   * @throws NullPointerException if arguments contains null
+   * @see Trebuchet#translate(Throwable, Class)
+   */
+  default ThrowableFunction<T, R> translating(final Class<? extends Throwable> source, final Class<? extends Throwable> target) {
+    Objects.requireNonNull(source);
+    Objects.requireNonNull(target);
+
+    return (t) -> {/* @formatter:off */try {return applyOrThrow(t);} catch (Throwable e) {throw Translator.translating(e, source, target);}/* @formatter:on */};
+  }
 }
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * file I/O which applies {@link ThrowableConsumer} to each unit of the file, and routes failures per unit .
+ *
+ * @author furplag
+ *
+ */
+public interface ThrowableIO {
+
+  /**
+   * performs the specified operation for each line of the file, and {@code fallen} for each line which failed .
+   *
+   * <p>the file is memory-mapped in chunks, and lines are found directly in the mapped buffer .
+   * each line is passed as a reusable {@link Line} view without line terminators, instead of a {@link String} per line,
+   * so that the view is valid only during the call . call {@link Line#toString()} to keep the line .
+   * the charset must encode line terminators as in ASCII ( e.g. UTF-8, ISO-8859-1, Shift_JIS ) .</p>
+   *
+   * @param <E> anything thrown
+   * @param path the file, may not be null
+   * @param charset the charset of the file, may not be null
+   * @param consumer {@link ThrowableConsumer}, may not be null
+   * @param fallen {@link BiConsumer} which receives the line and the failure, or the consumer that do nothing if this is null
+   * @return the number of lines
+   * @throws IOException if an I/O error occurs
+   * @throws NullPointerException if arguments contains null, except {@code fallen}
+   * @throws IllegalArgumentException if {@code charset} does not encode line terminators as in ASCII
+   */
+  static <E extends Throwable> long forEachLine(final Path path, final Charset charset, final ThrowableConsumer<? super Line> consumer, final BiConsumer<? super Line, ? super E> fallen) throws IOException {
+    return forEachLine(path, charset, consumer, fallen, 1);
+  }
+
+  /**
+   * performs the specified operation for each line of the file in parallel, and {@code fallen} for each line which failed .
+   *
+   * <p>the file is split into ranges at line boundaries, and each range is processed concurrently
+   * after counting lines of each range, so that line numbers stay exact . the operations must be thread-safe .</p>
+   *
+   * @param <E> anything thrown
+   * @param path the file, may not be null
+   * @param charset the charset of the file, may not be null
+   * @param consumer {@link ThrowableConsumer}, may not be null
+   * @param fallen {@link BiConsumer} which receives the line and the failure, or the consumer that do nothing if this is null
+   * @param parallelism the number of ranges
+   * @return the number of lines
+   * @throws IOException if an I/O error occurs
+   * @throws NullPointerException if arguments contains null, except {@code fallen}
+   * @throws IllegalArgumentException if {@code charset} does not encode line terminators as in ASCII, or {@code parallelism} is not positive
+   * @see #forEachLine(Path, Charset, ThrowableConsumer, BiConsumer)
+   */
+  static <E extends Throwable> long forEachLine(final Path path, final Charset charset, final ThrowableConsumer<? super Line> consumer, final BiConsumer<? super Line, ? super E> fallen, final int parallelism) throws IOException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive .");
+    }
+
+    return MappedLines.forEach(Objects.requireNonNull(path), MappedLines.requireAsciiCompatible(charset), Objects.requireNonNull(consumer), Trebuchet.defaults(fallen), parallelism, MappedLines.CHUNK);
+  }
+
+  /**
+   * a reusable view of a line in the mapped file .
+   *
+   * <p>ASCII lines, and every line of ISO-8859-1, are read directly from the mapped buffer .
+   * other lines are decoded into a reusable buffer . the view is valid only during the call which receives it .</p>
+   *
+   * @author furplag
+   *
+   */
+  static final class Line implements CharSequence {
+
+    /** the mapped buffer . */
+    private ByteBuffer bytes;
+
+    /** the position of the line in the buffer . */
+    private int start;
+
+    /** the length of the line . */
+    private int length;
+
+    /** decoded characters, or null if the line is read directly from the buffer . */
+    private CharBuffer chars;
+
+    /** the byte offset of the line in the file . */
+    private long offset;
+
+    /** the line number, starting at one . */
+    private long number;
+
+    /** Line instances are created only through {@link ThrowableIO} . */
+    Line() {}
+
+    /**
+     * binds this view to the bytes of a line .
+     *
+     * @param bytes the mapped buffer
+     * @param start the position of the line in the buffer
+     * @param length the length of the line in bytes
+     * @param offset the byte offset of the line in the file
+     * @param number the line number
+     * @return this
+     */
+    Line bind(final ByteBuffer bytes, final int start, final int length, final long offset, final long number) {
+      this.bytes = bytes;
+      this.start = start;
+      this.length = length;
+      this.offset = offset;
+      this.number = number;
+      chars = null;
+
+      return this;
+    }
+
+    /**
+     * binds this view to the decoded characters of the line .
+     *
+     * @param chars decoded characters
+     * @return this
+     */
+    Line decoded(final CharBuffer chars) {
+      this.chars = chars;
+      length = chars.remaining();
+
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char charAt(final int index) {
+      Objects.checkIndex(index, length);
+
+      return chars == null ? (char) (bytes.get(start + index) & 0xFF) : chars.get(chars.position() + index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int length() {
+      return length;
+    }
+
+    /**
+     * returns the line number, starting at one .
+     *
+     * @return the line number
+     */
+    public long number() {
+      return number;
+    }
+
+    /**
+     * returns the byte offset of the line in the file .
+     *
+     * @return the byte offset of the line
+     */
+    public long offset() {
+      return offset;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>the subsequence is a copy, which is valid after the call .</p>
+     */
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+      return toString().substring(start, end);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+      return new StringBuilder(length).append(this).toString();
+    }
+  }
+}
@@ -0,0 +1,467 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import jp.furplag.function.Trebuchet.TriFunction;
+
+/**
+ * a chain of {@link ThrowableFunction functions} which holds stages in an array, and runs them in one loop .
+ *
+ * <p>unlike {@link ThrowableFunction#andThen(Function)}, composing stages never nests lambdas,
+ * so that the stack stays shallow however many stages there are .
+ * each stage can have its own fallback, the result of which is passed to the next stage in place of the failed one .
+ * an error of the stage which has no fallback is relayed to the caller .</p>
+ *
+ * @author furplag
+ *
+ * @param <T> the type of the input to the pipeline
+ * @param <R> the type of the result of the pipeline
+ */
+public final class ThrowablePipeline<T, R> implements ThrowableFunction<T, R> {
+
+  /** the pipeline which has no stage . */
+  private static final ThrowablePipeline<?, ?> EMPTY = new ThrowablePipeline<>(new ThrowableFunction<?, ?>[0], new BiFunction<?, ?, ?>[0]);
+
+  /** stages . */
+  private final ThrowableFunction<Object, Object>[] stages;
+
+  /** fallback for each stage, or null if the stage relays an error . */
+  private final BiFunction<Object, Throwable, Object>[] fallbacks;
+
+  /**
+   * @param stages stages
+   * @param fallbacks fallback for each stage
+   */
+  @SuppressWarnings({ "unchecked" })
+  private ThrowablePipeline(final ThrowableFunction<?, ?>[] stages, final BiFunction<?, ?, ?>[] fallbacks) {
+    this.stages = (ThrowableFunction<Object, Object>[]) stages;
+    this.fallbacks = (BiFunction<Object, Throwable, Object>[]) fallbacks;
+  }
+
+  /**
+   * returns the pipeline which has no stage, that is, always returns its input argument .
+   *
+   * @param <T> the type of the input to the pipeline
+   * @return {@link ThrowablePipeline}
+   */
+  @SuppressWarnings({ "unchecked" })
+  public static <T> ThrowablePipeline<T, T> of() {
+    return (ThrowablePipeline<T, T>) EMPTY;
+  }
+
+  /**
+   * returns the pipeline which starts with the specified stage .
+   *
+   * @param <T> the type of the input to the pipeline
+   * @param <R> the type of the result of the pipeline
+   * @param stage {@link ThrowableFunction}, may not be null
+   * @return {@link ThrowablePipeline}
+   * @throws NullPointerException if {@code stage} is null
+   */
+  public static <T, R> ThrowablePipeline<T, R> of(final ThrowableFunction<? super T, ? extends R> stage) {
+    return ThrowablePipeline.<T>of().then(stage);
+  }
+
+  /**
+   * returns the pipeline which starts with the specified stage .
+   *
+   * @param <T> the type of the input to the pipeline
+   * @param <R> the type of the result of the pipeline
+   * @param <E> anything thrown
+   * @param stage {@link ThrowableFunction}, may not be null
+   * @param fallen {@link BiFunction}, or the function that always return null if this is null
+   * @return {@link ThrowablePipeline}
+   * @throws NullPointerException if {@code stage} is null
+   */
+  public static <T, R, E extends Throwable> ThrowablePipeline<T, R> of(final ThrowableFunction<? super T, ? extends R> stage, final BiFunction<? super T, ? super E, ? extends R> fallen) {
+    return ThrowablePipeline.<T>of().then(stage, fallen);
+  }
+
+  /**
+   * runs stages in one loop .
+   *
+   * @param value the input to the first stage
+   * @return the result of the last stage
+   * @throws Throwable an error of the stage which has no fallback
+   */
+  private Object run(final Object value) throws Throwable {
+    Object result = value;
+    int i = 0;
+    while (true) {
+      try {
+        for (; i < stages.length; i++) {
+          Listeners.onInvoke(stages[i]);
+          result = stages[i].applyOrThrow(result);
+          Listeners.onSuccess(stages[i]);
+        }
+
+        return result;
+      } catch (Throwable e) {
+        Listeners.onFailure(stages[i], e);
+        if (fallbacks[i] == null) {
+          throw e;
+        }
+        Listeners.onFallback(stages[i], e);
+        result = fallbacks[i].apply(result, e);
+        i++;
+      }
+    }
+  }
+
+  /**
+   * returns the number of stages .
+   *
+   * @return the number of stages
+   */
+  public int size() {
+    return stages.length;
+  }
+
+  /**
+   * returns a pipeline which applies the specified stage to the result of this pipeline .
+   * an error of the stage is relayed to the caller .
+   *
+   * @param <V> the type of the result of the stage
+   * @param stage {@link ThrowableFunction}, may not be null
+   * @return {@link ThrowablePipeline}
+   * @throws NullPointerException if {@code stage} is null
+   */
+  public <V> ThrowablePipeline<T, V> then(final ThrowableFunction<? super R, ? extends V> stage) {
+    return append(Objects.requireNonNull(stage), null);
+  }
+
+  /**
+   * returns a pipeline which applies the specified stage to the result of this pipeline .
+   * if the stage has failed, the result of {@code fallen} is passed to the next stage .
+   *
+   * @param <V> the type of the result of the stage
+   * @param <E> anything thrown
+   * @param stage {@link ThrowableFunction}, may not be null
+   * @param fallen {@link BiFunction}, or the function that always return null if this is null
+   * @return {@link ThrowablePipeline}
+   * @throws NullPointerException if {@code stage} is null
+   */
+  public <V, E extends Throwable> ThrowablePipeline<T, V> then(final ThrowableFunction<? super R, ? extends V> stage, final BiFunction<? super R, ? super E, ? extends V> fallen) {
+    return append(Objects.requireNonNull(stage), Trebuchet.defaults(fallen));
+  }
+
+  /**
+   * returns a pipeline which has the specified stage at the end .
+   * stages of the pipeline are flattened into this, if the stage is a {@link ThrowablePipeline} which relays an error .
+   *
+   * @param <V> the type of the result of the stage
+   * @param stage {@link ThrowableFunction}
+   * @param fallback {@link BiFunction}, or null if the stage relays an error
+   * @return {@link ThrowablePipeline}
+   */
+  private <V> ThrowablePipeline<T, V> append(final ThrowableFunction<?, ?> stage, final BiFunction<?, ?, ?> fallback) {
+    final ThrowablePipeline<?, ?> other = fallback == null && stage instanceof ThrowablePipeline ? (ThrowablePipeline<?, ?>) stage : new ThrowablePipeline<>(new ThrowableFunction<?, ?>[] { stage }, new BiFunction<?, ?, ?>[] { fallback });
+    final ThrowableFunction<?, ?>[] appended = Arrays.copyOf(stages, stages.length + other.stages.length);
+    final BiFunction<?, ?, ?>[] appendedFallbacks = Arrays.copyOf(fallbacks, fallbacks.length + other.fallbacks.length);
+    System.arraycopy(other.stages, 0, appended, stages.length, other.stages.length);
+    System.arraycopy(other.fallbacks, 0, appendedFallbacks, fallbacks.length, other.fallbacks.length);
+
+    return new ThrowablePipeline<>(appended, appendedFallbacks);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>the {@code after} function is appended to this pipeline as a stage, instead of nesting .</p>
+   */
+  @Override
+  public <V> ThrowablePipeline<T, V> andThen(final Function<? super R, ? extends V> after) {
+    final Function<? super R, ? extends V> _after = Trebuchet.defaults(after);
+
+    return then(_after::apply);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @SuppressWarnings({ "unchecked" })
+  @Override
+  public R applyOrThrow(final T t) throws Throwable {
+    return (R) run(t);
+  }
+
+  /**
+   * a {@link ThrowablePipeline} which starts with a {@link ThrowableBiFunction} .
+   *
+   * @author furplag
+   *
+   * @param <T> the type of the first argument to the pipeline
+   * @param <U> the type of the second argument to the pipeline
+   * @param <R> the type of the result of the pipeline
+   */
+  public static final class Bi<T, U, R> implements ThrowableBiFunction<T, U, R> {
+
+    /** the first stage . */
+    private final ThrowableBiFunction<Object, Object, Object> head;
+
+    /** fallback for the first stage, or null if the stage relays an error . */
+    private final TriFunction<Object, Object, Throwable, Object> fallback;
+
+    /** rest of stages . */
+    private final ThrowablePipeline<Object, R> tail;
+
+    /**
+     * @param head the first stage
+     * @param fallback fallback for the first stage
+     * @param tail rest of stages
+     */
+    @SuppressWarnings({ "unchecked" })
+    private Bi(final ThrowableBiFunction<?, ?, ?> head, final TriFunction<?, ?, ?, ?> fallback, final ThrowablePipeline<?, R> tail) {
+      this.head = (ThrowableBiFunction<Object, Object, Object>) head;
+      this.fallback = (TriFunction<Object, Object, Throwable, Object>) fallback;
+      this.tail = (ThrowablePipeline<Object, R>) tail;
+    }
+
+    /**
+     * returns the pipeline which starts with the specified stage .
+     *
+     * @param <T> the type of the first argument to the pipeline
+     * @param <U> the type of the second argument to the pipeline
+     * @param <R> the type of the result of the pipeline
+     * @param stage {@link ThrowableBiFunction}, may not be null
+     * @return {@link Bi}
+     * @throws NullPointerException if {@code stage} is null
+     */
+    public static <T, U, R> Bi<T, U, R> of(final ThrowableBiFunction<? super T, ? super U, ? extends R> stage) {
+      return new Bi<>(Objects.requireNonNull(stage), null, ThrowablePipeline.<R>of());
+    }
+
+    /**
+     * returns the pipeline which starts with the specified stage .
+     *
+     * @param <T> the type of the first argument to the pipeline
+     * @param <U> the type of the second argument to the pipeline
+     * @param <R> the type of the result of the pipeline
+     * @param <E> anything thrown
+     * @param stage {@link ThrowableBiFunction}, may not be null
+     * @param fallen {@link TriFunction}, or the function that always return null if this is null
+     * @return {@link Bi}
+     * @throws NullPointerException if {@code stage} is null
+     */
+    public static <T, U, R, E extends Throwable> Bi<T, U, R> of(final ThrowableBiFunction<? super T, ? super U, ? extends R> stage, final TriFunction<? super T, ? super U, ? super E, ? extends R> fallen) {
+      return new Bi<>(Objects.requireNonNull(stage), Trebuchet.defaults(fallen), ThrowablePipeline.<R>of());
+    }
+
+    /**
+     * returns the number of stages .
+     *
+     * @return the number of stages
+     */
+    public int size() {
+      return tail.size() + 1;
+    }
+
+    /**
+     * returns a pipeline which applies the specified stage to the result of this pipeline .
+     * an error of the stage is relayed to the caller .
+     *
+     * @param <V> the type of the result of the stage
+     * @param stage {@link ThrowableFunction}, may not be null
+     * @return {@link Bi}
+     * @throws NullPointerException if {@code stage} is null
+     */
+    public <V> Bi<T, U, V> then(final ThrowableFunction<? super R, ? extends V> stage) {
+      return new Bi<>(head, fallback, tail.then(stage));
+    }
+
+    /**
+     * returns a pipeline which applies the specified stage to the result of this pipeline .
+     * if the stage has failed, the result of {@code fallen} is passed to the next stage .
+     *
+     * @param <V> the type of the result of the stage
+     * @param <E> anything thrown
+     * @param stage {@link ThrowableFunction}, may not be null
+     * @param fallen {@link BiFunction}, or the function that always return null if this is null
+     * @return {@link Bi}
+     * @throws NullPointerException if {@code stage} is null
+     */
+    public <V, E extends Throwable> Bi<T, U, V> then(final ThrowableFunction<? super R, ? extends V> stage, final BiFunction<? super R, ? super E, ? extends V> fallen) {
+      return new Bi<>(head, fallback, tail.then(stage, fallen));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>the {@code after} function is appended to this pipeline as a stage, instead of nesting .</p>
+     */
+    @Override
+    public <V> Bi<T, U, V> andThen(final Function<? super R, ? extends V> after) {
+      return new Bi<>(head, fallback, tail.andThen(after));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    public R applyOrThrow(final T t, final U u) throws Throwable {
+      Object result;
+      try {
+        result = head.applyOrThrow(t, u);
+      } catch (Throwable e) {
+        if (fallback == null) {
+          throw e;
+        }
+        result = fallback.apply(t, u, e);
+      }
+
+      return (R) tail.run(result);
+    }
+  }
+
+  /**
+   * a {@link ThrowablePipeline} which starts with a {@link ThrowableTriFunction} .
+   *
+   * @author furplag
+   *
+   * @param <T> the type of the first argument to the pipeline
+   * @param <U> the type of the second argument to the pipeline
+   * @param <V> the type of the third argument to the pipeline
+   * @param <R> the type of the result of the pipeline
+   */
+  public static final class Tri<T, U, V, R> implements ThrowableTriFunction<T, U, V, R> {
+
+    /** the first stage . */
+    private final ThrowableTriFunction<Object, Object, Object, Object> head;
+
+    /** fallback for the first stage, or null if the stage relays an error . */
+    private final Function<Throwable, Object> fallback;
+
+    /** rest of stages . */
+    private final ThrowablePipeline<Object, R> tail;
+
+    /**
+     * @param head the first stage
+     * @param fallback fallback for the first stage
+     * @param tail rest of stages
+     */
+    @SuppressWarnings({ "unchecked" })
+    private Tri(final ThrowableTriFunction<?, ?, ?, ?> head, final Function<?, ?> fallback, final ThrowablePipeline<?, R> tail) {
+      this.head = (ThrowableTriFunction<Object, Object, Object, Object>) head;
+      this.fallback = (Function<Throwable, Object>) fallback;
+      this.tail = (ThrowablePipeline<Object, R>) tail;
+    }
+
+    /**
+     * returns the pipeline which starts with the specified stage .
+     *
+     * @param <T> the type of the first argument to the pipeline
+     * @param <U> the type of the second argument to the pipeline
+     * @param <V> the type of the third argument to the pipeline
+     * @param <R> the type of the result of the pipeline
+     * @param stage {@link ThrowableTriFunction}, may not be null
+     * @return {@link Tri}
+     * @throws NullPointerException if {@code stage} is null
+     */
+    public static <T, U, V, R> Tri<T, U, V, R> of(final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> stage) {
+      return new Tri<>(Objects.requireNonNull(stage), null, ThrowablePipeline.<R>of());
+    }
+
+    /**
+     * returns the pipeline which starts with the specified stage .
+     *
+     * @param <T> the type of the first argument to the pipeline
+     * @param <U> the type of the second argument to the pipeline
+     * @param <V> the type of the third argument to the pipeline
+     * @param <R> the type of the result of the pipeline
+     * @param <E> anything thrown
+     * @param stage {@link ThrowableTriFunction}, may not be null
+     * @param fallen {@link Function}, or the function that always return null if this is null
+     * @return {@link Tri}
+     * @throws NullPointerException if {@code stage} is null
+     */
+    public static <T, U, V, R, E extends Throwable> Tri<T, U, V, R> of(final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> stage, final Function<? super E, ? extends R> fallen) {
+      return new Tri<>(Objects.requireNonNull(stage), Trebuchet.defaults(fallen), ThrowablePipeline.<R>of());
+    }
+
+    /**
+     * returns the number of stages .
+     *
+     * @return the number of stages
+     */
+    public int size() {
+      return tail.size() + 1;
+    }
+
+    /**
+     * returns a pipeline which applies the specified stage to the result of this pipeline .
+     * an error of the stage is relayed to the caller .
+     *
+     * @param <W> the type of the result of the stage
+     * @param stage {@link ThrowableFunction}, may not be null
+     * @return {@link Tri}
+     * @throws NullPointerException if {@code stage} is null
+     */
+    public <W> Tri<T, U, V, W> then(final ThrowableFunction<? super R, ? extends W> stage) {
+      return new Tri<>(head, fallback, tail.then(stage));
+    }
+
+    /**
+     * returns a pipeline which applies the specified stage to the result of this pipeline .
+     * if the stage has failed, the result of {@code fallen} is passed to the next stage .
+     *
+     * @param <W> the type of the result of the stage
+     * @param <E> anything thrown
+     * @param stage {@link ThrowableFunction}, may not be null
+     * @param fallen {@link BiFunction}, or the function that always return null if this is null
+     * @return {@link Tri}
+     * @throws NullPointerException if {@code stage} is null
+     */
+    public <W, E extends Throwable> Tri<T, U, V, W> then(final ThrowableFunction<? super R, ? extends W> stage, final BiFunction<? super R, ? super E, ? extends W> fallen) {
+      return new Tri<>(head, fallback, tail.then(stage, fallen));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>the {@code after} function is appended to this pipeline as a stage, instead of nesting .</p>
+     */
+    @Override
+    public <W> Tri<T, U, V, W> andThen(final Function<? super R, ? extends W> after) {
+      return new Tri<>(head, fallback, tail.andThen(after));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @SuppressWarnings({ "unchecked" })
+    @Override
+    public R applyOrThrow(final T t, final U u, final V v) throws Throwable {
+      Object result;
+      try {
+        result = head.applyOrThrow(t, u, v);
+      } catch (Throwable e) {
+        if (fallback == null) {
+          throw e;
+        }
+        result = fallback.apply(e);
+      }
+
+      return (R) tail.run(result);
+    }
+  }
+}
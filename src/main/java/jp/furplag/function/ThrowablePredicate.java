@@ -45,7 +45,9 @@ public interface ThrowablePredicate<T> extends ThrowableFunction<T, Boolean>, Pr
    * @throws NullPointerException if arguments contains null
    */
   static <T, E extends Throwable> ThrowablePredicate<T> of(final ThrowablePredicate<? super T> predicate, final BiPredicate<? super T, ? super E> fallen) {
-    return ThrowableFunction.of(predicate::test, Trebuchet.defaults(fallen)::test)::apply;
+    final BiPredicate<? super T, ? super E> fallback = Trebuchet.defaults(fallen);
+
+    return Guards.predicate(predicate, (T t, E e) -> fallback.test(t, e));
   }
 
   /**
@@ -59,7 +61,9 @@ public interface ThrowablePredicate<T> extends ThrowableFunction<T, Boolean>, Pr
    * @throws NullPointerException if arguments contains null
    */
   static <T, E extends Throwable> ThrowablePredicate<T> of(final ThrowablePredicate<? super T> predicate, final Predicate<? super T> fallen) {
-    return of(predicate, (T t, E e) -> Trebuchet.defaults(fallen).test(t))::apply;
+    final Predicate<? super T> fallback = Trebuchet.defaults(fallen);
+
+    return of(predicate, (T t, E e) -> fallback.test(t));
   }
 
   /**
@@ -71,7 +75,7 @@ public interface ThrowablePredicate<T> extends ThrowableFunction<T, Boolean>, Pr
    * @return the result of {@link #test(Object) predicate.test(T)} if done it normally, or fallen if error occurred
    */
   static <T> boolean orDefault(final T t, final ThrowablePredicate<? super T> predicate, final boolean fallen) {
-    return orElseGet(t, predicate, () -> fallen);
+    return Attempts.orElse(Attempts.apply(t, predicate), fallen);
   }
 
   /**
@@ -95,7 +99,9 @@ public interface ThrowablePredicate<T> extends ThrowableFunction<T, Boolean>, Pr
    * @return the result of {@link #test(Object) predicate.test(T)} if done it normally, or {@link Predicate#test(Object) fallen.test(T)} if error occurred
    */
   static <T> boolean orElse(final T t, final ThrowablePredicate<? super T> predicate, final Predicate<? super T> fallen) {
-    return orElse(t, predicate, (x, ex) -> Trebuchet.defaults(fallen).test(x));
+    final Object result = Attempts.apply(t, predicate);
+
+    return Attempts.failed(result) ? Trebuchet.defaults(fallen).test(t) : (Boolean) result;
   }
 
   /**
@@ -107,7 +113,9 @@ public interface ThrowablePredicate<T> extends ThrowableFunction<T, Boolean>, Pr
    * @return the result of {@link #test(Object) predicate.test(T)} if done it normally, or fallen if error occurred
    */
   static <T> boolean orElseGet(final T t, final ThrowablePredicate<? super T> predicate, final BooleanSupplier fallen) {
-    return ThrowableFunction.orElseGet(t, predicate::test, Objects.requireNonNullElse(fallen, () -> false)::getAsBoolean);
+    final Object result = Attempts.apply(t, predicate);
+
+    return Attempts.failed(result) ? Objects.requireNonNullElse(fallen, Fallbacks.booleanSupplier()).getAsBoolean() : (Boolean) result;
   }
 
   /**
@@ -118,7 +126,7 @@ public interface ThrowablePredicate<T> extends ThrowableFunction<T, Boolean>, Pr
    * @return the result of {@link #test(Object) predicate.test(T)} if done it normally, or {@code false} if error occurred
    */
   static <T> boolean orNot(final T t, final ThrowablePredicate<? super T> predicate) {
-    return orElseGet(t, predicate, () -> false);
+    return Attempts.orElse(Attempts.apply(t, predicate), false);
   }
 
   /**
@@ -126,7 +134,7 @@ public interface ThrowablePredicate<T> extends ThrowableFunction<T, Boolean>, Pr
    */
   @Override
   default ThrowablePredicate<T> and(Predicate<? super T> other) {
-    return (t) -> test(t) && Objects.requireNonNullElse(Trebuchet.defaults(other).test(t), false);
+    return PredicateCompiler.Unary.and(this, Trebuchet.defaults(other));
   };
 
   /**
@@ -140,12 +148,20 @@ public interface ThrowablePredicate<T> extends ThrowableFunction<T, Boolean>, Pr
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  default ThrowablePredicate<T> guardedBy(final Predicate<? super T> precheck) {
+    return Guards.guardedBy(this, precheck);
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   default ThrowablePredicate<T> negate() {
-    return (t) -> !test(t);
+    return PredicateCompiler.Unary.not(this);
   }
 
   /**
@@ -153,7 +169,7 @@ public interface ThrowablePredicate<T> extends ThrowableFunction<T, Boolean>, Pr
    */
   @Override
   default ThrowablePredicate<T> or(Predicate<? super T> other) {
-    return (t) -> test(t) || Objects.requireNonNullElse(Trebuchet.defaults(other).test(t), false);
+    return PredicateCompiler.Unary.or(this, Trebuchet.defaults(other));
   }
 
   /**
@@ -161,4 +177,30 @@ public interface ThrowablePredicate<T> extends ThrowableFunction<T, Boolean>, Pr
    */
   @Override
   default boolean test(T t)  {/* @formatter:off */try {return applyOrThrow(t);} catch (Throwable e) {Trebuchet.sneakyThrow(e);} return false;/* @formatter:on */}
+
+  /**
+   * tests each element in one loop, and stores results at the same index, or false if the element failed .
+   *
+   * @param in elements, may not be null
+   * @param out results, may not be null
+   * @return {@link BulkFailures}, instead of calling a fallback per element
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code out} is shorter than {@code in}
+   */
+  default BulkFailures testAll(final T[] in, final boolean[] out) {
+    return BulkFailures.testAll(this, in, out);
+  }
+
+  /**
+   * tests each element in one loop, and sets the bit of the same index if the result is true, or clears the bit otherwise, and if the element failed .
+   *
+   * @param in elements, may not be null
+   * @param bitmask results, which has at least one bit per element, may not be null
+   * @return {@link BulkFailures}, instead of calling a fallback per element
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code bitmask} is shorter than {@code in}
+   */
+  default BulkFailures testAll(final T[] in, final long[] bitmask) {
+    return BulkFailures.testAll(this, in, bitmask);
+  }
 }
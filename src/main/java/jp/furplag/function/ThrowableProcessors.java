@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.function.BiFunction;
+
+/**
+ * adapters which bring {@link ThrowableFunction} into {@link Flow reactive streams} .
+ *
+ * @author furplag
+ *
+ */
+public interface ThrowableProcessors {
+
+  /** the number of items which a processor requests to upstream in advance . */
+  static final int DEFAULT_PREFETCH = Flow.defaultBufferSize();
+
+  /**
+   * returns the {@link Flow.Processor} which maps each item with the specified function, and terminates the stream if error occurred .
+   *
+   * @param <T> the type of items which the processor subscribes
+   * @param <R> the type of items which the processor publishes
+   * @param function {@link ThrowableFunction}, may not be null
+   * @return {@link Flow.Processor}
+   * @throws NullPointerException if {@code function} is null
+   */
+  static <T, R> Flow.Processor<T, R> map(final ThrowableFunction<? super T, ? extends R> function) {
+    return map(function, FailurePolicy.terminate());
+  }
+
+  /**
+   * returns the {@link Flow.Processor} which maps each item with the specified function, and routes failures along the policy .
+   *
+   * @param <T> the type of items which the processor subscribes
+   * @param <R> the type of items which the processor publishes
+   * @param function {@link ThrowableFunction}, may not be null
+   * @param policy {@link FailurePolicy}, may not be null
+   * @return {@link Flow.Processor}
+   * @throws NullPointerException if arguments contains null
+   */
+  static <T, R> Flow.Processor<T, R> map(final ThrowableFunction<? super T, ? extends R> function, final FailurePolicy<? super T, ? extends R> policy) {
+    return map(function, policy, DEFAULT_PREFETCH);
+  }
+
+  /**
+   * returns the {@link Flow.Processor} which maps each item with the specified function, and routes failures along the policy .
+   *
+   * <p>the processor requests {@code prefetch} items to upstream in advance, and requests more in batches
+   * after three quarters of them are consumed, so that it never buffers more than {@code prefetch} items .
+   * items are mapped only when downstream has demand, and null results are skipped .</p>
+   *
+   * @param <T> the type of items which the processor subscribes
+   * @param <R> the type of items which the processor publishes
+   * @param function {@link ThrowableFunction}, may not be null
+   * @param policy {@link FailurePolicy}, may not be null
+   * @param prefetch the number of items to request to upstream in advance
+   * @return {@link Flow.Processor}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code prefetch} is not positive
+   */
+  static <T, R> Flow.Processor<T, R> map(final ThrowableFunction<? super T, ? extends R> function, final FailurePolicy<? super T, ? extends R> policy, final int prefetch) {
+    if (prefetch < 1) {
+      throw new IllegalArgumentException("prefetch must be positive .");
+    }
+
+    return new MapProcessor<>(Objects.requireNonNull(function), Objects.requireNonNull(policy), prefetch);
+  }
+
+  /**
+   * the way to handle the items which a processor failed to map .
+   *
+   * @author furplag
+   *
+   * @param <T> the type of items which the processor subscribes
+   * @param <R> the type of items which the processor publishes
+   */
+  static final class FailurePolicy<T, R> {
+
+    /** the fallback, or null if failures do not fall back . */
+    final BiFunction<Object, Throwable, Object> fallen;
+
+    /** the subscriber of dead letters, or null if failures are not dead letters . */
+    final Flow.Subscriber<Object> deadLetter;
+
+    /**
+     * {@link FailurePolicy} instances should be created through the factory methods .
+     *
+     * @param fallen the fallback
+     * @param deadLetter the subscriber of dead letters
+     */
+    @SuppressWarnings({ "unchecked" })
+    private FailurePolicy(final BiFunction<?, ?, ?> fallen, final Flow.Subscriber<?> deadLetter) {
+      this.fallen = (BiFunction<Object, Throwable, Object>) fallen;
+      this.deadLetter = (Flow.Subscriber<Object>) deadLetter;
+    }
+
+    /**
+     * failures go to the subscriber as pairs of the item and the failure, respecting its demand .
+     *
+     * <p>the processor stops mapping while the subscriber has no demand for dead letters,
+     * and the subscriber completes when the processor terminates .
+     * since the subscriber is subscribed to each processor, this policy should not be shared among processors .</p>
+     *
+     * @param <T> the type of items which the processor subscribes
+     * @param <R> the type of items which the processor publishes
+     * @param deadLetter {@link Flow.Subscriber}, may not be null
+     * @return {@link FailurePolicy}
+     * @throws NullPointerException if {@code deadLetter} is null
+     */
+    public static <T, R> FailurePolicy<T, R> deadLetter(final Flow.Subscriber<? super Map.Entry<T, Throwable>> deadLetter) {
+      return new FailurePolicy<>(null, Objects.requireNonNull(deadLetter));
+    }
+
+    /**
+     * failures fall back to the result of {@code fallen}, and the item is skipped if the result is null .
+     *
+     * @param <T> the type of items which the processor subscribes
+     * @param <R> the type of items which the processor publishes
+     * @param <E> anything thrown
+     * @param fallen {@link BiFunction}, or the function that always return null if this is null
+     * @return {@link FailurePolicy}
+     */
+    public static <T, R, E extends Throwable> FailurePolicy<T, R> fallen(final BiFunction<? super T, ? super E, ? extends R> fallen) {
+      return new FailurePolicy<>(Trebuchet.defaults(fallen), null);
+    }
+
+    /**
+     * failures cancel upstream, and terminate downstream with the failure .
+     *
+     * @param <T> the type of items which the processor subscribes
+     * @param <R> the type of items which the processor publishes
+     * @return {@link FailurePolicy}
+     */
+    public static <T, R> FailurePolicy<T, R> terminate() {
+      return new FailurePolicy<>(null, null);
+    }
+
+    /**
+     * returns the dead letter of the specified item .
+     *
+     * @param item the item
+     * @param failure the failure
+     * @return the pair of the item and the failure
+     */
+    static Map.Entry<Object, Throwable> letter(final Object item, final Throwable failure) {
+      return new AbstractMap.SimpleImmutableEntry<>(item, failure);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * {@link Runnable} now get enable to throw {@link Throwable} .
+ *
+ * @author furplag
+ *
+ * @see Runnable
+ */
+@FunctionalInterface
+public interface ThrowableRunnable extends Runnable {
+
+  /**
+   * should never write &quot;ugly&quot; try-catch block to handle {@link Throwable exceptions} in lambda expression .
+   *
+   * @param <E> anything thrown
+   * @param runnable {@link Runnable}, may not be null
+   * @param fallen {@link Consumer} which receives the failure, do nothing if this is null
+   * @return {@link ThrowableRunnable}
+   * @throws NullPointerException if {@code runnable} is null
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <E extends Throwable> ThrowableRunnable of(final ThrowableRunnable runnable, final Consumer<? super E> fallen) {
+    Objects.requireNonNull(runnable);
+    final Consumer<? super E> fallback = Trebuchet.defaults(fallen);
+
+    return () -> {
+      final Throwable failure = Attempts.run(runnable);
+      if (failure != null) {
+        fallback.accept((E) failure);
+      }
+    };
+  }
+
+  /**
+   * should never write &quot;ugly&quot; try-catch block to handle {@link Throwable exceptions} in lambda expression .
+   *
+   * @param runnable {@link Runnable}, may not be null
+   * @param fallen {@link Runnable}, do nothing if this is null
+   * @return {@link ThrowableRunnable}
+   * @throws NullPointerException if {@code runnable} is null
+   */
+  static ThrowableRunnable of(final ThrowableRunnable runnable, final Runnable fallen) {
+    final Runnable fallback = Objects.requireNonNullElse(fallen, () -> {});
+
+    return of(runnable, (e) -> fallback.run());
+  }
+
+  /**
+   * {@link #run() runnable.run()} if done it normally, or {@link Consumer#accept(Object) fallen.accept(E)} if error occurred .
+   *
+   * @param <E> anything thrown
+   * @param runnable {@link Runnable}, may not be null
+   * @param fallen {@link Consumer} which receives the failure, do nothing if this is null
+   */
+  static <E extends Throwable> void orElse(final ThrowableRunnable runnable, final Consumer<? super E> fallen) {
+    of(runnable, fallen).run();
+  }
+
+  /**
+   * {@link #run() runnable.run()} if done it normally, or {@link Runnable#run() fallen.run()} if error occurred .
+   *
+   * @param runnable {@link Runnable}, may not be null
+   * @param fallen {@link Runnable}, do nothing if this is null
+   */
+  static void orElse(final ThrowableRunnable runnable, final Runnable fallen) {
+    if (Attempts.run(runnable) != null && fallen != null) {
+      fallen.run();
+    }
+  }
+
+  /**
+   * mute out any exceptions whether the operation throws it .
+   *
+   * @param runnable {@link Runnable}, may not be null
+   */
+  static void orNot(final ThrowableRunnable runnable) {
+    Attempts.run(runnable);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  default void run() {/* @formatter:off */try {runOrThrow();} catch (Throwable e) {Trebuchet.sneakyThrow(e);}/* @formatter:on */}
+
+  /**
+   * performs this operation .
+   *
+   * @throws Throwable anything thrown
+   */
+  void runOrThrow() throws Throwable;
+}
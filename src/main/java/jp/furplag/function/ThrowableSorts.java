@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+
+import jp.furplag.function.ThrowableComparators.FailurePolicy;
+
+/**
+ * sorts elements by keys {@link ThrowableFunction} extracts, extracting each key exactly once .
+ *
+ * <p>keys are extracted into an array in order of elements, indices of the keys are sorted by a merge sort which runs in parallel
+ * as {@link java.util.Arrays#parallelSort(Object[], Comparator)} does, and then elements are written back ( decorate-sort-undecorate ) .
+ * the sort is stable, and allocates no object per element .
+ * elements whose key extraction failed are placed along {@link FailurePolicy}, in their original order .</p>
+ *
+ * @author furplag
+ *
+ * @see ThrowableComparators
+ */
+public interface ThrowableSorts {
+
+  /**
+   * sorts the elements by the natural order of keys .
+   * a null key is a failure of key extraction, since the natural order does not compare null .
+   *
+   * @param <T> the type of elements
+   * @param <K> the type of keys
+   * @param elements the elements, may not be null
+   * @param keyExtractor {@link ThrowableFunction} which extracts the key, may not be null
+   * @param policy {@link FailurePolicy} which places elements whose key extraction failed, may not be null
+   * @throws NullPointerException if arguments contains null
+   */
+  static <T, K extends Comparable<? super K>> void sortByKey(final T[] elements, final ThrowableFunction<? super T, ? extends K> keyExtractor, final FailurePolicy policy) {
+    sortByKey(elements, nonNull(keyExtractor), Comparator.naturalOrder(), policy);
+  }
+
+  /**
+   * sorts the elements by keys with the specified comparator .
+   *
+   * <p>if the policy is {@link FailurePolicy#THROW THROW}, the first failure of key extraction is thrown and the elements stay untouched .</p>
+   *
+   * @param <T> the type of elements
+   * @param <K> the type of keys
+   * @param elements the elements, may not be null
+   * @param keyExtractor {@link ThrowableFunction} which extracts the key, may not be null
+   * @param keyComparator {@link Comparator} of keys, may not be null
+   * @param policy {@link FailurePolicy} which places elements whose key extraction failed, may not be null
+   * @throws NullPointerException if arguments contains null
+   */
+  static <T, K> void sortByKey(final T[] elements, final ThrowableFunction<? super T, ? extends K> keyExtractor, final Comparator<? super K> keyComparator, final FailurePolicy policy) {
+    final Object[] sorted = sort(elements, keyExtractor, keyComparator, policy);
+    System.arraycopy(sorted, 0, elements, 0, sorted.length);
+  }
+
+  /**
+   * sorts the list by the natural order of keys .
+   * a null key is a failure of key extraction, since the natural order does not compare null .
+   *
+   * @param <T> the type of elements
+   * @param <K> the type of keys
+   * @param list the list, may not be null
+   * @param keyExtractor {@link ThrowableFunction} which extracts the key, may not be null
+   * @param policy {@link FailurePolicy} which places elements whose key extraction failed, may not be null
+   * @throws NullPointerException if arguments contains null
+   * @throws UnsupportedOperationException if the list does not support {@code set}
+   */
+  static <T, K extends Comparable<? super K>> void sortByKey(final List<T> list, final ThrowableFunction<? super T, ? extends K> keyExtractor, final FailurePolicy policy) {
+    sortByKey(list, nonNull(keyExtractor), Comparator.naturalOrder(), policy);
+  }
+
+  /**
+   * sorts the list by keys with the specified comparator .
+   *
+   * @param <T> the type of elements
+   * @param <K> the type of keys
+   * @param list the list, may not be null
+   * @param keyExtractor {@link ThrowableFunction} which extracts the key, may not be null
+   * @param keyComparator {@link Comparator} of keys, may not be null
+   * @param policy {@link FailurePolicy} which places elements whose key extraction failed, may not be null
+   * @throws NullPointerException if arguments contains null
+   * @throws UnsupportedOperationException if the list does not support {@code set}
+   * @see #sortByKey(Object[], ThrowableFunction, Comparator, FailurePolicy)
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, K> void sortByKey(final List<T> list, final ThrowableFunction<? super T, ? extends K> keyExtractor, final Comparator<? super K> keyComparator, final FailurePolicy policy) {
+    final Object[] sorted = sort((T[]) list.toArray(), keyExtractor, keyComparator, policy);
+    final ListIterator<T> iterator = list.listIterator();
+    for (Object element : sorted) {
+      iterator.next();
+      iterator.set((T) element);
+    }
+  }
+
+  /**
+   * returns the key extractor which fails with {@link NullPointerException} instead of returning null .
+   *
+   * @param <T> the type of elements
+   * @param <K> the type of keys
+   * @param keyExtractor {@link ThrowableFunction} which extracts the key, may not be null
+   * @return {@link ThrowableFunction}
+   * @throws NullPointerException if {@code keyExtractor} is null
+   */
+  private static <T, K> ThrowableFunction<T, K> nonNull(final ThrowableFunction<? super T, ? extends K> keyExtractor) {
+    Objects.requireNonNull(keyExtractor);
+
+    return (t) -> Objects.requireNonNull(keyExtractor.applyOrThrow(t), "the key is null .");
+  }
+
+  /**
+   * returns the elements sorted by keys .
+   *
+   * @param <T> the type of elements
+   * @param <K> the type of keys
+   * @param elements the elements
+   * @param keyExtractor {@link ThrowableFunction} which extracts the key
+   * @param keyComparator {@link Comparator} of keys
+   * @param policy {@link FailurePolicy} which places elements whose key extraction failed
+   * @return sorted elements
+   */
+  private static <T, K> Object[] sort(final T[] elements, final ThrowableFunction<? super T, ? extends K> keyExtractor, final Comparator<? super K> keyComparator, final FailurePolicy policy) {
+    Objects.requireNonNull(keyExtractor);
+    Objects.requireNonNull(keyComparator);
+    Objects.requireNonNull(policy);
+    final Object[] keys = new Object[elements.length];
+    final Object[] keyed = new Object[elements.length];
+    final Object[] failed = new Object[elements.length];
+    int succeeded = 0;
+    int failures = 0;
+    for (T element : elements) {
+      try {
+        keys[succeeded] = keyExtractor.applyOrThrow(element);
+        keyed[succeeded++] = element;
+      } catch (Throwable e) {
+        if (policy == FailurePolicy.THROW) {
+          Trebuchet.sneakyThrow(e);
+        }
+        failed[failures++] = element;
+      }
+    }
+    final int[] indices = IndexSort.sort(keys, succeeded, keyComparator);
+    final Object[] sorted = new Object[elements.length];
+    final int offset = policy == FailurePolicy.FIRST ? failures : 0;
+    for (int i = 0; i < succeeded; i++) {
+      sorted[offset + i] = keyed[indices[i]];
+    }
+    System.arraycopy(failed, 0, sorted, policy == FailurePolicy.FIRST ? 0 : succeeded, failures);
+
+    return sorted;
+  }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link Supplier} now get enable to throw {@link Throwable} .
+ *
+ * @author furplag
+ *
+ * @param <T> the type of results supplied by this supplier
+ * @see Supplier
+ */
+@FunctionalInterface
+public interface ThrowableSupplier<T> extends Supplier<T> {
+
+  /**
+   * returns a supplier which initializes the result once, and returns it afterward .
+   * failures are not cached, so that the next call retries .
+   *
+   * @param <T> the type of results supplied by the supplier
+   * @param supplier {@link ThrowableSupplier}, may not be null
+   * @return {@link ThrowableSupplier} which memoizes the result
+   * @throws NullPointerException if {@code supplier} is null
+   */
+  static <T> ThrowableSupplier<T> lazy(final ThrowableSupplier<? extends T> supplier) {
+    return lazy(supplier, RetryPolicy.retry());
+  }
+
+  /**
+   * returns a supplier which initializes the result once, and returns it afterward .
+   *
+   * <p>the result is read with acquire semantics, so that reading the initialized result never locks .
+   * initialization runs at most once at a time, and the supplier is released after it has done normally .</p>
+   *
+   * @param <T> the type of results supplied by the supplier
+   * @param supplier {@link ThrowableSupplier}, may not be null
+   * @param policy {@link RetryPolicy} which decides when to retry after the supplier failed, may not be null
+   * @return {@link ThrowableSupplier} which memoizes the result
+   * @throws NullPointerException if arguments contains null
+   */
+  static <T> ThrowableSupplier<T> lazy(final ThrowableSupplier<? extends T> supplier, final RetryPolicy policy) {
+    return new Lazy<>(Objects.requireNonNull(supplier), Objects.requireNonNull(policy).backoff);
+  }
+
+  /**
+   * should never write &quot;ugly&quot; try-catch block to handle {@link Throwable exceptions} in lambda expression .
+   *
+   * @param <T> the type of results supplied by the supplier
+   * @param <E> anything thrown
+   * @param supplier {@link Supplier}, may not be null
+   * @param fallen {@link Function}, or the function that always return null if this is null
+   * @return {@link ThrowableSupplier}
+   * @throws NullPointerException if {@code supplier} is null
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, E extends Throwable> ThrowableSupplier<T> of(final ThrowableSupplier<? extends T> supplier, final Function<? super E, ? extends T> fallen) {
+    Objects.requireNonNull(supplier);
+    final Function<? super E, ? extends T> fallback = Trebuchet.defaults(fallen);
+
+    return () -> {
+      final Object result = Attempts.get(supplier);
+
+      return Attempts.failed(result) ? fallback.apply(Attempts.failure(result)) : Attempts.result(result);
+    };
+  }
+
+  /**
+   * should never write &quot;ugly&quot; try-catch block to handle {@link Throwable exceptions} in lambda expression .
+   *
+   * @param <T> the type of results supplied by the supplier
+   * @param supplier {@link Supplier}, may not be null
+   * @param fallen {@link Supplier}, or the supplier that always return null if this is null
+   * @return {@link ThrowableSupplier}
+   * @throws NullPointerException if {@code supplier} is null
+   */
+  static <T> ThrowableSupplier<T> of(final ThrowableSupplier<? extends T> supplier, final Supplier<? extends T> fallen) {
+    final Supplier<? extends T> fallback = Trebuchet.defaults(fallen);
+
+    return of(supplier, (e) -> fallback.get());
+  }
+
+  /**
+   * returns the result of {@link #get() supplier.get()} if done it normally, or fallen if error occurred .
+   *
+   * @param <T> the type of results supplied by the supplier
+   * @param <U> the type of {@code fallen} of the supplier
+   * @param supplier {@link Supplier}, may not be null
+   * @param fallen the return value when error has occurred
+   * @return the result of {@link #get() supplier.get()} if done it normally, or fallen if error occurred
+   */
+  static <T, U extends T> T orDefault(final ThrowableSupplier<? extends T> supplier, final U fallen) {
+    return Attempts.orElse(Attempts.get(supplier), fallen);
+  }
+
+  /**
+   * returns the result of {@link #get() supplier.get()} if done it normally, or {@link Function#apply(Object) fallen.apply(E)} if error occurred .
+   *
+   * @param <T> the type of results supplied by the supplier
+   * @param <E> anything thrown
+   * @param supplier {@link Supplier}, may not be null
+   * @param fallen {@link Function}, or the function that always return null if this is null
+   * @return the result of {@link #get() supplier.get()} if done it normally, or {@link Function#apply(Object) fallen.apply(E)} if error occurred
+   */
+  static <T, E extends Throwable> T orElse(final ThrowableSupplier<? extends T> supplier, final Function<? super E, ? extends T> fallen) {
+    return of(supplier, fallen).get();
+  }
+
+  /**
+   * returns the result of {@link #get() supplier.get()} if done it normally, or {@link Supplier#get() fallen.get()} if error occurred .
+   *
+   * @param <T> the type of results supplied by the supplier
+   * @param supplier {@link Supplier}, may not be null
+   * @param fallen {@link Supplier}, or the supplier that always return null if this is null
+   * @return the result of {@link #get() supplier.get()} if done it normally, or {@link Supplier#get() fallen.get()} if error occurred
+   */
+  static <T> T orElseGet(final ThrowableSupplier<? extends T> supplier, final Supplier<? extends T> fallen) {
+    final Object result = Attempts.get(supplier);
+
+    return Attempts.failed(result) ? Trebuchet.defaults(fallen).get() : Attempts.result(result);
+  }
+
+  /**
+   * returns the result of {@link #get() supplier.get()} if done it normally, or {@code null} if error occurred .
+   *
+   * @param <T> the type of results supplied by the supplier
+   * @param supplier {@link Supplier}, may not be null
+   * @return the result of {@link #get() supplier.get()} if done it normally, or {@code null} if error occurred
+   */
+  static <T> T orNull(final ThrowableSupplier<? extends T> supplier) {
+    return Attempts.orElse(Attempts.get(supplier), null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  default T get() {/* @formatter:off */try {return getOrThrow();} catch (Throwable e) {Trebuchet.sneakyThrow(e);} return null;/* @formatter:on */}
+
+  /**
+   * gets a result .
+   *
+   * @return a result
+   * @throws Throwable anything thrown
+   */
+  T getOrThrow() throws Throwable;
+
+  /**
+   * when {@link #lazy(ThrowableSupplier, RetryPolicy) lazy suppliers} retry after the initialization failed .
+   *
+   * @author furplag
+   *
+   */
+  static final class RetryPolicy {
+
+    /** the time to retry after in nanoseconds, or negative if never retry . */
+    final long backoff;
+
+    /**
+     * {@link RetryPolicy} instances should be created through the factory methods .
+     *
+     * @param backoff the time to retry after in nanoseconds
+     */
+    private RetryPolicy(final long backoff) {
+      this.backoff = backoff;
+    }
+
+    /**
+     * the failure is cached, and thrown at every call without retrying .
+     *
+     * @return {@link RetryPolicy}
+     */
+    public static RetryPolicy cache() {
+      return new RetryPolicy(-1);
+    }
+
+    /**
+     * the next call retries .
+     *
+     * @return {@link RetryPolicy}
+     */
+    public static RetryPolicy retry() {
+      return new RetryPolicy(0);
+    }
+
+    /**
+     * the failure is thrown until the backoff has elapsed, and the next call after that retries .
+     *
+     * @param backoff the time to retry after, may not be null
+     * @return {@link RetryPolicy}
+     * @throws NullPointerException if {@code backoff} is null
+     * @throws IllegalArgumentException if {@code backoff} is negative
+     */
+    public static RetryPolicy retryAfter(final Duration backoff) {
+      if (Objects.requireNonNull(backoff).isNegative()) {
+        throw new IllegalArgumentException("backoff must not be negative .");
+      }
+
+      return new RetryPolicy(backoff.toNanos());
+    }
+  }
+}
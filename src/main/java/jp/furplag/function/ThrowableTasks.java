@@ -0,0 +1,474 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * runs {@link ThrowableFunction} over the elements of a collection concurrently, and collects failures per element .
+ *
+ * <p>at most {@code maxConcurrency} elements are processed at once, by workers which pull elements in order .
+ * elements are processed on virtual threads by default if the runtime supports them, otherwise on a cached pool of daemon threads .
+ * the caller processes elements as one of the workers, and waits until all elements are processed .</p>
+ *
+ * @author furplag
+ *
+ */
+public interface ThrowableTasks {
+
+  /**
+   * applies the specified function to each element concurrently .
+   *
+   * @param <T> the type of elements
+   * @param <R> the type of results
+   * @param elements the elements, may not be null
+   * @param function {@link ThrowableFunction}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @return {@link Results} in the order of {@code elements}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T, R> Results<R> mapConcurrently(final Collection<? extends T> elements, final ThrowableFunction<? super T, ? extends R> function, final int maxConcurrency) {
+    return mapConcurrently(elements, function, maxConcurrency, Platform.executor());
+  }
+
+  /**
+   * applies the specified function to each element concurrently on the specified executor .
+   *
+   * @param <T> the type of elements
+   * @param <R> the type of results
+   * @param elements the elements, may not be null
+   * @param function {@link ThrowableFunction}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @param executor {@link Executor}, may not be null
+   * @return {@link Results} in the order of {@code elements}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, R> Results<R> mapConcurrently(final Collection<? extends T> elements, final ThrowableFunction<? super T, ? extends R> function, final int maxConcurrency, final Executor executor) {
+    return fanOut(elements, (ThrowableFunction<Object, Object>) Objects.requireNonNull(function), maxConcurrency, 1, executor);
+  }
+
+  /**
+   * applies the specified function to each element and the shared argument concurrently .
+   *
+   * @param <T> the type of elements
+   * @param <U> the type of the second argument to the function
+   * @param <R> the type of results
+   * @param elements the elements, may not be null
+   * @param u the second argument to the function, shared among elements
+   * @param function {@link ThrowableBiFunction}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @return {@link Results} in the order of {@code elements}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T, U, R> Results<R> mapConcurrently(final Collection<? extends T> elements, final U u, final ThrowableBiFunction<? super T, ? super U, ? extends R> function, final int maxConcurrency) {
+    return mapConcurrently(elements, u, function, maxConcurrency, Platform.executor());
+  }
+
+  /**
+   * applies the specified function to each element and the shared argument concurrently on the specified executor .
+   *
+   * @param <T> the type of elements
+   * @param <U> the type of the second argument to the function
+   * @param <R> the type of results
+   * @param elements the elements, may not be null
+   * @param u the second argument to the function, shared among elements
+   * @param function {@link ThrowableBiFunction}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @param executor {@link Executor}, may not be null
+   * @return {@link Results} in the order of {@code elements}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T, U, R> Results<R> mapConcurrently(final Collection<? extends T> elements, final U u, final ThrowableBiFunction<? super T, ? super U, ? extends R> function, final int maxConcurrency, final Executor executor) {
+    Objects.requireNonNull(function);
+
+    return mapConcurrently(elements, (T t) -> function.applyOrThrow(t, u), maxConcurrency, executor);
+  }
+
+  /**
+   * applies the specified function to each element and the shared arguments concurrently .
+   *
+   * @param <T> the type of elements
+   * @param <U> the type of the second argument to the function
+   * @param <V> the type of the third argument to the function
+   * @param <R> the type of results
+   * @param elements the elements, may not be null
+   * @param u the second argument to the function, shared among elements
+   * @param v the third argument to the function, shared among elements
+   * @param function {@link ThrowableTriFunction}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @return {@link Results} in the order of {@code elements}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T, U, V, R> Results<R> mapConcurrently(final Collection<? extends T> elements, final U u, final V v, final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> function, final int maxConcurrency) {
+    return mapConcurrently(elements, u, v, function, maxConcurrency, Platform.executor());
+  }
+
+  /**
+   * applies the specified function to each element and the shared arguments concurrently on the specified executor .
+   *
+   * @param <T> the type of elements
+   * @param <U> the type of the second argument to the function
+   * @param <V> the type of the third argument to the function
+   * @param <R> the type of results
+   * @param elements the elements, may not be null
+   * @param u the second argument to the function, shared among elements
+   * @param v the third argument to the function, shared among elements
+   * @param function {@link ThrowableTriFunction}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @param executor {@link Executor}, may not be null
+   * @return {@link Results} in the order of {@code elements}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T, U, V, R> Results<R> mapConcurrently(final Collection<? extends T> elements, final U u, final V v, final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> function, final int maxConcurrency, final Executor executor) {
+    Objects.requireNonNull(function);
+
+    return mapConcurrently(elements, (T t) -> function.applyOrThrow(t, u, v), maxConcurrency, executor);
+  }
+
+  /**
+   * performs the specified consumer for each element concurrently .
+   *
+   * @param <T> the type of elements
+   * @param elements the elements, may not be null
+   * @param consumer {@link ThrowableConsumer}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @return {@link Results} in the order of {@code elements}, which has no values but failures
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T> Results<Void> forEachConcurrently(final Collection<? extends T> elements, final ThrowableConsumer<? super T> consumer, final int maxConcurrency) {
+    return forEachConcurrently(elements, consumer, maxConcurrency, Platform.executor());
+  }
+
+  /**
+   * performs the specified consumer for each element concurrently on the specified executor .
+   *
+   * @param <T> the type of elements
+   * @param elements the elements, may not be null
+   * @param consumer {@link ThrowableConsumer}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @param executor {@link Executor}, may not be null
+   * @return {@link Results} in the order of {@code elements}, which has no values but failures
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T> Results<Void> forEachConcurrently(final Collection<? extends T> elements, final ThrowableConsumer<? super T> consumer, final int maxConcurrency, final Executor executor) {
+    Objects.requireNonNull(consumer);
+
+    return mapConcurrently(elements, (T t) -> {consumer.acceptOrThrow(t); return null;}, maxConcurrency, executor);
+  }
+
+  /**
+   * performs the specified consumer for each element and the shared argument concurrently .
+   *
+   * @param <T> the type of elements
+   * @param <U> the type of the second argument to the consumer
+   * @param elements the elements, may not be null
+   * @param u the second argument to the consumer, shared among elements
+   * @param consumer {@link ThrowableBiConsumer}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @return {@link Results} in the order of {@code elements}, which has no values but failures
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T, U> Results<Void> forEachConcurrently(final Collection<? extends T> elements, final U u, final ThrowableBiConsumer<? super T, ? super U> consumer, final int maxConcurrency) {
+    return forEachConcurrently(elements, u, consumer, maxConcurrency, Platform.executor());
+  }
+
+  /**
+   * performs the specified consumer for each element and the shared argument concurrently on the specified executor .
+   *
+   * @param <T> the type of elements
+   * @param <U> the type of the second argument to the consumer
+   * @param elements the elements, may not be null
+   * @param u the second argument to the consumer, shared among elements
+   * @param consumer {@link ThrowableBiConsumer}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @param executor {@link Executor}, may not be null
+   * @return {@link Results} in the order of {@code elements}, which has no values but failures
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T, U> Results<Void> forEachConcurrently(final Collection<? extends T> elements, final U u, final ThrowableBiConsumer<? super T, ? super U> consumer, final int maxConcurrency, final Executor executor) {
+    Objects.requireNonNull(consumer);
+
+    return mapConcurrently(elements, (T t) -> {consumer.acceptOrThrow(t, u); return null;}, maxConcurrency, executor);
+  }
+
+  /**
+   * performs the specified consumer for each element and the shared arguments concurrently .
+   *
+   * @param <T> the type of elements
+   * @param <U> the type of the second argument to the consumer
+   * @param <V> the type of the third argument to the consumer
+   * @param elements the elements, may not be null
+   * @param u the second argument to the consumer, shared among elements
+   * @param v the third argument to the consumer, shared among elements
+   * @param consumer {@link ThrowableTriConsumer}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @return {@link Results} in the order of {@code elements}, which has no values but failures
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T, U, V> Results<Void> forEachConcurrently(final Collection<? extends T> elements, final U u, final V v, final ThrowableTriConsumer<? super T, ? super U, ? super V> consumer, final int maxConcurrency) {
+    return forEachConcurrently(elements, u, v, consumer, maxConcurrency, Platform.executor());
+  }
+
+  /**
+   * performs the specified consumer for each element and the shared arguments concurrently on the specified executor .
+   *
+   * @param <T> the type of elements
+   * @param <U> the type of the second argument to the consumer
+   * @param <V> the type of the third argument to the consumer
+   * @param elements the elements, may not be null
+   * @param u the second argument to the consumer, shared among elements
+   * @param v the third argument to the consumer, shared among elements
+   * @param consumer {@link ThrowableTriConsumer}, may not be null
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @param executor {@link Executor}, may not be null
+   * @return {@link Results} in the order of {@code elements}, which has no values but failures
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code maxConcurrency} is not positive
+   */
+  static <T, U, V> Results<Void> forEachConcurrently(final Collection<? extends T> elements, final U u, final V v, final ThrowableTriConsumer<? super T, ? super U, ? super V> consumer, final int maxConcurrency, final Executor executor) {
+    Objects.requireNonNull(consumer);
+
+    return mapConcurrently(elements, (T t) -> {consumer.acceptOrThrow(t, u, v); return null;}, maxConcurrency, executor);
+  }
+
+  /**
+   * runs the specified tasks on the executor, and collects results and failures per task .
+   *
+   * <p>tasks are submitted in batches, instead of one {@link java.util.concurrent.Future Future} per task .</p>
+   *
+   * @param <R> the type of results
+   * @param executor {@link Executor}, may not be null
+   * @param tasks {@link ThrowableCallable ThrowableCallables}, may not be null
+   * @return {@link Results} in the order of {@code tasks}
+   * @throws NullPointerException if arguments contains null
+   * @see #submitAll(Executor, Collection, int)
+   */
+  static <R> Results<R> submitAll(final Executor executor, final Collection<? extends ThrowableCallable<? extends R>> tasks) {
+    final int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), Objects.requireNonNull(tasks).size()));
+
+    return submitAll(executor, tasks, Math.max(1, tasks.size() / (workers * 8)));
+  }
+
+  /**
+   * runs the specified tasks on the executor, and collects results and failures per task .
+   *
+   * <p>at most one worker per processor is submitted to the executor, and each worker claims {@code batchSize} tasks at a time
+   * and runs them in order, so that neither the queue of the executor nor a shared counter is touched per task .
+   * larger batches cut the overhead of fine-grained tasks, and smaller batches balance tasks which take various times .
+   * the caller runs tasks as one of the workers, and waits until all tasks are done .</p>
+   *
+   * @param <R> the type of results
+   * @param executor {@link Executor}, may not be null
+   * @param tasks {@link ThrowableCallable ThrowableCallables}, may not be null
+   * @param batchSize the number of tasks which a worker claims at a time
+   * @return {@link Results} in the order of {@code tasks}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code batchSize} is not positive
+   */
+  static <R> Results<R> submitAll(final Executor executor, final Collection<? extends ThrowableCallable<? extends R>> tasks, final int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize must be positive .");
+    }
+    final int batch = Math.max(1, Math.min(batchSize, Objects.requireNonNull(tasks).size()));
+    final int batches = (tasks.size() - 1) / batch + 1;
+
+    return fanOut(tasks, (x) -> ((ThrowableCallable<?>) x).callOrThrow(), Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), batches)), batch, executor);
+  }
+
+  /**
+   * processes each element with the specified function, by workers which pull elements in order .
+   *
+   * <p>the caller runs one of the workers, then waits only for the elements which other workers have pulled,
+   * so that nested calls on the same executor never wait for workers which are still queued .
+   * if the caller is interrupted while waiting, or the executor rejects a worker, workers stop pulling elements and the failure is thrown .</p>
+   *
+   * @param <R> the type of results
+   * @param elements the elements
+   * @param function the function
+   * @param maxConcurrency the maximum number of elements which are processed at once
+   * @param batchSize the number of elements which a worker pulls at a time
+   * @param executor the executor
+   * @return {@link Results} in the order of {@code elements}
+   */
+  private static <R> Results<R> fanOut(final Collection<?> elements, final ThrowableFunction<Object, Object> function, final int maxConcurrency, final int batchSize, final Executor executor) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("maxConcurrency must be positive .");
+    }
+    final Object[] items = elements.toArray();
+    Objects.requireNonNull(executor);
+    final Object[] values = new Object[items.length];
+    final Throwable[] failures = new Throwable[items.length];
+    final AtomicInteger cursor = new AtomicInteger();
+    final AtomicInteger remaining = new AtomicInteger(items.length);
+    final Thread caller = Thread.currentThread();
+    final int workers = Math.min(maxConcurrency, items.length);
+    final Runnable worker = () -> {
+      for (int from = cursor.getAndAdd(batchSize); from < items.length; from = cursor.getAndAdd(batchSize)) {
+        final int to = Math.min(items.length, from + batchSize);
+        for (int i = from; i < to; i++) {
+          try {
+            values[i] = function.applyOrThrow(items[i]);
+          } catch (Throwable e) {
+            failures[i] = e;
+          }
+        }
+        if (remaining.addAndGet(from - to) == 0) {
+          LockSupport.unpark(caller);
+        }
+      }
+    };
+    try {
+      for (int i = 1; i < workers; i++) {
+        executor.execute(worker);
+      }
+    } catch (RuntimeException e) {
+      cursor.set(items.length);
+      throw e;
+    }
+    worker.run();
+    while (remaining.get() > 0) {
+      LockSupport.park(remaining);
+      if (Thread.interrupted()) {
+        cursor.set(items.length);
+        Thread.currentThread().interrupt();
+        Trebuchet.sneakyThrow(new InterruptedException());
+      }
+    }
+
+    return new Results<>(values, failures);
+  }
+
+  /**
+   * the results of processing elements, in the order of the elements .
+   *
+   * @author furplag
+   *
+   * @param <R> the type of results
+   */
+  static final class Results<R> {
+
+    /** the results, or null if failed . */
+    private final Object[] values;
+
+    /** the failures, or null if succeeded . */
+    private final Throwable[] failures;
+
+    /**
+     * {@link Results} instances are created only through {@link ThrowableTasks} .
+     *
+     * @param values the results
+     * @param failures the failures
+     */
+    private Results(final Object[] values, final Throwable[] failures) {
+      this.values = values;
+      this.failures = failures;
+    }
+
+    /**
+     * returns the failure of the element at the specified position .
+     *
+     * @param index the position of the element
+     * @return the failure, or null if the element has processed successfully
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public Throwable failure(final int index) {
+      return failures[Objects.checkIndex(index, failures.length)];
+    }
+
+    /**
+     * returns the failures keyed by the position of elements .
+     *
+     * @return the failures in the order of elements, which is unmodifiable
+     */
+    public Map<Integer, Throwable> failures() {
+      final Map<Integer, Throwable> failures = new TreeMap<>();
+      for (int i = 0; i < this.failures.length; i++) {
+        if (this.failures[i] != null) {
+          failures.put(i, this.failures[i]);
+        }
+      }
+
+      return Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * returns the result of the element at the specified position .
+     *
+     * @param index the position of the element
+     * @return the result
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     * @throws Throwable the failure of the element, which is thrown sneakily
+     */
+    @SuppressWarnings({ "unchecked" })
+    public R get(final int index) {
+      if (failure(index) != null) {
+        Trebuchet.sneakyThrow(failures[index]);
+      }
+
+      return (R) values[index];
+    }
+
+    /**
+     * returns whether all elements have processed successfully .
+     *
+     * @return true if no failure occurred
+     */
+    public boolean isSucceeded() {
+      return Arrays.stream(failures).allMatch(Objects::isNull);
+    }
+
+    /**
+     * returns the number of elements .
+     *
+     * @return the number of elements
+     */
+    public int size() {
+      return values.length;
+    }
+
+    /**
+     * returns the results, which are null where the element failed .
+     *
+     * @return the results in the order of elements, which is unmodifiable
+     */
+    @SuppressWarnings({ "unchecked" })
+    public List<R> values() {
+      return Collections.unmodifiableList(Arrays.asList((R[]) values));
+    }
+  }
+}
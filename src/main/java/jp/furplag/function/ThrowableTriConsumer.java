@@ -16,7 +16,6 @@
 
 package jp.furplag.function;
 
-import java.util.Objects;
 import java.util.function.Consumer;
 
 import jp.furplag.function.Trebuchet.TriConsumer;
@@ -48,9 +47,9 @@ public interface ThrowableTriConsumer<T, U, V> extends TriConsumer<T, U, V> {
    */
   @SuppressWarnings({ "unchecked" })
   static <T, U, V, E extends Throwable> ThrowableTriConsumer<T, U, V> of(final ThrowableTriConsumer<? super T, ? super U, ? super V> consumer, final Consumer<? super E> fallen) {
-    Objects.requireNonNull(consumer);
+    final Consumer<? super E> fallback = Trebuchet.defaults(fallen);
 
-    return (t, u, v) -> {/* @formatter:off */try {consumer.accept(t, u, v);} catch (Throwable e) {Trebuchet.defaults(fallen).accept((E) e);}/* @formatter:off */};
+    return Guards.triConsumer(consumer, (t, u, v, e) -> fallback.accept((E) e));
   }
 
   /**
@@ -64,10 +63,11 @@ public interface ThrowableTriConsumer<T, U, V> extends TriConsumer<T, U, V> {
    * @return {@link ThrowableTriConsumer}
    * @throws NullPointerException if {@code consumer} is null
    */
+  @SuppressWarnings({ "unchecked" })
   static <T, U, V> ThrowableTriConsumer<T, U, V> of(final ThrowableTriConsumer<? super T, ? super U, ? super V> consumer, final TriConsumer<? super T, ? super U, ? super V> fallen) {
-    Objects.requireNonNull(consumer);
+    final TriConsumer<? super T, ? super U, ? super V> fallback = Trebuchet.defaults(fallen);
 
-    return (t, u, v) -> {/* @formatter:off */try {consumer.accept(t, u, v);} catch (Throwable e) {Trebuchet.defaults(fallen).accept(t, u, v);}/* @formatter:off */};
+    return Guards.triConsumer(consumer, (t, u, v, e) -> fallback.accept((T) t, (U) u, (V) v));
   }
 
   /**
@@ -115,7 +115,7 @@ public interface ThrowableTriConsumer<T, U, V> extends TriConsumer<T, U, V> {
    * @param consumer {@link TriConsumer}, may not be null
    */
   static <T, U, V> void orNot(final T t, final U u, final V v, final ThrowableTriConsumer<? super T, ? super U, ? super V> consumer) {
-    of(consumer, (TriConsumer<T, U, V>) null).accept(t, u, v);
+    Attempts.accept(t, u, v, consumer);
   }
 
   /**
@@ -141,6 +141,16 @@ public interface ThrowableTriConsumer<T, U, V> extends TriConsumer<T, U, V> {
    */
   @Override
   default ThrowableTriConsumer<T, U, V> andThen(TriConsumer<? super T, ? super U, ? super V> after) {
-    return (t, u, v) -> {/* @formatter:off */accept(t, u, v); Trebuchet.defaults(after).accept(t, u, v);/* @formatter:on */};
+    return Guards.sequence(this, Trebuchet.defaults(after));
+  }
+
+  /**
+   * returns a operation which runs this as a {@link java.util.concurrent.ForkJoinPool.ManagedBlocker managed blocker} ,
+   * so that {@link java.util.concurrent.ForkJoinPool} ( e.g. parallel streams ) compensates with a spare worker while this blocks on I/O .
+   *
+   * @return {@link ThrowableTriConsumer} which may block
+   */
+  default ThrowableTriConsumer<T, U, V> blocking() {
+    return (t, u, v) -> Blocking.call(() -> {acceptOrThrow(t, u, v); return null;});
   }
 }
@@ -16,11 +16,13 @@
 
 package jp.furplag.function;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import jp.furplag.function.Trebuchet.TriFunction;
+import jp.furplag.function.Trebuchet.TriPredicate;
 
 /**
  * {@link TriFunction} now get enable to throw {@link Throwable} .
@@ -51,7 +53,96 @@ public interface ThrowableTriFunction<T, U, V, R>  extends TriFunction<T, U, V,
    * @return the result of {@link #apply(Object, Object, Object) function.apply(T, U, V)} if done it normally, or fallen if error occurred
    */
   static <T, U, V, R, W extends R> R applyOrDefault(final T t, final U u, final V v, final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> function, final W fallen) {
-    return Objects.requireNonNullElse(orElse(t, u, v, function, (ex) -> null), Objects.requireNonNull(fallen));
+    return Objects.requireNonNullElse(orNull(t, u, v, function), Objects.requireNonNull(fallen));
+  }
+
+  /**
+   * returns a function which tries {@code functions} in order, and returns the result of the first one done it normally .
+   * {@code fallen} receives the error of the last one, if all of them has failed .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <V> the type of the third argument to the function
+   * @param <R> the type of the result of the function
+   * @param <E> anything thrown
+   * @param functions alternatives, may not be null
+   * @param fallen {@link Function}, or the function that always return {@code null} if this is null
+   * @return {@link ThrowableTriFunction}
+   * @throws NullPointerException if {@code functions} is null, or contains null
+   */
+  static <T, U, V, R, E extends Throwable> ThrowableTriFunction<T, U, V, R> firstSuccessful(final List<? extends ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R>> functions, final Function<? super E, ? extends R> fallen) {
+    return firstSuccessful(functions, fallen, false);
+  }
+
+  /**
+   * returns a function which tries {@code functions} in order, and returns the result of the first one done it normally .
+   * {@code fallen} receives the error of the last one, if all of them has failed .
+   *
+   * <p>in adaptive mode, the order is rearranged by the recent success rate and the cost of each alternative,
+   * so that the likely winner is tried first . another alternative is tried first once in a while, so that a demoted one may regain its position .</p>
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <V> the type of the third argument to the function
+   * @param <R> the type of the result of the function
+   * @param <E> anything thrown
+   * @param functions alternatives, may not be null
+   * @param fallen {@link Function}, or the function that always return {@code null} if this is null
+   * @param adaptive rearranges the order of alternatives if true
+   * @return {@link ThrowableTriFunction}
+   * @throws NullPointerException if {@code functions} is null, or contains null
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, U, V, R, E extends Throwable> ThrowableTriFunction<T, U, V, R> firstSuccessful(final List<? extends ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R>> functions, final Function<? super E, ? extends R> fallen, final boolean adaptive) {
+    final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R>[] alternatives = functions.stream().map(Objects::requireNonNull).toArray(ThrowableTriFunction[]::new);
+    final Function<? super E, ? extends R> fallback = Trebuchet.defaults(fallen);
+    if (!adaptive) {
+      return (t, u, v) -> {
+        Throwable failure = null;
+        for (ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> alternative : alternatives) {
+          Listeners.onInvoke(alternative);
+          try {
+            final R result = alternative.applyOrThrow(t, u, v);
+            Listeners.onSuccess(alternative);
+
+            return result;
+          } catch (Throwable e) {
+            Listeners.onFailure(alternative, e);
+            failure = e;
+          }
+        }
+        Listeners.onFallback(functions, failure);
+
+        return fallback.apply((E) failure);
+      };
+    }
+    final Alternatives stats = new Alternatives(alternatives.length);
+
+    return (t, u, v) -> {
+      Throwable failure = null;
+      for (int i : stats.order()) {
+        Listeners.onInvoke(alternatives[i]);
+        final long started = System.nanoTime();
+        R result = null;
+        Throwable thrown = null;
+        try {
+          result = alternatives[i].applyOrThrow(t, u, v);
+        } catch (Throwable e) {
+          thrown = e;
+        }
+        stats.record(i, thrown == null, started);
+        if (thrown == null) {
+          Listeners.onSuccess(alternatives[i]);
+
+          return result;
+        }
+        Listeners.onFailure(alternatives[i], thrown);
+        failure = thrown;
+      }
+      Listeners.onFallback(functions, failure);
+
+      return fallback.apply((E) failure);
+    };
   }
 
   /**
@@ -68,9 +159,9 @@ public interface ThrowableTriFunction<T, U, V, R>  extends TriFunction<T, U, V,
    */
   @SuppressWarnings({ "unchecked" })
   static <T, U, V, R, E extends Throwable> ThrowableTriFunction<T, U, V, R> of(final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> function, final Function<? super E, ? extends R> fallen) {
-    Objects.requireNonNull(function);
+    final Function<? super E, ? extends R> fallback = Trebuchet.defaults(fallen);
 
-    return (t, u, v) -> {/* @formatter:off */try {return function.apply(t, u, v);} catch (Throwable e) {return Trebuchet.defaults(fallen).apply((E) e);}/* @formatter:off */};
+    return Guards.triFunction(function, (t, u, v, e) -> fallback.apply((E) e));
   }
 
   /**
@@ -85,10 +176,11 @@ public interface ThrowableTriFunction<T, U, V, R>  extends TriFunction<T, U, V,
    * @return {@link ThrowableTriFunction}
    * @throws NullPointerException if {@code function} is null
    */
+  @SuppressWarnings({ "unchecked" })
   static <T, U, V, R> ThrowableTriFunction<T, U, V, R> of(final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> function, final TriFunction<? super T, ? super U, ? super V, ? extends R> fallen) {
-    Objects.requireNonNull(function);
+    final TriFunction<? super T, ? super U, ? super V, ? extends R> fallback = Trebuchet.defaults(fallen);
 
-    return (t, u, v) -> {/* @formatter:off */try {return function.apply(t, u, v);} catch (Throwable e) {return Trebuchet.defaults(fallen).apply(t, u, v);}/* @formatter:off */};
+    return Guards.triFunction(function, (t, u, v, e) -> fallback.apply((T) t, (U) u, (V) v));
   }
 
   /**
@@ -106,7 +198,7 @@ public interface ThrowableTriFunction<T, U, V, R>  extends TriFunction<T, U, V,
    * @return the result of {@link #apply(Object, Object, Object) function.apply(T, U, V)} if done it normally, or fallen if error occurred
    */
   static <T, U, V, R, W extends R> R orDefault(final T t, final U u, final V v, final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> function, final W fallen) {
-    return orElseGet(t, u, v, function, () -> fallen);
+    return Attempts.orElse(Attempts.apply(t, u, v, function), fallen);
   }
 
   /**
@@ -161,7 +253,9 @@ public interface ThrowableTriFunction<T, U, V, R>  extends TriFunction<T, U, V,
    * @return the result of {@link #apply(Object, Object, Object) function.apply(T, U, V)} if done it normally, or {@link Supplier#get() fallen.get()} if error occurred
    */
   static <T, U, V, R> R orElseGet(final T t, final U u, final V v, final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> function, final Supplier<? extends R> fallen) {
-    return of(function, (ex) -> Trebuchet.defaults(fallen).get()).apply(t, u, v);
+    final Object result = Attempts.apply(t, u, v, function);
+
+    return Attempts.failed(result) ? Trebuchet.defaults(fallen).get() : Attempts.result(result);
   }
 
   /**
@@ -178,7 +272,7 @@ public interface ThrowableTriFunction<T, U, V, R>  extends TriFunction<T, U, V,
    * @return the result of {@link #apply(Object, Object, Object) function.apply(T, U, V)} if done it normally, or {@code null} if error occurred
    */
   static <T, U, V, R> R orNull(final T t, final U u, final V v, final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> function) {
-    return orElseGet(t, u, v, function, () -> null);
+    return Attempts.orElse(Attempts.apply(t, u, v, function), null);
   }
 
   /**
@@ -191,7 +285,7 @@ public interface ThrowableTriFunction<T, U, V, R>  extends TriFunction<T, U, V,
    * @throws NullPointerException if after is null
    */
   default <W> ThrowableTriFunction<T, U, V, W> andThen(Function<? super R, ? extends W> after) {
-    return (t, u, v) -> Trebuchet.defaults(after).apply(apply(t, u, v));
+    return ThrowablePipeline.Tri.<T, U, V, R>of(this).andThen(after);
   }
 
   /**
@@ -210,4 +304,48 @@ public interface ThrowableTriFunction<T, U, V, R>  extends TriFunction<T, U, V,
    * @throws Throwable anything thrown
    */
   R applyOrThrow(T t, U u, V v) throws Throwable;
+
+  /**
+   * returns a function which runs this as a {@link java.util.concurrent.ForkJoinPool.ManagedBlocker managed blocker} ,
+   * so that {@link java.util.concurrent.ForkJoinPool} ( e.g. parallel streams ) compensates with a spare worker while this blocks on I/O .
+   *
+   * @return {@link ThrowableTriFunction} which may block
+   */
+  default ThrowableTriFunction<T, U, V, R> blocking() {
+    return (t, u, v) -> Blocking.call(() -> applyOrThrow(t, u, v));
+  }
+
+  /**
+   * returns this guarded by the specified precheck, which runs first only while this fails frequently .
+   * arguments which the precheck rejects fall back directly with a {@link RejectedException} of the arguments, without throwing an exception .
+   *
+   * <p>the precheck should reject only the arguments which this fails with, since it does not run while failures are rare .
+   * only the function which {@code of(...)} returns may be guarded, even if other wrappers have fallbacks .</p>
+   *
+   * @param precheck {@link TriPredicate}, may not be null
+   * @return {@link ThrowableTriFunction} guarded by the precheck
+   * @throws NullPointerException if {@code precheck} is null
+   * @throws IllegalArgumentException if this is not the function which {@code of(...)} returns
+   */
+  default ThrowableTriFunction<T, U, V, R> guardedBy(final TriPredicate<? super T, ? super U, ? super V> precheck) {
+    return Guards.guardedBy(this, precheck);
+  }
+
+  /**
+   * returns a function which throws failures of the source type translated into the target type .
+   *
+   * <p>other failures are thrown as is, so that translations may be chained for each type .</p>
+   *
+   * @param source the type of failures to translate, may not be null
+   * @param target the type of the translation, may not be null
+   * @return {@link ThrowableTriFunction}
+   * @throws NullPointerException if arguments contains null
+   * @see Trebuchet#translate(Throwable, Class)
+   */
+  default ThrowableTriFunction<T, U, V, R> translating(final Class<? extends Throwable> source, final Class<? extends Throwable> target) {
+    Objects.requireNonNull(source);
+    Objects.requireNonNull(target);
+
+    return (t, u, v) -> {/* @formatter:off */try {return applyOrThrow(t, u, v);} catch (Throwable e) {throw Translator.translating(e, source, target);}/* @formatter:on */};
+  }
 }
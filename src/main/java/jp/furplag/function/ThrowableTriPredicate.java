@@ -50,8 +50,11 @@ public interface ThrowableTriPredicate<T, U, V> extends TriPredicate<T, U, V>, T
    * @param fallen {@link Predicate}, or the predicate that always return {@code null} if this is null
    * @return {@link ThrowableTriPredicate}
    */
+  @SuppressWarnings({ "unchecked" })
   static <T, U, V, E extends Throwable> ThrowableTriPredicate<T, U, V> of(final ThrowableTriPredicate<? super T, ? super U, ? super V> predicate, final Predicate<? super E> fallen) {
-    return (t, u, v) -> ThrowableTriFunction.of(predicate, Trebuchet.defaults(fallen)::test).apply(t, u, v);
+    final Predicate<? super E> fallback = Trebuchet.defaults(fallen);
+
+    return Guards.triPredicate(predicate, (t, u, v, e) -> fallback.test((E) e));
   }
 
   /**
@@ -64,8 +67,11 @@ public interface ThrowableTriPredicate<T, U, V> extends TriPredicate<T, U, V>, T
    * @param fallen {@link TriPredicate}, or the predicate that always return {@code null} if this is null
    * @return {@link ThrowableTriPredicate}
    */
+  @SuppressWarnings({ "unchecked" })
   static <T, U, V> ThrowableTriPredicate<T, U, V> of(final ThrowableTriPredicate<? super T, ? super U, ? super V> predicate, final TriPredicate<? super T, ? super U, ? super V> fallen) {
-    return (t, u, v) -> ThrowableTriFunction.of(predicate, Objects.requireNonNullElse(fallen, (x, y, z) -> false)).apply(t, u, v);
+    final TriPredicate<? super T, ? super U, ? super V> fallback = Objects.requireNonNullElse(fallen, Fallbacks.triPredicate());
+
+    return Guards.triPredicate(predicate, (t, u, v, e) -> fallback.apply((T) t, (U) u, (V) v));
   }
 
   /**
@@ -82,7 +88,7 @@ public interface ThrowableTriPredicate<T, U, V> extends TriPredicate<T, U, V>, T
    * @return the result of {@link #test(Object, Object, Object) predicate.test(T, U, V)} if done it normally, or fallen if error occurred
    */
   static <T, U, V> boolean orDefault(final T t, final U u, final V v, final ThrowableTriPredicate<? super T, ? super U, ? super V> predicate, final boolean fallen) {
-    return orElseGet(t, u, v, predicate, () -> fallen);
+    return Attempts.orElse(Attempts.apply(t, u, v, predicate), fallen);
   }
 
   /**
@@ -99,7 +105,9 @@ public interface ThrowableTriPredicate<T, U, V> extends TriPredicate<T, U, V>, T
    * @return the result of {@link #test(Object, Object, Object) predicate.test(T, U, V)} if done it normally, or {@link BooleanSupplier#getAsBoolean() fallen.getAsBoolean()} if error occurred
    */
   static <T, U, V> boolean orElseGet(final T t, final U u, final V v, final ThrowableTriPredicate<? super T, ? super U, ? super V> predicate, final BooleanSupplier fallen) {
-    return ThrowableTriFunction.orElseGet(t, u, v, predicate::test, Objects.requireNonNullElse(fallen, () -> false)::getAsBoolean);
+    final Object result = Attempts.apply(t, u, v, predicate);
+
+    return Attempts.failed(result) ? Objects.requireNonNullElse(fallen, Fallbacks.booleanSupplier()).getAsBoolean() : (Boolean) result;
   }
 
   /**
@@ -113,7 +121,7 @@ public interface ThrowableTriPredicate<T, U, V> extends TriPredicate<T, U, V>, T
    * @return the result of {@link #test(Object, Object, Object) predicate.test(T, U, V)} if done it normally, or {@code false} if error occurred
    */
   static <T, U, V> boolean orNot(final T t, final U u, final V v, final ThrowableTriPredicate<? super T, ? super U, ? super V> predicate) {
-    return orElseGet(t, u, v, predicate, () -> false);
+    return Attempts.orElse(Attempts.apply(t, u, v, predicate), false);
   }
 
   /**
@@ -121,7 +129,7 @@ public interface ThrowableTriPredicate<T, U, V> extends TriPredicate<T, U, V>, T
    */
   @Override
   default ThrowableTriPredicate<T, U, V> and(TriPredicate<? super T, ? super U, ? super V> other) {
-    return (t, u, v) -> test(t, u, v) && Objects.requireNonNullElse(Trebuchet.defaults(other).apply(t, u, v), false);
+    return PredicateCompiler.Ternary.and(this, Trebuchet.defaults(other));
   }
 
   /**
@@ -135,12 +143,20 @@ public interface ThrowableTriPredicate<T, U, V> extends TriPredicate<T, U, V>, T
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  default ThrowableTriPredicate<T, U, V> guardedBy(final TriPredicate<? super T, ? super U, ? super V> precheck) {
+    return Guards.guardedBy(this, precheck);
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   default ThrowableTriPredicate<T, U, V> negate() {
-    return (t, u, v) -> !test(t, u, v);
+    return PredicateCompiler.Ternary.not(this);
   }
 
   /**
@@ -148,7 +164,7 @@ public interface ThrowableTriPredicate<T, U, V> extends TriPredicate<T, U, V>, T
    */
   @Override
   default ThrowableTriPredicate<T, U, V> or(TriPredicate<? super T, ? super U, ? super V> other) {
-    return (t, u, v) -> test(t, u, v) || Objects.requireNonNullElse(Trebuchet.defaults(other).apply(t, u, v), false);
+    return PredicateCompiler.Ternary.or(this, Trebuchet.defaults(other));
   }
 
   /**
@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * translates failures into the specified type of exception, through the constructor which is resolved once per type .
+ *
+ * <p>constructors are resolved through {@link ClassValue} in order of preference, that is, {@code (String, Throwable)} ,
+ * {@code (Throwable)}, {@code (String)} and {@code ()}, and adapted to a {@link MethodHandle} which receives the message and the cause .
+ * a parameter of the cause may be narrower than {@link Throwable} ( e.g. {@link java.io.UncheckedIOException} ) ,
+ * then less preferred constructors are used for failures which the parameter does not accept .
+ * the cause is initialized after construction, if the constructor does not receive it .</p>
+ *
+ * <p>the translation has the message of the failure, except through {@code (Throwable)} ,
+ * which decides the message by itself ( usually {@code cause.toString()} ) .
+ * in a native image, constructors are found only if the type is registered for reflection .
+ * the metadata of this library registers common unchecked exceptions of the JDK ( e.g. {@link java.io.UncheckedIOException} )
+ * and {@link StacklessException}, and other types need their own metadata .</p>
+ *
+ * @author furplag
+ *
+ */
+final class Translator {
+
+  /** the type of adapted constructors . */
+  private static final MethodType TYPE = MethodType.methodType(Throwable.class, String.class, Throwable.class);
+
+  /** translators per type . */
+  private static final ClassValue<Translator> TRANSLATORS = new ClassValue<>() {
+    @Override
+    protected Translator computeValue(final Class<?> type) {
+      Translator translator = new Translator(type, null, null, false, null);
+      for (Translator candidate : Arrays.stream(Modifier.isAbstract(type.getModifiers()) ? new Constructor<?>[0] : type.getDeclaredConstructors()).filter(Translator::isTranslatable).sorted(Comparator.comparingInt(Translator::rank).reversed()).map(Translator::of).filter(Objects::nonNull).toArray(Translator[]::new)) {
+        translator = new Translator(type, candidate.constructor, candidate.causeType, candidate.initCause, translator);
+      }
+
+      return translator;
+    }
+  };
+
+  /** the type of exceptions . */
+  private final Class<?> type;
+
+  /** the constructor which receives the message and the cause, or null if the type has no constructor to use . */
+  private final MethodHandle constructor;
+
+  /** the type of the cause which the constructor receives . */
+  private final Class<?> causeType;
+
+  /** whether the cause should be initialized after construction . */
+  private final boolean initCause;
+
+  /** the translator through the less preferred constructor, or null if this has no constructor to use . */
+  private final Translator next;
+
+  /**
+   * @param type the type of exceptions
+   * @param constructor the constructor which receives the message and the cause
+   * @param causeType the type of the cause which the constructor receives
+   * @param initCause whether the cause should be initialized after construction
+   * @param next the translator through the less preferred constructor
+   */
+  private Translator(final Class<?> type, final MethodHandle constructor, final Class<?> causeType, final boolean initCause, final Translator next) {
+    this.type = type;
+    this.constructor = constructor;
+    this.causeType = causeType;
+    this.initCause = initCause;
+    this.next = next;
+  }
+
+  /**
+   * returns whether the constructor is one of the preferred forms .
+   *
+   * @param constructor the constructor
+   * @return true if the constructor is one of the preferred forms
+   */
+  private static boolean isTranslatable(final Constructor<?> constructor) {
+    return rank(constructor) < Integer.MAX_VALUE;
+  }
+
+  /**
+   * returns the translator adapted from the constructor .
+   *
+   * @param constructor the constructor
+   * @return {@link Translator}, or null if the constructor is not accessible
+   */
+  private static Translator of(final Constructor<?> constructor) {
+    final Class<?>[] parameters = constructor.getParameterTypes();
+    MethodHandle handle;
+    try {
+      constructor.setAccessible(true);
+      handle = MethodHandles.lookup().unreflectConstructor(constructor);
+    } catch (RuntimeException | IllegalAccessException e) {
+      return null;
+    }
+    if (parameters.length < 1) {
+      handle = MethodHandles.dropArguments(handle, 0, String.class, Throwable.class);
+    } else if (parameters.length < 2 && String.class.equals(parameters[0])) {
+      handle = MethodHandles.dropArguments(handle, 1, Throwable.class);
+    } else if (parameters.length < 2) {
+      handle = MethodHandles.dropArguments(handle, 0, String.class);
+    }
+
+    return new Translator(constructor.getDeclaringClass(), handle.asType(TYPE), parameters.length > 0 && !String.class.equals(parameters[parameters.length - 1]) ? parameters[parameters.length - 1] : Throwable.class, parameters.length < 1 || parameters.length < 2 && String.class.equals(parameters[0]), null);
+  }
+
+  /**
+   * returns the preference of the constructor .
+   *
+   * @param constructor the constructor
+   * @return the preference, lower is preferred, or {@link Integer#MAX_VALUE} if the constructor is not one of the preferred forms
+   */
+  private static int rank(final Constructor<?> constructor) {
+    final Class<?>[] parameters = constructor.getParameterTypes();
+    final boolean cause = parameters.length > 0 && Throwable.class.isAssignableFrom(parameters[parameters.length - 1]);
+    if (parameters.length == 2 && String.class.equals(parameters[0]) && cause) {
+      return Throwable.class.equals(parameters[1]) ? 0 : 1;
+    } else if (parameters.length == 1 && cause) {
+      return Throwable.class.equals(parameters[0]) ? 2 : 3;
+    } else if (parameters.length == 1 && String.class.equals(parameters[0])) {
+      return 4;
+    }
+
+    return parameters.length < 1 ? 5 : Integer.MAX_VALUE;
+  }
+
+  /**
+   * returns the failure translated into the specified type, or the failure itself if it already is .
+   *
+   * @param <X> the type of the translation
+   * @param failure anything thrown, may not be null
+   * @param target the type of the translation, may not be null
+   * @return the translation which is caused by {@code failure}
+   * @throws IllegalArgumentException if {@code target} has no constructor to use, or cannot be caused by {@code failure}
+   */
+  static <X extends Throwable> X translate(final Throwable failure, final Class<X> target) {
+    if (Objects.requireNonNull(target).isInstance(Objects.requireNonNull(failure))) {
+      return target.cast(failure);
+    }
+
+    return target.cast(TRANSLATORS.get(target).construct(failure));
+  }
+
+  /**
+   * returns the failure translated into the target type if it is an instance of the source type, or the failure itself otherwise .
+   *
+   * @param failure anything thrown
+   * @param source the type of failures to translate
+   * @param target the type of the translation
+   * @return the translation, or {@code failure} itself
+   */
+  static Throwable translating(final Throwable failure, final Class<? extends Throwable> source, final Class<? extends Throwable> target) {
+    return source.isInstance(failure) ? translate(failure, target) : failure;
+  }
+
+  /**
+   * constructs the translation of the failure .
+   *
+   * @param failure anything thrown
+   * @return the translation which is caused by {@code failure}
+   */
+  private Throwable construct(final Throwable failure) {
+    if (constructor == null) {
+      throw new IllegalArgumentException(type.getName() + " cannot be caused by " + failure.getClass().getName() + " .");
+    } else if (!causeType.isInstance(failure)) {
+      return next.construct(failure);
+    }
+    Throwable translation = null;
+    try {
+      translation = (Throwable) constructor.invokeExact(failure.getMessage(), failure);
+    } catch (Throwable e) {
+      Trebuchet.sneakyThrow(e);
+    }
+
+    return initCause ? translation.initCause(failure) : translation;
+  }
+}
@@ -260,7 +260,7 @@ public interface Trebuchet {
    * @return specified {@code consumer}, or the {@link BiConsumer} which do nothing if this is null
    */
   static <T, U> BiConsumer<? super T, ? super U> defaults(final BiConsumer<? super T, ? super U> consumer) {
-    return Objects.requireNonNullElse(consumer, (t, e) -> {/* do nothing . */});
+    return Objects.requireNonNullElse(consumer, Fallbacks.biConsumer());
   }
 
   /**
@@ -273,7 +273,7 @@ public interface Trebuchet {
    * @return specified {@code function}, or returns the {@link BiFunction} which always return null if {@code function} is null
    */
   static <T, U, R> BiFunction<? super T, ? super U, ? extends R> defaults(final BiFunction<? super T, ? super U, ? extends R> function) {
-    return Objects.requireNonNullElse(function, (t, u) -> null);
+    return Objects.requireNonNullElse(function, Fallbacks.biFunction());
   }
 
   /**
@@ -285,7 +285,7 @@ public interface Trebuchet {
    * @return specified {@code predicate}, or returns the {@link BiPredicate} which always return false if {@code predicate} is null
    */
   static <T, U> BiPredicate<? super T, ? super U> defaults(final BiPredicate<? super T, ? super U> predicate) {
-    return Objects.requireNonNullElse(predicate, (t, u) -> false);
+    return Objects.requireNonNullElse(predicate, Fallbacks.biPredicate());
   }
 
   /**
@@ -296,7 +296,7 @@ public interface Trebuchet {
    * @return specified {@code consumer}, or the {@link Consumer} which do nothing if this is null
    */
   static <T> Consumer<? super T> defaults(final Consumer<? super T> consumer) {
-    return Objects.requireNonNullElse(consumer, (t) -> {/* do nothing . */});
+    return Objects.requireNonNullElse(consumer, Fallbacks.consumer());
   }
 
   /**
@@ -308,7 +308,7 @@ public interface Trebuchet {
    * @return specified {@code function}, or returns the {@link Function} which always return null if {@code function} is null
    */
   static <T, R> Function<? super T, ? extends R> defaults(final Function<? super T, ? extends R> function) {
-    return Objects.requireNonNullElse(function, (t) -> null);
+    return Objects.requireNonNullElse(function, Fallbacks.function());
   }
 
   /**
@@ -319,7 +319,7 @@ public interface Trebuchet {
    * @return specified {@code predicate}, or returns the {@link Predicate} which always return false if {@code predicate} is null
    */
   static <T> Predicate<? super T> defaults(final Predicate<? super T> predicate) {
-    return Objects.requireNonNullElse(predicate, (t) -> false);
+    return Objects.requireNonNullElse(predicate, Fallbacks.predicate());
   }
 
   /**
@@ -330,7 +330,7 @@ public interface Trebuchet {
    * @return specified {@code supplier}, or returns the {@link Supplier} which always return null if {@code supplier} is null
    */
   static <T> Supplier<? extends T> defaults(final Supplier<? extends T> supplier) {
-    return Objects.requireNonNullElse(supplier, () -> null);
+    return Objects.requireNonNullElse(supplier, Fallbacks.supplier());
   }
 
   /**
@@ -343,7 +343,7 @@ public interface Trebuchet {
    * @return specified {@code consumer}, or the {@link TriConsumer} which do nothing if this is null
    */
   static <T, U, V> TriConsumer<? super T, ? super U, ? super V> defaults(final TriConsumer<? super T, ? super U, ? super V> consumer) {
-    return Objects.requireNonNullElse(consumer, (t, u, v) -> {/* do nothing . */});
+    return Objects.requireNonNullElse(consumer, Fallbacks.triConsumer());
   }
 
   /**
@@ -357,7 +357,28 @@ public interface Trebuchet {
    * @return specified {@code function}, or returns the {@link TriFunction} which always return null if {@code function} is null
    */
   static <T, U, V, R> TriFunction<? super T, ? super U, ? super V, ? extends R> defaults(final TriFunction<? super T, ? super U, ? super V, ? extends R> function) {
-    return Objects.requireNonNullElse(function, (t, u, v) -> null);
+    return Objects.requireNonNullElse(function, Fallbacks.triFunction());
+  }
+
+  /**
+   * throws the specified failure as is if unchecked, otherwise throws {@link StacklessException} which carries it .
+   *
+   * <p>the carrier does not fill in its stack trace, so that translating checked exceptions costs almost nothing .
+   * this never returns normally, so that call it as {@code throw Trebuchet.rethrowLight(e)} to tell the compiler .</p>
+   *
+   * @param ex anything thrown
+   * @return never
+   * @throws RuntimeException {@code ex} itself, or {@link StacklessException} which carries {@code ex} if it is checked
+   * @throws Error {@code ex} itself
+   */
+  static RuntimeException rethrowLight(final Throwable ex) {
+    if (ex instanceof RuntimeException) {
+      throw (RuntimeException) ex;
+    } else if (ex instanceof Error) {
+      throw (Error) ex;
+    }
+
+    throw new StacklessException(Objects.requireNonNull(ex, "hmm, no way call me with null ."));
   }
 
   /**
@@ -371,4 +392,135 @@ public interface Trebuchet {
   static <E extends Throwable> void sneakyThrow(final Throwable ex) throws E {
     throw (E) (ex == null ? new IllegalArgumentException("hmm, no way call me with null .") : ex);
   }
+
+  /**
+   * returns the wrapper of specified {@code function} which is defined as a dedicated hidden class .
+   * call sites inside the wrapper stay monomorphic, unlike {@link ThrowableFunction#of(ThrowableFunction, BiFunction)} which shares them with all wrappers .
+   * it is the same as {@link ThrowableFunction#of(ThrowableFunction, BiFunction)} if the runtime does not support hidden classes .
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   * @param <E> anything thrown
+   * @param function {@link ThrowableFunction}, may not be null
+   * @param fallen {@link BiFunction}, or the function that always return null if this is null
+   * @return {@link ThrowableFunction}
+   * @throws NullPointerException if {@code function} is null
+   */
+  static <T, R, E extends Throwable> ThrowableFunction<T, R> specialize(final ThrowableFunction<? super T, ? extends R> function, final BiFunction<? super T, ? super E, ? extends R> fallen) {
+    return specialize(function, fallen, null);
+  }
+
+  /**
+   * returns the wrapper of specified {@code function} composed with the {@code after} function, which is defined as a dedicated hidden class .
+   * call sites inside the wrapper stay monomorphic, unlike {@link ThrowableFunction#of(ThrowableFunction, BiFunction)} which shares them with all wrappers .
+   *
+   * @param <T> the type of the input to the function
+   * @param <R> the type of the result of the function
+   * @param <V> the type of output of the {@code after} function, and of the composed function
+   * @param <E> anything thrown
+   * @param function {@link ThrowableFunction}, may not be null
+   * @param fallen {@link BiFunction}, or the function that always return null if this is null
+   * @param after {@link Function} to apply after this function is applied, or the function that always returns its input argument if this is null
+   * @return {@link ThrowableFunction}
+   * @throws NullPointerException if {@code function} is null
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, R, V, E extends Throwable> ThrowableFunction<T, V> specialize(final ThrowableFunction<? super T, ? extends R> function, final BiFunction<? super T, ? super E, ? extends R> fallen, final Function<? super R, ? extends V> after) {
+    return Specializer.instantiate(SpecializedFunction.class, Objects.requireNonNull(function), defaults(fallen), Objects.requireNonNullElse(after, Function.identity()));
+  }
+
+  /**
+   * returns the wrapper of specified {@code function} which is defined as a dedicated hidden class .
+   * call sites inside the wrapper stay monomorphic, unlike {@link ThrowableBiFunction#of(ThrowableBiFunction, TriFunction)} which shares them with all wrappers .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <R> the type of the result of the function
+   * @param <E> anything thrown
+   * @param function {@link ThrowableBiFunction}, may not be null
+   * @param fallen {@link TriFunction}, or the function that always return null if this is null
+   * @return {@link ThrowableBiFunction}
+   * @throws NullPointerException if {@code function} is null
+   */
+  static <T, U, R, E extends Throwable> ThrowableBiFunction<T, U, R> specialize(final ThrowableBiFunction<? super T, ? super U, ? extends R> function, final TriFunction<? super T, ? super U, ? super E, ? extends R> fallen) {
+    return specialize(function, fallen, null);
+  }
+
+  /**
+   * returns the wrapper of specified {@code function} composed with the {@code after} function, which is defined as a dedicated hidden class .
+   * call sites inside the wrapper stay monomorphic, unlike {@link ThrowableBiFunction#of(ThrowableBiFunction, TriFunction)} which shares them with all wrappers .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <R> the type of the result of the function
+   * @param <V> the type of output of the {@code after} function, and of the composed function
+   * @param <E> anything thrown
+   * @param function {@link ThrowableBiFunction}, may not be null
+   * @param fallen {@link TriFunction}, or the function that always return null if this is null
+   * @param after {@link Function} to apply after this function is applied, or the function that always returns its input argument if this is null
+   * @return {@link ThrowableBiFunction}
+   * @throws NullPointerException if {@code function} is null
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, U, R, V, E extends Throwable> ThrowableBiFunction<T, U, V> specialize(final ThrowableBiFunction<? super T, ? super U, ? extends R> function, final TriFunction<? super T, ? super U, ? super E, ? extends R> fallen, final Function<? super R, ? extends V> after) {
+    return Specializer.instantiate(SpecializedBiFunction.class, Objects.requireNonNull(function), defaults(fallen), Objects.requireNonNullElse(after, Function.identity()));
+  }
+
+  /**
+   * returns the wrapper of specified {@code function} which is defined as a dedicated hidden class .
+   * call sites inside the wrapper stay monomorphic, unlike {@link ThrowableTriFunction#of(ThrowableTriFunction, Function)} which shares them with all wrappers .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <V> the type of the third argument to the function
+   * @param <R> the type of the result of the function
+   * @param <E> anything thrown
+   * @param function {@link ThrowableTriFunction}, may not be null
+   * @param fallen {@link Function}, or the function that always return null if this is null
+   * @return {@link ThrowableTriFunction}
+   * @throws NullPointerException if {@code function} is null
+   */
+  static <T, U, V, R, E extends Throwable> ThrowableTriFunction<T, U, V, R> specialize(final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> function, final Function<? super E, ? extends R> fallen) {
+    return specialize(function, fallen, null);
+  }
+
+  /**
+   * returns the wrapper of specified {@code function} composed with the {@code after} function, which is defined as a dedicated hidden class .
+   * call sites inside the wrapper stay monomorphic, unlike {@link ThrowableTriFunction#of(ThrowableTriFunction, Function)} which shares them with all wrappers .
+   *
+   * @param <T> the type of the first argument to the function
+   * @param <U> the type of the second argument to the function
+   * @param <V> the type of the third argument to the function
+   * @param <R> the type of the result of the function
+   * @param <W> the type of output of the {@code after} function, and of the composed function
+   * @param <E> anything thrown
+   * @param function {@link ThrowableTriFunction}, may not be null
+   * @param fallen {@link Function}, or the function that always return null if this is null
+   * @param after {@link Function} to apply after this function is applied, or the function that always returns its input argument if this is null
+   * @return {@link ThrowableTriFunction}
+   * @throws NullPointerException if {@code function} is null
+   */
+  @SuppressWarnings({ "unchecked" })
+  static <T, U, V, R, W, E extends Throwable> ThrowableTriFunction<T, U, V, W> specialize(final ThrowableTriFunction<? super T, ? super U, ? super V, ? extends R> function, final Function<? super E, ? extends R> fallen, final Function<? super R, ? extends W> after) {
+    return Specializer.instantiate(SpecializedTriFunction.class, Objects.requireNonNull(function), defaults(fallen), Objects.requireNonNullElse(after, Function.identity()));
+  }
+
+  /**
+   * returns the failure translated into the specified type of exception, which is caused by the failure .
+   *
+   * <p>the constructor of the type is resolved once per type through {@link ClassValue}, and invoked through {@link java.lang.invoke.MethodHandle} ,
+   * in order of preference, that is, {@code (String, Throwable)}, {@code (Throwable)}, {@code (String)} and {@code ()} .
+   * the translation has the message of the failure, except through {@code (Throwable)}, which decides the message by itself .
+   * in a native image, the type should be registered for reflection, except common unchecked exceptions of the JDK which this library registers .</p>
+   *
+   * @param <X> the type of the translation
+   * @param ex anything thrown, may not be null
+   * @param target the type of the translation, may not be null
+   * @return the translation, or {@code ex} itself if it is an instance of {@code target}
+   * @throws NullPointerException if arguments contains null
+   * @throws IllegalArgumentException if {@code target} has no constructor to use, or cannot be caused by {@code ex}
+   */
+  static <X extends Throwable> X translate(final Throwable ex, final Class<X> target) {
+    return Translator.translate(ex, target);
+  }
 }
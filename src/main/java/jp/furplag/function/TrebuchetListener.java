@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+/**
+ * receives lifecycle events of the wrappers which {@code of(...)}, {@code firstSuccessful(...)} and {@link Trebuchet#specialize(ThrowableFunction, java.util.function.BiFunction) specialize(...)} return,
+ * of the static helpers which fall back in place ( e.g. {@code orElse}, {@code orNull}, {@code orNot} ),
+ * and of stages of {@link ThrowablePipeline pipelines} and functions of {@link ThrowableProcessors#map(ThrowableFunction, ThrowableProcessors.FailurePolicy, int) processors} .
+ *
+ * <p>implementations are loaded once through {@link java.util.ServiceLoader}, that is, listed in
+ * {@code META-INF/services/jp.furplag.function.TrebuchetListener} . if no implementation is found,
+ * wrappers skip dispatching through a {@code static final} flag, which the JIT removes completely .</p>
+ *
+ * <p>every method receives the wrapped operation, not the wrapper, so that listeners may identify the operation .
+ * alternatives of {@code firstSuccessful(...)} are reported one by one, and its fallback receives the list of alternatives .
+ * stages of a pipeline are also reported one by one, and a failure which is relayed to the caller, or sent to the dead letter subscriber,
+ * is reported only through {@link #onFailure(Object, Throwable)} .
+ * listeners must be thread-safe, should return quickly, and runtime exceptions which listeners throw are ignored .</p>
+ *
+ * @author furplag
+ *
+ */
+public interface TrebuchetListener {
+
+  /**
+   * called after the operation has failed, before {@link #onFallback(Object, Throwable)} .
+   *
+   * @param operation the wrapped operation
+   * @param failure the failure
+   */
+  default void onFailure(final Object operation, final Throwable failure) {/* do nothing . */}
+
+  /**
+   * called when the wrapper falls back, after the operation has failed, or its precheck has rejected the arguments .
+   *
+   * @param operation the wrapped operation
+   * @param failure the failure which the fallback receives
+   */
+  default void onFallback(final Object operation, final Throwable failure) {/* do nothing . */}
+
+  /**
+   * called before the operation runs .
+   *
+   * @param operation the wrapped operation
+   */
+  default void onInvoke(final Object operation) {/* do nothing . */}
+
+  /**
+   * called after the operation has done normally .
+   *
+   * @param operation the wrapped operation
+   */
+  default void onSuccess(final Object operation) {/* do nothing . */}
+}
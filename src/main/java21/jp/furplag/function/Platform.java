@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.lang.invoke.MethodHandles.Lookup;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * the features which depend on the version of the runtime, for Java 21 or later .
+ *
+ * @author furplag
+ *
+ */
+final class Platform {
+
+  /** hidden classes are unavailable in native images . */
+  private static final boolean HIDDEN_CLASS_SUPPORTED = System.getProperty("org.graalvm.nativeimage.imagecode") == null;
+
+  /**
+   * Platform instances should NOT be constructed in standard programming .
+   */
+  private Platform() {}
+
+  /**
+   * defines a hidden class from the specified class file bytes .
+   *
+   * @param lookup the lookup which the hidden class nests in
+   * @param bytes class file bytes
+   * @return the hidden class
+   * @throws UnsupportedOperationException if the runtime does not support hidden classes
+   */
+  static Class<?> defineHiddenClass(final Lookup lookup, final byte[] bytes) {
+    if (!isHiddenClassSupported()) {
+      throw new UnsupportedOperationException("hidden classes are not supported .");
+    }
+    try {
+      return lookup.defineHiddenClass(bytes, true).lookupClass();
+    } catch (IllegalAccessException e) {
+      Trebuchet.sneakyThrow(e);
+    }
+
+    return null;
+  }
+
+  /**
+   * returns the executor which runs asynchronous tasks by default .
+   *
+   * @return the executor which starts a virtual thread for each task
+   */
+  static Executor executor() {
+    return Virtual.EXECUTOR;
+  }
+
+  /**
+   * returns whether the runtime supports hidden classes .
+   *
+   * @return true unless running in a native image
+   */
+  static boolean isHiddenClassSupported() {
+    return HIDDEN_CLASS_SUPPORTED;
+  }
+
+  /**
+   * returns whether the executor runs tasks on virtual threads .
+   *
+   * @return true
+   */
+  static boolean isVirtual() {
+    return true;
+  }
+
+  /**
+   * holds the executor lazily, so that no thread is started until it is needed .
+   */
+  private static final class Virtual {
+
+    /** the executor which starts a virtual thread for each task . */
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("trebuchet-", 0).factory());
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class BulkFailuresTest {
+
+  @Test
+  public void testApplyAll() {
+    final ThrowableFunction<String, Integer> function = Integer::valueOf;
+    final String[] in = { "1", "南無", "3", null, "5" };
+    final Integer[] out = { -1, -1, -1, -1, -1, -1 };
+    final BulkFailures failures = function.applyAll(in, out);
+    assertArrayEquals(new Integer[] { 1, null, 3, null, 5, -1 }, out);
+    assertFalse(failures.isSucceeded());
+    assertEquals(5, failures.size());
+    assertEquals(2, failures.count());
+    assertEquals(1, failures.first());
+    assertTrue(failures.failed(1));
+    assertFalse(failures.failed(2));
+    assertTrue(failures.failed(3));
+    assertEquals(BitSet.valueOf(new long[] { 0b1010 }), failures.bitmap());
+    assertEquals(1, failures.failures().size());
+    assertTrue(failures.failure(NumberFormatException.class).getMessage().contains("南無"));
+    assertTrue(failures.failure(IllegalArgumentException.class) instanceof NumberFormatException);
+    assertNull(failures.failure(IllegalStateException.class));
+    assertEquals("2/5 failed [class java.lang.NumberFormatException]", failures.toString());
+    assertThrows(IndexOutOfBoundsException.class, () -> failures.failed(5));
+    assertThrows(UnsupportedOperationException.class, () -> failures.failures().clear());
+
+    final BulkFailures succeeded = function.applyAll(new String[] { "1" }, new Integer[1]);
+    assertTrue(succeeded.isSucceeded());
+    assertEquals(-1, succeeded.first());
+    assertTrue(succeeded.bitmap().isEmpty());
+    assertTrue(succeeded.failures().isEmpty());
+
+    assertThrows(IllegalArgumentException.class, () -> function.applyAll(in, new Integer[4]));
+    assertThrows(NullPointerException.class, () -> function.applyAll((String[]) null, out));
+    assertThrows(NullPointerException.class, () -> function.applyAll(in, (Integer[]) null));
+  }
+
+  @Test
+  public void testApplyAllList() {
+    final ThrowableFunction<Object, Integer> function = (x) -> Integer.valueOf((String) x);
+    final List<Number> out = new ArrayList<>();
+    final BulkFailures failures = function.applyAll(Arrays.asList("1", 2, "3"), out);
+    assertEquals(Arrays.asList(1, null, 3), out);
+    assertEquals(1, failures.first());
+    assertTrue(failures.failure(ClassCastException.class) != null);
+    assertThrows(NullPointerException.class, () -> function.applyAll(Arrays.asList("1"), null));
+  }
+
+  @Test
+  public void testTestAll() {
+    final ThrowablePredicate<String> predicate = (x) -> Integer.valueOf(x) % 2 == 0;
+    final String[] in = IntStream.range(0, 130).mapToObj((x) -> x % 10 == 9 ? "南無" : x % 11 == 10 ? null : Integer.toString(x)).toArray(String[]::new);
+    final long[] bitmask = { -1, -1, -1, -1 };
+    final BulkFailures failures = predicate.testAll(in, bitmask);
+    final BitSet bits = BitSet.valueOf(bitmask);
+    IntStream.range(0, 130).forEach((x) -> assertEquals(x % 10 != 9 && x % 11 != 10 && x % 2 == 0, bits.get(x), Integer.toString(x)));
+    assertEquals(-1L >>> 2, bitmask[2] >>> 2);
+    assertEquals(-1, bitmask[3]);
+    assertEquals(9, failures.first());
+    assertEquals(IntStream.range(0, 130).filter((x) -> x % 10 == 9 || x % 11 == 10).count(), failures.count());
+    assertEquals(1, failures.failures().size());
+    assertTrue(failures.failure(NullPointerException.class) == null);
+    assertTrue(failures.failure(NumberFormatException.class) != null);
+
+    final boolean[] out = new boolean[in.length];
+    assertEquals(failures.bitmap(), predicate.testAll(in, out).bitmap());
+    IntStream.range(0, 130).forEach((x) -> assertEquals(bits.get(x), out[x]));
+
+    final ThrowablePredicate<String> nullable = (x) -> x.isEmpty() ? null : true;
+    assertTrue(nullable.testAll(new String[] { "" }, new boolean[1]).failure(NullPointerException.class) != null);
+    assertThrows(IllegalArgumentException.class, () -> predicate.testAll(in, new long[2]));
+    assertThrows(IllegalArgumentException.class, () -> predicate.testAll(in, new boolean[129]));
+  }
+}
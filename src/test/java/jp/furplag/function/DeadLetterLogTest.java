@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DeadLetterLogTest {
+
+  @TempDir
+  Path dir;
+
+  private static byte[] encode(final String t) {
+    return t.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String decode(final byte[] bytes) {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private List<DeadLetterLog.Entry<String>> replay() throws IOException {
+    final List<DeadLetterLog.Entry<String>> entries = new ArrayList<>();
+    assertEquals(DeadLetterLog.<String, Throwable>replay(dir, DeadLetterLogTest::decode, entries::add, null), entries.size());
+
+    return entries;
+  }
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> paths = Files.list(dir)) {
+      return paths.sorted().collect(Collectors.toList());
+    }
+  }
+
+  @Test
+  public void test() throws IOException {
+    try (DeadLetterLog<String> log = DeadLetterLog.open(dir, DeadLetterLogTest::encode)) {
+      final ThrowableFunction<String, Integer> parser = ThrowableFunction.of(Integer::valueOf, log.function());
+      assertEquals(1000, IntStream.range(0, 10000).mapToObj((i) -> i % 10 == 0 ? "南無" + i : Integer.toString(i)).map(parser).filter((x) -> x == null).count());
+      assertEquals(0, log.dropped());
+      assertTrue(log.toString().contains("segment=0"));
+    }
+    final List<DeadLetterLog.Entry<String>> entries = replay();
+    assertEquals(IntStream.range(0, 1000).mapToObj((i) -> "南無" + (i * 10)).collect(Collectors.toList()), entries.stream().map(DeadLetterLog.Entry::input).collect(Collectors.toList()));
+    assertEquals(NumberFormatException.class.getName(), entries.get(0).type());
+    assertEquals("For input string: \"南無0\"", entries.get(0).message());
+    assertFalse(entries.get(0).time().isAfter(entries.get(999).time()));
+    assertEquals(List.of(dir.resolve("000000000000.dlq")), segments());
+  }
+
+  @Test
+  public void testConcurrently() throws IOException {
+    try (DeadLetterLog<String> log = DeadLetterLog.open(dir, DeadLetterLogTest::encode, 1 << 12)) {
+      final ThrowableConsumer<String> consumer = ThrowableConsumer.of((String t) -> Integer.parseInt(t), log.consumer());
+      IntStream.range(0, 8000).parallel().mapToObj((i) -> "南無" + i).forEach(consumer);
+      assertEquals(0, log.dropped());
+      log.flush();
+      assertEquals(1, log.mapped(), "full segments are released once no thread appends to them .");
+    }
+    assertTrue(segments().size() > 8, "segments are rolled .");
+    final Set<String> inputs = ConcurrentHashMap.newKeySet();
+    assertEquals(8000, DeadLetterLog.<String, Throwable>replay(dir, DeadLetterLogTest::decode, (e) -> inputs.add(e.input()), null));
+    assertEquals(IntStream.range(0, 8000).mapToObj((i) -> "南無" + i).collect(Collectors.toSet()), inputs);
+  }
+
+  @Test
+  public void testCorrupted() throws IOException {
+    try (DeadLetterLog<String> log = DeadLetterLog.open(dir, DeadLetterLogTest::encode)) {
+      assertTrue(log.append("first", new IllegalStateException()));
+      assertTrue(log.append("second", new IllegalStateException()));
+      assertTrue(log.append("third", new IllegalStateException()));
+    }
+    final Path segment = segments().get(0);
+    final byte[] bytes = Files.readAllBytes(segment);
+    final int position = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("second");
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap("SECOND".getBytes(StandardCharsets.UTF_8)), position);
+    }
+    assertEquals(List.of("first", "third"), replay().stream().map(DeadLetterLog.Entry::input).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testUnwritten() throws IOException {
+    try (DeadLetterLog<String> log = DeadLetterLog.open(dir, DeadLetterLogTest::encode)) {
+      assertTrue(log.append("first", new IllegalStateException()));
+      assertTrue(log.append("second", new IllegalStateException()));
+      assertTrue(log.append("third", new IllegalStateException()));
+    }
+    final Path segment = segments().get(0);
+    final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+    final int position = Integer.BYTES * 2 + bytes.getInt(0);
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(Integer.BYTES * 2 + bytes.getInt(position)), position);
+    }
+    assertEquals(List.of("first", "third"), replay().stream().map(DeadLetterLog.Entry::input).collect(Collectors.toList()), "records after the range which is not written are replayed .");
+  }
+
+  @Test
+  public void testDropped() throws IOException {
+    final DeadLetterLog<String> log = DeadLetterLog.open(dir, DeadLetterLogTest::encode, 1 << 8);
+    assertFalse(log.append("南無".repeat(100), new IllegalStateException()));
+    assertTrue(log.append("南無", new IllegalStateException()));
+    assertFalse(log.predicate().test("南無", new IllegalStateException()));
+    assertEquals(1, log.dropped());
+    log.close();
+    log.close();
+    assertFalse(log.append("南無", new IllegalStateException()));
+    assertEquals(2, log.dropped());
+    assertEquals(2, replay().size());
+  }
+
+  @Test
+  public void testFailures() throws IOException {
+    try (DeadLetterLog<String> log = DeadLetterLog.open(dir, (String t) -> encode(t.trim()))) {
+      assertTrue(log.append(null, new IllegalStateException("南無".repeat(DeadLetterLog.MAX_MESSAGE))));
+      assertTrue(log.append("南無", new IllegalStateException()));
+    }
+    final List<DeadLetterLog.Entry<String>> entries = replay();
+    assertNull(entries.get(0).input());
+    assertEquals(DeadLetterLog.MAX_MESSAGE, entries.get(0).message().length());
+    assertNull(entries.get(1).message());
+    final List<Throwable> failures = new ArrayList<>();
+    assertEquals(2, DeadLetterLog.<String, Throwable>replay(dir, (byte[] bytes) -> {throw new IllegalArgumentException();}, (e) -> {}, (e, ex) -> failures.add(ex)));
+    assertEquals(1, failures.size(), "records which has no input are not decoded .");
+    assertTrue(failures.get(0) instanceof IllegalArgumentException);
+  }
+
+  @Test
+  public void testReopen() throws IOException {
+    try (DeadLetterLog<String> log = DeadLetterLog.open(dir, DeadLetterLogTest::encode)) {
+      log.append("first", new IllegalStateException());
+    }
+    Files.write(dir.resolve("README"), List.of("not a segment ."));
+    try (DeadLetterLog<String> log = DeadLetterLog.open(dir, DeadLetterLogTest::encode)) {
+      log.append("second", new IllegalStateException());
+      log.flush();
+    }
+    assertEquals(List.of("000000000000.dlq", "000000000001.dlq", "README"), segments().stream().map(Path::getFileName).map(Path::toString).collect(Collectors.toList()));
+    assertEquals(List.of("first", "second"), replay().stream().map(DeadLetterLog.Entry::input).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testInvalid() {
+    assertThrows(NullPointerException.class, () -> DeadLetterLog.open(null, DeadLetterLogTest::encode));
+    assertThrows(NullPointerException.class, () -> DeadLetterLog.open(dir, null));
+    assertThrows(IllegalArgumentException.class, () -> DeadLetterLog.open(dir, DeadLetterLogTest::encode, 8));
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class FailureAggregatorTest {
+
+  @Test
+  public void test() {
+    final FailureAggregator aggregator = FailureAggregator.of();
+    final ThrowableFunction<String, Integer> parser = ThrowableFunction.of(Integer::valueOf, aggregator.function());
+    final List<Integer> results = IntStream.range(0, 10000).mapToObj((i) -> i % 10 == 0 ? "南無" + i : Integer.toString(i)).map(parser).collect(Collectors.toList());
+    assertEquals(1000, results.stream().filter((x) -> x == null).count());
+    assertEquals(1, aggregator.groups().size());
+    assertEquals(1000, aggregator.total());
+    assertEquals(0, aggregator.overflow());
+    final FailureAggregator.Group group = aggregator.groups().get(0);
+    assertEquals(NumberFormatException.class, group.type());
+    assertEquals(1000, group.count());
+    assertEquals("For input string: \"南無0\"", group.exemplar().getMessage());
+    assertTrue(group.frame() != null);
+    assertNull(group.template());
+    assertTrue(group.toString().startsWith(NumberFormatException.class.getName()));
+  }
+
+  @Test
+  public void testGroups() {
+    final FailureAggregator aggregator = FailureAggregator.of();
+    final ThrowablePredicate<Integer> predicate = ThrowablePredicate.of((x) -> 10 / x > 0 && Arrays.asList(1, 2).get(x) > 0, aggregator.predicate());
+    assertEquals(1, IntStream.range(0, 10).boxed().filter(predicate).count());
+    final ThrowableConsumer<Integer> consumer = ThrowableConsumer.of((x) -> System.out.print(10 / x), aggregator.consumer());
+    IntStream.range(0, 3).map((x) -> 0).boxed().forEach(consumer);
+    assertEquals(3, aggregator.groups().size(), "same class thrown from different frames are grouped separately .");
+    assertEquals(Arrays.asList(ArrayIndexOutOfBoundsException.class, ArithmeticException.class, ArithmeticException.class), aggregator.groups().stream().map(FailureAggregator.Group::type).collect(Collectors.toList()));
+    assertEquals(Arrays.asList(8L, 3L, 1L), aggregator.groups().stream().map(FailureAggregator.Group::count).collect(Collectors.toList()));
+    assertEquals(12, aggregator.total());
+  }
+
+  @Test
+  public void testTemplate() {
+    final FailureAggregator aggregator = FailureAggregator.of();
+    IntStream.range(0, 100).mapToObj((i) -> new StacklessFailure("record " + i + " is broken .")).forEach(aggregator);
+    aggregator.accept(new StacklessFailure(null));
+    assertEquals(2, aggregator.groups().size());
+    assertEquals("record # is broken .", aggregator.groups().get(0).template());
+    assertNull(aggregator.groups().get(0).frame());
+    assertEquals("record 0 is broken .", aggregator.groups().get(0).exemplar().getMessage());
+    assertNull(aggregator.groups().get(1).template());
+    assertEquals(StacklessFailure.class.getName() + " at null ( 1 times )", aggregator.groups().get(1).toString());
+  }
+
+  @Test
+  public void testStackless() {
+    final FailureAggregator aggregator = FailureAggregator.of();
+    aggregator.accept(new StacklessException((String) null));
+    aggregator.accept(new StacklessException("record 1 is broken ."));
+    aggregator.accept(new StacklessException("record 2 is broken ."));
+    assertEquals(Arrays.asList(StacklessException.class.getName() + " at record # is broken . ( 2 times )", StacklessException.class.getName() + " at null ( 1 times )"), aggregator.groups().stream().map(FailureAggregator.Group::toString).collect(Collectors.toList()));
+    final IllegalStateException failure = new IllegalStateException();
+    IntStream.range(0, 3).forEach((i) -> aggregator.accept(failure));
+    assertEquals(failure.getStackTrace()[0], aggregator.groups().get(0).frame());
+    assertEquals(3, aggregator.groups().get(0).count());
+  }
+
+  @Test
+  public void testOverflow() {
+    final FailureAggregator aggregator = FailureAggregator.of(2);
+    IntStream.range(0, 10).mapToObj((i) -> new StacklessFailure(Character.toString('a' + i))).forEach(aggregator);
+    final Throwable exemplar = aggregator.groups().get(0).exemplar();
+    aggregator.accept(exemplar);
+    assertEquals(2, aggregator.groups().size());
+    assertEquals(8, aggregator.overflow());
+    assertEquals(11, aggregator.total());
+    assertSame(exemplar, aggregator.groups().get(0).exemplar());
+    assertEquals(2, aggregator.groups().get(0).count());
+    assertThrows(IllegalArgumentException.class, () -> FailureAggregator.of(0));
+    assertThrows(NullPointerException.class, () -> aggregator.accept(null));
+  }
+
+  @Test
+  public void testConcurrency() {
+    final FailureAggregator aggregator = FailureAggregator.of(4);
+    IntStream.range(0, 100000).parallel().mapToObj((i) -> new StacklessFailure(Integer.toString(i % 7 == 0 ? 0 : i % 5 + 'a'))).forEach(aggregator);
+    assertEquals(100000, aggregator.total());
+    assertTrue(aggregator.groups().size() <= 4);
+    assertFalse(aggregator.groups().isEmpty());
+  }
+
+  private static final class StacklessFailure extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private StacklessFailure(final String message) {
+      super(message, null, false, false);
+    }
+  }
+}
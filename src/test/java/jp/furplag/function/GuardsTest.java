@@ -0,0 +1,202 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import jp.furplag.function.Trebuchet.TriFunction;
+
+public class GuardsTest {
+
+  @Test
+  public void testFunction() {
+    final ThrowableFunction<String, Integer> parser = ThrowableFunction.of(ThrowableFunction.of(Integer::valueOf, (t, e) -> Integer.valueOf(t, 16)), (t, e) -> -1);
+    assertTrue(parser instanceof Guards.FunctionGuard);
+    assertEquals(2, ((Guards.FunctionGuard<String, Integer>) parser).fallbacks.length);
+    assertEquals(10, parser.apply("10"));
+    assertEquals(26, parser.apply("1a"));
+    assertEquals(-1, parser.apply("南無"));
+    final ThrowableFunction<String, Integer> nested = ThrowableFunction.of(ThrowableFunction.of(ThrowableFunction.<String, Integer, Throwable>of(Integer::valueOf, (t, e) -> Integer.valueOf(t, 16)), (String t, Throwable e) -> Integer.valueOf(t, 36)), (Function<String, Integer>) null);
+    assertEquals(3, ((Guards.FunctionGuard<String, Integer>) nested).fallbacks.length);
+    assertEquals(1565, nested.apply("17h"));
+    assertEquals((Integer) null, nested.apply("南無"));
+    assertThrows(NumberFormatException.class, () -> ThrowableFunction.of(ThrowableFunction.<String, Integer, Throwable>of(Integer::valueOf, (t, e) -> Integer.valueOf(t, 16)), (String t, Throwable e) -> {throw new NumberFormatException();}).apply("南無"));
+    assertThrows(NullPointerException.class, () -> ThrowableFunction.of(null, (BiFunction<Object, Throwable, Object>) null));
+  }
+
+  @Test
+  public void testBiFunction() {
+    final ThrowableBiFunction<String, Integer, Integer> parser = ThrowableBiFunction.of(ThrowableBiFunction.of(Integer::valueOf, (t, u, e) -> Integer.valueOf(t)), (t, u, e) -> -1);
+    assertEquals(2, ((Guards.BiFunctionGuard<String, Integer, Integer>) parser).fallbacks.length);
+    assertEquals(26, parser.apply("1a", 16));
+    assertEquals(10, parser.apply("10", 1));
+    assertEquals(-1, parser.apply("南無", 16));
+    assertEquals(-1, ThrowableBiFunction.of(parser, (TriFunction<String, Integer, Throwable, Integer>) null).apply("南無", 16));
+  }
+
+  @Test
+  public void testTriFunction() {
+    final ThrowableTriFunction<Integer, Integer, Integer, Integer> divider = ThrowableTriFunction.of(ThrowableTriFunction.of((t, u, v) -> (t + u) / v, (e) -> {throw new IllegalStateException(e);}), (e) -> e instanceof IllegalStateException ? -1 : 0);
+    assertEquals(2, ((Guards.TriFunctionGuard<Integer, Integer, Integer, Integer>) divider).fallbacks.length);
+    assertEquals(3, divider.apply(1, 2, 1));
+    assertEquals(-1, divider.apply(1, 2, 0));
+  }
+
+  @Test
+  public void testPredicate() {
+    final ThrowablePredicate<Integer> isOdd = ThrowablePredicate.of(ThrowablePredicate.of((t) -> t % 2 != 0, (Integer t, Throwable e) -> {throw new IllegalStateException(e);}), (Integer t, Throwable e) -> e.getCause() instanceof NullPointerException);
+    assertTrue(isOdd instanceof Guards.PredicateGuard);
+    assertEquals(2, ((Guards.PredicateGuard<Integer>) isOdd).fallbacks.length);
+    assertTrue(isOdd.test(1));
+    assertFalse(isOdd.test(2));
+    assertTrue(isOdd.test(null));
+    assertThrows(UnsupportedOperationException.class, () -> isOdd.andThen((t) -> !t));
+    assertFalse(ThrowablePredicate.of((Integer t) -> (Boolean) null, (t, e) -> false).test(1));
+    assertTrue(ThrowableBiPredicate.of(ThrowableBiPredicate.<Integer, Integer>of((t, u) -> t / u > 0, (t, u) -> {throw new IllegalStateException();}), (t, u, e) -> e instanceof IllegalStateException).test(1, 0));
+    assertTrue(ThrowableTriPredicate.of(ThrowableTriPredicate.<Integer, Integer, Integer>of((t, u, v) -> (t + u) / v > 0, (t, u, v) -> {throw new IllegalStateException();}), (e) -> e instanceof IllegalStateException).test(1, 0, 0));
+  }
+
+  @Test
+  public void testConsumer() {
+    final List<String> list = new ArrayList<>();
+    final ThrowableConsumer<String> consumer = ThrowableConsumer.of(ThrowableConsumer.<String, Throwable>of((t) -> list.add(Integer.valueOf(t).toString()), (t, e) -> list.add(Integer.valueOf(t, 16).toString())), (t, e) -> list.add(e.getClass().getSimpleName()));
+    assertEquals(2, ((Guards.ConsumerGuard<String>) consumer).fallbacks.length);
+    consumer.accept("10");
+    consumer.accept("1a");
+    consumer.accept("南無");
+    assertArrayEquals(new String[] { "10", "26", "NumberFormatException" }, list.toArray(String[]::new));
+
+    final ThrowableBiConsumer<String, Integer> biConsumer = ThrowableBiConsumer.of(ThrowableBiConsumer.<String, Integer, Throwable>of((t, u) -> list.add(Integer.valueOf(t, u).toString()), (t, u, e) -> {throw new IllegalStateException(e);}), (t, u) -> list.add("fallen"));
+    list.clear();
+    biConsumer.accept("1a", 16);
+    biConsumer.accept("1a", 10);
+    assertArrayEquals(new String[] { "26", "fallen" }, list.toArray(String[]::new));
+
+    final ThrowableTriConsumer<Integer, Integer, Integer> triConsumer = ThrowableTriConsumer.of(ThrowableTriConsumer.<Integer, Integer, Integer, Throwable>of((t, u, v) -> list.add(String.valueOf((t + u) / v)), (e) -> {throw new IllegalStateException(e);}), (t, u, v) -> list.add("fallen"));
+    list.clear();
+    triConsumer.accept(1, 2, 1);
+    triConsumer.accept(1, 2, 0);
+    assertArrayEquals(new String[] { "3", "fallen" }, list.toArray(String[]::new));
+  }
+
+  @Test
+  public void testAndThen() {
+    final List<Integer> list = new ArrayList<>();
+    ThrowableConsumer<Integer> consumer = list::add;
+    for (int i = 1; i < 1000; i++) {
+      final int increment = i;
+      consumer = consumer.andThen((t) -> list.add(t + increment));
+    }
+    assertTrue(consumer instanceof Guards.ConsumerSequence);
+    consumer.accept(0);
+    assertEquals(1000, list.size());
+    assertEquals(999, list.get(999));
+    final Consumer<Integer> failure = consumer.andThen((t) -> list.add(t / 0));
+    final StackTraceElement[] stackTrace = assertThrows(ArithmeticException.class, () -> failure.accept(0)).getStackTrace();
+    assertTrue(stackTrace.length < 1000, "the stack must stay shallow .");
+
+    ThrowableBiConsumer<Integer, Integer> biConsumer = (t, u) -> list.add(t + u);
+    for (int i = 0; i < 1000; i++) {
+      biConsumer = biConsumer.andThen(null);
+    }
+    list.clear();
+    biConsumer.accept(1, 2);
+    assertArrayEquals(new Integer[] { 3 }, list.toArray(Integer[]::new));
+
+    ThrowableTriConsumer<Integer, Integer, Integer> triConsumer = (t, u, v) -> list.add(t + u + v);
+    triConsumer = triConsumer.andThen((t, u, v) -> list.add(t * u * v)).andThen((t, u, v) -> list.add(-1));
+    list.clear();
+    triConsumer.accept(1, 2, 3);
+    assertArrayEquals(new Integer[] { 6, 6, -1 }, list.toArray(Integer[]::new));
+
+    final ThrowableFunction<Integer, Integer> function = ThrowableFunction.of((Integer x) -> 100 / x, (t, e) -> -1);
+    assertTrue(function.andThen((x) -> x * 2) instanceof ThrowablePipeline);
+    assertEquals(100, function.andThen((x) -> x * 2).apply(2));
+    assertEquals(-2, function.andThen((x) -> x * 2).apply(0));
+    assertTrue(ThrowableBiFunction.<Integer, Integer, Integer>of((t, u) -> t / u, (t, u) -> -1).andThen((x) -> x * 2) instanceof ThrowablePipeline.Bi);
+    assertTrue(ThrowableTriFunction.<Integer, Integer, Integer, Integer>of((t, u, v) -> t / u / v, (t, u, v) -> -1).andThen((x) -> x * 2) instanceof ThrowablePipeline.Tri);
+    assertSame(null, function.andThen(null).apply(2));
+  }
+
+  @Test
+  public void testGuardedBy() {
+    final AtomicInteger thrown = new AtomicInteger();
+    final AtomicInteger prechecked = new AtomicInteger();
+    final ThrowableFunction<String, Integer> parser = ThrowableFunction.<String, Integer, Throwable>of((t) -> {
+      try {
+        return Integer.valueOf(t);
+      } catch (NumberFormatException e) {
+        thrown.incrementAndGet();
+        throw e;
+      }
+    }, (t, e) -> -1).guardedBy((t) -> {
+      prechecked.incrementAndGet();
+      return t.chars().allMatch(Character::isDigit);
+    });
+    final List<String> dirty = IntStream.range(0, 10000).mapToObj((i) -> i % 10 < 3 ? "南無" + i : Integer.toString(i)).collect(Collectors.toList());
+    assertEquals(dirty.stream().map((t) -> ThrowableFunction.orDefault(t, Integer::valueOf, -1)).collect(Collectors.toList()), dirty.stream().map(parser).collect(Collectors.toList()));
+    assertTrue(thrown.get() < 3000 / 10, "exceptions must be avoided, but thrown " + thrown.get() + " times .");
+    assertTrue(prechecked.get() > 9000);
+
+    prechecked.set(0);
+    IntStream.range(0, 10000).mapToObj(Integer::toString).map(parser).forEach((x) -> {});
+    assertTrue(prechecked.get() < 1000, "the precheck must stop while no failure, but evaluated " + prechecked.get() + " times .");
+
+    final ThrowableFunction<String, Integer> function = Integer::valueOf;
+    assertThrows(IllegalArgumentException.class, () -> function.guardedBy((t) -> true));
+    assertThrows(IllegalArgumentException.class, () -> ((ThrowableBiFunction<Integer, Integer, Integer>) (t, u) -> t / u).guardedBy((t, u) -> u != 0));
+    assertThrows(IllegalArgumentException.class, () -> ((ThrowablePredicate<Integer>) (x) -> 10 % x == 0).guardedBy((x) -> x != 0));
+    assertThrows(NullPointerException.class, () -> parser.guardedBy(null));
+    assertThrows(IllegalArgumentException.class, () -> Trebuchet.specialize(parser, (t, e) -> -1).guardedBy((t) -> true), "only the function which of(...) returns may be guarded .");
+    assertEquals(1, ThrowableFunction.of(parser, (t, e) -> -2).guardedBy((t) -> false).apply("1"), "the precheck never runs until failures become frequent .");
+  }
+
+  @Test
+  public void testGuardedByPredicate() {
+    final AtomicInteger thrown = new AtomicInteger();
+    final ThrowablePredicate<Integer> divisible = ThrowablePredicate.<Integer, Throwable>of((x) -> {
+      if (x == 0) {
+        thrown.incrementAndGet();
+      }
+      return 10 % x == 0;
+    }, (x, e) -> e instanceof RejectedException && ((RejectedException) e).getArguments().equals(List.of(x))).guardedBy((x) -> x != 0);
+    assertTrue(divisible instanceof Guards.PredicateGuard);
+    final long count = IntStream.range(0, 10000).map((i) -> i % 2 == 0 ? 0 : 5).boxed().filter(divisible).count();
+    assertTrue(count >= 5000, "odd elements and rejected zeros must pass, but " + count + " .");
+    assertTrue(thrown.get() < 500);
+
+    final ThrowableBiFunction<Integer, Integer, Integer> divide = ThrowableBiFunction.<Integer, Integer, Integer>of((t, u) -> t / u, (t, u) -> -1).guardedBy((t, u) -> u != 0);
+    assertArrayEquals(IntStream.range(0, 1000).map((i) -> i % 2 == 0 ? -1 : i).toArray(), IntStream.range(0, 1000).map((i) -> divide.apply(i, i % 2)).toArray());
+    final ThrowableTriFunction<Integer, Integer, Integer, Integer> triDivide = ThrowableTriFunction.<Integer, Integer, Integer, Integer>of((t, u, v) -> t / u / v, (t, u, v) -> -1).guardedBy((t, u, v) -> u * v != 0);
+    assertArrayEquals(IntStream.range(0, 1000).map((i) -> i % 2 == 0 ? -1 : i).toArray(), IntStream.range(0, 1000).map((i) -> triDivide.apply(i, i % 2, 1)).toArray());
+    assertTrue(ThrowableTriPredicate.<Integer, Integer, Integer>of((t, u, v) -> t / u > v, (t, u, v) -> false).guardedBy((t, u, v) -> u != 0) instanceof Guards.TriPredicateGuard);
+    assertTrue(ThrowableBiPredicate.<Integer, Integer>of((t, u) -> t / u > 0, (t, u) -> false).guardedBy((t, u) -> u != 0) instanceof Guards.BiPredicateGuard);
+  }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * runs representative calls in a child JVM with {@code -XX:+PrintInlining} ,
+ * and asserts that the one-line default methods and the bodies of lambdas inline into the caller .
+ *
+ * <p>the default methods must stay within {@code MaxInlineSize}, so that they inline even at call sites which are not hot yet .
+ * the wrapper which {@code of(...)} returns must inline into hot call sites . skipped on the VM which is not HotSpot .</p>
+ *
+ * @author furplag
+ *
+ */
+public class InliningTest {
+
+  /** the default methods which must inline . */
+  private static final List<String> DEFAULTS = List.of(
+    "ThrowableFunction::apply", "ThrowableBiFunction::apply", "ThrowableTriFunction::apply"
+  , "ThrowablePredicate::test", "ThrowableBiPredicate::test", "ThrowableTriPredicate::test"
+  , "ThrowableConsumer::accept", "ThrowableBiConsumer::accept", "ThrowableTriConsumer::accept"
+  );
+
+  /** the methods of the wrapper which {@code of(...)} returns, which must inline into hot call sites . */
+  private static final List<String> WRAPPERS = List.of("Guards$FunctionGuard::applyOrThrow", "Guards$FunctionGuard::invoke");
+
+  /** a line of the output of {@code -XX:+PrintInlining} . */
+  private static final Pattern INLINING = Pattern.compile("@ \\d+\\s+(\\S+)::(\\w+) \\((\\d+) bytes\\)\\s+(.*)$");
+
+  /** the number of calls in each scenario . */
+  private static final int CALLS = 200_000;
+
+  @Test
+  public void test() throws Exception {
+    assumeFalse(System.getProperty("java.vm.info", "").contains("interpreted"), "JIT is disabled .");
+    final int maxInlineSize = maxInlineSize();
+    assumeTrue(maxInlineSize > 0, "not a HotSpot VM .");
+    final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    final Process process = new ProcessBuilder(java, "-XX:+UnlockDiagnosticVMOptions", "-XX:+PrintInlining", "-cp", System.getProperty("java.class.path"), InliningTest.class.getName()).redirectErrorStream(true).start();
+    final Map<String, List<String>> observed = new TreeMap<>();
+    final List<String> lambdas = new ArrayList<>();
+    final List<String> oversized = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        final Matcher matcher = INLINING.matcher(line);
+        if (!matcher.find()) {
+          continue;
+        }
+        final String owner = matcher.group(1).replace('/', '.');
+        final String method = owner.replaceAll("^.*\\.", "") + "::" + matcher.group(2);
+        if (owner.startsWith(InliningTest.class.getName() + "$$Lambda") && matcher.group(2).matches("(apply|accept)OrThrow")) {
+          lambdas.add(matcher.group(4));
+        } else if (DEFAULTS.contains(method)) {
+          if (Integer.parseInt(matcher.group(3)) > maxInlineSize) {
+            oversized.add(method + " ( " + matcher.group(3) + " bytes )");
+          }
+          observed.computeIfAbsent(method, (k) -> new ArrayList<>()).add(matcher.group(4));
+        } else if (WRAPPERS.contains(method)) {
+          observed.computeIfAbsent(method, (k) -> new ArrayList<>()).add(matcher.group(4));
+        }
+      }
+    }
+    assertTrue(process.waitFor() == 0, "the child JVM has failed .");
+    assertTrue(oversized.isEmpty(), "over MaxInlineSize ( " + maxInlineSize + " bytes ): " + oversized.stream().distinct().collect(Collectors.toList()));
+    for (String method : Stream.concat(DEFAULTS.stream(), WRAPPERS.stream()).collect(Collectors.toList())) {
+      final List<String> reasons = observed.getOrDefault(method, List.of());
+      assertFalse(reasons.isEmpty(), method + " has never compiled .");
+      assertFalse(reasons.stream().anyMatch(InliningTest::isTooBig), method + " did not inline: " + reasons);
+      assertTrue(reasons.stream().anyMatch((reason) -> reason.startsWith("inline")), method + " did not inline: " + reasons);
+    }
+    assertFalse(lambdas.isEmpty(), "bodies of lambdas have never compiled .");
+    assertFalse(lambdas.stream().anyMatch(InliningTest::isTooBig), "bodies of lambdas did not inline: " + lambdas.stream().distinct().collect(Collectors.toList()));
+  }
+
+  /**
+   * returns {@code MaxInlineSize} of the VM .
+   *
+   * @return {@code MaxInlineSize}, or -1 if the VM does not provide HotSpot diagnostics
+   */
+  private static int maxInlineSize() {
+    try {
+      final HotSpotDiagnosticMXBean diagnostic = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+
+      return diagnostic == null ? -1 : Integer.parseInt(diagnostic.getVMOption("MaxInlineSize").getValue());
+    } catch (IllegalArgumentException | LinkageError e) {
+      return -1;
+    }
+  }
+
+  /**
+   * returns whether the reason of inlining says that the method is too big .
+   *
+   * @param reason the reason of inlining
+   * @return true if the method is too big to inline
+   */
+  private static boolean isTooBig(final String reason) {
+    return reason.contains("too big") || reason.contains("too large");
+  }
+
+  /**
+   * runs the scenarios in the child JVM .
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    final ThrowableFunction<String, Integer> function = String::length;
+    final ThrowableBiFunction<String, Integer, Integer> biFunction = (t, u) -> t.length() + u;
+    final ThrowableTriFunction<String, Integer, Integer, Integer> triFunction = (t, u, v) -> t.length() + u + v;
+    final ThrowablePredicate<String> predicate = (t) -> t.length() > 2;
+    final ThrowableBiPredicate<String, Integer> biPredicate = (t, u) -> t.length() > u;
+    final ThrowableTriPredicate<String, Integer, Integer> triPredicate = (t, u, v) -> t.length() > u + v;
+    final long[] sink = new long[1];
+    final ThrowableConsumer<String> consumer = (t) -> sink[0] += t.length();
+    final ThrowableBiConsumer<String, Integer> biConsumer = (t, u) -> sink[0] += t.length() + u;
+    final ThrowableTriConsumer<String, Integer, Integer> triConsumer = (t, u, v) -> sink[0] += t.length() + u + v;
+    final ThrowableFunction<String, Integer> guarded = ThrowableFunction.of(String::length, (String t, Throwable e) -> -1);
+    long sum = 0;
+    for (int i = 0; i < CALLS; i++) {
+      final String t = Integer.toString(i & 0xFFF);
+      sum += function(function, t) + biFunction(biFunction, t, i) + triFunction(triFunction, t, i, 1);
+      sum += (predicate(predicate, t) ? 1 : 0) + (biPredicate(biPredicate, t, 2) ? 1 : 0) + (triPredicate(triPredicate, t, 1, 1) ? 1 : 0);
+      consumer(consumer, t);
+      biConsumer(biConsumer, t, i);
+      triConsumer(triConsumer, t, i, 1);
+      sum += guarded(guarded, t);
+    }
+    System.out.println(sum + sink[0]);
+  }
+
+  private static int function(final ThrowableFunction<String, Integer> function, final String t) {
+    return function.apply(t);
+  }
+
+  private static int guarded(final ThrowableFunction<String, Integer> function, final String t) {
+    return function.apply(t);
+  }
+
+  private static int biFunction(final ThrowableBiFunction<String, Integer, Integer> function, final String t, final int u) {
+    return function.apply(t, u);
+  }
+
+  private static int triFunction(final ThrowableTriFunction<String, Integer, Integer, Integer> function, final String t, final int u, final int v) {
+    return function.apply(t, u, v);
+  }
+
+  private static boolean predicate(final ThrowablePredicate<String> predicate, final String t) {
+    return predicate.test(t);
+  }
+
+  private static boolean biPredicate(final ThrowableBiPredicate<String, Integer> predicate, final String t, final int u) {
+    return predicate.test(t, u);
+  }
+
+  private static boolean triPredicate(final ThrowableTriPredicate<String, Integer, Integer> predicate, final String t, final int u, final int v) {
+    return predicate.test(t, u, v);
+  }
+
+  private static void consumer(final ThrowableConsumer<String> consumer, final String t) {
+    consumer.accept(t);
+  }
+
+  private static void biConsumer(final ThrowableBiConsumer<String, Integer> consumer, final String t, final int u) {
+    consumer.accept(t, u);
+  }
+
+  private static void triConsumer(final ThrowableTriConsumer<String, Integer, Integer> consumer, final String t, final int u, final int v) {
+    consumer.accept(t, u, v);
+  }
+}
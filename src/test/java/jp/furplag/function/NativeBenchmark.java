@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * compares the throughput and the startup of typical {@link ThrowableFunction#of(ThrowableFunction, java.util.function.BiFunction)} pipelines,
+ * between a native image and the JVM .
+ *
+ * <pre>
+ * mvn -Pnative -DskipTests package
+ * java -cp target/classes:target/test-classes jp.furplag.function.NativeBenchmark -compare target/trebuchet-benchmark
+ * </pre>
+ *
+ * @author furplag
+ *
+ */
+public class NativeBenchmark {
+
+  /** the number of inputs . */
+  private static final int SIZE = 1 << 16;
+
+  /** the number of rounds . */
+  private static final int ROUNDS = 50;
+
+  public static void main(String[] args) throws Exception {
+    if (args.length > 1 && "-compare".equals(args[0])) {
+      compare(Paths.get(args[1]));
+
+      return;
+    }
+    final String[] inputs = IntStream.range(0, SIZE).mapToObj((i) -> i % 10 == 0 ? "南無" + i : Integer.toString(i)).toArray(String[]::new);
+    final long started = System.nanoTime();
+    final ThrowableFunction<String, Integer> parser = ThrowableFunction.of(Integer::valueOf, (String t, Throwable e) -> -1);
+    final ThrowableFunction<String, String> pipeline = parser.andThen((x) -> x * 2).andThen(Object::toString);
+    final String first = pipeline.apply(inputs[1]);
+    final long firstCall = System.nanoTime() - started;
+
+    long sum = first.length();
+    final long measured = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      for (String input : inputs) {
+        sum += parser.apply(input) + pipeline.apply(input).length() + ThrowableFunction.orDefault(input, Integer::valueOf, 0);
+      }
+    }
+    final double seconds = (System.nanoTime() - measured) / 1e9d;
+    System.out.printf("%s first-call(us)=%.1f throughput(ops/s)=%.0f checksum=%d%n", System.getProperty("org.graalvm.nativeimage.imagecode") != null ? "native" : "jvm", firstCall / 1000d, 3d * SIZE * ROUNDS / seconds, sum);
+  }
+
+  /**
+   * runs this benchmark on the JVM and as a native image, then prints results of each .
+   *
+   * @param image the path of native image
+   * @throws Exception anything thrown
+   */
+  private static void compare(final Path image) throws Exception {
+    final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    run(List.of(java, "-cp", System.getProperty("java.class.path"), NativeBenchmark.class.getName()));
+    if (Files.isExecutable(image)) {
+      run(List.of(image.toString()));
+    } else {
+      System.out.println("native image not found: " + image + " (build with: mvn -Pnative -DskipTests package)");
+    }
+  }
+
+  /**
+   * runs the specified command, then prints its output with the wall-clock time including startup .
+   *
+   * @param command the command
+   * @throws Exception anything thrown
+   */
+  private static void run(final List<String> command) throws Exception {
+    final long started = System.nanoTime();
+    final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      final String result = reader.readLine();
+      process.waitFor();
+      System.out.printf("%s wall(ms)=%.1f%n", result, (System.nanoTime() - started) / 1e6d);
+    }
+  }
+}
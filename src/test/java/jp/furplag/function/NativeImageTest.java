@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+public class NativeImageTest {
+
+  private static final String METADATA = "META-INF/native-image/jp.furplag.sandbox/trebuchet/";
+
+  private static String read(final String name) throws IOException {
+    try (InputStream in = NativeImageTest.class.getClassLoader().getResourceAsStream(METADATA + name)) {
+      assertNotNull(in, name);
+
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void test() throws IOException {
+    final String reflectConfig = read("reflect-config.json");
+    for (Class<?> template : new Class<?>[] { SpecializedFunction.class, SpecializedBiFunction.class, SpecializedTriFunction.class }) {
+      final Constructor<?> constructor = template.getDeclaredConstructors()[0];
+      final String parameterTypes = Arrays.stream(constructor.getParameterTypes()).map((x) -> "\"" + x.getName() + "\"").collect(Collectors.joining(", ", "[", "]"));
+      assertTrue(reflectConfig.contains("\"name\": \"" + template.getName() + "\""), template.getName());
+      assertTrue(reflectConfig.contains(parameterTypes), template.getName() + parameterTypes);
+    }
+  }
+
+  @Test
+  public void testTranslations() throws IOException, ClassNotFoundException {
+    final Matcher matcher = Pattern.compile("\"name\": \"([^\"]+)\",\\s+\"queryAllDeclaredConstructors\": true,\\s+\"allDeclaredConstructors\": true").matcher(read("reflect-config.json"));
+    final IOException cause = new IOException("南無");
+    int registered = 0;
+    while (matcher.find()) {
+      final Class<? extends Throwable> type = Class.forName(matcher.group(1)).asSubclass(Throwable.class);
+      final Throwable translation = Trebuchet.translate(cause, type);
+      assertTrue(type.isInstance(translation), type.getName());
+      assertEquals("南無", translation.getMessage(), type.getName());
+      registered++;
+    }
+    assertTrue(registered > 0);
+  }
+
+  @Test
+  public void testInitializeAtBuildTime() throws IOException, ClassNotFoundException {
+    final Matcher matcher = Pattern.compile("--initialize-at-build-time=(\\S+)").matcher(read("native-image.properties"));
+    assertTrue(matcher.find());
+    final String[] classes = matcher.group(1).split(",");
+    for (String className : classes) {
+      assertNotNull(Class.forName(className));
+    }
+    assertEquals(Stream.of(Fallbacks.class.getDeclaredClasses()).map(Class::getName).sorted().collect(Collectors.toList()), Stream.of(classes).filter((x) -> x.contains("$")).sorted().collect(Collectors.toList()));
+  }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PlatformTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  public void test() throws Throwable {
+    assertNotNull(Platform.executor());
+    assertEquals("南無阿弥陀仏", CompletableFuture.supplyAsync(() -> "南無阿弥陀仏", Platform.executor()).get());
+    assertEquals(Runtime.version().feature() >= 15, Platform.isHiddenClassSupported());
+    if (!Platform.isHiddenClassSupported()) {
+      assertThrows(UnsupportedOperationException.class, () -> Platform.defineHiddenClass(MethodHandles.lookup(), new byte[0]));
+    } else {
+      final byte[] bytes = SpecializedFunction.class.getResourceAsStream(SpecializedFunction.class.getSimpleName() + ".class").readAllBytes();
+      assertNotEquals(SpecializedFunction.class, Platform.defineHiddenClass(MethodHandles.lookup(), bytes));
+      assertEquals(SpecializedFunction.class.getName(), Platform.defineHiddenClass(MethodHandles.lookup(), bytes).getName().replaceAll("/.*$", ""));
+    }
+  }
+
+  @Test
+  public void testVirtual() throws Throwable {
+    assertFalse(Platform.isVirtual(), "overlays are not loaded from the classes directory .");
+    assertTrue(CompletableFuture.supplyAsync(() -> Thread.currentThread().isDaemon(), Platform.executor()).get());
+    assertTrue(CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), Platform.executor()).get().startsWith("trebuchet-"));
+  }
+
+  @Test
+  public void testOverlays() throws Throwable {
+    final Path classes = Paths.get(Platform.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    final int feature = Runtime.version().feature();
+    assumeTrue(Files.isDirectory(classes.resolve("META-INF/versions/" + (feature >= 21 ? 21 : 17))), "overlays for the runtime are not built .");
+    final Path jar = jar(classes, dir.resolve("trebuchet.jar"));
+    final String classpath = Stream.concat(Stream.of(jar.toString()), Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator)).filter((path) -> !Paths.get(path).equals(classes))).collect(Collectors.joining(File.pathSeparator));
+    final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    final Process process = new ProcessBuilder(java, "-cp", classpath, PlatformTest.class.getName()).redirectErrorStream(true).start();
+    final List<String> lines = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      reader.lines().forEach(lines::add);
+    }
+    assertEquals(0, process.waitFor(), String.join("\n", lines));
+    assertEquals(List.of("overlay=true", "virtual=" + (feature >= 21), "hidden=true", "daemon=true"), lines);
+  }
+
+  /**
+   * packs the classes directory into a multi-release jar .
+   */
+  private static Path jar(final Path classes, final Path jar) throws IOException {
+    final Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().put(new Attributes.Name("Multi-Release"), "true");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest); Stream<Path> paths = Files.walk(classes)) {
+      for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+        out.putNextEntry(new JarEntry(classes.relativize(path).toString().replace(File.separatorChar, '/')));
+        Files.copy(path, out);
+        out.closeEntry();
+      }
+    }
+
+    return jar;
+  }
+
+  /**
+   * reports the behavior of {@link Platform} in the child JVM, which loads it from the multi-release jar .
+   *
+   * @param args unused
+   * @throws Throwable anything thrown
+   */
+  public static void main(String[] args) throws Throwable {
+    System.out.println("overlay=" + Arrays.stream(Platform.class.getDeclaredFields()).noneMatch((field) -> "DEFINE_HIDDEN_CLASS".equals(field.getName())));
+    System.out.println("virtual=" + Platform.isVirtual());
+    System.out.println("hidden=" + Platform.isHiddenClassSupported());
+    System.out.println("daemon=" + CompletableFuture.supplyAsync(() -> Thread.currentThread().isDaemon(), Platform.executor()).get());
+  }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class PredicateCompilerTest {
+
+  @Test
+  public void test() {
+    final ThrowablePredicate<Integer> even = (x) -> x % 2 == 0;
+    final ThrowablePredicate<Integer> positive = (x) -> x > 0;
+    final ThrowablePredicate<Integer> triple = (x) -> x % 3 == 0;
+    final ThrowablePredicate<Integer> small = (x) -> Math.abs(x) < 10;
+    final ThrowablePredicate<Integer> tree = even.and(positive.negate()).or(triple.and(small).negate()).and(small.or(even).negate().negate());
+    final ThrowablePredicate<Integer> compiled = PredicateCompiler.compile(tree);
+    IntStream.rangeClosed(-10000, 10000).forEach((x) -> assertEquals(tree.test(x), compiled.test(x), "x = " + x));
+    IntStream.rangeClosed(-10000, 10000).forEach((x) -> assertEquals(tree.test(x), compiled.test(x), "x = " + x));
+    assertSame(even, PredicateCompiler.compile(even));
+    assertThrows(NullPointerException.class, () -> PredicateCompiler.compile((ThrowablePredicate<Integer>) null));
+  }
+
+  @Test
+  public void testFlatten() {
+    final ThrowablePredicate<Integer> even = (x) -> x % 2 == 0;
+    final ThrowablePredicate<Integer> positive = (x) -> x > 0;
+    final ThrowablePredicate<Integer> conjunction = even.and(positive).and(even.and(positive)).and(even);
+    assertTrue(conjunction instanceof PredicateCompiler.Unary);
+    assertEquals(5, ((PredicateCompiler.Composite) conjunction).operands.length);
+    final ThrowablePredicate<Integer> deMorgan = even.negate().or(positive.negate()).negate().and(positive);
+    assertEquals(3, PredicateCompiler.Term.of(deMorgan, PredicateCompiler.Unary.class, (operand) -> (t, u, v) -> true).terms().length);
+  }
+
+  @Test
+  public void testReorder() {
+    final AtomicInteger expensive = new AtomicInteger();
+    final ThrowablePredicate<Integer> slow = (x) -> {
+      expensive.incrementAndGet();
+      long sum = 0;
+      for (int i = 0; i < 10000; i++) {
+        sum += Long.numberOfTrailingZeros(sum + i + x);
+      }
+
+      return sum > -1;
+    };
+    final ThrowablePredicate<Integer> selective = (x) -> x % 100 == 0;
+    final ThrowablePredicate<Integer> compiled = PredicateCompiler.compile(slow.and(selective));
+    IntStream.range(0, PredicateCompiler.SAMPLING * PredicateCompiler.REORDERING * 2).forEach(compiled::test);
+    expensive.set(0);
+    assertEquals(10, IntStream.range(0, 1000).filter(compiled::test).count());
+    assertTrue(expensive.get() < 100, "the selective term must run first, but the expensive one ran " + expensive.get() + " times .");
+  }
+
+  @Test
+  public void testUnsampled() {
+    final AtomicInteger expensive = new AtomicInteger();
+    final ThrowablePredicate<Integer> slow = (x) -> {
+      expensive.incrementAndGet();
+      long sum = 0;
+      for (int i = 0; i < 10000; i++) {
+        sum += Long.numberOfTrailingZeros(sum + i + x);
+      }
+
+      return sum > -1;
+    };
+    final ThrowablePredicate<Integer> selective = (x) -> x % 100 == 0;
+    final ThrowablePredicate<Integer> compiled = PredicateCompiler.compile(selective.and(slow));
+    final int evaluations = PredicateCompiler.SAMPLING * PredicateCompiler.REORDERING * 8;
+    assertEquals(evaluations / 100 + 1, IntStream.range(0, evaluations).filter(compiled::test).count());
+    assertEquals(evaluations / 100 + 1, expensive.get(), "the expensive term which is never sampled must stay behind the selective one .");
+  }
+
+  @Test
+  public void testConcurrent() {
+    final ThrowablePredicate<Integer> even = (x) -> x % 2 == 0;
+    final ThrowablePredicate<Integer> rare = (x) -> x % 97 == 0;
+    final ThrowablePredicate<Integer> positive = (x) -> x > 0;
+    final ThrowablePredicate<Integer> tree = rare.or(even.and(positive)).or(positive.negate().and(rare.negate()));
+    final ThrowablePredicate<Integer> compiled = PredicateCompiler.compile(tree);
+    final int evaluations = PredicateCompiler.SAMPLING * PredicateCompiler.REORDERING * 64;
+    assertEquals(IntStream.range(-evaluations, evaluations).filter(tree::test).count(), IntStream.range(-evaluations, evaluations).parallel().filter(compiled::test).count());
+  }
+
+  @Test
+  public void testFallen() {
+    final ThrowablePredicate<Integer> divisible = (x) -> 10 % x == 0;
+    final ThrowablePredicate<Integer> guarded = ThrowablePredicate.<Integer, Throwable>of(divisible, (x, e) -> false);
+    final ThrowablePredicate<Integer> compiled = PredicateCompiler.compile(guarded.and((x) -> x > 1).or((x) -> x < -100));
+    assertEquals(903, IntStream.rangeClosed(-1000, 10).boxed().filter(compiled).count());
+    assertThrows(ArithmeticException.class, () -> PredicateCompiler.compile(divisible.or((x) -> false)).test(0));
+  }
+
+  @Test
+  public void testBi() {
+    final ThrowableBiPredicate<Integer, Integer> greater = (x, y) -> x > y;
+    final ThrowableBiPredicate<Integer, Integer> divisible = ThrowableBiPredicate.<Integer, Integer>of((x, y) -> x % y == 0, (x, y) -> false);
+    final ThrowableBiPredicate<Integer, Integer> tree = greater.and(divisible).or(greater.or(divisible).negate());
+    final ThrowableBiPredicate<Integer, Integer> compiled = PredicateCompiler.compile(tree);
+    IntStream.rangeClosed(-100, 100).forEach((x) -> IntStream.rangeClosed(-10, 10).forEach((y) -> assertEquals(tree.test(x, y), compiled.test(x, y))));
+    assertSame(greater, PredicateCompiler.compile(greater));
+  }
+
+  @Test
+  public void testTri() {
+    final ThrowableTriPredicate<Integer, Integer, Integer> between = (x, y, z) -> y <= x && x <= z;
+    final ThrowableTriPredicate<Integer, Integer, Integer> sum = (x, y, z) -> x + y + z > 0;
+    final ThrowableTriPredicate<Integer, Integer, Integer> tree = between.negate().and(sum).or(between.and(sum.negate()));
+    final ThrowableTriPredicate<Integer, Integer, Integer> compiled = PredicateCompiler.compile(tree);
+    IntStream.rangeClosed(-20, 20).forEach((x) -> IntStream.rangeClosed(-5, 5).forEach((y) -> IntStream.rangeClosed(-5, 5).forEach((z) -> assertEquals(tree.test(x, y, z), compiled.test(x, y, z)))));
+    assertSame(between, PredicateCompiler.compile(between));
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+public class RecentFailuresTest {
+
+  @Test
+  public void test() {
+    final RecentFailures recent = RecentFailures.of(8);
+    final ThrowableFunction<String, Integer> parser = ThrowableFunction.of(Integer::valueOf, recent.function("parser"));
+    assertEquals(List.of(), recent.snapshot());
+    assertEquals(5, IntStream.range(0, 10).mapToObj((i) -> i % 2 == 0 ? "南無" + i : Integer.toString(i)).map(parser).filter((x) -> x == null).count());
+    final List<RecentFailures.Entry> entries = recent.snapshot();
+    assertEquals(List.of("南無0", "南無2", "南無4", "南無6", "南無8"), entries.stream().map(RecentFailures.Entry::input).collect(Collectors.toList()));
+    assertEquals(List.of(0L, 1L, 2L, 3L, 4L), entries.stream().map(RecentFailures.Entry::sequence).collect(Collectors.toList()));
+    assertTrue(entries.stream().allMatch((entry) -> "parser".equals(entry.name()) && entry.failure() instanceof NumberFormatException));
+    assertTrue(!entries.get(0).time().isAfter(Instant.now()));
+    assertTrue(entries.get(0).toString().startsWith("#0 "));
+    assertEquals("RecentFailures(capacity=8, published=5)", recent.toString());
+  }
+
+  @Test
+  public void testOverwrite() {
+    final RecentFailures recent = RecentFailures.of(5);
+    assertEquals(8, recent.capacity());
+    final ThrowableConsumer<Integer> consumer = ThrowableConsumer.of((Integer x) -> System.out.print(10 / x), recent.consumer("divide"));
+    IntStream.range(0, 20).map((i) -> 0).boxed().forEach(consumer);
+    assertEquals(0, IntStream.range(0, 3).map((i) -> 0).boxed().filter(ThrowablePredicate.of((Integer x) -> 10 / x > 0, recent.predicate("positive"))).count());
+    assertEquals(23, recent.published());
+    final List<RecentFailures.Entry> entries = recent.snapshot();
+    assertEquals(LongStream.range(15, 23).boxed().collect(Collectors.toList()), entries.stream().map(RecentFailures.Entry::sequence).collect(Collectors.toList()));
+    assertEquals(List.of("divide", "divide", "divide", "divide", "divide", "positive", "positive", "positive"), entries.stream().map(RecentFailures.Entry::name).collect(Collectors.toList()));
+    assertEquals(8, recent.snapshot(Duration.ofMinutes(1)).size());
+    assertEquals(0, recent.snapshot(Duration.ofMillis(-1000)).size());
+  }
+
+  @Test
+  public void testConcurrently() {
+    final RecentFailures recent = RecentFailures.of();
+    IntStream.range(0, 100000).parallel().forEach((i) -> recent.publish("parallel", i, new IllegalStateException()));
+    assertEquals(100000, recent.published());
+    final List<RecentFailures.Entry> entries = recent.snapshot();
+    assertEquals(RecentFailures.DEFAULT_CAPACITY, entries.size());
+    assertEquals(LongStream.range(100000 - RecentFailures.DEFAULT_CAPACITY, 100000).boxed().collect(Collectors.toList()), entries.stream().map(RecentFailures.Entry::sequence).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testStalled() throws InterruptedException {
+    final RecentFailures recent = RecentFailures.of(2);
+    final CountDownLatch claimed = new CountDownLatch(1);
+    final CountDownLatch lapped = new CountDownLatch(1);
+    final Object stalling = new Object() {
+      @Override
+      public String toString() {
+        claimed.countDown();
+        try {
+          lapped.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+
+        return "stalled";
+      }
+    };
+    final Thread stalled = new Thread(() -> recent.publish("stalled", stalling, new IllegalStateException()));
+    stalled.start();
+    claimed.await();
+    recent.publish("lapping", 1, new IllegalStateException());
+    recent.publish("lapping", 2, new IllegalStateException());
+    lapped.countDown();
+    stalled.join();
+    assertEquals(List.of(1L, 2L), recent.snapshot().stream().map(RecentFailures.Entry::sequence).collect(Collectors.toList()), "the stalled publisher must not overwrite the newer entry .");
+  }
+
+  @Test
+  public void testSummary() {
+    assertEquals("null", RecentFailures.summary(null));
+    assertEquals(RecentFailures.MAX_SUMMARY, RecentFailures.summary("南無".repeat(RecentFailures.MAX_SUMMARY)).length());
+    final Object unprintable = new Object() {
+      @Override
+      public String toString() {
+        throw new UnsupportedOperationException();
+      }
+    };
+    assertTrue(RecentFailures.summary(unprintable).endsWith("( " + UnsupportedOperationException.class.getName() + " )"));
+  }
+
+  @Test
+  public void testInvalid() {
+    assertEquals(1, RecentFailures.of(1).capacity());
+    assertEquals(1024, RecentFailures.of(1000).capacity());
+    assertThrows(IllegalArgumentException.class, () -> RecentFailures.of(0));
+    assertThrows(IllegalArgumentException.class, () -> RecentFailures.of((1 << 30) + 1));
+    assertThrows(NullPointerException.class, () -> RecentFailures.of().publish("南無", null, null));
+  }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+public class StacklessExceptionTest {
+
+  @Test
+  public void test() {
+    final IOException cause = new IOException("南無");
+    final StacklessException carrier = new StacklessException(cause);
+    assertSame(cause, carrier.getCause());
+    assertEquals(cause.toString(), carrier.getMessage());
+    assertEquals(0, carrier.getStackTrace().length);
+    assertTrue(cause.getStackTrace().length > 0);
+    carrier.addSuppressed(new IllegalStateException());
+    assertEquals(0, carrier.getSuppressed().length);
+    carrier.fillInStackTrace();
+    assertEquals(0, carrier.getStackTrace().length);
+
+    assertNull(new StacklessException((Throwable) null).getMessage());
+    assertEquals("南無阿弥陀仏", new StacklessException("南無阿弥陀仏").getMessage());
+    assertNull(new StacklessException("南無阿弥陀仏").getCause());
+    assertTrue(new RejectedException(1) instanceof StacklessException);
+  }
+}
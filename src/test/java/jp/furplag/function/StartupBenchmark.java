@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * measures the time-to-first-call and the number of classes loaded by the first call, in a fresh JVM for each run .
+ *
+ * <pre>java -cp target/classes:target/test-classes jp.furplag.function.StartupBenchmark [runs] [scenarios...]</pre>
+ *
+ * @author furplag
+ *
+ */
+public class StartupBenchmark {
+
+  /** scenarios . */
+  private static final List<String> SCENARIOS = List.of("function.of", "function.orNull", "predicate.orNot", "consumer.orNot", "function.andThen");
+
+  public static void main(String[] args) throws Exception {
+    if (args.length > 1 && "-child".equals(args[0])) {
+      child(args[1]);
+
+      return;
+    }
+    final int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+    final List<String> scenarios = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : SCENARIOS;
+    final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    System.out.printf("%-20s %12s %12s%n", "scenario", "median(us)", "classes");
+    for (String scenario : scenarios) {
+      final long[] nanos = new long[runs];
+      long classes = 0;
+      for (int i = 0; i < runs; i++) {
+        final Process process = new ProcessBuilder(java, "-Xshare:auto", "-cp", System.getProperty("java.class.path"), StartupBenchmark.class.getName(), "-child", scenario).redirectErrorStream(true).start();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+          final String[] result = reader.readLine().split(" ");
+          nanos[i] = Long.parseLong(result[0]);
+          classes = Long.parseLong(result[1]);
+        }
+        process.waitFor();
+      }
+      Arrays.sort(nanos);
+      System.out.printf("%-20s %12.1f %12d%n", scenario, nanos[runs / 2] / 1000d, classes);
+    }
+  }
+
+  /**
+   * runs the scenario once, then prints elapsed nanoseconds and the number of classes loaded .
+   *
+   * @param scenario the name of scenario
+   */
+  private static void child(final String scenario) {
+    final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+    final List<Object> sink = new ArrayList<>();
+    final long loaded = classLoading.getTotalLoadedClassCount();
+    final long started = System.nanoTime();
+    switch (scenario) {
+      case "function.of":
+        sink.add(ThrowableFunction.of(Integer::valueOf, (String t, Throwable e) -> -1).apply("南無"));
+        break;
+      case "function.orNull":
+        sink.add(ThrowableFunction.orNull("南無", Integer::valueOf));
+        break;
+      case "predicate.orNot":
+        sink.add(ThrowablePredicate.orNot("南無", (t) -> Integer.valueOf(t) > 0));
+        break;
+      case "consumer.orNot":
+        ThrowableConsumer.orNot("南無", (t) -> sink.add(Integer.valueOf(t)));
+        break;
+      case "function.andThen":
+        sink.add(ThrowableFunction.of(Integer::valueOf, (String t, Throwable e) -> -1).andThen((x) -> x * 2).apply("南無"));
+        break;
+      default:
+        throw new IllegalArgumentException(scenario);
+    }
+    final long elapsed = System.nanoTime() - started;
+    System.out.println(elapsed + " " + (classLoading.getTotalLoadedClassCount() - loaded) + " " + sink);
+  }
+}
@@ -18,6 +18,7 @@ package jp.furplag.function;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import java.util.Arrays;
@@ -25,6 +26,7 @@ import java.util.HashMap;
 import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import jp.furplag.function.Trebuchet.TriFunction;
 import jp.furplag.function.misc.FunctionTest;
@@ -87,6 +89,26 @@ public class ThrowableBiFunctionTest implements FunctionTest {
     assertEquals(-99, ThrowableBiFunction.applyOrDefault("南無阿弥陀仏", -1, (t, u) -> new HashMap<String, Integer>().get(t), -99));
   }
 
+  @Test
+  public void testFirstSuccessful() {
+    final ThrowableBiFunction<String, Integer, Integer> broken = (t, u) -> {throw new IllegalStateException(t);};
+    final ThrowableBiFunction<String, Integer, Integer> parse = Integer::valueOf;
+    final ThrowableBiFunction<String, Integer, Integer> length = (t, u) -> t.length() * u;
+    assertEquals(26, ThrowableBiFunction.firstSuccessful(Arrays.asList(broken, parse, length), (t, u, e) -> -1).apply("1a", 16));
+    assertEquals(4, ThrowableBiFunction.firstSuccessful(Arrays.asList(broken, parse, length), (t, u, e) -> -1).apply("南無", 2));
+    assertEquals(-1, ThrowableBiFunction.firstSuccessful(Arrays.asList(broken, parse, length), (t, u, e) -> -1).apply(null, 2));
+    assertEquals("NullPointerException", ThrowableBiFunction.firstSuccessful(Arrays.asList(broken, length), (t, u, e) -> e.getClass().getSimpleName()).apply(null, 2));
+    assertEquals((Integer) null, ThrowableBiFunction.firstSuccessful(Arrays.asList(broken, parse, length), null).apply(null, 2));
+    assertThrows(NullPointerException.class, () -> ThrowableBiFunction.firstSuccessful(Arrays.asList(broken, null), null));
+
+    final int[] calls = { 0 };
+    final ThrowableBiFunction<String, Integer, Integer> counted = (t, u) -> {calls[0]++; throw new IllegalStateException(t);};
+    final BiFunction<String, Integer, Integer> adaptive = ThrowableBiFunction.firstSuccessful(Arrays.asList(counted, parse, (t, u) -> Integer.parseInt(t, u)), (t, u, e) -> -1, true);
+    IntStream.range(0, Alternatives.INTERVAL * 4).forEach((i) -> assertEquals(i, adaptive.apply(Integer.toString(i), 10)));
+    assertTrue(calls[0] <= Alternatives.INTERVAL, "the broken primary must not be tried first any more .");
+    assertEquals(-1, adaptive.apply(null, 2));
+  }
+
   @Test
   @Override
   public void testOf() {
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+public class ThrowableCallableTest {
+
+  @Test
+  public void test() throws Exception {
+    final ThrowableCallable<Integer> callable = () -> Integer.valueOf("南無");
+    assertThrows(NumberFormatException.class, callable::call);
+    assertEquals(-1, ThrowableCallable.of(callable, (Throwable e) -> e instanceof NumberFormatException ? -1 : 0).call());
+    assertEquals(-2, ThrowableCallable.of(callable, () -> -2).call());
+    assertNull(ThrowableCallable.of(callable, (Supplier<Integer>) null).call());
+    assertEquals(1, ThrowableCallable.<Integer, Throwable>of(() -> 1, (Throwable e) -> -1).call());
+    assertThrows(NullPointerException.class, () -> ThrowableCallable.of(null, () -> -2));
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertEquals(-3, executor.submit(ThrowableCallable.of(callable, () -> -3)).get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testOr() {
+    final ThrowableCallable<Integer> callable = () -> Integer.valueOf("南無");
+    assertEquals(-1, ThrowableCallable.orDefault(callable, -1));
+    assertEquals(1, ThrowableCallable.orDefault(() -> 1, -1));
+    assertEquals(-2, ThrowableCallable.orElse(callable, (Throwable e) -> -2));
+    assertEquals(-3, ThrowableCallable.orElseGet(callable, () -> -3));
+    assertNull(ThrowableCallable.orElseGet(callable, null));
+    assertNull(ThrowableCallable.orNull(callable));
+    assertEquals(4, ThrowableCallable.orNull(() -> 4));
+    assertThrows(NullPointerException.class, () -> ThrowableCallable.orNull(null));
+  }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ThrowableChannelsTest {
+
+  @TempDir
+  Path dir;
+
+  private static byte[] bytes(final int length) {
+    final byte[] bytes = new byte[length];
+    IntStream.range(0, length).forEach((i) -> bytes[i] = (byte) i);
+
+    return bytes;
+  }
+
+  private static ReadableByteChannel in(final byte[] bytes) {
+    return Channels.newChannel(new ByteArrayInputStream(bytes));
+  }
+
+  @Test
+  public void testTransform() throws IOException {
+    final byte[] bytes = bytes(100);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final ThrowableFunction<ByteBuffer, ByteBuffer> increment = (x) -> {
+      for (int i = x.position(); i < x.limit(); i++) {
+        x.put(i, (byte) (x.get(i) + 1));
+      }
+      return x;
+    };
+    assertEquals(100, ThrowableChannels.transform(in(bytes), Channels.newChannel(out), increment.andThen(increment), null, 16));
+    final byte[] expect = bytes.clone();
+    IntStream.range(0, expect.length).forEach((i) -> expect[i] += 2);
+    assertArrayEquals(expect, out.toByteArray());
+
+    out.reset();
+    final List<Integer> fallen = new ArrayList<>();
+    assertEquals(96, ThrowableChannels.transform(in(bytes), Channels.newChannel(out), (ByteBuffer x) -> {
+      if (x.get(x.position()) == 32) {
+        x.get();
+        throw new IllegalStateException();
+      }
+      return x;
+    }, (ByteBuffer x, Throwable e) -> {
+      fallen.add(x.position());
+      fallen.add(x.remaining());
+      return x.position() == 0 && x.remaining() == 16 && e instanceof IllegalStateException ? ByteBuffer.wrap(new byte[] { -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1 }) : null;
+    }, 16));
+    assertEquals(List.of(0, 16), fallen);
+    assertEquals(-1, out.toByteArray()[32]);
+    assertEquals(48, out.toByteArray()[44]);
+
+    out.reset();
+    assertEquals(0, ThrowableChannels.transform(in(bytes), Channels.newChannel(out), (ByteBuffer x) -> {throw new IllegalStateException();}, null));
+    assertEquals(0, out.size());
+    assertEquals(0, ThrowableChannels.transform(in(new byte[0]), Channels.newChannel(out), (ByteBuffer x) -> x, null));
+
+    assertThrows(IllegalArgumentException.class, () -> ThrowableChannels.transform(in(bytes), Channels.newChannel(out), (ByteBuffer x) -> x, null, 0));
+    assertThrows(NullPointerException.class, () -> ThrowableChannels.transform(null, Channels.newChannel(out), (ByteBuffer x) -> x, null));
+    assertThrows(NullPointerException.class, () -> ThrowableChannels.transform(in(bytes), null, (ByteBuffer x) -> x, null));
+    assertThrows(NullPointerException.class, () -> ThrowableChannels.transform(in(bytes), Channels.newChannel(out), null, null));
+  }
+
+  @Test
+  public void testForEachBlock() throws IOException {
+    final byte[] bytes = bytes(ThrowableChannels.DEFAULT_BLOCK_SIZE * 2 + 10);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final List<Integer> blocks = new ArrayList<>();
+    final List<Throwable> failures = new ArrayList<>();
+    assertEquals(bytes.length, ThrowableChannels.forEachBlock(in(bytes), Channels.newChannel(out), (ByteBuffer x, WritableByteChannel y) -> {
+      assertTrue(x.isDirect());
+      blocks.add(x.remaining());
+      if (blocks.size() == 2) {
+        throw new IOException();
+      }
+      y.write(x);
+    }, (ByteBuffer x, Throwable e) -> failures.add(e)));
+    assertEquals(List.of(ThrowableChannels.DEFAULT_BLOCK_SIZE, ThrowableChannels.DEFAULT_BLOCK_SIZE, 10), blocks);
+    assertEquals(1, failures.size());
+    assertTrue(failures.get(0) instanceof IOException);
+    assertEquals(ThrowableChannels.DEFAULT_BLOCK_SIZE + 10, out.size());
+  }
+
+  @Test
+  public void testTransfer() throws IOException {
+    final byte[] bytes = bytes(ThrowableChannels.DEFAULT_BLOCK_SIZE + 123);
+    final Path source = Files.write(dir.resolve("source"), bytes);
+    final Path target = dir.resolve("target");
+    try (FileChannel in = FileChannel.open(source); FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      in.position(23);
+      assertEquals(bytes.length - 23, ThrowableChannels.transfer(in, out));
+      assertEquals(bytes.length, in.position());
+      assertEquals(0, ThrowableChannels.transfer(in, out));
+    }
+    final byte[] transferred = Files.readAllBytes(target);
+    assertEquals(bytes.length - 23, transferred.length);
+    assertEquals(bytes[23], transferred[0]);
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertEquals(bytes.length, ThrowableChannels.transfer(in(bytes), Channels.newChannel(out)));
+    assertArrayEquals(bytes, out.toByteArray());
+    assertThrows(NullPointerException.class, () -> ThrowableChannels.transfer(null, Channels.newChannel(out)));
+    assertThrows(NullPointerException.class, () -> ThrowableChannels.transfer(in(bytes), null));
+  }
+
+  @Test
+  public void testTransferFailure() throws IOException {
+    final byte[] bytes = bytes(ThrowableChannels.DEFAULT_BLOCK_SIZE * 3);
+    final List<Integer> written = new ArrayList<>();
+    final WritableByteChannel broken = new WritableByteChannel() {
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public int write(ByteBuffer src) throws IOException {
+        if (!written.isEmpty()) {
+          throw new IOException("broken .");
+        }
+        written.add(src.remaining());
+        src.position(src.limit());
+
+        return written.get(0);
+      }
+    };
+    assertEquals("broken .", assertThrows(IOException.class, () -> ThrowableChannels.transfer(in(bytes), broken)).getMessage());
+    assertEquals(List.of(ThrowableChannels.DEFAULT_BLOCK_SIZE), written);
+    final Path source = Files.write(dir.resolve("source"), bytes);
+    try (FileChannel in = FileChannel.open(source)) {
+      assertThrows(IOException.class, () -> ThrowableChannels.transfer(in, broken));
+    }
+  }
+
+  @Test
+  public void testStalled() throws IOException {
+    final byte[] bytes = bytes(100);
+    final WritableByteChannel full = new WritableByteChannel() {
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public int write(ByteBuffer src) {
+        return 0;
+      }
+    };
+    final ReadableByteChannel empty = new ReadableByteChannel() {
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {}
+
+      @Override
+      public int read(ByteBuffer dst) {
+        return 0;
+      }
+    };
+    assertThrows(IOException.class, () -> ThrowableChannels.transfer(in(bytes), full), "never spins on the channel which accepts no bytes .");
+    assertThrows(IOException.class, () -> ThrowableChannels.transform(in(bytes), full, (ByteBuffer x) -> x, null));
+    assertThrows(IOException.class, () -> ThrowableChannels.transfer(empty, Channels.newChannel(new ByteArrayOutputStream())), "never spins on the channel which supplies no bytes .");
+    final Path source = Files.write(dir.resolve("source"), bytes);
+    try (FileChannel in = FileChannel.open(source)) {
+      assertThrows(IOException.class, () -> ThrowableChannels.transfer(in, full));
+    }
+  }
+
+  @Test
+  public void testPool() {
+    final ByteBuffer buffer = BufferPool.acquire(ThrowableChannels.DEFAULT_BLOCK_SIZE);
+    assertTrue(buffer.isDirect());
+    buffer.position(10);
+    BufferPool.release(buffer);
+    assertTrue(BufferPool.pooled() > 0);
+    final ByteBuffer reused = BufferPool.acquire(ThrowableChannels.DEFAULT_BLOCK_SIZE);
+    assertEquals(0, reused.position());
+    assertEquals(ThrowableChannels.DEFAULT_BLOCK_SIZE, reused.limit());
+    final int pooled = BufferPool.pooled();
+    BufferPool.release(ByteBuffer.allocateDirect(16));
+    BufferPool.release(ByteBuffer.allocate(ThrowableChannels.DEFAULT_BLOCK_SIZE));
+    assertEquals(pooled, BufferPool.pooled());
+    IntStream.range(0, BufferPool.MAX_POOLED * 2).forEach((i) -> BufferPool.release(ByteBuffer.allocateDirect(ThrowableChannels.DEFAULT_BLOCK_SIZE)));
+    assertEquals(BufferPool.MAX_POOLED, BufferPool.pooled());
+  }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import jp.furplag.function.ThrowableComparators.FailurePolicy;
+
+public class ThrowableComparatorsTest {
+
+  @Test
+  public void test() {
+    final List<String> elements = Arrays.asList("3", "南無", "1", null, "2");
+    final List<String> first = new ArrayList<>(elements);
+    first.sort(ThrowableComparators.comparing(Integer::valueOf, FailurePolicy.FIRST));
+    assertEquals(Arrays.asList("南無", null, "1", "2", "3"), first);
+    final List<String> last = new ArrayList<>(elements);
+    last.sort(ThrowableComparators.comparing(Integer::valueOf, FailurePolicy.LAST));
+    assertEquals(Arrays.asList("1", "2", "3", "南無", null), last);
+    final List<String> reversed = new ArrayList<>(elements);
+    reversed.sort(ThrowableComparators.comparing(Integer::valueOf, Comparator.reverseOrder(), FailurePolicy.LAST));
+    assertEquals(Arrays.asList("3", "2", "1", "南無", null), reversed);
+    assertThrows(NumberFormatException.class, () -> new ArrayList<>(elements).sort(ThrowableComparators.comparing(Integer::valueOf, FailurePolicy.THROW)));
+
+    final Comparator<String> comparator = ThrowableComparators.comparing(Integer::valueOf, FailurePolicy.FIRST);
+    assertEquals(0, comparator.compare("南無", null));
+    assertEquals(-1, comparator.compare("南無", "1"));
+    assertEquals(1, comparator.compare("1", "南無"));
+    assertEquals(0, ThrowableComparators.<String, Integer>comparing(Integer::valueOf, FailurePolicy.LAST).compare("南無", null));
+    assertEquals("For input string: \"南無\"", assertThrows(NumberFormatException.class, () -> ThrowableComparators.<String, Integer>comparing(Integer::valueOf, FailurePolicy.THROW).compare("南無", "阿弥陀")).getMessage(), "the failure of the former is thrown .");
+    assertThrows(NumberFormatException.class, () -> new ArrayList<>(Arrays.asList("南無", "阿弥陀")).sort(ThrowableComparators.comparing(Integer::valueOf, FailurePolicy.THROW)));
+    assertThrows(NullPointerException.class, () -> ThrowableComparators.comparing(null, FailurePolicy.FIRST));
+    assertThrows(NullPointerException.class, () -> ThrowableComparators.<String, Integer>comparing(Integer::valueOf, null));
+    assertThrows(NullPointerException.class, () -> ThrowableComparators.<String, Integer>comparing(Integer::valueOf, null, FailurePolicy.FIRST));
+  }
+}
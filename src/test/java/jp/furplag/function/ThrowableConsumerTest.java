@@ -18,6 +18,7 @@ package jp.furplag.function;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import java.util.ArrayList;
@@ -27,7 +28,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import jp.furplag.function.misc.ConsumerTest;
 
@@ -104,4 +109,21 @@ public class ThrowableConsumerTest implements ConsumerTest {
     Arrays.stream(anArray).forEach((i) -> ThrowableConsumer.orElse(i, (t) -> actual.add(t / t), (t) -> ThrowableConsumer.orNot(t, (x) -> actual.add(x - x))));
     assertArrayEquals(expect.toArray(Integer[]::new), actual.toArray(Integer[]::new));
   }
+
+  @Test
+  public void testBlocking() throws Throwable {
+    final CountDownLatch latch = new CountDownLatch(2);
+    final ThrowableConsumer<Integer> awaiting = (x) -> {
+      latch.countDown();
+      latch.await();
+    };
+    final ForkJoinPool pool = new ForkJoinPool(1);
+    try {
+      pool.submit(() -> IntStream.range(0, 2).parallel().boxed().forEach(awaiting.blocking())).get(10, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(0, latch.getCount());
+    assertThrows(ArithmeticException.class, () -> ((ThrowableConsumer<Integer>) (x) -> System.out.println(x / 0)).blocking().accept(5));
+  }
 }
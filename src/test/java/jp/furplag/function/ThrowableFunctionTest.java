@@ -18,11 +18,17 @@ package jp.furplag.function;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.IntStream;
@@ -86,6 +92,56 @@ public class ThrowableFunctionTest implements FunctionTest {
     assertEquals(-99, ThrowableFunction.applyOrDefault("南無阿弥陀仏", (t) -> new HashMap<String, Integer>().get(t), -99));
   }
 
+  @Test
+  public void testFirstSuccessful() {
+    final ThrowableFunction<String, Integer> broken = (t) -> {throw new IllegalStateException(t);};
+    final ThrowableFunction<String, Integer> decimal = Integer::valueOf;
+    final ThrowableFunction<String, Integer> hex = (t) -> Integer.valueOf(t, 16);
+    assertEquals(10, ThrowableFunction.firstSuccessful(Arrays.asList(broken, decimal, hex), (t, e) -> -1).apply("10"));
+    assertEquals(26, ThrowableFunction.firstSuccessful(Arrays.asList(broken, decimal, hex), (t, e) -> -1).apply("1a"));
+    assertEquals(-1, ThrowableFunction.firstSuccessful(Arrays.asList(broken, decimal, hex), (t, e) -> -1).apply("南無"));
+    assertEquals("NumberFormatException", ThrowableFunction.firstSuccessful(Arrays.asList(broken, decimal, hex), (t, e) -> e.getClass().getSimpleName()).apply("南無"));
+    assertEquals((Integer) null, ThrowableFunction.firstSuccessful(Arrays.asList(broken, decimal, hex), null).apply("南無"));
+    assertEquals((Integer) null, ThrowableFunction.firstSuccessful(Arrays.<ThrowableFunction<String, Integer>>asList(), null).apply("10"));
+    assertThrows(NullPointerException.class, () -> ThrowableFunction.firstSuccessful(Arrays.asList(broken, null), null));
+
+    final int[] calls = { 0 };
+    final ThrowableFunction<String, Integer> counted = (t) -> {calls[0]++; throw new IllegalStateException(t);};
+    final Function<String, Integer> adaptive = ThrowableFunction.firstSuccessful(Arrays.asList(counted, decimal, (t) -> Integer.parseInt(t)), (t, e) -> -1, true);
+    IntStream.range(0, Alternatives.INTERVAL * 4).forEach((i) -> assertEquals(i, adaptive.apply(Integer.toString(i))));
+    assertTrue(calls[0] <= Alternatives.INTERVAL, "the broken primary must not be tried first any more .");
+    assertEquals(-1, adaptive.apply("南無"));
+
+    calls[0] = 0;
+    final Function<String, Integer> untried = ThrowableFunction.firstSuccessful(Arrays.asList(decimal, counted), (t, e) -> -1, true);
+    IntStream.range(0, Alternatives.INTERVAL * 4).forEach((i) -> assertEquals(i, untried.apply(Integer.toString(i))));
+    assertEquals(0, calls[0], "the fallback which has never been tried must not precede the working primary .");
+
+    final boolean[] recovered = { false };
+    final int[] slowCalls = { 0 };
+    final ThrowableFunction<String, Integer> flaky = (t) -> {
+      if (!recovered[0]) {
+        throw new IllegalStateException(t);
+      }
+      return Integer.valueOf(t);
+    };
+    final ThrowableFunction<String, Integer> slow = (t) -> {
+      slowCalls[0]++;
+      final long started = System.nanoTime();
+      while (System.nanoTime() - started < 50_000) {
+        Thread.onSpinWait();
+      }
+      return Integer.valueOf(t);
+    };
+    final Function<String, Integer> recovering = ThrowableFunction.firstSuccessful(Arrays.asList(flaky, slow), (t, e) -> -1, true);
+    IntStream.range(0, Alternatives.INTERVAL * 4).forEach((i) -> assertEquals(i, recovering.apply(Integer.toString(i))));
+    recovered[0] = true;
+    IntStream.range(0, Alternatives.EXPLORATION * 8).forEach((i) -> assertEquals(i, recovering.apply(Integer.toString(i))));
+    slowCalls[0] = 0;
+    IntStream.range(0, Alternatives.INTERVAL * 4).forEach((i) -> assertEquals(i, recovering.apply(Integer.toString(i))));
+    assertTrue(slowCalls[0] < Alternatives.INTERVAL, "the recovered primary must regain its position, but the other tried " + slowCalls[0] + " times .");
+  }
+
   @Test
   public void testIdentity() {
     IntStream.rangeClosed(0, 9999).forEach((i) -> {
@@ -152,4 +208,44 @@ public class ThrowableFunctionTest implements FunctionTest {
     assertArrayEquals(new Integer[] {null, 1, 1, 1, 1, null}, Arrays.stream(anArray).map((t) -> ThrowableFunction.orNull(t, (x) -> x / x)).toArray(Integer[]::new));
   }
 
+  @Test
+  public void testBlocking() throws Throwable {
+    final CountDownLatch latch = new CountDownLatch(2);
+    final ThrowableFunction<Integer, Integer> awaiting = (x) -> {
+      latch.countDown();
+      latch.await();
+      return x * 2;
+    };
+    final ForkJoinPool pool = new ForkJoinPool(1);
+    try {
+      assertArrayEquals(new Integer[] { 0, 2 }, pool.submit(() -> IntStream.range(0, 2).parallel().boxed().map(awaiting.blocking()).toArray(Integer[]::new)).get(10, TimeUnit.SECONDS));
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(10, ThrowableFunction.<Integer, Integer, Throwable>of((x) -> x * 2, (t, e) -> -1).blocking().apply(5));
+    assertThrows(ArithmeticException.class, () -> ((ThrowableFunction<Integer, Integer>) (x) -> x / 0).blocking().apply(5));
+  }
+
+  @Test
+  public void testTranslating() {
+    final ThrowableFunction<String, String> function = (x) -> {
+      if (x.isEmpty()) {
+        throw new IOException("empty");
+      }
+      return Integer.valueOf(x).toString();
+    };
+    final ThrowableFunction<String, String> translating = function.translating(IOException.class, UncheckedIOException.class).translating(NumberFormatException.class, IllegalStateException.class);
+    assertEquals("1", translating.apply("1"));
+    final UncheckedIOException unchecked = assertThrows(UncheckedIOException.class, () -> translating.apply(""));
+    assertEquals("empty", unchecked.getMessage());
+    assertTrue(unchecked.getCause() instanceof IOException);
+    assertTrue(assertThrows(IllegalStateException.class, () -> translating.apply("南無")).getCause() instanceof NumberFormatException);
+    assertThrows(NullPointerException.class, () -> translating.apply(null));
+    assertThrows(NullPointerException.class, () -> function.translating(null, IllegalStateException.class));
+    assertThrows(NullPointerException.class, () -> function.translating(IOException.class, null));
+
+    assertEquals(3, ((ThrowableBiFunction<Integer, Integer, Integer>) (x, y) -> x / y).translating(ArithmeticException.class, IllegalArgumentException.class).apply(6, 2));
+    assertThrows(IllegalArgumentException.class, () -> ((ThrowableBiFunction<Integer, Integer, Integer>) (x, y) -> x / y).translating(ArithmeticException.class, IllegalArgumentException.class).apply(6, 0));
+    assertThrows(IllegalArgumentException.class, () -> ((ThrowableTriFunction<Integer, Integer, Integer, Integer>) (x, y, z) -> x / y / z).translating(ArithmeticException.class, IllegalArgumentException.class).apply(6, 1, 0));
+  }
 }
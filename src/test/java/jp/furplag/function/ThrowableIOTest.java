@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ThrowableIOTest {
+
+  @TempDir
+  Path dir;
+
+  private Path write(final String content, final Charset charset) throws IOException {
+    return Files.write(dir.resolve("lines.txt"), content.getBytes(charset));
+  }
+
+  @Test
+  public void test() throws IOException {
+    final Path path = write("1\n南無\r\n\n3\r\nabc", StandardCharsets.UTF_8);
+    final List<String> lines = new ArrayList<>();
+    final List<String> failures = new ArrayList<>();
+    assertEquals(5, ThrowableIO.forEachLine(path, StandardCharsets.UTF_8, (ThrowableIO.Line x) -> lines.add(Integer.valueOf(x.toString()).toString()), (ThrowableIO.Line x, Throwable e) -> failures.add(x.number() + ":" + x.offset() + ":" + x)));
+    assertEquals(List.of("1", "3"), lines);
+    assertEquals(List.of("2:2:南無", "3:10:", "5:14:abc"), failures);
+
+    final List<String> all = new ArrayList<>();
+    assertEquals(5, ThrowableIO.forEachLine(path, StandardCharsets.UTF_8, (ThrowableIO.Line x) -> all.add(x.length() + ":" + x.subSequence(0, Math.min(1, x.length()))), null));
+    assertEquals(List.of("1:1", "2:南", "0:", "1:3", "3:a"), all);
+    assertEquals(0, ThrowableIO.forEachLine(write("", StandardCharsets.UTF_8), StandardCharsets.UTF_8, (ThrowableIO.Line x) -> all.add(x.toString()), null));
+    assertEquals(1, ThrowableIO.forEachLine(write("\n", StandardCharsets.UTF_8), StandardCharsets.UTF_8, (ThrowableIO.Line x) -> assertEquals(0, x.length()), null));
+  }
+
+  @Test
+  public void testCharset() throws IOException {
+    final List<String> lines = new ArrayList<>();
+    assertEquals(2, ThrowableIO.forEachLine(write("çà\nø", StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1, (ThrowableIO.Line x) -> lines.add(x.toString()), null));
+    assertEquals(List.of("çà", "ø"), lines);
+    lines.clear();
+    assertEquals(2, ThrowableIO.forEachLine(write("南無\n阿弥陀仏", Charset.forName("Shift_JIS")), Charset.forName("Shift_JIS"), (ThrowableIO.Line x) -> lines.add(x.toString()), null));
+    assertEquals(List.of("南無", "阿弥陀仏"), lines);
+
+    final Path path = Files.write(dir.resolve("malformed.txt"), new byte[] { 'a', '\n', (byte) 0xFF, '\n', 'b' });
+    final List<Throwable> failures = new ArrayList<>();
+    assertEquals(3, ThrowableIO.forEachLine(path, StandardCharsets.UTF_8, (ThrowableIO.Line x) -> lines.add(x.toString()), (ThrowableIO.Line x, Throwable e) -> failures.add(e)));
+    assertEquals(1, failures.size());
+    assertTrue(failures.get(0) instanceof CharacterCodingException);
+
+    assertThrows(IllegalArgumentException.class, () -> ThrowableIO.forEachLine(path, StandardCharsets.UTF_16, (ThrowableIO.Line x) -> {}, null));
+    assertThrows(NullPointerException.class, () -> ThrowableIO.forEachLine(path, null, (ThrowableIO.Line x) -> {}, null));
+    assertThrows(NullPointerException.class, () -> ThrowableIO.forEachLine(null, StandardCharsets.UTF_8, (ThrowableIO.Line x) -> {}, null));
+    assertThrows(NullPointerException.class, () -> ThrowableIO.forEachLine(path, StandardCharsets.UTF_8, null, null));
+    assertThrows(IllegalArgumentException.class, () -> ThrowableIO.forEachLine(path, StandardCharsets.UTF_8, (ThrowableIO.Line x) -> {}, null, 0));
+  }
+
+  @Test
+  public void testChunk() throws IOException {
+    final String content = IntStream.range(0, 100).mapToObj((x) -> x % 7 == 0 ? "南無阿弥陀仏" + x : x % 13 == 0 ? "x".repeat(50) : Integer.toString(x)).collect(Collectors.joining("\r\n"));
+    final Path path = write(content, StandardCharsets.UTF_8);
+    final List<String> expect = List.of(content.split("\r\n"));
+    for (long chunk : new long[] { 1, 7, 16, 1000 }) {
+      final List<String> lines = new ArrayList<>();
+      assertEquals(100, MappedLines.forEach(path, StandardCharsets.UTF_8, (ThrowableIO.Line x) -> lines.add(x.toString()), Trebuchet.defaults((ThrowableIO.Line x, Throwable e) -> {}), 1, chunk));
+      assertEquals(expect, lines);
+    }
+  }
+
+  @Test
+  public void testParallel() throws IOException {
+    final String content = IntStream.range(0, 1000).mapToObj((x) -> x % 7 == 0 ? "南無" + x : Integer.toString(x)).collect(Collectors.joining("\n", "", "\n"));
+    final Path path = write(content, StandardCharsets.UTF_8);
+    final Map<Long, String> expect = new TreeMap<>();
+    final Map<Long, Long> offsets = new TreeMap<>();
+    assertEquals(1000, ThrowableIO.forEachLine(path, StandardCharsets.UTF_8, (ThrowableIO.Line x) -> {
+      expect.put(x.number(), x.toString());
+      offsets.put(x.number(), x.offset());
+    }, null));
+    for (int parallelism : new int[] { 2, 3, 8, 2000 }) {
+      final Map<Long, String> lines = new ConcurrentHashMap<>();
+      final Map<Long, Long> failures = new ConcurrentHashMap<>();
+      assertEquals(1000, MappedLines.forEach(path, StandardCharsets.UTF_8, (ThrowableIO.Line x) -> lines.put(x.number(), Integer.valueOf(x.toString()).toString()), Trebuchet.defaults((ThrowableIO.Line x, Throwable e) -> {
+        lines.put(x.number(), x.toString());
+        failures.put(x.number(), x.offset());
+      }), parallelism, 64));
+      assertEquals(expect, new TreeMap<>(lines));
+      assertEquals(143, failures.size());
+      failures.forEach((k, v) -> assertEquals(offsets.get(k), v));
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class ThrowablePipelineTest {
+
+  @Test
+  public void test() {
+    assertEquals(0, ThrowablePipeline.of().size());
+    assertEquals("南無阿弥陀仏", ThrowablePipeline.of().apply("南無阿弥陀仏"));
+    final ThrowablePipeline<String, Integer> parser = ThrowablePipeline.of(Integer::valueOf);
+    assertEquals(1, parser.size());
+    assertEquals(10, parser.apply("10"));
+    assertThrows(NumberFormatException.class, () -> parser.apply("南無"));
+    assertEquals(-1, ThrowablePipeline.<String, Integer, Throwable>of(Integer::valueOf, (t, e) -> -1).apply("南無"));
+    assertEquals((Integer) null, ThrowablePipeline.<String, Integer, Throwable>of(Integer::valueOf, null).apply("南無"));
+    assertThrows(NullPointerException.class, () -> ThrowablePipeline.of(null));
+    assertThrows(NullPointerException.class, () -> ThrowablePipeline.of(null, null));
+  }
+
+  @Test
+  public void testThen() {
+    final ThrowablePipeline<String, String> pipeline = ThrowablePipeline.<String, Integer, Throwable>of(Integer::valueOf, (t, e) -> 0)
+      .then((x) -> 100 / x, (Integer x, Throwable e) -> -1)
+      .then((x) -> x * 2)
+      .then(Objects::toString);
+    assertEquals(4, pipeline.size());
+    assertArrayEquals(new String[] { "200", "20", "-2", "-2" }, Arrays.stream(new String[] { "1", "10", "0", "南無" }).map(pipeline).toArray(String[]::new));
+
+    final ThrowablePipeline<Integer, Integer> divider = ThrowablePipeline.<Integer>of().then((x) -> 100 / x);
+    assertThrows(ArithmeticException.class, () -> divider.then((x) -> x + 1).apply(0));
+    assertEquals(51, divider.then((x) -> x + 1).apply(2));
+    final ThrowablePipeline<Integer, Integer> decremental = divider.then((x) -> x - 1);
+    assertEquals(4, decremental.then(decremental).size());
+    assertEquals(99, decremental.then(decremental).apply(50));
+    assertThrows(ArithmeticException.class, () -> decremental.then(decremental).apply(100));
+    assertEquals(3, decremental.then(decremental, (x, e) -> -1).size());
+    assertEquals(-1, decremental.then(decremental, (x, e) -> -1).apply(100));
+    assertThrows(NullPointerException.class, () -> divider.then(null));
+    assertThrows(NullPointerException.class, () -> divider.then(null, null));
+  }
+
+  @Test
+  public void testAndThen() {
+    ThrowableFunction<Integer, Integer> pipeline = ThrowablePipeline.of();
+    for (int i = 0; i < 1000; i++) {
+      pipeline = pipeline.andThen((x) -> x + 1);
+    }
+    assertTrue(pipeline instanceof ThrowablePipeline);
+    assertEquals(1000, ((ThrowablePipeline<Integer, Integer>) pipeline).size());
+    assertEquals(1000, pipeline.apply(0));
+    final ThrowableFunction<Integer, Integer> failure = pipeline.andThen((x) -> x / 0);
+    final StackTraceElement[] stackTrace = assertThrows(ArithmeticException.class, () -> failure.apply(0)).getStackTrace();
+    assertTrue(stackTrace.length < 1000, "the stack must stay shallow .");
+    assertEquals((Integer) null, ThrowablePipeline.<Integer>of().andThen(null).apply(0));
+  }
+
+  @Test
+  public void testBi() {
+    final ThrowablePipeline.Bi<String, Integer, String> pipeline = ThrowablePipeline.Bi.<String, Integer, Integer>of(Integer::valueOf)
+      .then((x) -> x * 2)
+      .andThen(Objects::toString);
+    assertEquals(3, pipeline.size());
+    assertEquals("52", pipeline.apply("1a", 16));
+    assertThrows(NumberFormatException.class, () -> pipeline.apply("南無", 10));
+    final ThrowablePipeline.Bi<String, Integer, String> fallen = ThrowablePipeline.Bi.<String, Integer, Integer, Throwable>of(Integer::valueOf, (t, u, e) -> 0)
+      .then((x) -> 100 / x, (Integer x, Throwable e) -> -1)
+      .then(Objects::toString);
+    assertEquals("4", fallen.apply("19", 16));
+    assertEquals("-1", fallen.apply("南無", 10));
+    assertEquals("null", ThrowablePipeline.Bi.<String, Integer, Integer, Throwable>of(Integer::valueOf, null).then(Objects::toString).apply("南無", 10));
+    assertThrows(NullPointerException.class, () -> ThrowablePipeline.Bi.of(null));
+  }
+
+  @Test
+  public void testTri() {
+    final ThrowablePipeline.Tri<Integer, Integer, Integer, String> pipeline = ThrowablePipeline.Tri.<Integer, Integer, Integer, Integer>of((t, u, v) -> (t + u) / v)
+      .then((x) -> x * 2)
+      .andThen(Objects::toString);
+    assertEquals(3, pipeline.size());
+    assertEquals("6", pipeline.apply(1, 2, 1));
+    assertThrows(ArithmeticException.class, () -> pipeline.apply(1, 2, 0));
+    final ThrowablePipeline.Tri<Integer, Integer, Integer, String> fallen = ThrowablePipeline.Tri.<Integer, Integer, Integer, Integer, Throwable>of((t, u, v) -> (t + u) / v, (e) -> 0)
+      .then((x) -> 100 / x, (Integer x, Throwable e) -> -1)
+      .then(Objects::toString);
+    assertEquals("50", fallen.apply(1, 1, 1));
+    assertEquals("-1", fallen.apply(1, 1, 0));
+    assertArrayEquals(new String[] { "-1", "100", "50", "33" }, IntStream.rangeClosed(0, 3).mapToObj((i) -> fallen.apply(i, 0, 1)).toArray(String[]::new));
+    assertThrows(NullPointerException.class, () -> ThrowablePipeline.Tri.of(null));
+  }
+}
@@ -0,0 +1,276 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import jp.furplag.function.ThrowableProcessors.FailurePolicy;
+
+public class ThrowableProcessorsTest {
+
+  /** the publisher which emits items only when the test says . */
+  static class Source<T> implements Flow.Publisher<T>, Flow.Subscription {
+    Flow.Subscriber<? super T> subscriber;
+    long requested;
+    boolean cancelled;
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+      subscriber.onSubscribe(this);
+    }
+
+    @Override
+    public void request(long n) {
+      requested += n;
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+
+    @SafeVarargs
+    final void emit(T... items) {
+      for (T item : items) {
+        subscriber.onNext(item);
+      }
+    }
+  }
+
+  /** the subscriber which requests only when the test says . */
+  static class Sink<T> implements Flow.Subscriber<T> {
+    final List<T> items = new ArrayList<>();
+    final long initial;
+    Flow.Subscription subscription;
+    Throwable error;
+    boolean completed;
+
+    Sink(long initial) {
+      this.initial = initial;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (initial > 0) {
+        subscription.request(initial);
+      }
+    }
+
+    @Override
+    public void onNext(T item) {
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+
+  @Test
+  public void test() {
+    assertThrows(NullPointerException.class, () -> ThrowableProcessors.map(null));
+    assertThrows(NullPointerException.class, () -> ThrowableProcessors.<String, Integer>map(Integer::valueOf, null));
+    assertThrows(IllegalArgumentException.class, () -> ThrowableProcessors.<String, Integer>map(Integer::valueOf, FailurePolicy.terminate(), 0));
+
+    final Source<String> source = new Source<>();
+    final Flow.Processor<String, Integer> processor = ThrowableProcessors.map(Integer::valueOf, FailurePolicy.terminate(), 4);
+    source.subscribe(processor);
+    assertEquals(4, source.requested);
+    final Sink<Integer> sink = new Sink<>(2);
+    processor.subscribe(sink);
+    source.emit("1", "2", "3", "4");
+    assertEquals(List.of(1, 2), sink.items);
+    assertEquals(4, source.requested, "consumed items have not reached the limit yet .");
+    sink.subscription.request(2);
+    assertEquals(List.of(1, 2, 3, 4), sink.items);
+    assertEquals(7, source.requested, "requests more in batches .");
+    source.emit("5");
+    assertEquals(List.of(1, 2, 3, 4), sink.items);
+    processor.onComplete();
+    assertFalse(sink.completed, "items in buffer are delivered before completion .");
+    sink.subscription.request(Long.MAX_VALUE);
+    assertEquals(List.of(1, 2, 3, 4, 5), sink.items);
+    assertTrue(sink.completed);
+
+    final Sink<Integer> second = new Sink<>(1);
+    processor.subscribe(second);
+    assertTrue(second.error instanceof IllegalStateException);
+  }
+
+  @Test
+  public void testTerminate() {
+    final Source<String> source = new Source<>();
+    final Flow.Processor<String, Integer> processor = ThrowableProcessors.map(Integer::valueOf);
+    source.subscribe(processor);
+    assertEquals(ThrowableProcessors.DEFAULT_PREFETCH, source.requested);
+    final Sink<Integer> sink = new Sink<>(Long.MAX_VALUE);
+    processor.subscribe(sink);
+    source.emit("1", "南無", "2");
+    assertEquals(List.of(1), sink.items);
+    assertTrue(sink.error instanceof NumberFormatException);
+    assertTrue(source.cancelled);
+    assertFalse(sink.completed);
+
+    final Source<String> upstream = new Source<>();
+    final Flow.Processor<String, Integer> broken = ThrowableProcessors.map(Integer::valueOf);
+    upstream.subscribe(broken);
+    final Sink<Integer> illegal = new Sink<>(0);
+    broken.subscribe(illegal);
+    illegal.subscription.request(0);
+    assertTrue(illegal.error instanceof IllegalArgumentException);
+    assertTrue(upstream.cancelled);
+
+    final Source<String> cancelled = new Source<>();
+    final Flow.Processor<String, Integer> cancelling = ThrowableProcessors.map(Integer::valueOf);
+    cancelled.subscribe(cancelling);
+    final Sink<Integer> canceller = new Sink<>(1);
+    cancelling.subscribe(canceller);
+    canceller.subscription.cancel();
+    cancelled.emit("1");
+    assertTrue(cancelled.cancelled);
+    assertTrue(canceller.items.isEmpty());
+    assertNull(canceller.error);
+    assertFalse(canceller.completed);
+  }
+
+  @Test
+  public void testFallen() {
+    final Source<String> source = new Source<>();
+    final Flow.Processor<String, Integer> processor = ThrowableProcessors.map(Integer::valueOf, FailurePolicy.fallen((String t, Throwable e) -> t.startsWith("南無") ? null : -1), 2);
+    source.subscribe(processor);
+    final Sink<Integer> sink = new Sink<>(Long.MAX_VALUE);
+    processor.subscribe(sink);
+    source.emit("1", "a");
+    source.emit("南無", "2");
+    processor.onComplete();
+    assertEquals(List.of(1, -1, 2), sink.items);
+    assertTrue(sink.completed);
+    assertEquals(2 + 2 + 2, source.requested);
+
+    final Source<String> failing = new Source<>();
+    final Flow.Processor<String, Integer> fallen = ThrowableProcessors.map(Integer::valueOf, FailurePolicy.fallen((String t, Throwable e) -> Integer.valueOf(t, 16)));
+    failing.subscribe(fallen);
+    final Sink<Integer> fails = new Sink<>(Long.MAX_VALUE);
+    fallen.subscribe(fails);
+    failing.emit("1", "a", "南無");
+    assertEquals(List.of(1, 10), fails.items);
+    assertTrue(fails.error instanceof NumberFormatException);
+    assertTrue(failing.cancelled);
+
+    final Source<String> nothing = new Source<>();
+    final Flow.Processor<String, Integer> skip = ThrowableProcessors.map(Integer::valueOf, FailurePolicy.fallen(null));
+    nothing.subscribe(skip);
+    final Sink<Integer> skipped = new Sink<>(Long.MAX_VALUE);
+    skip.subscribe(skipped);
+    nothing.emit("a", "1");
+    assertEquals(List.of(1), skipped.items);
+  }
+
+  @Test
+  public void testDeadLetter() {
+    final Sink<Map.Entry<String, Throwable>> deadLetters = new Sink<>(0);
+    final Source<String> source = new Source<>();
+    final Flow.Processor<String, Integer> processor = ThrowableProcessors.map(Integer::valueOf, FailurePolicy.deadLetter(deadLetters));
+    assertTrue(deadLetters.subscription != null);
+    source.subscribe(processor);
+    final Sink<Integer> sink = new Sink<>(Long.MAX_VALUE);
+    processor.subscribe(sink);
+    source.emit("1", "南無", "2");
+    processor.onComplete();
+    assertEquals(List.of(1), sink.items, "stops while dead letters have no demand .");
+    assertFalse(sink.completed);
+    deadLetters.subscription.request(1);
+    assertEquals(List.of(1, 2), sink.items);
+    assertEquals(List.of("南無"), deadLetters.items.stream().map(Map.Entry::getKey).collect(Collectors.toList()));
+    assertTrue(deadLetters.items.get(0).getValue() instanceof NumberFormatException);
+    assertTrue(sink.completed);
+    assertTrue(deadLetters.completed);
+
+    final Sink<Map.Entry<String, Throwable>> ignored = new Sink<>(0);
+    final Source<String> upstream = new Source<>();
+    final Flow.Processor<String, Integer> cancelled = ThrowableProcessors.map(Integer::valueOf, FailurePolicy.deadLetter(ignored));
+    upstream.subscribe(cancelled);
+    final Sink<Integer> rest = new Sink<>(Long.MAX_VALUE);
+    cancelled.subscribe(rest);
+    ignored.subscription.cancel();
+    upstream.emit("1", "南無", "2");
+    assertEquals(List.of(1, 2), rest.items);
+    assertTrue(ignored.items.isEmpty());
+    ignored.subscription.request(-1);
+    assertNull(ignored.error);
+  }
+
+  @Test
+  public void testAsync() throws InterruptedException {
+    final int size = 10_000;
+    final CountDownLatch latch = new CountDownLatch(1);
+    final List<Integer> items = new ArrayList<>();
+    final Flow.Processor<String, Integer> processor = ThrowableProcessors.map(Integer::valueOf, FailurePolicy.fallen((String t, Throwable e) -> -1), 16);
+    processor.subscribe(new Flow.Subscriber<Integer>() {
+      Flow.Subscription subscription;
+
+      @Override
+      public void onSubscribe(Flow.Subscription subscription) {
+        (this.subscription = subscription).request(1);
+      }
+
+      @Override
+      public void onNext(Integer item) {
+        items.add(item);
+        subscription.request(1);
+      }
+
+      @Override
+      public void onError(Throwable throwable) {
+        latch.countDown();
+      }
+
+      @Override
+      public void onComplete() {
+        latch.countDown();
+      }
+    });
+    try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>()) {
+      publisher.subscribe(processor);
+      IntStream.range(0, size).mapToObj((i) -> i % 100 == 0 ? "南無" : Integer.toString(i)).forEach(publisher::submit);
+    }
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertArrayEquals(IntStream.range(0, size).map((i) -> i % 100 == 0 ? -1 : i).boxed().toArray(), items.toArray());
+  }
+}
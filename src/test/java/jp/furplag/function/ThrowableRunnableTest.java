@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+public class ThrowableRunnableTest {
+
+  @Test
+  public void test() {
+    final ThrowableRunnable runnable = () -> {throw new IOException("南無");};
+    assertThrows(IOException.class, runnable::run);
+    final List<Object> results = new ArrayList<>();
+    ThrowableRunnable.of(runnable, (Throwable e) -> results.add(e.getMessage())).run();
+    ThrowableRunnable.of(runnable, () -> results.add("fallen")).run();
+    ThrowableRunnable.of(runnable, (Runnable) null).run();
+    ThrowableRunnable.of(runnable, (Consumer<Throwable>) null).run();
+    ThrowableRunnable.of(() -> results.add("done"), (Throwable e) -> results.add(e)).run();
+    assertEquals(List.of("南無", "fallen", "done"), results);
+    assertThrows(NullPointerException.class, () -> ThrowableRunnable.of(null, () -> {}));
+    assertThrows(NullPointerException.class, () -> ThrowableRunnable.of(null, (Throwable e) -> {}));
+  }
+
+  @Test
+  public void testOrElse() {
+    final List<Object> results = new ArrayList<>();
+    ThrowableRunnable.orElse(() -> Integer.valueOf("南無"), (Throwable e) -> results.add(e instanceof NumberFormatException));
+    ThrowableRunnable.orElse(() -> Integer.valueOf("南無"), () -> results.add("fallen"));
+    ThrowableRunnable.orElse(() -> Integer.valueOf("南無"), (Runnable) null);
+    ThrowableRunnable.orElse(() -> results.add(1), () -> results.add("fallen"));
+    assertEquals(List.of(true, "fallen", 1), results);
+    assertThrows(NullPointerException.class, () -> ThrowableRunnable.orElse(null, () -> {}));
+  }
+
+  @Test
+  public void testOrNot() {
+    final List<Object> results = new ArrayList<>();
+    ThrowableRunnable.orNot(() -> results.add(Integer.valueOf("南無")));
+    ThrowableRunnable.orNot(() -> results.add(Integer.valueOf("1")));
+    assertEquals(List.of(1), results);
+    assertThrows(NullPointerException.class, () -> ThrowableRunnable.orNot(null));
+  }
+}
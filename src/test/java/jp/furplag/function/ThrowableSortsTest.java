@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import jp.furplag.function.ThrowableComparators.FailurePolicy;
+
+public class ThrowableSortsTest {
+
+  @Test
+  public void test() {
+    final String[] elements = { "3", "南無", "1", null, "2", "1" };
+    final String[] first = elements.clone();
+    ThrowableSorts.sortByKey(first, Integer::valueOf, FailurePolicy.FIRST);
+    assertArrayEquals(new String[] { "南無", null, "1", "1", "2", "3" }, first);
+    final String[] last = elements.clone();
+    ThrowableSorts.sortByKey(last, Integer::valueOf, Comparator.reverseOrder(), FailurePolicy.LAST);
+    assertArrayEquals(new String[] { "3", "2", "1", "1", "南無", null }, last);
+    final String[] thrown = elements.clone();
+    assertThrows(NumberFormatException.class, () -> ThrowableSorts.sortByKey(thrown, Integer::valueOf, FailurePolicy.THROW));
+    assertArrayEquals(elements, thrown);
+
+    final String[] empty = {};
+    ThrowableSorts.sortByKey(empty, Integer::valueOf, FailurePolicy.THROW);
+    assertEquals(0, empty.length);
+    assertThrows(NullPointerException.class, () -> ThrowableSorts.sortByKey((String[]) null, Integer::valueOf, FailurePolicy.FIRST));
+    assertThrows(NullPointerException.class, () -> ThrowableSorts.sortByKey(elements, Integer::valueOf, null));
+  }
+
+  @Test
+  public void testOnce() {
+    final AtomicInteger extracted = new AtomicInteger();
+    final List<Integer> list = IntStream.range(0, 10000).map((x) -> (x * 7919) % 10000).boxed().collect(Collectors.toCollection(ArrayList::new));
+    ThrowableSorts.sortByKey(list, (Integer x) -> {
+      extracted.incrementAndGet();
+      if (x % 100 == 0) {
+        throw new IllegalArgumentException();
+      }
+      return -x;
+    }, FailurePolicy.LAST);
+    assertEquals(10000, extracted.get());
+    final List<Integer> expect = IntStream.range(0, 10000).map((x) -> 9999 - x).filter((x) -> x % 100 != 0).boxed().collect(Collectors.toList());
+    assertEquals(expect, list.subList(0, 9900));
+    assertEquals(IntStream.range(0, 10000).map((x) -> (x * 7919) % 10000).filter((x) -> x % 100 == 0).boxed().collect(Collectors.toList()), list.subList(9900, 10000));
+  }
+
+  @Test
+  public void testStable() {
+    final List<String> list = new LinkedList<>(Arrays.asList("b2", "a1", "b1", "x", "a2", "南"));
+    ThrowableSorts.sortByKey(list, (String x) -> x.substring(0, 1).repeat(x.length() > 1 ? 1 : 1 / 0), FailurePolicy.FIRST);
+    assertEquals(Arrays.asList("x", "南", "a1", "a2", "b2", "b1"), list);
+    assertThrows(UnsupportedOperationException.class, () -> ThrowableSorts.sortByKey(List.of("b", "a"), (String x) -> x, FailurePolicy.FIRST));
+  }
+
+  @Test
+  public void testNullKey() {
+    final String[] elements = { "b", "", "a", null };
+    ThrowableSorts.sortByKey(elements, (String x) -> x == null || x.isEmpty() ? null : x, FailurePolicy.LAST);
+    assertArrayEquals(new String[] { "a", "b", "", null }, elements, "null keys are failures of extraction in the natural order .");
+    assertThrows(NullPointerException.class, () -> ThrowableSorts.sortByKey(Arrays.asList("b", null), (String x) -> x, FailurePolicy.THROW));
+    final List<String> list = new ArrayList<>(Arrays.asList("b", null, "a"));
+    ThrowableSorts.sortByKey(list, (String x) -> x, Comparator.nullsFirst(Comparator.<String>naturalOrder()), FailurePolicy.THROW);
+    assertEquals(Arrays.asList(null, "a", "b"), list, "the comparator may order null keys .");
+  }
+
+  @Test
+  public void testParallel() {
+    final int length = IndexSort.GRANULARITY * 4 + 1;
+    final Integer[] elements = IntStream.range(0, length).map((x) -> (int) ((x * 7919L) % length)).boxed().toArray(Integer[]::new);
+    final int[] positions = new int[length];
+    IntStream.range(0, length).forEach((i) -> positions[elements[i]] = i);
+    ThrowableSorts.sortByKey(elements, (Integer x) -> x % 1000, FailurePolicy.THROW);
+    for (int i = 1; i < length; i++) {
+      final int previous = elements[i - 1];
+      final int current = elements[i];
+      assertTrue(previous % 1000 < current % 1000 || (previous % 1000 == current % 1000 && positions[previous] < positions[current]), previous + " , " + current);
+    }
+  }
+}
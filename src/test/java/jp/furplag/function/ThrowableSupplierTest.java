@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class ThrowableSupplierTest {
+
+  @Test
+  public void test() {
+    final ThrowableSupplier<Integer> supplier = () -> Integer.valueOf("南無");
+    assertThrows(NumberFormatException.class, supplier::get);
+    assertEquals(1, ThrowableSupplier.<Integer, Throwable>of(() -> 1, (Throwable e) -> -1).get());
+    assertEquals(-1, ThrowableSupplier.of(supplier, (Throwable e) -> e instanceof NumberFormatException ? -1 : 0).get());
+    assertEquals(-2, ThrowableSupplier.of(supplier, () -> -2).get());
+    assertNull(ThrowableSupplier.of(supplier, (Throwable e) -> null).get());
+    assertNull(ThrowableSupplier.of(supplier, (java.util.function.Supplier<Integer>) null).get());
+    assertThrows(NullPointerException.class, () -> ThrowableSupplier.of(null, () -> -2));
+
+    assertEquals(-3, ThrowableSupplier.orDefault(supplier, -3));
+    assertEquals(1, ThrowableSupplier.orDefault(() -> 1, -3));
+    assertEquals(-4, ThrowableSupplier.orElse(supplier, (Throwable e) -> -4));
+    assertEquals(-5, ThrowableSupplier.orElseGet(supplier, () -> -5));
+    assertNull(ThrowableSupplier.orElseGet(supplier, null));
+    assertNull(ThrowableSupplier.orNull(supplier));
+    assertEquals(6, ThrowableSupplier.orNull(() -> 6));
+    assertThrows(NullPointerException.class, () -> ThrowableSupplier.orNull(null));
+  }
+
+  @Test
+  public void testLazy() throws Throwable {
+    final AtomicInteger count = new AtomicInteger();
+    final ThrowableSupplier<Object> lazy = ThrowableSupplier.lazy(() -> {
+      count.incrementAndGet();
+      return new Object();
+    });
+    assertFalse(((Lazy<?>) lazy).isInitialized());
+    final Object result = lazy.get();
+    assertTrue(((Lazy<?>) lazy).isInitialized());
+    assertSame(result, lazy.get());
+    assertSame(result, lazy.getOrThrow());
+    assertEquals(1, count.get());
+
+    final ThrowableSupplier<Object> nullable = ThrowableSupplier.lazy(() -> count.incrementAndGet() > 0 ? null : "");
+    assertNull(nullable.get());
+    assertNull(nullable.get());
+    assertEquals(2, count.get());
+
+    assertThrows(NullPointerException.class, () -> ThrowableSupplier.lazy(null));
+    assertThrows(NullPointerException.class, () -> ThrowableSupplier.lazy(() -> 1, null));
+  }
+
+  @Test
+  public void testLazyConcurrently() throws InterruptedException {
+    final AtomicInteger count = new AtomicInteger();
+    final CountDownLatch started = new CountDownLatch(1);
+    final ThrowableSupplier<Object> lazy = ThrowableSupplier.lazy(() -> {
+      count.incrementAndGet();
+      Thread.sleep(20);
+      return new Object();
+    });
+    final Set<Object> results = ConcurrentHashMap.newKeySet();
+    final List<Thread> threads = IntStream.range(0, 16).mapToObj((x) -> new Thread(() -> {
+      ThrowableConsumer.orNot(started, CountDownLatch::await);
+      results.add(lazy.get());
+    })).collect(Collectors.toList());
+    threads.forEach(Thread::start);
+    started.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(1, count.get());
+    assertEquals(1, results.size());
+  }
+
+  @Test
+  public void testRetryPolicy() throws InterruptedException {
+    final AtomicInteger count = new AtomicInteger();
+    final ThrowableSupplier<Integer> failing = () -> {
+      if (count.incrementAndGet() < 3) {
+        throw new IOException(Integer.toString(count.get()));
+      }
+      return count.get();
+    };
+
+    final ThrowableSupplier<Integer> retry = ThrowableSupplier.lazy(failing, ThrowableSupplier.RetryPolicy.retry());
+    assertEquals("1", assertThrows(IOException.class, retry::get).getMessage());
+    assertEquals("2", assertThrows(IOException.class, retry::get).getMessage());
+    assertEquals(3, retry.get());
+    assertEquals(3, retry.get());
+    assertEquals(3, count.get());
+
+    count.set(0);
+    final ThrowableSupplier<Integer> cache = ThrowableSupplier.lazy(failing, ThrowableSupplier.RetryPolicy.cache());
+    final IOException failure = assertThrows(IOException.class, cache::get);
+    assertSame(failure, assertThrows(IOException.class, cache::get));
+    assertSame(failure, assertThrows(IOException.class, cache::get));
+    assertEquals(1, count.get());
+    assertFalse(((Lazy<?>) cache).isInitialized());
+
+    count.set(0);
+    final ThrowableSupplier<Integer> backoff = ThrowableSupplier.lazy(failing, ThrowableSupplier.RetryPolicy.retryAfter(Duration.ofMillis(50)));
+    assertEquals("1", assertThrows(IOException.class, backoff::get).getMessage());
+    assertEquals("1", assertThrows(IOException.class, backoff::get).getMessage());
+    assertEquals(1, count.get());
+    Thread.sleep(60);
+    assertEquals("2", assertThrows(IOException.class, backoff::get).getMessage());
+    Thread.sleep(60);
+    assertEquals(3, backoff.get());
+    assertEquals(3, count.get());
+
+    assertThrows(IllegalArgumentException.class, () -> ThrowableSupplier.RetryPolicy.retryAfter(Duration.ofMillis(-1)));
+    assertThrows(NullPointerException.class, () -> ThrowableSupplier.RetryPolicy.retryAfter(null));
+  }
+}
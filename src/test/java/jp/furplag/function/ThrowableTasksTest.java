@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class ThrowableTasksTest {
+
+  @Test
+  public void test() {
+    final List<String> elements = Arrays.asList("1", "2", "南無", "4", null);
+    final ThrowableTasks.Results<Integer> results = ThrowableTasks.mapConcurrently(elements, Integer::valueOf, 2);
+    assertEquals(5, results.size());
+    assertFalse(results.isSucceeded());
+    assertEquals(Arrays.asList(1, 2, null, 4, null), results.values());
+    assertEquals(Set.of(2, 4), results.failures().keySet());
+    assertTrue(results.failure(2) instanceof NumberFormatException);
+    assertNull(results.failure(0));
+    assertEquals(4, results.get(3));
+    assertThrows(NumberFormatException.class, () -> results.get(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> results.get(5));
+    assertThrows(UnsupportedOperationException.class, () -> results.values().set(0, 0));
+
+    assertTrue(ThrowableTasks.<String, Integer>mapConcurrently(Collections.emptyList(), Integer::valueOf, 1).isSucceeded());
+    assertThrows(IllegalArgumentException.class, () -> ThrowableTasks.mapConcurrently(elements, Integer::valueOf, 0));
+    assertThrows(NullPointerException.class, () -> ThrowableTasks.<String, Integer>mapConcurrently(null, Integer::valueOf, 1));
+    assertThrows(NullPointerException.class, () -> ThrowableTasks.mapConcurrently(elements, (ThrowableFunction<String, Integer>) null, 1));
+    assertThrows(NullPointerException.class, () -> ThrowableTasks.mapConcurrently(elements, Integer::valueOf, 1, null));
+  }
+
+  @Test
+  public void testOrder() {
+    final List<Integer> elements = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+    final ThrowableTasks.Results<Integer> results = ThrowableTasks.mapConcurrently(elements, (x) -> {
+      Thread.sleep(x % 3);
+      return x * 2;
+    }, 16);
+    assertTrue(results.isSucceeded());
+    assertArrayEquals(IntStream.range(0, 1000).map((x) -> x * 2).boxed().toArray(), results.values().toArray());
+  }
+
+  @Test
+  public void testConcurrency() {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger peak = new AtomicInteger();
+    final Set<String> threads = ConcurrentHashMap.newKeySet();
+    final ThrowableTasks.Results<Void> results = ThrowableTasks.forEachConcurrently(IntStream.range(0, 64).boxed().collect(Collectors.toList()), (x) -> {
+      peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+      threads.add(Thread.currentThread().getName());
+      Thread.sleep(5);
+      running.decrementAndGet();
+    }, 4, Executors.newCachedThreadPool());
+    assertTrue(results.isSucceeded());
+    assertTrue(peak.get() <= 4);
+    assertTrue(threads.size() <= 4);
+  }
+
+  @Test
+  public void testBi() {
+    final List<String> elements = Arrays.asList("10", "1a", "南無");
+    final ThrowableTasks.Results<Integer> results = ThrowableTasks.mapConcurrently(elements, 16, Integer::valueOf, 2);
+    assertEquals(Arrays.asList(16, 26, null), results.values());
+    assertEquals(Set.of(2), results.failures().keySet());
+    final Set<String> consumed = ConcurrentHashMap.newKeySet();
+    assertEquals(Set.of(2), ThrowableTasks.forEachConcurrently(elements, 16, (String t, Integer u) -> consumed.add(Integer.valueOf(t, u).toString()), 2).failures().keySet());
+    assertEquals(Set.of("16", "26"), consumed);
+  }
+
+  @Test
+  public void testTri() {
+    final List<Integer> elements = Arrays.asList(1, 2, 0);
+    final ThrowableTasks.Results<Integer> results = ThrowableTasks.mapConcurrently(elements, 10, 2, (Integer t, Integer u, Integer v) -> u * v / t, 3);
+    assertEquals(Arrays.asList(20, 10, null), results.values());
+    assertTrue(results.failure(2) instanceof ArithmeticException);
+    final AtomicInteger sum = new AtomicInteger();
+    assertEquals(Set.of(2), ThrowableTasks.forEachConcurrently(elements, 10, 2, (Integer t, Integer u, Integer v) -> sum.addAndGet(u * v / t), 3).failures().keySet());
+    assertEquals(30, sum.get());
+  }
+
+  @Test
+  public void testSubmitAll() {
+    final List<ThrowableCallable<Integer>> tasks = IntStream.range(0, 1000).mapToObj((x) -> (ThrowableCallable<Integer>) () -> 100 / (x % 10)).collect(Collectors.toList());
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int batchSize : new int[] { 1, 7, 64, 1000, Integer.MAX_VALUE }) {
+        final ThrowableTasks.Results<Integer> results = ThrowableTasks.submitAll(executor, tasks, batchSize);
+        assertEquals(1000, results.size());
+        assertEquals(IntStream.range(0, 1000).filter((x) -> x % 10 == 0).boxed().collect(Collectors.toSet()), results.failures().keySet());
+        assertTrue(results.failure(0) instanceof ArithmeticException);
+        IntStream.range(0, 1000).filter((x) -> x % 10 != 0).forEach((x) -> assertEquals(100 / (x % 10), results.get(x)));
+      }
+      assertTrue(ThrowableTasks.<Integer>submitAll(executor, tasks.subList(1, 10)).isSucceeded());
+      assertTrue(ThrowableTasks.<Integer>submitAll(executor, Collections.emptyList()).isSucceeded());
+      assertThrows(IllegalArgumentException.class, () -> ThrowableTasks.submitAll(executor, tasks, 0));
+      assertThrows(NullPointerException.class, () -> ThrowableTasks.submitAll(executor, null));
+      assertThrows(NullPointerException.class, () -> ThrowableTasks.submitAll(null, tasks));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testNested() {
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final List<ThrowableCallable<Integer>> tasks = IntStream.range(0, 4).mapToObj((x) -> (ThrowableCallable<Integer>) () -> ThrowableTasks.mapConcurrently(List.of(x, x), (Integer y) -> y * 2, 2, executor).values().stream().mapToInt(Integer::intValue).sum()).collect(Collectors.toList());
+      assertEquals(Arrays.asList(0, 4, 8, 12), ThrowableTasks.submitAll(executor, tasks, 1).values());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testRejected() {
+    final List<Runnable> accepted = new ArrayList<>();
+    final AtomicInteger processed = new AtomicInteger();
+    final Executor executor = (runnable) -> {
+      if (!accepted.isEmpty()) {
+        throw new RejectedExecutionException();
+      }
+      accepted.add(runnable);
+    };
+    assertThrows(RejectedExecutionException.class, () -> ThrowableTasks.forEachConcurrently(IntStream.range(0, 64).boxed().collect(Collectors.toList()), (Integer x) -> processed.incrementAndGet(), 4, executor));
+    accepted.forEach(Runnable::run);
+    assertEquals(0, processed.get(), "workers must stop pulling elements once the executor rejects .");
+  }
+}
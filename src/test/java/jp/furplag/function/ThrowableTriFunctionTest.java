@@ -18,12 +18,14 @@ package jp.furplag.function;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import jp.furplag.function.Trebuchet.TriFunction;
 import jp.furplag.function.misc.FunctionTest;
@@ -83,6 +85,26 @@ public class ThrowableTriFunctionTest implements FunctionTest {
     assertEquals("南", ThrowableTriFunction.applyOrDefault("南無阿弥陀仏", 0, 1, (String t, Integer u, Integer v) -> t.substring(u, v), "滅"));
   }
 
+  @Test
+  public void testFirstSuccessful() {
+    final ThrowableTriFunction<Integer, Integer, Integer, Integer> broken = (t, u, v) -> {throw new IllegalStateException();};
+    final ThrowableTriFunction<Integer, Integer, Integer, Integer> divide = (t, u, v) -> (t + u) / v;
+    final ThrowableTriFunction<Integer, Integer, Integer, Integer> sum = (t, u, v) -> t + u + v;
+    assertEquals(2, ThrowableTriFunction.firstSuccessful(Arrays.asList(broken, divide, sum), (e) -> -1).apply(1, 3, 2));
+    assertEquals(4, ThrowableTriFunction.firstSuccessful(Arrays.asList(broken, divide, sum), (e) -> -1).apply(1, 3, 0));
+    assertEquals(-1, ThrowableTriFunction.firstSuccessful(Arrays.asList(broken, divide, sum), (e) -> -1).apply(null, 3, 0));
+    assertEquals("NullPointerException", ThrowableTriFunction.firstSuccessful(Arrays.asList(broken, sum), (e) -> e.getClass().getSimpleName()).apply(null, 3, 0));
+    assertEquals((Integer) null, ThrowableTriFunction.firstSuccessful(Arrays.asList(broken, divide, sum), null).apply(null, 3, 0));
+    assertThrows(NullPointerException.class, () -> ThrowableTriFunction.firstSuccessful(Arrays.asList(broken, null), null));
+
+    final int[] calls = { 0 };
+    final ThrowableTriFunction<Integer, Integer, Integer, Integer> counted = (t, u, v) -> {calls[0]++; throw new IllegalStateException();};
+    final TriFunction<Integer, Integer, Integer, Integer> adaptive = ThrowableTriFunction.firstSuccessful(Arrays.asList(counted, divide, (t, u, v) -> (t + u) / v), (e) -> -1, true);
+    IntStream.range(0, Alternatives.INTERVAL * 4).forEach((i) -> assertEquals(i, adaptive.apply(i, 0, 1)));
+    assertTrue(calls[0] <= Alternatives.INTERVAL, "the broken primary must not be tried first any more .");
+    assertEquals(-1, adaptive.apply(null, 3, 0));
+  }
+
   @Test
   @Override
   public void testOf() {
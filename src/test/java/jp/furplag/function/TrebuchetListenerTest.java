@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2018+ furplag (https://github.com/furplag)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jp.furplag.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import jp.furplag.function.ThrowableProcessors.FailurePolicy;
+
+/**
+ * registers listeners in a child JVM, since listeners are loaded once per JVM .
+ *
+ * @author furplag
+ *
+ */
+public class TrebuchetListenerTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  public void testDisabled() {
+    assertFalse(Listeners.ENABLED);
+    assertEquals(-1, ThrowableFunction.<String, Integer, Throwable>of(Integer::valueOf, (t, e) -> -1).apply("南無"));
+  }
+
+  @Test
+  public void test() throws IOException, InterruptedException {
+    final Path services = Files.createDirectories(dir.resolve("META-INF/services"));
+    Files.write(services.resolve(TrebuchetListener.class.getName()), List.of(Throwing.class.getName(), "jp.furplag.function.NoSuchListener", Recorder.class.getName()), StandardCharsets.UTF_8);
+    final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    final Process process = new ProcessBuilder(java, "-cp", dir + File.pathSeparator + System.getProperty("java.class.path"), TrebuchetListenerTest.class.getName()).redirectErrorStream(true).start();
+    final List<String> lines = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      reader.lines().forEach(lines::add);
+    }
+    assertEquals(0, process.waitFor(), String.join("\n", lines));
+    assertEquals(List.of(
+      "invoke function", "success function", "function:1", "invoke function", "failure function NumberFormatException", "fallback function NumberFormatException", "function:-1"
+    , "consumer", "invoke consumer", "failure consumer ArithmeticException", "fallback consumer ArithmeticException"
+    , "invoke specialized", "failure specialized NumberFormatException", "fallback specialized NumberFormatException", "specialized:-2"
+    , "fallback function RejectedException", "rejected:-1"
+    , "invoke supplier", "failure supplier NumberFormatException", "fallback supplier NumberFormatException", "supplier:-3"
+    , "invoke callable", "success callable", "callable:4"
+    , "invoke runnable", "failure runnable IllegalStateException", "fallback runnable IllegalStateException", "runnable"
+    , "invoke function", "failure function NumberFormatException", "fallback function NumberFormatException", "orNull:null"
+    , "invoke function", "failure function NumberFormatException", "invoke hex", "failure hex NumberFormatException", "fallback chain NumberFormatException", "chain:-5"
+    , "invoke function", "failure function NumberFormatException", "fallback function NumberFormatException", "invoke negate", "success negate", "pipeline:-6"
+    , "invoke function", "success function", "invoke function", "failure function NumberFormatException", "fallback function NumberFormatException", "processor:[8, -7]"
+    ), lines);
+  }
+
+  /**
+   * runs wrappers in the child JVM .
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    final ThrowableFunction<String, Integer> parse = Integer::valueOf;
+    final ThrowableFunction<String, Integer> function = ThrowableFunction.of(parse, (String t, Throwable e) -> -1);
+    Recorder.names.put(parse, "function");
+    System.out.println("function:" + function.apply("1"));
+    System.out.println("function:" + function.apply("南無"));
+    final ThrowableConsumer<Integer> divide = (x) -> System.out.println(1 / x);
+    Recorder.names.put(divide, "consumer");
+    System.out.println("consumer");
+    ThrowableConsumer.of(divide, (Integer t, Throwable e) -> {}).accept(0);
+    final ThrowableFunction<String, Integer> specialized = Integer::valueOf;
+    Recorder.names.put(specialized, "specialized");
+    System.out.println("specialized:" + Trebuchet.specialize(specialized, (String t, Throwable e) -> -2).apply("南無"));
+    final ThrowableFunction<String, Integer> guarded = function.guardedBy((String t) -> false);
+    Recorder.silent.set(true);
+    for (int i = 0; i < 64; i++) {
+      guarded.apply("南無");
+    }
+    Recorder.silent.set(false);
+    System.out.println("rejected:" + guarded.apply("南無"));
+    final ThrowableSupplier<Integer> supplier = () -> Integer.valueOf("南無");
+    Recorder.names.put(supplier, "supplier");
+    System.out.println("supplier:" + ThrowableSupplier.of(supplier, () -> -3).get());
+    final ThrowableCallable<Integer> callable = () -> 4;
+    Recorder.names.put(callable, "callable");
+    System.out.println("callable:" + ThrowableCallable.of(callable, () -> -4).call());
+    final ThrowableRunnable runnable = () -> {throw new IllegalStateException();};
+    Recorder.names.put(runnable, "runnable");
+    ThrowableRunnable.of(runnable, () -> {}).run();
+    System.out.println("runnable");
+    System.out.println("orNull:" + ThrowableFunction.orNull("南無", parse));
+    final ThrowableFunction<String, Integer> hex = (t) -> Integer.valueOf(t, 16);
+    final List<ThrowableFunction<String, Integer>> chain = List.of(parse, hex);
+    Recorder.names.put(hex, "hex");
+    Recorder.names.put(chain, "chain");
+    System.out.println("chain:" + ThrowableFunction.firstSuccessful(chain, (String t, Throwable e) -> -5).apply("南無"));
+    final ThrowableFunction<Integer, Integer> negate = (x) -> -x;
+    Recorder.names.put(negate, "negate");
+    System.out.println("pipeline:" + ThrowablePipeline.of(parse, (String t, Throwable e) -> 6).then(negate).apply("南無"));
+    final ThrowableProcessorsTest.Source<String> source = new ThrowableProcessorsTest.Source<>();
+    final Flow.Processor<String, Integer> processor = ThrowableProcessors.map(parse, FailurePolicy.fallen((String t, Throwable e) -> -7));
+    source.subscribe(processor);
+    final ThrowableProcessorsTest.Sink<Integer> sink = new ThrowableProcessorsTest.Sink<>(Long.MAX_VALUE);
+    processor.subscribe(sink);
+    source.emit("8", "南無");
+    System.out.println("processor:" + sink.items);
+  }
+
+  public static class Recorder implements TrebuchetListener {
+
+    static final Map<Object, String> names = new IdentityHashMap<>();
+
+    static final ThreadLocal<Boolean> silent = ThreadLocal.withInitial(() -> false);
+
+    private static void print(final String event, final Object operation, final Throwable failure) {
+      if (!silent.get()) {
+        System.out.println(event + " " + names.get(operation) + (failure == null ? "" : " " + failure.getClass().getSimpleName()));
+      }
+    }
+
+    @Override
+    public void onFailure(final Object operation, final Throwable failure) {
+      print("failure", operation, failure);
+    }
+
+    @Override
+    public void onFallback(final Object operation, final Throwable failure) {
+      print("fallback", operation, failure);
+    }
+
+    @Override
+    public void onInvoke(final Object operation) {
+      print("invoke", operation, null);
+    }
+
+    @Override
+    public void onSuccess(final Object operation) {
+      print("success", operation, null);
+    }
+  }
+
+  public static class Throwing implements TrebuchetListener {
+
+    @Override
+    public void onInvoke(final Object operation) {
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public void onFallback(final Object operation, final Throwable failure) {
+      throw new IllegalStateException();
+    }
+  }
+}
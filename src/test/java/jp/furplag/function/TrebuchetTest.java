@@ -18,16 +18,28 @@ package jp.furplag.function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import jp.furplag.function.Trebuchet.TrinaryOperator;
 import lombok.AllArgsConstructor;
@@ -36,12 +48,46 @@ import lombok.ToString;
 
 public class TrebuchetTest {
 
+  @Test
+  public void defaults() {
+    assertSame(Trebuchet.defaults((Function<Object, Object>) null), Trebuchet.defaults((Function<String, Integer>) null));
+    assertSame(Trebuchet.defaults((Consumer<Object>) null), Trebuchet.defaults((BiConsumer<Object, Object>) null));
+    assertSame(Trebuchet.defaults((Consumer<Object>) null), Trebuchet.defaults((Trebuchet.TriConsumer<Object, Object, Object>) null));
+    assertSame(Trebuchet.defaults((Function<Object, Object>) null), Trebuchet.defaults((Supplier<Object>) null));
+    Stream.of(Trebuchet.defaults((Function<Object, Object>) null), Trebuchet.defaults((BiFunction<Object, Object, Object>) null), Trebuchet.defaults((Trebuchet.TriFunction<Object, Object, Object, Object>) null), Trebuchet.defaults((Predicate<Object>) null), Trebuchet.defaults((BiPredicate<Object, Object>) null), Trebuchet.defaults((Consumer<Object>) null))
+      .forEach((fallback) -> assertFalse(fallback.getClass().isSynthetic(), fallback.getClass().getName()));
+    assertNull(Trebuchet.defaults((Trebuchet.TriFunction<Object, Object, Object, Object>) null).apply(1, 2, 3));
+    assertFalse(Trebuchet.defaults((BiPredicate<Object, Object>) null).test(1, 2));
+    assertFalse(Fallbacks.triPredicate().test(1, 2, 3));
+    assertFalse(Fallbacks.booleanSupplier().getAsBoolean());
+  }
+
   @Test
   public void paintItGreen() {
     Trebuchet.TriPredicate<Integer, Integer, Integer> isOdd = (t, u, v) -> (t + u + v) % 2 != 0;
     assertThrows(UnsupportedOperationException.class, () -> isOdd.andThen((t) -> !t));
   }
 
+  @Test
+  public void rethrowLight() {
+    final IOException checked = new IOException("南無");
+    final StacklessException carrier = assertThrows(StacklessException.class, () -> {throw Trebuchet.rethrowLight(checked);});
+    assertSame(checked, carrier.getCause());
+    assertEquals(0, carrier.getStackTrace().length);
+    final IllegalStateException unchecked = new IllegalStateException();
+    assertSame(unchecked, assertThrows(IllegalStateException.class, () -> {throw Trebuchet.rethrowLight(unchecked);}));
+    final AssertionError error = new AssertionError();
+    assertSame(error, assertThrows(AssertionError.class, () -> {throw Trebuchet.rethrowLight(error);}));
+    assertThrows(NullPointerException.class, () -> {throw Trebuchet.rethrowLight(null);});
+    assertEquals(-1, ThrowableFunction.orElse("南無", (t) -> {
+      try {
+        return Integer.valueOf(t);
+      } catch (NumberFormatException e) {
+        throw Trebuchet.rethrowLight(new IOException(e));
+      }
+    }, (String t, StacklessException e) -> e.getCause() instanceof IOException ? -1 : 0));
+  }
+
   @Test
   public void sneakyThrow() throws Throwable {
     MethodHandle sneakyThrow = MethodHandles.privateLookupIn(Trebuchet.class, MethodHandles.lookup()).findStatic(Trebuchet.class, "sneakyThrow", MethodType.methodType(void.class, Throwable.class));
@@ -67,6 +113,34 @@ public class TrebuchetTest {
     // @formatter:on
   }
 
+  @Test
+  public void specialize() {
+    final ThrowableFunction<String, Integer> function = Trebuchet.specialize(Integer::valueOf, (String t, Throwable e) -> -1);
+    assertEquals(10, function.apply("10"));
+    assertEquals(-1, function.apply("南無"));
+    assertEquals((Integer) null, Trebuchet.specialize(Integer::valueOf, (BiFunction<String, Throwable, Integer>) null).apply("南無"));
+    assertEquals("20", Trebuchet.specialize(Integer::valueOf, (String t, Throwable e) -> -1, (x) -> Integer.toString(x * 2)).apply("10"));
+    assertThrows(NullPointerException.class, () -> Trebuchet.specialize((ThrowableFunction<String, Integer>) null, null));
+
+    final ThrowableBiFunction<String, Integer, Integer> biFunction = Trebuchet.specialize(Integer::valueOf, (String t, Integer u, Throwable e) -> -1);
+    assertEquals(26, biFunction.apply("1a", 16));
+    assertEquals(-1, biFunction.apply("南無", 10));
+    assertEquals("52", Trebuchet.specialize(Integer::valueOf, (String t, Integer u, Throwable e) -> -1, (x) -> Integer.toString(x * 2)).apply("1a", 16));
+
+    final ThrowableTriFunction<Integer, Integer, Integer, Integer> triFunction = Trebuchet.specialize((Integer t, Integer u, Integer v) -> (t + u) / v, (Throwable e) -> -1);
+    assertEquals(3, triFunction.apply(1, 2, 1));
+    assertEquals(-1, triFunction.apply(1, 2, 0));
+    assertEquals("6", Trebuchet.specialize((Integer t, Integer u, Integer v) -> (t + u) / v, (Throwable e) -> -1, (x) -> Integer.toString(x * 2)).apply(1, 2, 1));
+
+    if (Specializer.isSupported()) {
+      assertNotEquals(SpecializedFunction.class, function.getClass());
+      assertNotEquals(function.getClass(), Trebuchet.specialize(Integer::valueOf, (String t, Throwable e) -> -1).getClass());
+      assertNotEquals(SpecializedBiFunction.class, biFunction.getClass());
+      assertNotEquals(SpecializedTriFunction.class, triFunction.getClass());
+    }
+    assertEquals(Runtime.version().feature() >= 15, Specializer.isSupported());
+  }
+
   @Test
   public void test() {
     assertTrue(new Trebuchet() {} instanceof Trebuchet);
@@ -136,6 +210,74 @@ public class TrebuchetTest {
     assertEquals((A) null, TrinaryOperator.minBy(A::compareTo).apply((C) null, null, null));
   }
 
+  @Test
+  public void translate() {
+    final IOException checked = new IOException("南無");
+    final UncheckedIOException unchecked = Trebuchet.translate(checked, UncheckedIOException.class);
+    assertSame(checked, unchecked.getCause());
+    assertEquals("南無", unchecked.getMessage());
+    assertSame(unchecked, Trebuchet.translate(unchecked, RuntimeException.class));
+    final IllegalStateException illegal = Trebuchet.translate(checked, IllegalStateException.class);
+    assertSame(checked, illegal.getCause());
+    assertEquals("南無", illegal.getMessage());
+
+    final Exception cause = new Exception("阿弥陀仏");
+    assertThrows(IllegalArgumentException.class, () -> Trebuchet.translate(cause, UncheckedIOException.class));
+    final OnlyCause onlyCause = Trebuchet.translate(cause, OnlyCause.class);
+    assertSame(cause, onlyCause.getCause());
+    assertEquals(cause.toString(), onlyCause.getMessage());
+    final OnlyMessage message = Trebuchet.translate(cause, OnlyMessage.class);
+    assertEquals("阿弥陀仏", message.getMessage());
+    assertSame(cause, message.getCause());
+    assertSame(cause, Trebuchet.translate(cause, NoArgs.class).getCause());
+    assertSame(cause, Trebuchet.translate(cause, Narrowed.class).getCause());
+    assertTrue(Trebuchet.translate(checked, Narrowed.class).narrowed);
+    assertThrows(IllegalArgumentException.class, () -> Trebuchet.translate(cause, Unusable.class));
+    assertThrows(IllegalArgumentException.class, () -> Trebuchet.translate(cause, Abstract.class));
+    assertThrows(NullPointerException.class, () -> Trebuchet.translate(null, RuntimeException.class));
+    assertThrows(NullPointerException.class, () -> Trebuchet.translate(cause, null));
+  }
+
+  static class OnlyCause extends RuntimeException {
+    OnlyCause(Throwable cause) {
+      super(cause);
+    }
+  }
+
+  static class OnlyMessage extends Exception {
+    public OnlyMessage(String message) {
+      super(message);
+    }
+  }
+
+  static class NoArgs extends RuntimeException {}
+
+  static class Narrowed extends RuntimeException {
+    final boolean narrowed;
+
+    Narrowed(String message, IOException cause) {
+      super(message, cause);
+      narrowed = true;
+    }
+
+    Narrowed(Throwable cause) {
+      super(cause);
+      narrowed = false;
+    }
+  }
+
+  static class Unusable extends RuntimeException {
+    Unusable(int code) {
+      super(Integer.toString(code));
+    }
+  }
+
+  abstract static class Abstract extends RuntimeException {
+    Abstract(String message, Throwable cause) {
+      super(message, cause);
+    }
+  }
+
   @Test
   public void triPredicate() {
     assertFalse(((Trebuchet.TriPredicate<Integer, Integer, Integer>) (x, y, z) -> (x + y + z) % 2 == 0).test(0, 1, 2));